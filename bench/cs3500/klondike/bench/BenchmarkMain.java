@@ -0,0 +1,31 @@
+package cs3500.klondike.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so that every result is reported with the bytes
+ * allocated per operation (gc.alloc.rate.norm) next to its throughput.
+ */
+public final class BenchmarkMain {
+
+  /**
+   * Run the benchmarks.
+   * @param args any of the usual JMH command line options, such as a regular expression
+   *             choosing which benchmarks to run, or "-p variant=basic" to run one variant
+   * @throws CommandLineOptionException if the options are invalid
+   * @throws RunnerException if a benchmark fails to run
+   */
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+}
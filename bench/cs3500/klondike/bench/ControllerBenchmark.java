@@ -0,0 +1,241 @@
+package cs3500.klondike.bench;
+
+import cs3500.klondike.controller.KlondikeController;
+import cs3500.klondike.controller.KlondikeTextualController;
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw04.KlondikeCreator;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import java.io.StringReader;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a textual controller playing through scripts of commands, as a player at a
+ * terminal would, with everything it renders thrown away.
+ *
+ * <p>Every script is {@value #COMMANDS} commands long, counting each quit, and an operation
+ * is one command, so the throughput is in commands and gc.alloc.rate.norm is the bytes
+ * allocated per command. The bytes rendered are counted as playScript:rendered, in bytes per
+ * second, so dividing it by the throughput gives the bytes rendered per command.
+ * Each mix is played both with the full board rendered after every command and with only
+ * its changed lines rendered.</p>
+ *
+ * <p>The mix of commands is one of:</p>
+ * <ul>
+ *   <li>valid: a random walk through legal moves of one deal, undoing a move now and then
+ *   and whenever every legal move would end the game, then a quit</li>
+ *   <li>invalid: moves from piles which don't exist, undos with nothing to undo, and unknown
+ *   commands, none of which change the game, then a quit</li>
+ *   <li>quit: short games of a few commands each, half of which are quit in the middle of a
+ *   move's parameters</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+  static final int COMMANDS = 1000;
+  private static final int NUM_PILES = 7;
+  private static final int NUM_DRAW = 3;
+  private static final int MAX_REDRAWS = 2;
+  private static final long SEED = 42;
+  //one in this many commands of the valid mix is an undo
+  private static final int UNDO_EVERY = 10;
+  private static final String[] INVALID = {
+      "mpp 99 1 1", "md 99", "mpf 99 1", "mdf 99", "u", "bogus"};
+  private static final String[] QUIT_GAMES = {"dd\nbogus\nmd 99\nq\n", "dd\nmd 99\nu\nmpp 2 1 q\n"};
+  //commands in each game of QUIT_GAMES
+  private static final int QUIT_GAME_LENGTH = 4;
+
+  @Param({"basic", "limited", "whitehead"})
+  public String variant;
+
+  @Param({"valid", "invalid", "quit"})
+  public String mix;
+
+  @Param({"false", "true"})
+  public boolean incremental;
+
+  private GameType type;
+  private List<Card> deck;
+  private String[] games;
+  private final ByteCounter out = new ByteCounter();
+
+  /**
+   * Shuffle the deck and write the scripts of the mix being benchmarked.
+   * @throws IllegalArgumentException if the mix is unknown
+   */
+  @Setup
+  public void setUp() {
+    this.type = GameType.valueOf(this.variant.toUpperCase());
+    DeckBuilder builder = new DeckBuilder().setMax(13);
+    this.deck = DeckBuilder.shuffle(builder.addSuit("hearts").addSuit("clubs")
+        .addSuit("diamonds").addSuit("spades").getDeck(), new SplittableRandom(SEED));
+    switch (this.mix) {
+      case "valid":
+        this.games = new String[] {validScript()};
+        break;
+      case "invalid":
+        StringBuilder script = new StringBuilder();
+        for (int command = 0; command < COMMANDS - 1; command++) {
+          script.append(INVALID[command % INVALID.length]).append('\n');
+        }
+        this.games = new String[] {script.append("q\n").toString()};
+        break;
+      case "quit":
+        this.games = new String[COMMANDS / QUIT_GAME_LENGTH];
+        for (int game = 0; game < this.games.length; game++) {
+          this.games[game] = QUIT_GAMES[game % QUIT_GAMES.length];
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown mix " + this.mix);
+    }
+  }
+
+  /**
+   * Play legal moves of the deal at random, never making a move which ends the game, and
+   * write the command for each.
+   * @throws IllegalStateException if the deal has no move which doesn't end the game
+   */
+  private String validScript() {
+    SearchableKlondike game = create();
+    game.startGame(this.deck, false, NUM_PILES, NUM_DRAW);
+    SplittableRandom random = new SplittableRandom(SEED);
+    StringBuilder script = new StringBuilder();
+    int[] moves = new int[1024];
+    for (int command = 0; command < COMMANDS - 1; command++) {
+      String next = null;
+      if (random.nextInt(UNDO_EVERY) != 0) {
+        int count = game.generateMoves(moves);
+        int first = count == 0 ? 0 : random.nextInt(count);
+        for (int i = 0; i < count && next == null; i++) {
+          int move = moves[(first + i) % count];
+          game.tryMove(move);
+          if (game.isGameOver()) {
+            game.undo();
+          } else {
+            next = command(move);
+          }
+        }
+      }
+      if (next == null) {
+        if (!game.undo()) {
+          throw new IllegalStateException("Every move of the deal ends the game");
+        }
+        next = "u";
+      }
+      script.append(next).append('\n');
+    }
+    return script.append("q\n").toString();
+  }
+
+  /**
+   * Returns the command a player would type to make the given move.
+   */
+  private static String command(int move) {
+    int source = Move.source(move) + 1;
+    int destination = Move.destination(move) + 1;
+    switch (Move.type(move)) {
+      case Move.PILE:
+        return "mpp " + source + " " + Move.count(move) + " " + destination;
+      case Move.DRAW:
+        return "md " + destination;
+      case Move.TO_FOUNDATION:
+        return "mpf " + source + " " + destination;
+      case Move.DRAW_TO_FOUNDATION:
+        return "mdf " + destination;
+      default:
+        return "dd";
+    }
+  }
+
+  /**
+   * Create an unstarted game of the variant being benchmarked.
+   */
+  private SearchableKlondike create() {
+    return this.type == GameType.LIMITED ? new LimitedDrawKlondike(MAX_REDRAWS)
+        : KlondikeCreator.create(this.type);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COMMANDS)
+  public long playScript(Rendered rendered) {
+    long before = this.out.bytes;
+    for (String game : this.games) {
+      KlondikeController controller = new KlondikeTextualController(new StringReader(game),
+          this.out, this.incremental);
+      controller.playGame(create(), this.deck, false, NUM_PILES, NUM_DRAW);
+    }
+    rendered.rendered += this.out.bytes - before;
+    return this.out.bytes;
+  }
+
+  /**
+   * The bytes the controller rendered during one iteration, which JMH reports next to the
+   * throughput as a rate in the same unit of time.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Rendered {
+    public long rendered;
+
+    /**
+     * Start counting from zero at the start of each iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+      this.rendered = 0;
+    }
+  }
+
+  /**
+   * An appendable which throws away everything appended to it, counting the bytes it would
+   * take in UTF-8.
+   */
+  private static final class ByteCounter implements Appendable {
+    private long bytes;
+
+    @Override
+    public Appendable append(CharSequence csq) {
+      return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+      for (int i = start; i < end; i++) {
+        append(csq.charAt(i));
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+      //a surrogate pair counts 2 + 2, the 4 bytes of the code point it encodes
+      this.bytes += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+      return this;
+    }
+  }
+}
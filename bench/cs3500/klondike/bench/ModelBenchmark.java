@@ -0,0 +1,169 @@
+package cs3500.klondike.bench;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw04.KlondikeCreator;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the model operations every player, solver and view calls most, for each
+ * variant, deck size and number of cascade piles.
+ *
+ * <p>Every benchmark but {@link #startGame()} works on the same deal, the first seed at
+ * which both a pile move and a draw move are legal. Moves are undone in the same operation
+ * so that each operation starts from that deal, which means the move benchmarks measure a
+ * move and its undo together.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+  private static final int NUM_DRAW = 3;
+  private static final int MAX_REDRAWS = 2;
+  private static final int MAX_SEEDS = 10000;
+
+  @Param({"basic", "limited", "whitehead"})
+  public String variant;
+
+  @Param({"40", "52", "104"})
+  public int deckSize;
+
+  @Param({"4", "7"})
+  public int numPiles;
+
+  private GameType type;
+  private List<Card> deck;
+  private long seed;
+  private SearchableKlondike game;
+  private KlondikeState dealt;
+  private int pileMove;
+  private int drawMove;
+
+  /**
+   * Deal the game the benchmarks play, and find the moves they make.
+   * @throws IllegalStateException if no deal within the first seeds has both moves
+   */
+  @Setup
+  public void setUp() {
+    this.type = GameType.valueOf(this.variant.toUpperCase());
+    this.deck = deck(this.deckSize);
+    int[] moves = new int[1024];
+    for (this.seed = 0; this.seed < MAX_SEEDS; this.seed++) {
+      this.game = create();
+      this.game.startGame(this.deck, this.seed, this.numPiles, NUM_DRAW);
+      this.pileMove = 0;
+      this.drawMove = 0;
+      int count = this.game.generateMoves(moves);
+      for (int i = 0; i < count; i++) {
+        if (Move.type(moves[i]) == Move.PILE && this.pileMove == 0) {
+          this.pileMove = moves[i];
+        } else if (Move.type(moves[i]) == Move.DRAW && this.drawMove == 0) {
+          this.drawMove = moves[i];
+        }
+      }
+      if (this.pileMove != 0 && this.drawMove != 0) {
+        this.dealt = this.game.snapshot();
+        return;
+      }
+    }
+    throw new IllegalStateException("No deal has both a pile move and a draw move");
+  }
+
+  /**
+   * Build a deck of the given size from equal runs of each suit, using two copies of every
+   * suit for decks larger than 52 cards.
+   */
+  private static List<Card> deck(int size) {
+    int run = Math.min(13, size / 4);
+    int copies = size / (4 * run);
+    if (copies * 4 * run != size) {
+      throw new IllegalArgumentException("No deck of equal runs has " + size + " cards");
+    }
+    DeckBuilder builder = new DeckBuilder().setMax(run);
+    for (int copy = 0; copy < copies; copy++) {
+      builder.addSuit("hearts").addSuit("clubs").addSuit("diamonds").addSuit("spades");
+    }
+    return builder.getDeck();
+  }
+
+  /**
+   * Create an unstarted game of the variant being benchmarked.
+   */
+  private SearchableKlondike create() {
+    return this.type == GameType.LIMITED ? new LimitedDrawKlondike(MAX_REDRAWS)
+        : KlondikeCreator.create(this.type);
+  }
+
+  @Benchmark
+  public SearchableKlondike startGame() {
+    SearchableKlondike started = create();
+    started.startGame(this.deck, this.seed, this.numPiles, NUM_DRAW);
+    return started;
+  }
+
+  @Benchmark
+  public boolean movePile() {
+    this.game.movePile(Move.source(this.pileMove), Move.count(this.pileMove),
+        Move.destination(this.pileMove));
+    return this.game.undo();
+  }
+
+  @Benchmark
+  public boolean moveDraw() {
+    this.game.moveDraw(Move.destination(this.drawMove));
+    return this.game.undo();
+  }
+
+  /**
+   * Discard every card in the draw pile once, then go back to the deal.
+   */
+  @Benchmark
+  public int discardDrawCycle() {
+    int size = this.game.getDrawPileSize();
+    for (int i = 0; i < size; i++) {
+      this.game.discardDraw();
+    }
+    this.game.restore(this.dealt);
+    return size;
+  }
+
+  @Benchmark
+  public List<Card> getDrawCards() {
+    return this.game.getDrawCards();
+  }
+
+  @Benchmark
+  public int getScore() {
+    return this.game.getScore();
+  }
+
+  @Benchmark
+  public int getNumRows() {
+    return this.game.getNumRows();
+  }
+
+  @Benchmark
+  public boolean isGameOver() {
+    return this.game.isGameOver();
+  }
+}
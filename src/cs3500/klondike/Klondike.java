@@ -5,12 +5,22 @@ import cs3500.klondike.controller.KlondikeTextualController;
 import cs3500.klondike.model.hw02.KlondikeModel;
 import cs3500.klondike.model.hw04.KlondikeCreator;
 import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.player.PlayerCreator;
+import cs3500.klondike.player.PlayerCreator.Players;
+import cs3500.klondike.player.PlayerCreator.Strategy;
+import cs3500.klondike.sim.DealRater;
+import cs3500.klondike.sim.GameSettings;
+import cs3500.klondike.sim.Simulation;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Main Klondike class to allow playing Basic, Limited Draw, or Whitehead Klondike from the
- * command line.
+ * command line, to simulate many games played by an automated player, or to rate how hard
+ * many deals are.
  */
 public final class Klondike {
 
@@ -23,6 +33,11 @@ public final class Klondike {
    *             After the required argument(s) there are 2 more optional integer arguments.
    *             The first is the number of cascade piles to play with
    *             The second is the number of draw cards to show at a time.
+   *             If the last argument is "--incremental" then only the lines of the board which
+   *             change are redrawn, which needs a terminal that understands ANSI escapes.
+   *             If the first argument is "sim" then games are simulated instead, as described
+   *             by {@link #simulate(String[])}, and if it is "rate" then deals are rated, as
+   *             described by {@link #rate(String[])}.
    */
   public static void main(String[] argv) {
     int numCascades = 7;
@@ -33,11 +48,19 @@ public final class Klondike {
     if (argv.length == 0) {
       throw new IllegalArgumentException("Needs at least one argument");
     }
-    HashMap<String, GameType> gameTypes = new HashMap<>();
-    gameTypes.put("basic", GameType.BASIC);
-    gameTypes.put("limited", GameType.LIMITED);
-    gameTypes.put("whitehead", GameType.WHITEHEAD);
-    GameType gametype = gameTypes.get(argv[readIndex]);
+    if (argv[0].equals("sim")) {
+      simulate(argv);
+      return;
+    }
+    if (argv[0].equals("rate")) {
+      rate(argv);
+      return;
+    }
+    boolean incremental = argv[argv.length - 1].equals("--incremental");
+    if (incremental) {
+      argv = Arrays.copyOf(argv, argv.length - 1);
+    }
+    GameType gametype = readIndex < argv.length ? gameTypes().get(argv[readIndex]) : null;
     readIndex++;
     if (gametype == null) {
       throw new IllegalArgumentException("Must specify a valid game type");
@@ -70,7 +93,210 @@ public final class Klondike {
     KlondikeModel model = KlondikeCreator.create(gametype);
     KlondikeController controller = new KlondikeTextualController(
         new InputStreamReader(System.in),
-        System.out);
+        System.out, incremental);
     controller.playGame(model, model.getDeck(), true, numCascades, numDraw);
   }
+
+  /**
+   * Play many games with an automated player without rendering them, and print how well the
+   * player did.
+   * @param argv "sim" followed by one of "basic", "limited", or "whitehead", then any of the
+   *             options "--games N", "--threads T", "--strategy X", "--seed S", "--piles P",
+   *             "--draw D", "--redraws R", and "--moves M", which set the number of games, the
+   *             threads to play them on, the player ("greedy" by default, "random", or
+   *             "mcts", which searches for 100ms a move), the seed of the first game, the
+   *             number of cascade piles and visible draw cards, the redraws allowed in limited
+   *             games, and the moves after which a game is given up
+   * @throws IllegalArgumentException if the arguments are invalid
+   */
+  private static void simulate(String[] argv) {
+    GameType gametype = argv.length > 1 ? gameTypes().get(argv[1]) : null;
+    if (gametype == null) {
+      throw new IllegalArgumentException("sim must be followed by a valid game type");
+    }
+    Options options = parseOptions(argv, 2);
+    int numThreads = takeThreads(options, 1);
+    try (Players players = PlayerCreator.players(options.strategy, numThreads)) {
+      Simulation simulation = new Simulation(gameSettings(gametype, options), players)
+          .setNumThreads(numThreads);
+      for (String name : options.values.keySet()) {
+        long value = options.values.get(name);
+        switch (name) {
+          case "games":
+            simulation.setNumGames(value);
+            break;
+          case "seed":
+            simulation.setFirstSeed(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option --" + name);
+        }
+      }
+      System.out.println(simulation.run());
+    }
+  }
+
+  /**
+   * Rate how hard a range of deals is, appending a line per deal to a file, and carrying on
+   * from where an earlier run into the same file stopped.
+   * @param argv "rate" followed by one of "basic", "limited", or "whitehead" and the file to
+   *             write to, then any of the options "--seed S", "--count N", "--threads T",
+   *             "--nodes L", "--plays G", "--strategy X", "--piles P", "--draw D",
+   *             "--redraws R", and "--moves M", which set the first seed and number of seeds
+   *             to rate (1000 from seed 0 by default), the threads to rate them on, the nodes
+   *             to search per deal, how many times and with which player each deal is played
+   *             ("greedy" by default; "random" and "mcts" are worth playing more than once),
+   *             the number of cascade piles and visible draw cards, the redraws allowed in
+   *             limited games, and the moves after which a game is given up
+   * @throws IllegalArgumentException if the arguments are invalid
+   */
+  private static void rate(String[] argv) {
+    GameType gametype = argv.length > 2 ? gameTypes().get(argv[1]) : null;
+    if (gametype == null) {
+      throw new IllegalArgumentException("rate must be followed by a valid game type and file");
+    }
+    Options options = parseOptions(argv, 3);
+    int numThreads = takeThreads(options, Runtime.getRuntime().availableProcessors());
+    try (Players players = PlayerCreator.players(options.strategy, numThreads)) {
+      DealRater rater = new DealRater(gameSettings(gametype, options), players)
+          .setNumThreads(numThreads);
+      long firstSeed = 0;
+      long count = 1000;
+      for (String name : options.values.keySet()) {
+        long value = options.values.get(name);
+        switch (name) {
+          case "seed":
+            firstSeed = value;
+            break;
+          case "count":
+            count = value;
+            break;
+          case "nodes":
+            rater.setNodeLimit(value);
+            break;
+          case "plays":
+            rater.setBotGames(options.intValue(name));
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option --" + name);
+        }
+      }
+      int rated = rater.rate(firstSeed, count, Path.of(argv[2]));
+      System.out.println("Rated " + rated + " deals, " + (count - rated)
+          + " were already rated in " + argv[2]);
+    }
+  }
+
+  /**
+   * The options given on the command line after the game type.
+   */
+  private static final class Options {
+    //the value of every integer option by its name without the dashes
+    private final HashMap<String, Long> values = new HashMap<>();
+    private Strategy strategy = Strategy.GREEDY;
+
+    /**
+     * Returns the value of the given option, which must fit in an int.
+     * @throws IllegalArgumentException if the value is too large or small for an int
+     */
+    private int intValue(String name) {
+      try {
+        return Math.toIntExact(this.values.get(name));
+      } catch (ArithmeticException e) {
+        throw new IllegalArgumentException("--" + name + " must be followed by a 32-bit integer");
+      }
+    }
+  }
+
+  /**
+   * Read command line options given as "--name value" pairs, where every value is an integer
+   * except that of "--strategy", which names a player.
+   * @param argv the command line arguments
+   * @param start the index of the first option
+   * @return the options, with the greedy strategy unless another is given
+   * @throws IllegalArgumentException if the options are invalid
+   */
+  private static Options parseOptions(String[] argv, int start) {
+    HashMap<String, Strategy> strategies = new HashMap<>();
+    strategies.put("random", Strategy.RANDOM);
+    strategies.put("greedy", Strategy.GREEDY);
+    strategies.put("mcts", Strategy.MCTS);
+    Options options = new Options();
+    for (int i = start; i < argv.length; i += 2) {
+      if (i + 1 >= argv.length || !argv[i].startsWith("--")) {
+        throw new IllegalArgumentException("Options must be given as --name value");
+      }
+      String name = argv[i].substring(2);
+      if (name.equals("strategy")) {
+        options.strategy = strategies.get(argv[i + 1]);
+        if (options.strategy == null) {
+          throw new IllegalArgumentException("Unknown strategy " + argv[i + 1]);
+        }
+        continue;
+      }
+      try {
+        options.values.put(name, Long.parseLong(argv[i + 1]));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(argv[i] + " must be followed by a valid integer");
+      }
+    }
+    return options;
+  }
+
+  /**
+   * Make the settings of the games to simulate or rate, taking the options which set them out
+   * of the given options.
+   * @param gametype the rules to play by
+   * @param options the command line options, which lose "piles", "draw", "redraws", and
+   *                "moves"
+   * @return the settings, with the defaults of {@link GameSettings} for any option not given
+   * @throws IllegalArgumentException if an option is invalid
+   */
+  private static GameSettings gameSettings(GameType gametype, Options options) {
+    GameSettings settings = new GameSettings(gametype);
+    if (options.values.containsKey("piles")) {
+      settings.setNumPiles(options.intValue("piles"));
+    }
+    if (options.values.containsKey("draw")) {
+      settings.setNumDraw(options.intValue("draw"));
+    }
+    if (options.values.containsKey("redraws")) {
+      settings.setMaxRedraws(options.intValue("redraws"));
+    }
+    if (options.values.containsKey("moves")) {
+      settings.setMoveLimit(options.intValue("moves"));
+    }
+    options.values.keySet().removeAll(List.of("piles", "draw", "redraws", "moves"));
+    return settings;
+  }
+
+  /**
+   * Take the number of threads to play on out of the given options. The players are made
+   * before the rest of the options are read, since they need to know how many threads will
+   * share the processors.
+   * @param options the command line options, which lose "threads"
+   * @param defaultThreads the number of threads if the option isn't given
+   * @return the number of threads
+   * @throws IllegalArgumentException if the option isn't a positive 32-bit integer
+   */
+  private static int takeThreads(Options options, int defaultThreads) {
+    int numThreads = options.values.containsKey("threads") ? options.intValue("threads")
+        : defaultThreads;
+    options.values.remove("threads");
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    return numThreads;
+  }
+
+  /**
+   * Returns the game type named by each command line argument.
+   */
+  private static HashMap<String, GameType> gameTypes() {
+    HashMap<String, GameType> gameTypes = new HashMap<>();
+    gameTypes.put("basic", GameType.BASIC);
+    gameTypes.put("limited", GameType.LIMITED);
+    gameTypes.put("whitehead", GameType.WHITEHEAD);
+    return gameTypes;
+  }
 }
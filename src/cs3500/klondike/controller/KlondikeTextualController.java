@@ -2,10 +2,17 @@ package cs3500.klondike.controller;
 
 import cs3500.klondike.model.hw02.Card;
 import cs3500.klondike.model.hw02.KlondikeModel;
+import cs3500.klondike.model.hw02.MoveResult;
 
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.GreedyPlayer;
+import cs3500.klondike.sim.WinOddsEstimator;
+import cs3500.klondike.view.IncrementalTextualView;
 import cs3500.klondike.view.KlondikeTextualView;
 import cs3500.klondike.view.TextualView;
+import java.io.Closeable;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -17,8 +24,12 @@ import java.util.regex.Pattern;
  * KlondikeModel interface.
  */
 public class KlondikeTextualController implements cs3500.klondike.controller.KlondikeController {
+  //how long the odds command may take to answer
+  private static final Duration ODDS_BUDGET = Duration.ofMillis(250);
   private final Readable in;
   private final Appendable out;
+  private final boolean incremental;
+  private final WinOddsEstimator odds = new WinOddsEstimator(GreedyPlayer::new);
 
   /**
    * Constructs a controller for a game of Klondike controlled and displayed using text.
@@ -27,12 +38,27 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
    * @throws IllegalArgumentException if either parameter is null
    */
   public KlondikeTextualController(Readable r, Appendable a) throws IllegalArgumentException {
+    this(r, a, false);
+  }
+
+  /**
+   * Constructs a controller for a game of Klondike controlled using text, and displayed either
+   * in full after every command, or on an ANSI terminal by rewriting only the lines of the
+   * board which changed, as described by {@link IncrementalTextualView}.
+   * @param r A non-null readable that is the source of text input
+   * @param a A non-null appendable to which output from the game will be pushed
+   * @param incremental true to render only the changes to the board
+   * @throws IllegalArgumentException if either r or a is null
+   */
+  public KlondikeTextualController(Readable r, Appendable a, boolean incremental)
+      throws IllegalArgumentException {
     try {
       this.in = Objects.requireNonNull(r);
       this.out = Objects.requireNonNull(a);
     } catch (NullPointerException e) {
       throw new IllegalArgumentException("Both inputs must be non-null", e);
     }
+    this.incremental = incremental;
   }
 
   /**
@@ -48,6 +74,26 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
     }
   }
 
+  /**
+   * Output the message explaining why a move was not made, if it wasn't.
+   * @param result the result of attempting the move
+   * @param invalidMessage message for a move that is not physically possible
+   * @param illegalMessage message for a move that is not allowable
+   * @throws IllegalStateException if the write to the appendable fails for any reason
+   */
+  private void reportInvalid(MoveResult result, String invalidMessage, String illegalMessage) {
+    switch (result) {
+      case SUCCESS:
+        break;
+      case INVALID_ARGUMENT:
+        output(invalidMessage);
+        break;
+      default:
+        output(illegalMessage);
+        break;
+    }
+  }
+
   /**
    * Waits until the user enters a valid parameter for their move or quits.
    * A valid parameter is an integer, q or Q
@@ -94,7 +140,25 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
     } catch (IllegalArgumentException e) {
       throw new IllegalStateException("The game cannot be started");
     }
-    TextualView view = new KlondikeTextualView(model, out);
+    TextualView view = incremental ? new IncrementalTextualView(model, out)
+        : new KlondikeTextualView(model, out);
+    try {
+      play(model, deck, view);
+    } finally {
+      //stop the threads the odds command played samples on, if it was used
+      odds.close();
+    }
+  }
+
+  /**
+   * Read and carry out commands until the started game ends or is quit, then render the final
+   * state of the game.
+   * @param model the started game
+   * @param deck the deck the game was dealt from
+   * @param view the view to render the game with
+   * @throws IllegalStateException if the controller cannot interact with the player
+   */
+  private void play(KlondikeModel model, List<Card> deck, TextualView view) {
     Scanner scan = new Scanner(in);
     boolean quitGame = false;
     while (!model.isGameOver() && !quitGame) {
@@ -124,15 +188,11 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
             params[curParam] = userInput.get() - 1;
           }
           if (!quitGame) {
-            try {
-              model.movePile(params[0], params[1] + 1, params[2]);
-            } catch (IllegalArgumentException e) {
-              output("Invalid move. Play again. There is no source pile at the given location "
-                  + "with enough cards to move, or there is no distinct destination pile at the "
-                  + "given location.");
-            } catch (IllegalStateException e) {
-              output("Invalid move. Play again. That move is not allowable.");
-            }
+            reportInvalid(model.tryMovePile(params[0], params[1] + 1, params[2]),
+                "Invalid move. Play again. There is no source pile at the given location "
+                + "with enough cards to move, or there is no distinct destination pile at the "
+                + "given location.",
+                "Invalid move. Play again. That move is not allowable.");
           }
           break;
         case "md":
@@ -141,15 +201,11 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
             quitGame = true;
           } else {
             params[0] = userInput.get() - 1;
-            try {
-              model.moveDraw(params[0]);
-            } catch (IllegalArgumentException e) {
-              output("Invalid move. Play again. There is no destination pile "
-                  + "at the given location.");
-            } catch (IllegalStateException e) {
-              output("Invalid move. Play again. There are no draw cards or "
-                  + "that move is not allowable.");
-            }
+            reportInvalid(model.tryMoveDraw(params[0]),
+                "Invalid move. Play again. There is no destination pile "
+                + "at the given location.",
+                "Invalid move. Play again. There are no draw cards or "
+                + "that move is not allowable.");
           }
           break;
         case "mpf":
@@ -163,14 +219,10 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
             params[curParam] = userInput.get() - 1;
           }
           if (!quitGame) {
-            try {
-              model.moveToFoundation(params[0], params[1]);
-            } catch (IllegalArgumentException e) {
-              output("Invalid move. Play again. One of the pile numbers is invalid.");
-            } catch (IllegalStateException e) {
-              output("Invalid move. Play again. The source pile is empty or "
-                  + "that move is not allowable.");
-            }
+            reportInvalid(model.tryMoveToFoundation(params[0], params[1]),
+                "Invalid move. Play again. One of the pile numbers is invalid.",
+                "Invalid move. Play again. The source pile is empty or "
+                + "that move is not allowable.");
           }
           break;
         case "mdf":
@@ -179,22 +231,29 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
             quitGame = true;
           } else {
             params[0] = userInput.get() - 1;
-            try {
-              model.moveDrawToFoundation(params[0]);
-            } catch (IllegalArgumentException e) {
-              output("Invalid move. Play again. There is no destination pile "
-                  + "at the given location.");
-            } catch (IllegalStateException e) {
-              output("Invalid move. Play again. There are no draw cards or "
-                  + "that move is not allowable.");
-            }
+            reportInvalid(model.tryMoveDrawToFoundation(params[0]),
+                "Invalid move. Play again. There is no destination pile "
+                + "at the given location.",
+                "Invalid move. Play again. There are no draw cards or "
+                + "that move is not allowable.");
           }
           break;
         case "dd":
-          try {
-            model.discardDraw();
-          } catch (IllegalStateException e) {
-            output("Invalid move. Play again. There are no more draw cards to discard.");
+          reportInvalid(model.tryDiscardDraw(),
+              "Invalid move. Play again. There are no more draw cards to discard.",
+              "Invalid move. Play again. There are no more draw cards to discard.");
+          break;
+        case "u":
+          if (!model.undo()) {
+            output("Invalid move. Play again. There are no moves to undo.");
+          }
+          break;
+        case "odds":
+          if (model instanceof SearchableKlondike) {
+            output("Chance of winning: "
+                + odds.estimate((SearchableKlondike) model, ODDS_BUDGET));
+          } else {
+            output("Odds are not available for this game.");
           }
           break;
         case "q":
@@ -202,7 +261,8 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
           quitGame = true;
           break;
         default:
-          output("Invalid move. Play again. Commands must be mpp, md, mpf, mdf, or dd");
+          output("Invalid move. Play again. Commands must be mpp, md, mpf, mdf, or dd, or u "
+              + "to undo, or odds to estimate the chance of winning");
           break;
       }
     }
@@ -228,5 +288,12 @@ public class KlondikeTextualController implements cs3500.klondike.controller.Klo
         output("Game over. Score: " + model.getScore());
       }
     }
+    if (view instanceof Closeable) {
+      try {
+        ((Closeable) view).close();
+      } catch (IOException e) {
+        throw new IllegalStateException("Appendable unable to transmit view", e);
+      }
+    }
   }
 }
@@ -2,13 +2,16 @@ package cs3500.klondike.model.hw02;
 
 import cs3500.klondike.model.hw04.BaseKlondike;
 import cs3500.klondike.model.hw04.BasicLimitedHelper;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.SearchableKlondike;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * A class representing a model for a basic game of klondike solitaire.
  * INVARIANT: The top card of a cascade pile is visible.
  */
-public class BasicKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
+public class BasicKlondike implements SearchableKlondike {
   private final BaseKlondike delegate;
   private final BasicLimitedHelper helper;
 
@@ -20,6 +23,15 @@ public class BasicKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     this.helper = new BasicLimitedHelper(this.delegate);
   }
 
+  /**
+   * Create a BasicKlondike model playing the given game.
+   * @param delegate the game to play, which has either not started or been dealt by a helper
+   */
+  private BasicKlondike(BaseKlondike delegate) {
+    this.delegate = delegate;
+    this.helper = new BasicLimitedHelper(this.delegate);
+  }
+
   /**
    * Return a deck containing the cards this game can work with.
    * @return A standard 52 card deck if the game hasn't started
@@ -130,6 +142,57 @@ public class BasicKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     helper.moveDrawToFoundation(foundationPile);
   }
 
+  /**
+   * Attempts to move the requested number of cards from the source pile to the destination
+   * pile, if allowable by the rules of the game, without throwing exceptions.
+   * @param srcPile  the 0-based index (from the left) of the pile to be moved
+   * @param numCards how many cards to be moved from that pile
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 moved cards
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMovePile(int srcPile, int numCards, int destPile) {
+    return helper.tryMovePile(srcPile, numCards, destPile);
+  }
+
+  /**
+   * Attempts to move the topmost draw-card to the destination pile without throwing
+   * exceptions.
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMoveDraw(int destPile) {
+    return helper.tryMoveDraw(destPile);
+  }
+
+  /**
+   * Attempts to move the top card of the given pile to the requested foundation pile without
+   * throwing exceptions.
+   * @param srcPile        the 0-based index (from the left) of the pile to move a card
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMoveToFoundation(int srcPile, int foundationPile) {
+    return helper.tryMoveToFoundation(srcPile, foundationPile);
+  }
+
+  /**
+   * Attempts to move the topmost draw-card directly to a foundation pile without throwing
+   * exceptions.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMoveDrawToFoundation(int foundationPile) {
+    return helper.tryMoveDrawToFoundation(foundationPile);
+  }
+
   /**
    * Discards the topmost draw-card.
    * @throws IllegalStateException if the game hasn't been started yet
@@ -137,7 +200,38 @@ public class BasicKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
    */
   @Override
   public void discardDraw() throws IllegalStateException {
-    delegate.discardDraw();
+    tryDiscardDraw().throwIfFailed("There is no face up draw card to discard");
+  }
+
+  /**
+   * Attempts to discard the topmost draw-card without throwing exceptions.
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryDiscardDraw() {
+    return helper.tryDiscardDraw();
+  }
+
+  /**
+   * Take back the last move made that hasn't been undone, along with any card it turned face
+   * up.
+   * @return true if a move was undone, false if there was no move to undo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean undo() throws IllegalStateException {
+    return helper.undo();
+  }
+
+  /**
+   * Make the last move undone by {@link #undo()} again, as long as no other move has been
+   * made since.
+   * @return true if a move was redone, false if there was no move to redo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean redo() throws IllegalStateException {
+    return helper.redo();
   }
 
   /**
@@ -172,6 +266,75 @@ public class BasicKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     return delegate.getNumDraw();
   }
 
+  /**
+   * Write every move that is legal in the current position to the given buffer.
+   * @param moves the buffer to write packed moves to
+   * @return the number of legal moves, which may be greater than moves.length
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if moves is null
+   */
+  @Override
+  public int generateMoves(int[] moves) throws IllegalStateException {
+    return helper.generateMoves(moves);
+  }
+
+  /**
+   * Create an independent copy of this game in its current state. Moves made on the copy
+   * don't affect this game and vice versa.
+   * @return a copy of this game
+   */
+  @Override
+  public BasicKlondike copy() {
+    return new BasicKlondike(delegate.copy());
+  }
+
+  /**
+   * Take a snapshot of the current state of this game.
+   * @return an immutable snapshot of this game
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public KlondikeState snapshot() throws IllegalStateException {
+    return delegate.snapshot();
+  }
+
+  /**
+   * Returns a 64-bit hash of the current position, which is kept up to date as moves are made.
+   * @param canonical whether to ignore the order of the cascade and foundation piles
+   * @return the hash of the position
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public long positionHash(boolean canonical) throws IllegalStateException {
+    return delegate.positionHash(canonical);
+  }
+
+  /**
+   * Return this game to the position recorded in the given snapshot.
+   * @param state a snapshot taken from a basic game with the same number of piles
+   *              dealt from the same cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if the state is null or from an incompatible game
+   */
+  @Override
+  public void restore(KlondikeState state)
+      throws IllegalStateException, IllegalArgumentException {
+    helper.restore(state);
+  }
+
+  /**
+   * Shuffle the face down cascade cards and the draw cards after the visible ones among the
+   * places they could be.
+   * @param random the source of the shuffle
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if random is null
+   */
+  @Override
+  public void shuffleHiddenCards(SplittableRandom random)
+      throws IllegalStateException, IllegalArgumentException {
+    helper.shuffleHiddenCards(random);
+  }
+
   /**
    * Signal if the game is over or not.  A game is over if there are no more
    * possible moves to be made, or draw cards to be used (or discarded).
@@ -245,6 +408,11 @@ public class BasicKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     return delegate.getCardAt(foundationPile);
   }
 
+  @Override
+  public int readBoard(int[] board) throws IllegalStateException {
+    return delegate.readBoard(board);
+  }
+
   /**
    * Returns the currently available draw cards.
    * There should be at most {@link KlondikeModel#getNumDraw} cards (the number
@@ -267,4 +435,14 @@ public class BasicKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
   public int getNumFoundations() throws IllegalStateException {
     return delegate.getNumFoundations();
   }
+
+  /**
+   * Return the number of cards left in the draw pile, including the ones not yet visible.
+   * @return the size of the draw pile
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getDrawPileSize() throws IllegalStateException {
+    return delegate.getDrawPileSize();
+  }
 }
@@ -0,0 +1,143 @@
+package cs3500.klondike.model.hw02;
+
+/**
+ * Utility class for reading the array filled by {@link KlondikeModel#readBoard(int[])}, which
+ * holds everything a player can see of a game as ints.
+ *
+ * <p>The array starts with the number of cascade piles P, the number of foundation piles F,
+ * and the number of visible draw cards D. Next come P + 1 indices into the array: where the
+ * cells of each pile start, and where the cells of the last pile end, which is also the length
+ * of the whole board. Then come the top card code of each foundation, or {@link #EMPTY} if it
+ * has none, then the codes of the visible draw cards, first the one to be drawn next, and
+ * finally the cells of each pile in turn from its bottom card to its top card. A cell holds
+ * the code of a face up card, or {@link #FACE_DOWN} for a face down card, whose card isn't
+ * revealed.</p>
+ *
+ * <p>Codes are described by {@link CardCode}. No card has the code 0, so both markers are 0,
+ * and a cell or foundation holds a card exactly when it isn't 0.</p>
+ */
+public class BoardLayout {
+  /**
+   * The value of a foundation with no cards on it.
+   */
+  public static final int EMPTY = 0;
+
+  /**
+   * The value of a cell holding a face down card.
+   */
+  public static final int FACE_DOWN = 0;
+
+  private static final int PILES = 0;
+  private static final int FOUNDATIONS = 1;
+  private static final int DRAW = 2;
+  private static final int PILE_STARTS = 3;
+
+  /**
+   * Returns the length of the board of a game of the given size.
+   * @param numPiles the number of cascade piles
+   * @param numFoundations the number of foundation piles
+   * @param numDraw the number of visible draw cards
+   * @param numCells the number of cards in all the cascade piles
+   * @return the number of ints needed to hold the board
+   */
+  public static int length(int numPiles, int numFoundations, int numDraw, int numCells) {
+    return firstCell(numPiles, numFoundations, numDraw) + numCells;
+  }
+
+  /**
+   * Write the header of a board, and where every pile's cells start, from the given pile
+   * heights. Used by implementations of {@link KlondikeModel#readBoard(int[])}.
+   * @param board the board to write to, which must be long enough
+   * @param numPiles the number of cascade piles
+   * @param numFoundations the number of foundation piles
+   * @param numDraw the number of visible draw cards
+   * @param heights the height of each pile
+   */
+  public static void writeHeader(int[] board, int numPiles, int numFoundations, int numDraw,
+                                 int[] heights) {
+    board[PILES] = numPiles;
+    board[FOUNDATIONS] = numFoundations;
+    board[DRAW] = numDraw;
+    int start = firstCell(numPiles, numFoundations, numDraw);
+    for (int pile = 0; pile < numPiles; pile++) {
+      board[PILE_STARTS + pile] = start;
+      start += heights[pile];
+    }
+    board[PILE_STARTS + numPiles] = start;
+  }
+
+  /**
+   * Returns the index of the first cell of a board of the given size.
+   */
+  private static int firstCell(int numPiles, int numFoundations, int numDraw) {
+    return PILE_STARTS + numPiles + 1 + numFoundations + numDraw;
+  }
+
+  /**
+   * Returns the number of cascade piles on the given board.
+   * @param board a board filled by {@link KlondikeModel#readBoard(int[])}
+   * @return the number of piles
+   */
+  public static int numPiles(int[] board) {
+    return board[PILES];
+  }
+
+  /**
+   * Returns the number of foundation piles on the given board.
+   * @param board a board filled by {@link KlondikeModel#readBoard(int[])}
+   * @return the number of foundations
+   */
+  public static int numFoundations(int[] board) {
+    return board[FOUNDATIONS];
+  }
+
+  /**
+   * Returns the number of visible draw cards on the given board.
+   * @param board a board filled by {@link KlondikeModel#readBoard(int[])}
+   * @return the number of visible draw cards
+   */
+  public static int numDraw(int[] board) {
+    return board[DRAW];
+  }
+
+  /**
+   * Returns the number of cards in the given pile.
+   * @param board a board filled by {@link KlondikeModel#readBoard(int[])}
+   * @param pile the 0-based index of the pile
+   * @return the height of the pile
+   */
+  public static int pileHeight(int[] board, int pile) {
+    return board[PILE_STARTS + pile + 1] - board[PILE_STARTS + pile];
+  }
+
+  /**
+   * Returns the index in the board of the given foundation.
+   * @param board a board filled by {@link KlondikeModel#readBoard(int[])}
+   * @param foundation the 0-based index of the foundation pile
+   * @return the index of the foundation's top card code
+   */
+  public static int foundationIndex(int[] board, int foundation) {
+    return PILE_STARTS + board[PILES] + 1 + foundation;
+  }
+
+  /**
+   * Returns the index in the board of the given visible draw card.
+   * @param board a board filled by {@link KlondikeModel#readBoard(int[])}
+   * @param draw the 0-based index of the draw card, 0 being the next to be drawn
+   * @return the index of the draw card's code
+   */
+  public static int drawIndex(int[] board, int draw) {
+    return PILE_STARTS + board[PILES] + 1 + board[FOUNDATIONS] + draw;
+  }
+
+  /**
+   * Returns the index in the board of the given cell.
+   * @param board a board filled by {@link KlondikeModel#readBoard(int[])}
+   * @param pile the 0-based index of the pile
+   * @param row the 0-based index of the card in the pile, counting from its bottom card
+   * @return the index of the cell
+   */
+  public static int cellIndex(int[] board, int pile, int row) {
+    return board[PILE_STARTS + pile] + row;
+  }
+}
@@ -41,4 +41,13 @@ public interface Card {
    *
    */
   public int compareValue(Card other);
+
+  /**
+   * Returns the compact integer encoding of this card as described by {@link CardCode}.
+   * Two cards with the same suit and value always have the same code.
+   * @return the code of this card
+   */
+  public default int getCode() {
+    return CardCode.encode(getSuit(), getPointValue());
+  }
 }
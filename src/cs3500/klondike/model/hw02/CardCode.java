@@ -0,0 +1,138 @@
+package cs3500.klondike.model.hw02;
+
+/**
+ * Utility class for the compact integer encoding of cards.
+ *
+ * <p>A card code packs the index of the card's suit into bits 4-5 and its value (1-13) into
+ * bits 0-3. Suits are indexed in the order ♣, ♠, ♡, ♢, so the black suits have bit 5 clear and
+ * the red suits have it set. Because the value occupies the low bits, the code of the next card
+ * of the same suit is always one greater, which makes foundation checks a single comparison.</p>
+ *
+ * <p>Every code is strictly less than {@link #NUM_CODES}, so codes can be used directly as
+ * indices into small lookup tables.</p>
+ */
+public class CardCode {
+  /**
+   * One greater than the largest possible card code.
+   */
+  public static final int NUM_CODES = 64;
+
+  /**
+   * The number of distinct suits.
+   */
+  public static final int NUM_SUITS = 4;
+
+  /**
+   * The highest card value (King).
+   */
+  public static final int MAX_VALUE = 13;
+
+  private static final char[] SUITS = {'♣', '♠', '♡', '♢'};
+  private static final int VALUE_BITS = 4;
+  private static final int VALUE_MASK = 0xF;
+  private static final int SUIT_MASK = 0x3;
+  private static final int RED_BIT = 0x20;
+
+  /**
+   * Encode a suit symbol and value into a card code.
+   * @param suit one of the suit symbols ♣, ♠, ♡, or ♢
+   * @param value the card value from 1 (Ace) to 13 (King)
+   * @return the code for the card
+   * @throws IllegalArgumentException if the suit is not a suit symbol
+   *                                  or the value is out of range
+   */
+  public static int encode(char suit, int value) {
+    return encode(suitIndex(suit), value);
+  }
+
+  /**
+   * Encode a suit index and value into a card code.
+   * @param suitIndex the index of the suit, 0-3 in the order ♣, ♠, ♡, ♢
+   * @param value the card value from 1 (Ace) to 13 (King)
+   * @return the code for the card
+   * @throws IllegalArgumentException if either argument is out of range
+   */
+  public static int encode(int suitIndex, int value) {
+    if (suitIndex < 0 || suitIndex >= NUM_SUITS || value < 1 || value > MAX_VALUE) {
+      throw new IllegalArgumentException("Not a valid suit and value");
+    }
+    return suitIndex << VALUE_BITS | value;
+  }
+
+  /**
+   * Returns the index of the given suit symbol.
+   * @param suit one of the suit symbols ♣, ♠, ♡, or ♢
+   * @return 0-3 in the order ♣, ♠, ♡, ♢
+   * @throws IllegalArgumentException if the suit is not a suit symbol
+   */
+  public static int suitIndex(char suit) {
+    switch (suit) {
+      case '♣':
+        return 0;
+      case '♠':
+        return 1;
+      case '♡':
+        return 2;
+      case '♢':
+        return 3;
+      default:
+        throw new IllegalArgumentException("Not a valid suit symbol");
+    }
+  }
+
+  /**
+   * Returns the value of the card with the given code.
+   * @param code a card code
+   * @return the value from 1 (Ace) to 13 (King)
+   */
+  public static int valueOf(int code) {
+    return code & VALUE_MASK;
+  }
+
+  /**
+   * Returns the suit index of the card with the given code.
+   * @param code a card code
+   * @return 0-3 in the order ♣, ♠, ♡, ♢
+   */
+  public static int suitIndexOf(int code) {
+    return code >> VALUE_BITS & SUIT_MASK;
+  }
+
+  /**
+   * Returns the suit symbol of the card with the given code.
+   * @param code a card code
+   * @return one of ♣, ♠, ♡, or ♢
+   */
+  public static char suitOf(int code) {
+    return SUITS[suitIndexOf(code)];
+  }
+
+  /**
+   * Determines if the card with the given code is a heart or diamond.
+   * @param code a card code
+   * @return true if the card is red
+   */
+  public static boolean isRed(int code) {
+    return (code & RED_BIT) != 0;
+  }
+
+  /**
+   * Determines if the two cards with the given codes are the same color.
+   * @param code1 a card code
+   * @param code2 another card code
+   * @return true if both cards are red or both cards are black
+   */
+  public static boolean sameColor(int code1, int code2) {
+    return ((code1 ^ code2) & RED_BIT) == 0;
+  }
+
+  /**
+   * Determines if the two cards with the given codes are the same suit.
+   * @param code1 a card code
+   * @param code2 another card code
+   * @return true if both cards share a suit
+   */
+  public static boolean sameSuit(int code1, int code2) {
+    return suitIndexOf(code1) == suitIndexOf(code2);
+  }
+}
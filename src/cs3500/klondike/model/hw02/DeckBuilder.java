@@ -3,6 +3,7 @@ package cs3500.klondike.model.hw02;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Builder class for making a deck of cards.
@@ -72,4 +73,24 @@ public class DeckBuilder {
     }
     return deck;
   }
+
+  /**
+   * Create a shuffled copy of the given deck using the given random source.
+   * The same deck and random source state always produce the same order.
+   * @param deck the deck to shuffle, which is not modified
+   * @param random the random source to shuffle with
+   * @return a new list containing the cards of deck in shuffled order
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public static List<Card> shuffle(List<Card> deck, SplittableRandom random) {
+    if (deck == null || random == null) {
+      throw new IllegalArgumentException("Deck and random source must not be null");
+    }
+    List<Card> shuffled = new ArrayList<>(deck);
+    for (int i = shuffled.size() - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      shuffled.set(j, shuffled.set(i, shuffled.get(j)));
+    }
+    return shuffled;
+  }
 }
@@ -1,6 +1,7 @@
 package cs3500.klondike.model.hw02;
 
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Represents the primary model interface for playing a game of Klondike.
@@ -49,6 +50,46 @@ public interface KlondikeModel {
   void startGame(List<Card> deck, boolean shuffle, int numPiles, int numDraw)
       throws IllegalArgumentException, IllegalStateException;
 
+  /**
+   * Deal a new game of Klondike from the given deck shuffled by the given random source.
+   * The same deck, random source state, and sizes always produce the same deal, and the
+   * given deck is not modified. Each call only touches the given random source, so games
+   * can be dealt concurrently by giving each thread its own source (e.g. by
+   * {@link SplittableRandom#split()}).
+   *
+   * @param deck      the deck to be shuffled and dealt
+   * @param random    the random source used to shuffle the deck
+   * @param numPiles  number of piles to be dealt
+   * @param numDraw   maximum number of draw cards available at a time
+   * @throws IllegalStateException if the game has already started
+   * @throws IllegalArgumentException if the deck or random source is null, the deck is
+   *                  invalid, a full cascade cannot be dealt with the given sizes,
+   *                  or another input is invalid
+   */
+  default void startGame(List<Card> deck, SplittableRandom random, int numPiles, int numDraw)
+      throws IllegalArgumentException, IllegalStateException {
+    startGame(DeckBuilder.shuffle(deck, random), false, numPiles, numDraw);
+  }
+
+  /**
+   * Deal a new game of Klondike from the given deck shuffled deterministically by the given
+   * seed. The same deck, seed, and sizes always produce the same deal, and the given deck is
+   * not modified.
+   *
+   * @param deck      the deck to be shuffled and dealt
+   * @param seed      the seed for the shuffle
+   * @param numPiles  number of piles to be dealt
+   * @param numDraw   maximum number of draw cards available at a time
+   * @throws IllegalStateException if the game has already started
+   * @throws IllegalArgumentException if the deck is null or invalid,
+   *                  a full cascade cannot be dealt with the given sizes,
+   *                  or another input is invalid
+   */
+  default void startGame(List<Card> deck, long seed, int numPiles, int numDraw)
+      throws IllegalArgumentException, IllegalStateException {
+    startGame(deck, new SplittableRandom(seed), numPiles, numDraw);
+  }
+
   /**
    * Moves the requested number of cards from the source pile to the destination pile,
    * if allowable by the rules of the game.
@@ -111,6 +152,114 @@ public interface KlondikeModel {
    */
   void discardDraw() throws IllegalStateException;
 
+  /**
+   * Attempts to move the requested number of cards from the source pile to the destination
+   * pile, reporting failure with a result instead of an exception. The default implementation
+   * calls {@link #movePile}; implementations should override it to avoid creating exceptions.
+   * @param srcPile  the 0-based index (from the left) of the pile to be moved
+   * @param numCards how many cards to be moved from that pile
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 moved cards
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  default MoveResult tryMovePile(int srcPile, int numCards, int destPile) {
+    try {
+      movePile(srcPile, numCards, destPile);
+      return MoveResult.SUCCESS;
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return MoveResult.of(e);
+    }
+  }
+
+  /**
+   * Attempts to move the topmost draw-card to the destination pile, reporting failure with
+   * a result instead of an exception. The default implementation calls {@link #moveDraw};
+   * implementations should override it to avoid creating exceptions.
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  default MoveResult tryMoveDraw(int destPile) {
+    try {
+      moveDraw(destPile);
+      return MoveResult.SUCCESS;
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return MoveResult.of(e);
+    }
+  }
+
+  /**
+   * Attempts to move the top card of the given pile to the requested foundation pile,
+   * reporting failure with a result instead of an exception. The default implementation calls
+   * {@link #moveToFoundation}; implementations should override it to avoid creating exceptions.
+   * @param srcPile        the 0-based index (from the left) of the pile to move a card
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  default MoveResult tryMoveToFoundation(int srcPile, int foundationPile) {
+    try {
+      moveToFoundation(srcPile, foundationPile);
+      return MoveResult.SUCCESS;
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return MoveResult.of(e);
+    }
+  }
+
+  /**
+   * Attempts to move the topmost draw-card directly to a foundation pile, reporting failure
+   * with a result instead of an exception. The default implementation calls
+   * {@link #moveDrawToFoundation}; implementations should override it to avoid creating
+   * exceptions.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  default MoveResult tryMoveDrawToFoundation(int foundationPile) {
+    try {
+      moveDrawToFoundation(foundationPile);
+      return MoveResult.SUCCESS;
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      return MoveResult.of(e);
+    }
+  }
+
+  /**
+   * Attempts to discard the topmost draw-card, reporting failure with a result instead of an
+   * exception. The default implementation calls {@link #discardDraw}; implementations should
+   * override it to avoid creating exceptions.
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  default MoveResult tryDiscardDraw() {
+    try {
+      discardDraw();
+      return MoveResult.SUCCESS;
+    } catch (IllegalStateException e) {
+      return MoveResult.of(e);
+    }
+  }
+
+  /**
+   * Takes back the last move made that hasn't already been taken back, restoring the game to
+   * exactly the state it was in before the move. The default implementation keeps no history
+   * and never undoes anything.
+   * @return true if a move was undone, false if there is no move to undo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  default boolean undo() throws IllegalStateException {
+    return false;
+  }
+
+  /**
+   * Makes the last move taken back by {@link #undo()} again, as long as no other move has
+   * been made since. The default implementation keeps no history and never redoes anything.
+   * @return true if a move was redone, false if there is no move to redo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  default boolean redo() throws IllegalStateException {
+    return false;
+  }
+
   /**
    * Returns the number of rows currently in the game.
    * @return the height of the current table of cards
@@ -202,6 +351,53 @@ public interface KlondikeModel {
    */
   List<Card> getDrawCards() throws IllegalStateException;
 
+  /**
+   * Write everything a player can see of the game to the given array in one call, laid out as
+   * described by {@link BoardLayout}, so that reading the whole board takes one pass rather
+   * than a call per card. If the board doesn't fit in the array nothing is written, and the
+   * returned length tells the caller how large an array is needed. The default implementation
+   * reads the board through the other methods of this interface; implementations should
+   * override it to copy their own state directly.
+   * @param board the array to fill from its start
+   * @return the length of the board, which may be greater than board.length
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if board is null
+   */
+  default int readBoard(int[] board) throws IllegalStateException {
+    if (board == null) {
+      throw new IllegalArgumentException("Board cannot be null");
+    }
+    int numPiles = getNumPiles();
+    int numFoundations = getNumFoundations();
+    List<Card> drawCards = getDrawCards();
+    int[] heights = new int[numPiles];
+    int numCells = 0;
+    for (int pile = 0; pile < numPiles; pile++) {
+      heights[pile] = getPileHeight(pile);
+      numCells += heights[pile];
+    }
+    int length = BoardLayout.length(numPiles, numFoundations, drawCards.size(), numCells);
+    if (length > board.length) {
+      return length;
+    }
+    BoardLayout.writeHeader(board, numPiles, numFoundations, drawCards.size(), heights);
+    for (int foundation = 0; foundation < numFoundations; foundation++) {
+      Card top = getCardAt(foundation);
+      board[BoardLayout.foundationIndex(board, foundation)] =
+          top == null ? BoardLayout.EMPTY : top.getCode();
+    }
+    for (int draw = 0; draw < drawCards.size(); draw++) {
+      board[BoardLayout.drawIndex(board, draw)] = drawCards.get(draw).getCode();
+    }
+    for (int pile = 0; pile < numPiles; pile++) {
+      for (int row = 0; row < heights[pile]; row++) {
+        board[BoardLayout.cellIndex(board, pile, row)] = isCardVisible(pile, row)
+            ? getCardAt(pile, row).getCode() : BoardLayout.FACE_DOWN;
+      }
+    }
+    return length;
+  }
+
   /**
    * Return the number of foundation piles in this game.
    * @return the number of foundation piles
@@ -0,0 +1,59 @@
+package cs3500.klondike.model.hw02;
+
+/**
+ * The outcome of attempting a move with one of the non-throwing move methods of
+ * {@link KlondikeModel}. Each failure corresponds to the exception the matching
+ * exception throwing method uses to signal it.
+ */
+public enum MoveResult {
+  /**
+   * The move was made.
+   */
+  SUCCESS,
+
+  /**
+   * The game hasn't been started yet. Signalled by an {@link IllegalStateException}.
+   */
+  NOT_STARTED,
+
+  /**
+   * The move is not physically possible, for example a pile number is invalid. Signalled by an
+   * {@link IllegalArgumentException}.
+   */
+  INVALID_ARGUMENT,
+
+  /**
+   * The move is not allowable by the rules of the game, or there is no card to move.
+   * Signalled by an {@link IllegalStateException}.
+   */
+  ILLEGAL_MOVE;
+
+  /**
+   * Throw the exception that the exception throwing move methods use to signal this result.
+   * @param message the message to use if this result is an invalid or illegal move
+   * @throws IllegalStateException if this is {@link #NOT_STARTED} or {@link #ILLEGAL_MOVE}
+   * @throws IllegalArgumentException if this is {@link #INVALID_ARGUMENT}
+   */
+  public void throwIfFailed(String message) {
+    switch (this) {
+      case NOT_STARTED:
+        throw new IllegalStateException("Game has not yet started");
+      case INVALID_ARGUMENT:
+        throw new IllegalArgumentException(message);
+      case ILLEGAL_MOVE:
+        throw new IllegalStateException(message);
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Determine the result signalled by an exception thrown by an exception throwing move method.
+   * @param e the exception thrown by the move
+   * @return {@link #INVALID_ARGUMENT} for an {@link IllegalArgumentException}
+   *         and {@link #ILLEGAL_MOVE} otherwise
+   */
+  public static MoveResult of(RuntimeException e) {
+    return e instanceof IllegalArgumentException ? INVALID_ARGUMENT : ILLEGAL_MOVE;
+  }
+}
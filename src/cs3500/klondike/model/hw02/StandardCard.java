@@ -1,17 +1,16 @@
 package cs3500.klondike.model.hw02;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 /**
  * A standard playing card Ace - King in one of the four suits hearts, diamonds, spades, or clubs.
  * Can return its name, value
  */
 public class StandardCard implements Card {
+  private static final String[] VALUE_NAMES =
+      {"A", "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K"};
   private final String stringValue;
   private final int intValue;
   private final char suit;
+  private final int code;
 
   /**
    * Construct a new card from a value and a suit.
@@ -25,20 +24,26 @@ public class StandardCard implements Card {
       throw new IllegalArgumentException("Arguments cannot be null");
     }
 
-    List<String> validValues = new ArrayList<>(List.of("A"));
-    for (int i = 2; i <= 10 ; i++) {
-      validValues.add(Integer.toString(i));
-    }
-    validValues.addAll(Arrays.asList("J", "Q", "K"));
+    this.intValue = chooseValue(value);
+    this.stringValue = VALUE_NAMES[this.intValue - 1];
+    this.suit = chooseSuit(suit);
+    this.code = CardCode.encode(this.suit, this.intValue);
+  }
 
-    if (validValues.contains(value.toUpperCase())) {
-      this.stringValue = value.toUpperCase();
-      this.intValue = validValues.indexOf(value.toUpperCase()) + 1;
-    } else {
-      throw new IllegalArgumentException("Value must be A, K, Q, "
-          + "J, or an integer 2-10");
+  /**
+   * Returns the point value of the given card value name.
+   * @param value One of A, K, Q, J, or an integer 2-10, case insensitive
+   * @return the point value from 1 (Ace) to 13 (King)
+   * @throws IllegalArgumentException if value is not a valid card value
+   */
+  private static int chooseValue(String value) {
+    for (int i = 0; i < VALUE_NAMES.length; i++) {
+      if (VALUE_NAMES[i].equalsIgnoreCase(value)) {
+        return i + 1;
+      }
     }
-    this.suit = chooseSuit(suit);
+    throw new IllegalArgumentException("Value must be A, K, Q, "
+        + "J, or an integer 2-10");
   }
 
   /**
@@ -88,15 +93,15 @@ public class StandardCard implements Card {
    */
   public boolean equals(Object o) {
     return o instanceof Card
-        && ((Card) o).toString().equals(this.toString());
+        && ((Card) o).getCode() == this.code;
   }
 
   /**
    * Creates a hashcode for this object based on its suit and value.
-   * @return the hashCode of this.toString()
+   * @return the code of this card
    */
   public int hashCode() {
-    return this.toString().hashCode() * 7777;
+    return this.code;
   }
 
   /**
@@ -115,6 +120,14 @@ public class StandardCard implements Card {
     return this.suit;
   }
 
+  /**
+   * Returns the compact integer encoding of this card as described by {@link CardCode}.
+   * @return the code of this card
+   */
+  public int getCode() {
+    return this.code;
+  }
+
   /**
    * Compares this card with another card by their values.
    * @param other another card to compare by value.
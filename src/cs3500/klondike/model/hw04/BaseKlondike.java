@@ -1,38 +1,65 @@
 package cs3500.klondike.model.hw04;
 
+import cs3500.klondike.model.hw02.BoardLayout;
 import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw02.DeckBuilder;
 import cs3500.klondike.model.hw02.KlondikeModel;
-import cs3500.klondike.model.hw02.ListMove;
+import cs3500.klondike.model.hw02.MoveResult;
 import cs3500.klondike.model.hw02.StandardCard;
-import cs3500.klondike.model.hw02.VisibiltyCard;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.Stack;
-import java.util.function.BiFunction;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
 
 /**
  * This is a base implementation of a klondike model which does
  * no checking for logical move legality beside null checks, checking for game start,
  * and bounds checks.
+ *
+ * <p>Cards are stored as their {@link CardCode} in primitive arrays, so a game in progress
+ * can be copied or snapshotted without copying any card objects.</p>
+ *
+ * <p>Every change to the game is recorded in a {@link MoveJournal} so that moves can be undone
+ * and redone. Users of this class group the changes each of their moves makes by calling
+ * {@link #endMove(long)}.</p>
+ *
+ * <p>The game keeps a Zobrist hash of its position up to date as it changes. Each pile is
+ * hashed as the xor of a key for each card and its row, and the position hash sums a mix of
+ * each pile's hash, so a move only rehashes the cards it moves and the piles it touches.</p>
  */
 public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
-  private List<Stack<VisibiltyCard>> foundationPiles;
-  private List<List<VisibiltyCard>> cascadePiles;
-  private List<VisibiltyCard> drawCards;
-  private final List<Card> deck = new ArrayList<>();
+  //set on the code of a cascade card that is face up
+  private static final int FACE_UP = CardCode.NUM_CODES;
+  private static final int CODE_MASK = FACE_UP - 1;
+
+  //the code of the top card of each foundation pile, or 0 if the pile is empty
+  private int[] foundationPiles;
+  private int[][] cascadePiles;
+  private int[] pileHeights;
+  private DrawPile drawCards;
+  //a card from the dealt deck for each code, shared with copies of this game
+  private Card[] cardsByCode;
+  private final List<Card> deck;
   private int numDraw;
   private boolean gameStarted;
+  private final MoveJournal journal = new MoveJournal();
+  //the xor of the keys of the cards in each cascade pile, which doesn't depend on the pile
+  private long[] pileHashes;
+  //sums of the mixed hash of each pile, with and without the key of the pile's index
+  private long cascadeHash;
+  private long canonicalCascadeHash;
+  //sums of the keys of the top card of each foundation, with and without its index
+  private long foundationHash;
+  private long canonicalFoundationHash;
 
   /**
    * Constructor produces a default deck of 52 cards.
    */
   public BaseKlondike() {
+    this.deck = new ArrayList<>();
     List<String> values = Arrays.asList("A","2","3","4","5","6","7","8","9","10","J","Q","K");
     List<String> suits = Arrays.asList("♣", "♠", "♡", "♢");
     for (String s : suits) {
@@ -43,6 +70,41 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     this.gameStarted = false;
   }
 
+  /**
+   * Create a copy of the given game which shares no mutable state with it.
+   * @param other the game to copy
+   */
+  private BaseKlondike(BaseKlondike other) {
+    this.deck = new ArrayList<>(other.deck);
+    this.gameStarted = other.gameStarted;
+    if (other.gameStarted) {
+      this.numDraw = other.numDraw;
+      this.cardsByCode = other.cardsByCode;
+      this.foundationPiles = other.foundationPiles.clone();
+      this.pileHeights = other.pileHeights.clone();
+      this.cascadePiles = new int[other.cascadePiles.length][];
+      for (int pile = 0; pile < this.cascadePiles.length; pile++) {
+        this.cascadePiles[pile] = other.cascadePiles[pile].clone();
+      }
+      this.drawCards = new DrawPile(other.drawCards);
+      this.pileHashes = other.pileHashes.clone();
+      this.cascadeHash = other.cascadeHash;
+      this.canonicalCascadeHash = other.canonicalCascadeHash;
+      this.foundationHash = other.foundationHash;
+      this.canonicalFoundationHash = other.canonicalFoundationHash;
+      this.journal.clear(other.journal.state());
+    }
+  }
+
+  /**
+   * Create an independent copy of this game in its current state. Moves made on the copy
+   * don't affect this game and vice versa. The copy starts with no moves to undo.
+   * @return a copy of this game
+   */
+  public BaseKlondike copy() {
+    return new BaseKlondike(this);
+  }
+
   /**
    * Return a deck containing the cards this game can work with.
    * @return the deck this game was started with
@@ -60,35 +122,49 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
    *                                  or does not contain equal runs per suit
    */
   private void validateDeck(List<Card> deck) throws IllegalArgumentException {
-    if (deck == null || deck.stream().anyMatch(Objects::isNull)) {
+    if (deck == null) {
       throw new IllegalArgumentException("Deck must not be null.");
     }
+    //count how many copies of each card the deck contains
+    int[] counts = new int[CardCode.NUM_CODES];
+    for (Card c : deck) {
+      if (c == null) {
+        throw new IllegalArgumentException("Deck must not be null.");
+      }
+      counts[c.getCode()]++;
+    }
 
-    List<String> heartValues = deck.stream().map(Card::toString)
-        .filter((String s) -> s.contains("♡")).map((String s) -> s.substring(0, s.length() - 2))
-        .sorted(String::compareTo).collect(Collectors.toList());
-    List<String> spadeValues = deck.stream().map(Card::toString)
-        .filter((String s) -> s.contains("♠")).map((String s) -> s.substring(0, s.length() - 2))
-        .sorted(String::compareTo).collect(Collectors.toList());
-    List<String> clubValues = deck.stream().map(Card::toString)
-        .filter((String s) -> s.contains("♣")).map((String s) -> s.substring(0, s.length() - 2))
-        .sorted(String::compareTo).collect(Collectors.toList());
-    List<String> diamondValues = deck.stream().map(Card::toString)
-        .filter((String s) -> s.contains("♢")).map((String s) -> s.substring(0, s.length() - 2))
-        .sorted(String::compareTo).collect(Collectors.toList());
-
-    BiFunction<List<String>, List<String>, Boolean> nonEmptyAndDistinct;
-    nonEmptyAndDistinct = (List<String> l1, List<String> l2) ->
-        !l1.isEmpty() && !l2.isEmpty() && !l1.equals(l2);
+    //every included suit must contain the same values as the first included suit
+    int firstSuit = -1;
+    for (int suit = 0; suit < CardCode.NUM_SUITS; suit++) {
+      if (!suitIncluded(counts, suit)) {
+        continue;
+      }
+      if (firstSuit < 0) {
+        firstSuit = suit;
+        continue;
+      }
+      for (int value = 1; value <= CardCode.MAX_VALUE; value++) {
+        if (counts[CardCode.encode(suit, value)] != counts[CardCode.encode(firstSuit, value)]) {
+          throw new IllegalArgumentException("Deck must contain equal runs of each suit");
+        }
+      }
+    }
+  }
 
-    if (nonEmptyAndDistinct.apply(heartValues, spadeValues)
-        || nonEmptyAndDistinct.apply(heartValues, clubValues)
-        || nonEmptyAndDistinct.apply(heartValues, diamondValues)
-        || nonEmptyAndDistinct.apply(spadeValues, clubValues)
-        || nonEmptyAndDistinct.apply(spadeValues, diamondValues)
-        || nonEmptyAndDistinct.apply(clubValues, diamondValues)) {
-      throw new IllegalArgumentException("Deck must contain equal runs of each suit");
+  /**
+   * Determines if any card of the given suit has a non-zero count.
+   * @param counts number of copies of each card indexed by card code
+   * @param suit the suit index to check
+   * @return true if the deck the counts were taken from includes the suit
+   */
+  private static boolean suitIncluded(int[] counts, int suit) {
+    for (int value = 1; value <= CardCode.MAX_VALUE; value++) {
+      if (counts[CardCode.encode(suit, value)] > 0) {
+        return true;
+      }
     }
+    return false;
   }
 
   /**
@@ -130,8 +206,7 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     // and has equal length runs of each included suit
     this.validateDeck(deck);
     //verify that numPiles is valid for this deck
-    int minDeckSize = IntStream.range(1, numPiles + 1).sum();
-    if (deck.size() < minDeckSize || numPiles < 1) {
+    if (numPiles < 1 || numPiles > deck.size() || deck.size() < cascadeSize(numPiles)) {
       throw new IllegalArgumentException("There are not enough cards to create "
           + numPiles + " Cascades");
     }
@@ -145,39 +220,65 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     }
     this.gameStarted = true;
 
-    //shuffle the deck if needed
+    //shuffle a copy of the deck if needed, using a generator owned by the calling thread
+    List<Card> dealOrder = deck;
     if (shuffle) {
-      Collections.shuffle(this.deck);
+      SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+      dealOrder = DeckBuilder.shuffle(deck, random);
     }
-    //initialize draw cards as the deck
-    this.drawCards = deck.stream().map(VisibiltyCard::new).collect(Collectors.toList());
+    Card[] toDeal = dealOrder.toArray(new Card[0]);
 
-    //create an array of numPiles empty lists of cards
-    this.cascadePiles = new ArrayList<List<VisibiltyCard>>(numPiles);
-    for (int i = 0; i < numPiles; i++) {
-      this.cascadePiles.add(new ArrayList<VisibiltyCard>());
+    //remember one card object for each code dealt, so only codes need to be stored
+    this.cardsByCode = new Card[CardCode.NUM_CODES];
+    int numAces = 0;
+    for (Card c : toDeal) {
+      int code = c.getCode();
+      if (this.cardsByCode[code] == null) {
+        this.cardsByCode[code] = c;
+      }
+      if (CardCode.valueOf(code) == 1) {
+        numAces++;
+      }
     }
 
-    //deal cards from the draw cards pile in the cascade pattern
-    for (int i = 0; i < numPiles; i++) {
-      for (int j = i; j < numPiles; j++) {
-        ListMove.<VisibiltyCard>moveFirstToCollection(this.drawCards, this.cascadePiles.get(j));
+    //deal each cascade pile straight from the deck. Rows are dealt left to right, and row r
+    //holds one card for each of piles r through numPiles - 1, so the card in row r of pile p
+    //comes after every card in rows 0 through r - 1
+    this.cascadePiles = new int[numPiles][toDeal.length];
+    this.pileHeights = new int[numPiles];
+    for (int pile = 0; pile < numPiles; pile++) {
+      for (int row = 0; row <= pile; row++) {
+        int dealIndex = row * numPiles - row * (row - 1) / 2 + (pile - row);
+        this.cascadePiles[pile][row] = toDeal[dealIndex].getCode();
       }
+      this.pileHeights[pile] = pile + 1;
     }
 
-    //count the number of aces in the deck and create that many empty foundation piles
-    int numAces = (int) deck.stream().filter((Card c) -> c.toString().charAt(0) == 'A').count();
-    this.foundationPiles = new ArrayList<Stack<VisibiltyCard>>();
-    for (int i = 0; i < numAces; i++) {
-      this.foundationPiles.add(new Stack<VisibiltyCard>());
+    //the remaining cards become the draw pile
+    int firstDraw = cascadeSize(numPiles);
+    this.drawCards = new DrawPile(toDeal.length - firstDraw);
+    for (int i = firstDraw; i < toDeal.length; i++) {
+      this.drawCards.addLast(toDeal[i].getCode());
     }
 
+    //create an empty foundation pile for each ace in the deck
+    this.foundationPiles = new int[numAces];
+    this.journal.clear(0);
+    this.pileHashes = new long[numPiles];
+    rehash();
+
     //set numDraw
 
     this.numDraw = numDraw;
+  }
 
-    //draw the first numDraw cards
-    flipNextDrawCardsFaceUp();
+  /**
+   * Returns the number of cards needed to deal a full cascade with the given number of piles.
+   * @param numPiles the number of cascade piles
+   * @return the sum of 1 through numPiles
+   */
+  private static int cascadeSize(int numPiles) {
+    return numPiles * (numPiles + 1) / 2;
   }
 
   /**
@@ -196,32 +297,142 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
   @Override
   public void movePile(int srcPile, int numCards, int destPile)
       throws IllegalStateException {
+    tryMovePile(srcPile, numCards, destPile).throwIfFailed(
+        "Distinct source and destination piles with enough cards to move must exist");
+  }
+
+  @Override
+  public MoveResult tryMovePile(int srcPile, int numCards, int destPile) {
     if (!this.gameStarted) {
-      throw new IllegalStateException("Game has not yet started");
+      return MoveResult.NOT_STARTED;
     }
-    if (srcPile >= this.cascadePiles.size()
-        || destPile >= this.cascadePiles.size()
-        || srcPile == destPile) {
-      throw new IllegalArgumentException("Distinct source and destination piles must exist");
+    if (!isPile(srcPile) || !isPile(destPile) || srcPile == destPile) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    List<VisibiltyCard> source = this.cascadePiles.get(srcPile);
-    List<VisibiltyCard> dest = this.cascadePiles.get(destPile);
-    if (source.size() < numCards || numCards < 1) {
-      throw new IllegalArgumentException("Source does not have enough cards to move");
+    int srcHeight = this.pileHeights[srcPile];
+    if (srcHeight < numCards || numCards < 1) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    ListMove.moveLastN(numCards, source, dest);
+    this.journal.record(Move.pile(srcPile, numCards, destPile));
+    moveCards(srcPile, numCards, destPile);
+    return MoveResult.SUCCESS;
   }
 
   /**
-   * Ensures that the top card of a cascade pile is face up if it has one.
-   * @param numPile the pile number to check 0 indexed from the left
-   * @throws IllegalArgumentException if numPile is not valid coordinate
+   * Move the top cards of one pile onto another pile without any checks.
+   * @param srcPile the 0-based index (from the left) of the pile to move from
+   * @param numCards how many cards to move
+   * @param destPile the 0-based index (from the left) of the pile to move to
    */
-  private void ensureTopCardVisible(int numPile) {
-    List<VisibiltyCard> pile = this.cascadePiles.get(numPile);
-    if (!pile.isEmpty() && !isCardVisible(numPile, pile.size() - 1)) {
-      pile.get(pile.size() - 1).flip();
+  private void moveCards(int srcPile, int numCards, int destPile) {
+    int srcStart = this.pileHeights[srcPile] - numCards;
+    int destStart = this.pileHeights[destPile];
+    System.arraycopy(this.cascadePiles[srcPile], srcStart,
+        this.cascadePiles[destPile], destStart, numCards);
+    this.pileHeights[srcPile] -= numCards;
+    this.pileHeights[destPile] += numCards;
+    long srcHash = this.pileHashes[srcPile];
+    long destHash = this.pileHashes[destPile];
+    for (int i = 0; i < numCards; i++) {
+      int code = this.cascadePiles[destPile][destStart + i];
+      srcHash ^= Zobrist.cascadeKey(srcStart + i, code);
+      destHash ^= Zobrist.cascadeKey(destStart + i, code);
     }
+    setPileHash(srcPile, srcHash);
+    setPileHash(destPile, destHash);
+  }
+
+  /**
+   * Put a card on top of a cascade pile without any checks.
+   * @param pile the 0-based index (from the left) of the pile
+   * @param code the code of the card, including whether it is face up
+   */
+  private void pushCard(int pile, int code) {
+    int row = this.pileHeights[pile]++;
+    this.cascadePiles[pile][row] = code;
+    setPileHash(pile, this.pileHashes[pile] ^ Zobrist.cascadeKey(row, code));
+  }
+
+  /**
+   * Take the top card off a cascade pile without any checks.
+   * @param pile the 0-based index (from the left) of the pile
+   * @return the code of the card, including whether it was face up
+   */
+  private int popCard(int pile) {
+    int row = --this.pileHeights[pile];
+    int code = this.cascadePiles[pile][row];
+    setPileHash(pile, this.pileHashes[pile] ^ Zobrist.cascadeKey(row, code));
+    return code;
+  }
+
+  /**
+   * Turn a cascade card over without any checks.
+   * @param pile the 0-based index (from the left) of the pile
+   * @param row the 0-based index (from the top) of the card
+   */
+  private void flipCard(int pile, int row) {
+    int code = this.cascadePiles[pile][row];
+    this.cascadePiles[pile][row] = code ^ FACE_UP;
+    setPileHash(pile, this.pileHashes[pile] ^ Zobrist.cascadeKey(row, code)
+        ^ Zobrist.cascadeKey(row, code ^ FACE_UP));
+  }
+
+  /**
+   * Replace the top card of a foundation pile without any checks.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile
+   * @param code the code of the new top card, or 0 to empty the pile
+   */
+  private void setFoundation(int foundationPile, int code) {
+    int old = this.foundationPiles[foundationPile];
+    this.foundationHash += Zobrist.foundationKey(foundationPile, code)
+        - Zobrist.foundationKey(foundationPile, old);
+    this.canonicalFoundationHash += Zobrist.foundationKey(code) - Zobrist.foundationKey(old);
+    this.foundationPiles[foundationPile] = code;
+  }
+
+  /**
+   * Change the hash of a cascade pile, updating the sums of the hashes of every pile.
+   * @param pile the 0-based index (from the left) of the pile
+   * @param hash the new xor of the keys of the cards in the pile
+   */
+  private void setPileHash(int pile, long hash) {
+    long old = this.pileHashes[pile];
+    long key = Zobrist.pileKey(pile);
+    this.cascadeHash += Zobrist.mix(hash ^ key) - Zobrist.mix(old ^ key);
+    this.canonicalCascadeHash += Zobrist.mix(hash) - Zobrist.mix(old);
+    this.pileHashes[pile] = hash;
+  }
+
+  /**
+   * Compute every hash of the position from scratch.
+   */
+  private void rehash() {
+    this.cascadeHash = 0;
+    this.canonicalCascadeHash = 0;
+    for (int pile = 0; pile < this.cascadePiles.length; pile++) {
+      long hash = 0;
+      for (int row = 0; row < this.pileHeights[pile]; row++) {
+        hash ^= Zobrist.cascadeKey(row, this.cascadePiles[pile][row]);
+      }
+      this.pileHashes[pile] = hash;
+      this.cascadeHash += Zobrist.mix(hash ^ Zobrist.pileKey(pile));
+      this.canonicalCascadeHash += Zobrist.mix(hash);
+    }
+    this.foundationHash = 0;
+    this.canonicalFoundationHash = 0;
+    for (int i = 0; i < this.foundationPiles.length; i++) {
+      this.foundationHash += Zobrist.foundationKey(i, this.foundationPiles[i]);
+      this.canonicalFoundationHash += Zobrist.foundationKey(this.foundationPiles[i]);
+    }
+  }
+
+  /**
+   * Determines if there is a cascade pile at the given index once the game has started.
+   * @param pileNum the 0-based index (from the left) of the pile
+   * @return true if the pile exists
+   */
+  private boolean isPile(int pileNum) {
+    return pileNum >= 0 && pileNum < this.cascadePiles.length;
   }
 
   /**
@@ -235,31 +446,35 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
    */
   @Override
   public void moveDraw(int destPile) throws IllegalStateException, IllegalArgumentException {
+    tryMoveDraw(destPile).throwIfFailed(
+        "The draw pile is empty or there is no cascade pile at the given index");
+  }
+
+  @Override
+  public MoveResult tryMoveDraw(int destPile) {
     if (!this.gameStarted) {
-      throw new IllegalStateException("Game has not yet started");
+      return MoveResult.NOT_STARTED;
     }
-    if (destPile < 0 || destPile >= getNumPiles()) {
-      throw new IllegalArgumentException("There is no cascade pile at the given index");
+    if (!isPile(destPile)) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    if (drawCards.isEmpty()) {
-      throw new IllegalStateException("Draw pile is empty");
+    if (this.drawCards.isEmpty()) {
+      return MoveResult.ILLEGAL_MOVE;
     }
-    Card moveCard = drawCards.get(0);
-    List<VisibiltyCard> dest = this.cascadePiles.get(destPile);
-    ListMove.moveFirstToCollection(drawCards, dest);
-    flipNextDrawCardsFaceUp();
+    this.journal.record(Move.draw(destPile));
+    pushCard(destPile, takeTopDrawCard());
+    return MoveResult.SUCCESS;
   }
 
   /**
-   * Ensure that the top numDraw cards are flipped.
+   * Remove the top card of the draw pile, turning it face up.
+   * The visible draw cards are always the first numDraw cards of the draw pile, so cards
+   * in the draw pile are only face up once they leave it.
+   * @return the face up code of the card that was on top of the draw pile
+   * @throws IllegalStateException if the draw pile is empty
    */
-  private void flipNextDrawCardsFaceUp() {
-    int toDraw = Math.min(numDraw, this.drawCards.size());
-    for (int i = 0; i < toDraw; i++) {
-      if (!this.drawCards.get(i).isFaceUp()) {
-        this.drawCards.get(i).flip();
-      }
-    }
+  private int takeTopDrawCard() {
+    return this.drawCards.removeFirst() | FACE_UP;
   }
 
   /**
@@ -274,18 +489,36 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
   @Override
   public void moveToFoundation(int srcPile, int foundationPile)
       throws IllegalStateException {
+    tryMoveToFoundation(srcPile, foundationPile).throwIfFailed(
+        "Invalid pile number or the source pile is empty");
+  }
+
+  @Override
+  public MoveResult tryMoveToFoundation(int srcPile, int foundationPile) {
     if (!this.gameStarted) {
-      throw new IllegalStateException("Game has not yet started");
+      return MoveResult.NOT_STARTED;
     }
-    if (srcPile < 0 || srcPile >= this.getNumPiles()
-        || foundationPile < 0 || foundationPile >= this.getNumFoundations()) {
-      throw new IllegalArgumentException("Invalid pile number");
+    if (!isPile(srcPile) || !isFoundation(foundationPile)) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    List<VisibiltyCard> source = this.cascadePiles.get(srcPile);
-    if (source.isEmpty()) {
-      throw new IllegalStateException("The source pile is empty");
+    if (this.pileHeights[srcPile] == 0) {
+      return MoveResult.ILLEGAL_MOVE;
     }
-    ListMove.moveLastToCollection(source, this.foundationPiles.get(foundationPile));
+    //remember the card the foundation pile had and if the moved card was face up
+    int top = popCard(srcPile);
+    this.journal.record(Move.pack(Move.TO_FOUNDATION, srcPile,
+        this.foundationPiles[foundationPile] | top & FACE_UP, foundationPile));
+    setFoundation(foundationPile, top & CODE_MASK);
+    return MoveResult.SUCCESS;
+  }
+
+  /**
+   * Determines if there is a foundation pile at the given index once the game has started.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile
+   * @return true if the foundation pile exists
+   */
+  private boolean isFoundation(int foundationPile) {
+    return foundationPile >= 0 && foundationPile < this.foundationPiles.length;
   }
 
   /**
@@ -299,17 +532,25 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
    */
   @Override
   public void moveDrawToFoundation(int foundationPile) throws IllegalStateException {
-    if (!gameStarted) {
-      throw new IllegalStateException("Game has not yet started");
+    tryMoveDrawToFoundation(foundationPile).throwIfFailed(
+        "There is no foundation pile at the specified index or no available draw cards");
+  }
+
+  @Override
+  public MoveResult tryMoveDrawToFoundation(int foundationPile) {
+    if (!this.gameStarted) {
+      return MoveResult.NOT_STARTED;
     }
-    if (foundationPile < 0 || foundationPile >= foundationPiles.size()) {
-      throw new IllegalArgumentException("There is no foundation pile at the specified index");
+    if (!isFoundation(foundationPile)) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    if (getDrawCards().isEmpty()) {
-      throw new IllegalStateException("There are no available draw cards.");
+    if (this.drawCards.isEmpty()) {
+      return MoveResult.ILLEGAL_MOVE;
     }
-    ListMove.moveFirstToCollection(drawCards, foundationPiles.get(foundationPile));
-    flipNextDrawCardsFaceUp();
+    this.journal.record(Move.pack(Move.DRAW_TO_FOUNDATION, 0,
+        this.foundationPiles[foundationPile], foundationPile));
+    setFoundation(foundationPile, takeTopDrawCard() & CODE_MASK);
+    return MoveResult.SUCCESS;
   }
 
   /**
@@ -319,29 +560,37 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
    */
   @Override
   public void discardDraw() throws IllegalStateException {
+    tryDiscardDraw().throwIfFailed("There is no face up draw card to discard");
+  }
+
+  @Override
+  public MoveResult tryDiscardDraw() {
     if (!this.gameStarted) {
-      throw new IllegalStateException("Game has not yet started");
+      return MoveResult.NOT_STARTED;
     }
-    if (getDrawCards().isEmpty()) {
-      throw new IllegalStateException("There is no face up draw card to discard");
+    if (this.drawCards.isEmpty()) {
+      return MoveResult.ILLEGAL_MOVE;
     }
-    drawCards.get(0).flip();
-    ListMove.moveFirstToCollection(drawCards, drawCards);
-    flipNextDrawCardsFaceUp();
+    this.journal.record(Move.discardDraw());
+    this.drawCards.rotate();
+    return MoveResult.SUCCESS;
   }
 
   /**
    * Returns the number of rows currently in the game.
    * @return the height of the current table of cards
    * @throws IllegalStateException if the game hasn't been started yet
-   * @throws java.util.NoSuchElementException if there are no cascade piles
    */
   @Override
   public int getNumRows() {
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not yet started");
     }
-    return this.cascadePiles.stream().map(List::size).max(Integer::compareTo).orElseThrow();
+    int numRows = 0;
+    for (int height : this.pileHeights) {
+      numRows = Math.max(numRows, height);
+    }
+    return numRows;
   }
 
   /**
@@ -354,7 +603,7 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not yet started");
     }
-    return this.cascadePiles.size();
+    return this.cascadePiles.length;
   }
 
   /**
@@ -398,13 +647,12 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not yet started");
     }
-    Predicate<Stack<VisibiltyCard>> isNonEmpty = (Stack<VisibiltyCard> s) -> !s.isEmpty();
-
-    return this.foundationPiles.stream()
-        .filter(isNonEmpty)
-        .map(Stack::peek)
-        .mapToInt(Card::getPointValue)
-        .sum();
+    //an empty foundation pile has code 0, which has value 0
+    int score = 0;
+    for (int top : this.foundationPiles) {
+      score += CardCode.valueOf(top);
+    }
+    return score;
   }
 
   /**
@@ -422,7 +670,7 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     if (pileNum < 0 || pileNum >= getNumPiles()) {
       throw new IllegalArgumentException("No pile at the given location");
     }
-    return this.cascadePiles.get(pileNum).size();
+    return this.pileHeights[pileNum];
   }
 
   /**
@@ -440,7 +688,7 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     }
     if (pileNum >= 0 && pileNum < getNumPiles()
         && card >= 0 && card < getPileHeight(pileNum)) {
-      return this.cascadePiles.get(pileNum).get(card).isFaceUp();
+      return (this.cascadePiles[pileNum][card] & FACE_UP) != 0;
     } else {
       throw new IllegalArgumentException("There is no card at this location");
     }
@@ -464,7 +712,7 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     }
     if (pileNum >= 0 && pileNum < getNumPiles()
         && card >= 0 && card < getPileHeight(pileNum)) {
-      return this.cascadePiles.get(pileNum).get(card).card();
+      return this.cardsByCode[this.cascadePiles[pileNum][card] & CODE_MASK];
     } else {
       throw new IllegalArgumentException("There is no card at those co-ordinates");
     }
@@ -482,14 +730,11 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not yet started");
     }
-    if (foundationPile < 0 || foundationPile >= this.foundationPiles.size()) {
+    if (foundationPile < 0 || foundationPile >= this.foundationPiles.length) {
       throw new IllegalArgumentException("No foundation pile at this index");
     }
-    if (this.foundationPiles.get(foundationPile).isEmpty()) {
-      return null;
-      //throw new IllegalArgumentException("Foundation pile is empty");
-    }
-    return this.foundationPiles.get(foundationPile).peek().card();
+    //null for an empty pile, which has code 0
+    return this.cardsByCode[this.foundationPiles[foundationPile]];
   }
 
   /**
@@ -505,10 +750,71 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not yet started");
     }
-    return this.drawCards.stream()
-        .filter(VisibiltyCard::isFaceUp)
-        .map(VisibiltyCard::card)
-        .collect(Collectors.toList());
+    int numVisible = Math.min(this.numDraw, this.drawCards.size());
+    List<Card> visible = new ArrayList<>(numVisible);
+    for (int i = 0; i < numVisible; i++) {
+      visible.add(this.cardsByCode[this.drawCards.get(i)]);
+    }
+    return visible;
+  }
+
+  /**
+   * Copies the board straight from the arrays the game is kept in, as described by
+   * {@link KlondikeModel#readBoard(int[])}.
+   * @param board the array to fill from its start
+   * @return the length of the board, which may be greater than board.length
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if board is null
+   */
+  @Override
+  public int readBoard(int[] board) throws IllegalStateException {
+    if (board == null) {
+      throw new IllegalArgumentException("Board cannot be null");
+    }
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not yet started");
+    }
+    int numPiles = this.pileHeights.length;
+    int numFoundations = this.foundationPiles.length;
+    int numVisible = Math.min(this.numDraw, this.drawCards.size());
+    int numCells = 0;
+    for (int height : this.pileHeights) {
+      numCells += height;
+    }
+    int length = BoardLayout.length(numPiles, numFoundations, numVisible, numCells);
+    if (length > board.length) {
+      return length;
+    }
+    BoardLayout.writeHeader(board, numPiles, numFoundations, numVisible, this.pileHeights);
+    //an empty foundation holds 0, which is also how the board marks it
+    System.arraycopy(this.foundationPiles, 0, board, BoardLayout.foundationIndex(board, 0),
+        numFoundations);
+    int draw = BoardLayout.drawIndex(board, 0);
+    for (int i = 0; i < numVisible; i++) {
+      board[draw + i] = this.drawCards.get(i);
+    }
+    int cell = BoardLayout.cellIndex(board, 0, 0);
+    for (int pile = 0; pile < numPiles; pile++) {
+      int[] cards = this.cascadePiles[pile];
+      for (int row = 0; row < this.pileHeights[pile]; row++) {
+        int code = cards[row];
+        board[cell++] = (code & FACE_UP) != 0 ? code & CODE_MASK : BoardLayout.FACE_DOWN;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Returns the first available draw card without building the list of all available
+   * draw cards.
+   * @return the next card to be drawn, or <code>null</code> if there are no draw cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public Card getTopDrawCard() throws IllegalStateException {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not yet started");
+    }
+    return this.drawCards.isEmpty() ? null : this.cardsByCode[this.drawCards.get(0)];
   }
 
   /**
@@ -521,7 +827,15 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
     if (!this.gameStarted) {
       throw new IllegalStateException("Game has not yet started");
     }
-    return this.foundationPiles.size();
+    return this.foundationPiles.length;
+  }
+
+  /**
+   * Checks if this game has been started.
+   * @return true if startGame has completed successfully on this game
+   */
+  public boolean hasStarted() {
+    return this.gameStarted;
   }
 
   /**
@@ -530,18 +844,432 @@ public class BaseKlondike implements cs3500.klondike.model.hw02.KlondikeModel {
    * @param cardNum Card to flip in the pile, 0 indexed from top
    */
   public void flipCardAt(int pileNum, int cardNum) {
-    this.cascadePiles.get(pileNum).get(cardNum).flip();
+    this.journal.record(Move.pack(MoveJournal.FLIP, pileNum, cardNum, 0));
+    flipCard(pileNum, cardNum);
   }
 
   /**
    * Remove the top draw card from the deck.
-   * @throws IllegalStateException if the deck is empty
+   * @throws IllegalStateException if the game hasn't been started yet or the deck is empty
    */
   public void removeDraw() {
+    tryRemoveDraw().throwIfFailed("Can't remove a card from an empty list");
+  }
+
+  /**
+   * Attempts to remove the top draw card from the deck.
+   * @return {@link MoveResult#SUCCESS} if the card was removed, otherwise the reason it wasn't
+   */
+  public MoveResult tryRemoveDraw() {
+    if (!this.gameStarted) {
+      return MoveResult.NOT_STARTED;
+    }
     if (this.drawCards.isEmpty()) {
-      throw new IllegalStateException("Can't remove a card from an empty list");
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    this.journal.record(Move.pack(MoveJournal.REMOVE_DRAW, 0, 1, this.drawCards.removeFirst()));
+    return MoveResult.SUCCESS;
+  }
+
+  /**
+   * Take a snapshot of the current state of this game, which can later be restored to this
+   * game or to any other game with the same number of piles dealt from the same cards.
+   * @return an immutable snapshot of this game
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public KlondikeState snapshot() throws IllegalStateException {
+    int[] data = new int[stateSize()];
+    writeState(data, 0);
+    return new KlondikeState(data);
+  }
+
+  /**
+   * Return this game to the position recorded in the given snapshot.
+   * @param state a snapshot of a game with the same number of piles dealt from the same cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if the state is null or from an incompatible game
+   */
+  public void restore(KlondikeState state)
+      throws IllegalStateException, IllegalArgumentException {
+    if (state == null) {
+      throw new IllegalArgumentException("State cannot be null");
+    }
+    readState(state.data(), 0);
+    this.journal.clear(0);
+  }
+
+  /**
+   * Shuffle the cards the player can't see among the places they could be, which are the face
+   * down cascade cards and the draw cards after the visible ones. Every visible card stays
+   * where it is, so the result is a position a player who doesn't remember the draw cards
+   * they've passed can't tell apart from this one. The move history is cleared, since the
+   * moves in it may not have been possible with the hidden cards in their new places.
+   * @param random the source of the shuffle
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if random is null
+   */
+  public void shuffleHiddenCards(SplittableRandom random)
+      throws IllegalStateException, IllegalArgumentException {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not yet started");
+    }
+    if (random == null) {
+      throw new IllegalArgumentException("Random cannot be null");
+    }
+    int[] draw = new int[this.drawCards.size()];
+    for (int card = 0; card < draw.length; card++) {
+      draw[card] = this.drawCards.get(card);
+    }
+    //a game dealt from more than one deck can hide more cards than there are card codes
+    int numCards = draw.length;
+    for (int pile = 0; pile < this.cascadePiles.length; pile++) {
+      numCards += this.pileHeights[pile];
+    }
+    int[] hidden = new int[numCards];
+    int count = 0;
+    for (int pile = 0; pile < this.cascadePiles.length; pile++) {
+      for (int row = 0; row < this.pileHeights[pile]; row++) {
+        if ((this.cascadePiles[pile][row] & FACE_UP) == 0) {
+          hidden[count++] = this.cascadePiles[pile][row];
+        }
+      }
+    }
+    for (int card = this.numDraw; card < draw.length; card++) {
+      hidden[count++] = draw[card];
+    }
+    for (int i = count - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = hidden[i];
+      hidden[i] = hidden[j];
+      hidden[j] = swap;
+    }
+
+    count = 0;
+    for (int pile = 0; pile < this.cascadePiles.length; pile++) {
+      for (int row = 0; row < this.pileHeights[pile]; row++) {
+        if ((this.cascadePiles[pile][row] & FACE_UP) == 0) {
+          this.cascadePiles[pile][row] = hidden[count++];
+        }
+      }
+    }
+    this.drawCards.clear();
+    for (int card = 0; card < draw.length; card++) {
+      this.drawCards.addLast(card < this.numDraw ? draw[card] : hidden[count++]);
+    }
+    rehash();
+    this.journal.clear(0);
+  }
+
+  /**
+   * Take back the last move made that hasn't been undone, where a move is every change made
+   * since the one before it was ended by {@link #endMove(long)}.
+   * @return true if a move was undone, false if there was no move to undo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean undo() throws IllegalStateException {
+    return undo(null);
+  }
+
+  /**
+   * Make the last move undone by {@link #undo()} again, as long as no other change has been
+   * made since.
+   * @return true if a move was redone, false if there was no move to redo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean redo() throws IllegalStateException {
+    return redo(null);
+  }
+
+  /**
+   * Take back the last move made, passing each change reversed to the given consumer.
+   * @param changed a consumer of packed changes, or null
+   * @return true if a move was undone, false if there was no move to undo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  boolean undo(IntConsumer changed) throws IllegalStateException {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not yet started");
+    }
+    //changes made without ending a move are undone as a move of their own
+    endMove(this.journal.state());
+    if (!this.journal.canUndo()) {
+      return false;
+    }
+    int move = this.journal.movesMade() - 1;
+    for (int i = this.journal.moveEnd(move) - 1; i >= this.journal.moveStart(move); i--) {
+      int change = this.journal.change(i);
+      revert(change);
+      if (changed != null) {
+        changed.accept(change);
+      }
+    }
+    this.journal.stepBack();
+    return true;
+  }
+
+  /**
+   * Make the last move undone again, passing each change made to the given consumer.
+   * @param changed a consumer of packed changes, or null
+   * @return true if a move was redone, false if there was no move to redo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  boolean redo(IntConsumer changed) throws IllegalStateException {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not yet started");
+    }
+    if (!this.journal.canRedo()) {
+      return false;
+    }
+    int move = this.journal.movesMade();
+    for (int i = this.journal.moveStart(move); i < this.journal.moveEnd(move); i++) {
+      int change = this.journal.change(i);
+      replay(change);
+      if (changed != null) {
+        changed.accept(change);
+      }
+    }
+    this.journal.stepForward();
+    return true;
+  }
+
+  /**
+   * Group every change made since the last move into a single move which can be undone.
+   * @param state any state the caller keeps outside of this game, as it is after the move
+   */
+  void endMove(long state) {
+    this.journal.endMove(state);
+  }
+
+  /**
+   * Forget every move made so far, so that none of them can be undone.
+   * @param state any state the caller keeps outside of this game, as it is now
+   */
+  void clearHistory(long state) {
+    this.journal.clear(state);
+  }
+
+  /**
+   * Returns the state the caller passed with the last move made that hasn't been undone.
+   * @return the state of the caller after the last move made
+   */
+  long historyState() {
+    return this.journal.state();
+  }
+
+  /**
+   * Returns a 64-bit Zobrist hash of the current position: the cards of each cascade pile and
+   * which of them are face up, the top card of each foundation pile, and the draw pile in
+   * order from the next card to be drawn. The hash is kept up to date as the game changes, so
+   * this takes constant time.
+   *
+   * <p>A canonical hash treats the cascade piles as an unordered collection and the foundation
+   * piles likewise, so positions which differ only in the order of the piles, such as which
+   * pile is empty or which foundation holds which suit, have the same canonical hash. Such
+   * positions play out the same way under the rules of every variant.</p>
+   *
+   * @param canonical whether to ignore the order of the cascade and foundation piles
+   * @return the hash of the position
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public long positionHash(boolean canonical) throws IllegalStateException {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not yet started");
+    }
+    long draw = Zobrist.mix(this.drawCards.hash() ^ this.drawCards.size());
+    return canonical ? this.canonicalCascadeHash + this.canonicalFoundationHash + draw
+        : this.cascadeHash + this.foundationHash + draw;
+  }
+
+  /**
+   * Returns the number of cards left in the draw pile, including the ones not yet visible.
+   * @return the size of the draw pile
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public int getDrawPileSize() throws IllegalStateException {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game has not yet started");
+    }
+    return this.drawCards.size();
+  }
+
+  /**
+   * Reverse a change recorded in the journal, which must be the last change not yet reversed.
+   * @param change the packed change
+   */
+  private void revert(int change) {
+    int src = Move.source(change);
+    int count = Move.count(change);
+    int dest = Move.destination(change);
+    switch (Move.type(change)) {
+      case Move.PILE:
+        moveCards(dest, count, src);
+        break;
+      case Move.DRAW:
+        this.drawCards.addFirst(popCard(dest) & CODE_MASK);
+        break;
+      case Move.TO_FOUNDATION:
+        //the count holds the old top of the foundation pile and if the card was face up
+        pushCard(src, this.foundationPiles[dest] | count & FACE_UP);
+        setFoundation(dest, count & CODE_MASK);
+        break;
+      case Move.DRAW_TO_FOUNDATION:
+        this.drawCards.addFirst(this.foundationPiles[dest]);
+        setFoundation(dest, count);
+        break;
+      case Move.DISCARD_DRAW:
+        this.drawCards.rotateBack();
+        break;
+      case MoveJournal.REMOVE_DRAW:
+        this.drawCards.addFirst(dest);
+        break;
+      default:
+        flipCard(src, count);
+        break;
+    }
+  }
+
+  /**
+   * Make a change recorded in the journal again, which must be the first change not yet
+   * made again.
+   * @param change the packed change
+   */
+  private void replay(int change) {
+    int src = Move.source(change);
+    int count = Move.count(change);
+    int dest = Move.destination(change);
+    switch (Move.type(change)) {
+      case Move.PILE:
+        moveCards(src, count, dest);
+        break;
+      case Move.DRAW:
+        pushCard(dest, takeTopDrawCard());
+        break;
+      case Move.TO_FOUNDATION:
+        setFoundation(dest, popCard(src) & CODE_MASK);
+        break;
+      case Move.DRAW_TO_FOUNDATION:
+        setFoundation(dest, takeTopDrawCard() & CODE_MASK);
+        break;
+      case Move.DISCARD_DRAW:
+        this.drawCards.rotate();
+        break;
+      case MoveJournal.REMOVE_DRAW:
+        this.drawCards.removeFirst();
+        break;
+      default:
+        flipCard(src, count);
+        break;
+    }
+  }
+
+  /**
+   * Returns the number of ints {@link #writeState} uses to encode the current state.
+   * @return the size of the current state in ints
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  int stateSize() throws IllegalStateException {
+    int numPiles = getNumPiles();
+    int size = 3 + numPiles + this.foundationPiles.length + this.drawCards.size();
+    for (int pile = 0; pile < numPiles; pile++) {
+      size += this.pileHeights[pile];
+    }
+    return size;
+  }
+
+  /**
+   * Encode the current state into the given array. The state is the number of piles,
+   * foundation piles, and draw cards, followed by the height of each pile, the cards of
+   * each pile, the top card of each foundation pile, and the draw cards.
+   * @param data the array to write to
+   * @param offset the index to start writing at
+   * @return the index after the last int written
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  int writeState(int[] data, int offset) throws IllegalStateException {
+    int numPiles = getNumPiles();
+    int i = offset;
+    data[i++] = numPiles;
+    data[i++] = this.foundationPiles.length;
+    data[i++] = this.drawCards.size();
+    System.arraycopy(this.pileHeights, 0, data, i, numPiles);
+    i += numPiles;
+    for (int pile = 0; pile < numPiles; pile++) {
+      System.arraycopy(this.cascadePiles[pile], 0, data, i, this.pileHeights[pile]);
+      i += this.pileHeights[pile];
+    }
+    System.arraycopy(this.foundationPiles, 0, data, i, this.foundationPiles.length);
+    i += this.foundationPiles.length;
+    for (int card = 0; card < this.drawCards.size(); card++) {
+      data[i++] = this.drawCards.get(card);
+    }
+    return i;
+  }
+
+  /**
+   * Replace the current state with one encoded by {@link #writeState}, which must run to the
+   * end of the array. Nothing is changed if the encoded state is not compatible with this
+   * game, so models with extra state should encode it before the state of this game.
+   * @param data the array to read from
+   * @param offset the index to start reading at
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if the encoded state is not compatible with this game
+   */
+  void readState(int[] data, int offset) throws IllegalStateException, IllegalArgumentException {
+    int numPiles = getNumPiles();
+    int capacity = this.cascadePiles[0].length;
+    if (data.length - offset < 3 + numPiles || data[offset] != numPiles
+        || data[offset + 1] != this.foundationPiles.length
+        || data[offset + 2] < 0 || data[offset + 2] > this.drawCards.capacity()) {
+      throw new IllegalArgumentException("State is not from a compatible game");
+    }
+    //check everything before changing anything
+    int end = offset + 3 + numPiles + this.foundationPiles.length + data[offset + 2];
+    for (int pile = 0; pile < numPiles; pile++) {
+      int height = data[offset + 3 + pile];
+      if (height < 0 || height > capacity) {
+        throw new IllegalArgumentException("State is not from a compatible game");
+      }
+      end += height;
+    }
+    if (end != data.length) {
+      throw new IllegalArgumentException("State is not from a compatible game");
+    }
+    int foundationStart = end - this.foundationPiles.length - data[offset + 2];
+    int drawStart = foundationStart + this.foundationPiles.length;
+    for (int i = offset + 3 + numPiles; i < end; i++) {
+      if (i < foundationStart) {
+        checkDealt(data[i] & ~FACE_UP);
+      } else if (i >= drawStart || data[i] != 0) {
+        checkDealt(data[i]);
+      }
+    }
+
+    int i = offset + 3;
+    System.arraycopy(data, i, this.pileHeights, 0, numPiles);
+    i += numPiles;
+    for (int pile = 0; pile < numPiles; pile++) {
+      System.arraycopy(data, i, this.cascadePiles[pile], 0, this.pileHeights[pile]);
+      i += this.pileHeights[pile];
+    }
+    System.arraycopy(data, i, this.foundationPiles, 0, this.foundationPiles.length);
+    i += this.foundationPiles.length;
+    this.drawCards.clear();
+    for (int card = 0; card < data[offset + 2]; card++) {
+      this.drawCards.addLast(data[i++]);
+    }
+    rehash();
+  }
+
+  /**
+   * Ensures that the given code is the code of a card dealt in this game.
+   * @param code the code to check
+   * @throws IllegalArgumentException if no card with the code was dealt
+   */
+  private void checkDealt(int code) throws IllegalArgumentException {
+    if (code < 0 || code >= CardCode.NUM_CODES || this.cardsByCode[code] == null) {
+      throw new IllegalArgumentException("State contains cards not dealt in this game");
     }
-    this.drawCards.remove(0);
-    flipNextDrawCardsFaceUp();
   }
 }
@@ -1,9 +1,12 @@
 package cs3500.klondike.model.hw04;
 
 import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.IntStream;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
 
 /**
  * Helper class containing further shared functionality between basic and limited draw klondike
@@ -12,7 +15,10 @@ import java.util.stream.IntStream;
  * packages.
  */
 public class BasicLimitedHelper {
+  private static final int[] NO_MOVES = new int[0];
   BaseKlondike delegate;
+  private final LegalMoveCounter moveCounter;
+  private final IntConsumer changeListener;
 
   /**
    * Initialize a new helper by assigning it the delegate of the class using this.
@@ -20,6 +26,11 @@ public class BasicLimitedHelper {
    */
   public BasicLimitedHelper(BaseKlondike delegate) {
     this.delegate = delegate;
+    this.moveCounter = new LegalMoveCounter(delegate, GameType.BASIC);
+    this.changeListener = moveCounter::changeMade;
+    if (delegate.hasStarted()) {
+      moveCounter.reset();
+    }
   }
 
   /**
@@ -58,6 +69,68 @@ public class BasicLimitedHelper {
     for (int pile = 0; pile < numPiles; pile++) {
       delegate.flipCardAt(pile, delegate.getPileHeight(pile) - 1);
     }
+    delegate.clearHistory(0);
+    moveCounter.reset();
+  }
+
+  /**
+   * Return the game to the position recorded in the given snapshot.
+   * @param state a snapshot taken from a compatible game
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if the state is null or from an incompatible game
+   */
+  public void restore(KlondikeState state)
+      throws IllegalStateException, IllegalArgumentException {
+    delegate.restore(state);
+    moveCounter.reset();
+  }
+
+  /**
+   * Shuffle the cards the player can't see among the places they could be.
+   * @param random the source of the shuffle
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if random is null
+   */
+  public void shuffleHiddenCards(SplittableRandom random)
+      throws IllegalStateException, IllegalArgumentException {
+    delegate.shuffleHiddenCards(random);
+    moveCounter.reset();
+  }
+
+  /**
+   * End the move just made in the journal of the delegate, so it can be undone on its own.
+   * None of these moves change any state kept outside of the delegate.
+   */
+  private void endMove() {
+    delegate.endMove(delegate.historyState());
+  }
+
+  /**
+   * Take back the last move made that hasn't been undone, along with any card it turned face
+   * up.
+   * @return true if a move was undone, false if there was no move to undo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public boolean undo() throws IllegalStateException {
+    return delegate.undo(changeListener);
+  }
+
+  /**
+   * Make the last move undone by {@link #undo()} again, as long as no other move has been
+   * made since.
+   * @return true if a move was redone, false if there was no move to redo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public boolean redo() throws IllegalStateException {
+    return delegate.redo(changeListener);
+  }
+
+  /**
+   * Forget everything known about which moves are legal, after the state of the game was
+   * replaced directly through the delegate.
+   */
+  void stateReplaced() {
+    moveCounter.reset();
   }
 
   /**
@@ -73,10 +146,10 @@ public class BasicLimitedHelper {
       //Return true if the card to move onto an empty pile is a King
       return toMove.getPointValue() == 13;
     } else {
-      Card bottom = delegate.getCardAt(destPile, destHeight - 1);
-      boolean oppositeColors = "♣♠".contains(Character.toString(toMove.getSuit()))
-          ^ "♣♠".contains(Character.toString(bottom.getSuit()));
-      boolean topOneLess = toMove.getPointValue() + 1 == bottom.getPointValue();
+      int moving = toMove.getCode();
+      int bottom = delegate.getCardAt(destPile, destHeight - 1).getCode();
+      boolean oppositeColors = !CardCode.sameColor(moving, bottom);
+      boolean topOneLess = CardCode.valueOf(moving) + 1 == CardCode.valueOf(bottom);
       return oppositeColors && topOneLess;
     }
   }
@@ -90,14 +163,13 @@ public class BasicLimitedHelper {
    * @return true if the cards can legally stack
    */
   private boolean canStackOnFoundation(Card toMove, int foundationPile) {
-    if (delegate.getCardAt(foundationPile) == null) {
+    Card bottom = delegate.getCardAt(foundationPile);
+    if (bottom == null) {
       //Return true if the card is an ace
       return toMove.getPointValue() == 1;
     } else {
-      Card bottom = delegate.getCardAt(foundationPile);
-      boolean sameSuit = toMove.getSuit() == bottom.getSuit();
-      boolean topOneMore = toMove.getPointValue() - 1 == bottom.getPointValue();
-      return sameSuit && topOneMore;
+      //the next card of the same suit is always the next code
+      return toMove.getCode() == bottom.getCode() + 1;
     }
   }
 
@@ -118,16 +190,57 @@ public class BasicLimitedHelper {
    */
   public void movePile(int srcPile, int numCards, int destPile)
       throws IllegalStateException {
-    Card bottomCardOfStackToMove = delegate.getCardAt(srcPile,
-        delegate.getPileHeight(srcPile) - numCards);
-    if (srcPile == destPile) {
-      throw new IllegalArgumentException("Piles must be distinct");
+    tryMovePile(srcPile, numCards, destPile).throwIfFailed("Illegal move");
+  }
+
+  /**
+   * Attempts to move the requested number of cards from the source pile to the destination
+   * pile without throwing exceptions.
+   * @param srcPile  the 0-based index (from the left) of the pile to be moved
+   * @param numCards how many cards to be moved from that pile
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 moved cards
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  public MoveResult tryMovePile(int srcPile, int numCards, int destPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
     }
-    if (!canStackOnCascade(bottomCardOfStackToMove, destPile)) {
-      throw new IllegalStateException("Illegal move");
+    if (!isPile(srcPile) || !isPile(destPile) || srcPile == destPile) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    delegate.movePile(srcPile, numCards, destPile);
+    int srcHeight = delegate.getPileHeight(srcPile);
+    if (numCards < 1 || numCards > srcHeight
+        || !delegate.isCardVisible(srcPile, srcHeight - numCards)) {
+      return MoveResult.INVALID_ARGUMENT;
+    }
+    if (!canStackOnCascade(delegate.getCardAt(srcPile, srcHeight - numCards), destPile)) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    MoveResult result = delegate.tryMovePile(srcPile, numCards, destPile);
     ensureTopCardVisible(srcPile);
+    moveCounter.pileChanged(srcPile);
+    moveCounter.pileChanged(destPile);
+    endMove();
+    return result;
+  }
+
+  /**
+   * Determines if there is a cascade pile at the given index in a started game.
+   * @param pileNum the 0-based index (from the left) of the pile
+   * @return true if the pile exists
+   */
+  private boolean isPile(int pileNum) {
+    return pileNum >= 0 && pileNum < delegate.getNumPiles();
+  }
+
+  /**
+   * Determines if there is a foundation pile at the given index in a started game.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile
+   * @return true if the foundation pile exists
+   */
+  private boolean isFoundation(int foundationPile) {
+    return foundationPile >= 0 && foundationPile < delegate.getNumFoundations();
   }
 
   /**
@@ -139,8 +252,9 @@ public class BasicLimitedHelper {
     if (delegate.getNumPiles() <= numPile || numPile < 0) {
       throw new IllegalArgumentException("numPile is not a valid coordinate");
     }
-    if (delegate.getPileHeight(numPile) > 0) {
-      delegate.flipCardAt(numPile, delegate.getPileHeight(numPile) - 1);
+    int height = delegate.getPileHeight(numPile);
+    if (height > 0 && !delegate.isCardVisible(numPile, height - 1)) {
+      delegate.flipCardAt(numPile, height - 1);
     }
   }
 
@@ -155,12 +269,34 @@ public class BasicLimitedHelper {
    *                               allowable
    */
   public void moveDraw(int destPile) throws IllegalStateException, IllegalArgumentException {
-    if (!delegate.getDrawCards().isEmpty()
-        && canStackOnCascade(delegate.getDrawCards().get(0), destPile)) {
-      delegate.moveDraw(destPile);
-    } else {
-      throw new IllegalStateException("Draw card can't stack on destination pile");
+    tryMoveDraw(destPile).throwIfFailed("Draw card can't stack on destination pile");
+  }
+
+  /**
+   * Attempts to move the topmost draw-card to the destination pile without throwing
+   * exceptions.
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  public MoveResult tryMoveDraw(int destPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
+    }
+    Card top = delegate.getTopDrawCard();
+    if (top == null) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    if (!isPile(destPile)) {
+      return MoveResult.INVALID_ARGUMENT;
     }
+    if (!canStackOnCascade(top, destPile)) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    MoveResult result = delegate.tryMoveDraw(destPile);
+    moveCounter.pileChanged(destPile);
+    endMove();
+    return result;
   }
 
   /**
@@ -175,13 +311,40 @@ public class BasicLimitedHelper {
    */
   public void moveToFoundation(int srcPile, int foundationPile)
       throws IllegalStateException {
-    if (delegate.getPileHeight(srcPile) > 0 && canStackOnFoundation(delegate.getCardAt(srcPile,
-        delegate.getPileHeight(srcPile) - 1), foundationPile)) {
-      delegate.moveToFoundation(srcPile, foundationPile);
-      ensureTopCardVisible(srcPile);
-    } else {
-      throw new IllegalStateException("The move is not allowable");
+    tryMoveToFoundation(srcPile, foundationPile).throwIfFailed("The move is not allowable");
+  }
+
+  /**
+   * Attempts to move the top card of the given pile to the requested foundation pile without
+   * throwing exceptions.
+   * @param srcPile        the 0-based index (from the left) of the pile to move a card
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  public MoveResult tryMoveToFoundation(int srcPile, int foundationPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
+    }
+    if (!isPile(srcPile)) {
+      return MoveResult.INVALID_ARGUMENT;
+    }
+    int srcHeight = delegate.getPileHeight(srcPile);
+    if (srcHeight == 0) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    if (!isFoundation(foundationPile)) {
+      return MoveResult.INVALID_ARGUMENT;
     }
+    if (!canStackOnFoundation(delegate.getCardAt(srcPile, srcHeight - 1), foundationPile)) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    MoveResult result = delegate.tryMoveToFoundation(srcPile, foundationPile);
+    ensureTopCardVisible(srcPile);
+    moveCounter.pileChanged(srcPile);
+    moveCounter.foundationChanged(foundationPile);
+    endMove();
+    return result;
   }
 
   /**
@@ -194,62 +357,127 @@ public class BasicLimitedHelper {
    *                               allowable
    */
   public void moveDrawToFoundation(int foundationPile) throws IllegalStateException {
-    if (foundationPile >= delegate.getNumFoundations() || foundationPile < 0) {
-      throw new IllegalArgumentException("foundationPile must be a valid index");
+    tryMoveDrawToFoundation(foundationPile).throwIfFailed(
+        "foundationPile must be a valid index and the top draw card must be able to move to it");
+  }
+
+  /**
+   * Attempts to move the topmost draw-card directly to a foundation pile without throwing
+   * exceptions.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  public MoveResult tryMoveDrawToFoundation(int foundationPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
     }
-    if (!delegate.getDrawCards().isEmpty()
-        && canStackOnFoundation(delegate.getDrawCards().get(0), foundationPile)) {
-      delegate.moveDrawToFoundation(foundationPile);
-    } else {
-      throw new IllegalStateException("The move is not allowable or draw pile is empty");
+    if (!isFoundation(foundationPile)) {
+      return MoveResult.INVALID_ARGUMENT;
+    }
+    Card top = delegate.getTopDrawCard();
+    if (top == null || !canStackOnFoundation(top, foundationPile)) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    MoveResult result = delegate.tryMoveDrawToFoundation(foundationPile);
+    moveCounter.foundationChanged(foundationPile);
+    endMove();
+    return result;
+  }
+
+  /**
+   * Attempts to discard the topmost draw-card, moving it to the end of the draw pile,
+   * without throwing exceptions.
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  public MoveResult tryDiscardDraw() {
+    MoveResult result = delegate.tryDiscardDraw();
+    endMove();
+    return result;
+  }
+
+  /**
+   * Write every move that is legal in the current position to the given buffer,
+   * moves to foundation piles first and the discard last.
+   * @param moves the buffer to write packed moves to
+   * @return the number of legal moves, which may be greater than moves.length
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if moves is null
+   */
+  public int generateMoves(int[] moves) throws IllegalStateException {
+    if (moves == null) {
+      throw new IllegalArgumentException("Move buffer cannot be null");
+    }
+    int numPiles = delegate.getNumPiles();
+    int numFoundations = delegate.getNumFoundations();
+    Card topDraw = delegate.getTopDrawCard();
+    int count = 0;
+
+    //top cards of cascade piles and the draw pile to foundation piles
+    for (int pile = 0; pile < numPiles; pile++) {
+      int height = delegate.getPileHeight(pile);
+      if (height > 0) {
+        Card top = delegate.getCardAt(pile, height - 1);
+        for (int foundation = 0; foundation < numFoundations; foundation++) {
+          if (canStackOnFoundation(top, foundation)) {
+            count = Move.append(moves, count, Move.toFoundation(pile, foundation));
+          }
+        }
+      }
+    }
+    if (topDraw != null) {
+      for (int foundation = 0; foundation < numFoundations; foundation++) {
+        if (canStackOnFoundation(topDraw, foundation)) {
+          count = Move.append(moves, count, Move.drawToFoundation(foundation));
+        }
+      }
     }
+
+    //every face up run of cards to every other cascade pile
+    for (int src = 0; src < numPiles; src++) {
+      int height = delegate.getPileHeight(src);
+      for (int card = height - 1; card >= 0 && delegate.isCardVisible(src, card); card--) {
+        Card bottom = delegate.getCardAt(src, card);
+        for (int dest = 0; dest < numPiles; dest++) {
+          if (dest != src && canStackOnCascade(bottom, dest)) {
+            count = Move.append(moves, count, Move.pile(src, height - card, dest));
+          }
+        }
+      }
+    }
+
+    //the top draw card to cascade piles, or discarding it
+    if (topDraw != null) {
+      for (int dest = 0; dest < numPiles; dest++) {
+        if (canStackOnCascade(topDraw, dest)) {
+          count = Move.append(moves, count, Move.draw(dest));
+        }
+      }
+      count = Move.append(moves, count, Move.discardDraw());
+    }
+    return count;
   }
 
   /**
    * Signal if the game is over or not.  A game is over if there are no more
    * possible moves to be made, or draw cards to be used (or discarded).
+   * Only the piles changed since the last call are examined. When
+   * {@link LegalMoveCounter#isVerifying()} is true the answer is also checked against
+   * {@link #generateMoves(int[])}.
    *
    * @return true if game is over, false otherwise
-   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalStateException if the game hasn't been started yet, or if verifying and
+   *                               the two checks disagree
    */
   public boolean isGameOver() throws IllegalStateException {
     //error checking
     delegate.isGameOver();
 
-    boolean discardLegal = !delegate.getDrawCards().isEmpty();
-    Predicate<Card> toAnyFoundationLegal = (Card c) -> IntStream.range(0,
-        delegate.getNumFoundations()).anyMatch((int i) -> canStackOnFoundation(c, i));
-    //can the draw card be moved to any foundation pile
-    boolean drawToFoundationLegal = !delegate.getDrawCards().isEmpty()
-        && toAnyFoundationLegal.test(delegate.getDrawCards().get(0));
-    //can the top card of any non-empty cascade pile be moved to any foundation pile
-    boolean cascadeToFoundationLegal = IntStream.range(0, delegate.getNumPiles())
-        //filter non-empty
-        .filter((int pileNum) -> delegate.getPileHeight(pileNum) > 0)
-        //get top card
-        .mapToObj((int pile) -> delegate.getCardAt(pile, delegate.getPileHeight(pile) - 1))
-        //check if each card can move to any foundation
-        .anyMatch(toAnyFoundationLegal);
-    Predicate<Card> toAnyCascadeLegal = (Card c) -> IntStream.range(0, delegate.getNumPiles())
-        .anyMatch((int i) -> canStackOnCascade(c, i));
-    //can the draw card be moved to any cascade pile
-    boolean drawToCascadeLegal = !delegate.getDrawCards().isEmpty()
-        && toAnyCascadeLegal.test(delegate.getDrawCards().get(0));
-    //does any cascade pile have a face up card that can be moved to any cascade pile?
-    boolean movePileLegal = IntStream.range(0, delegate.getNumPiles())
-        //filter non-empty
-        .filter((int pileNum) -> delegate.getPileHeight(pileNum) > 0)
-        .anyMatch((int pileNum) -> IntStream.range(0, delegate.getPileHeight(pileNum) - 1)
-            //filter visible
-            .filter((int card) -> delegate.isCardVisible(pileNum, card))
-            //map to card
-            .mapToObj((int card) -> delegate.getCardAt(pileNum, card))
-            //check if card can go to any foundation
-            .anyMatch(toAnyCascadeLegal));
-    return !discardLegal
-        && !drawToFoundationLegal
-        && !drawToCascadeLegal
-        && !cascadeToFoundationLegal
-        && !movePileLegal;
+    //a draw card can always be discarded
+    boolean gameOver = delegate.getTopDrawCard() == null && !moveCounter.hasCascadeMoves();
+    if (LegalMoveCounter.isVerifying() && gameOver != (generateMoves(NO_MOVES) == 0)) {
+      throw new IllegalStateException("Legal move counter disagrees with a full scan");
+    }
+    return gameOver;
   }
 }
@@ -0,0 +1,191 @@
+package cs3500.klondike.model.hw04;
+
+/**
+ * A fixed capacity circular buffer of card codes used as the draw pile of a klondike game.
+ * The first card of the pile is the next card to be drawn. Removing the first card and
+ * cycling the first card to the end of the pile are both constant time.
+ *
+ * <p>The pile keeps a polynomial hash of its cards in order from the first, the sum of the
+ * key of the card at each position i times {@link Zobrist#BASE} to the power i. Every change
+ * to the pile updates the hash in constant time.</p>
+ */
+final class DrawPile {
+  private final int[] cards;
+  private int head;
+  private int size;
+  private long hash;
+  //BASE to the power of the size of the pile
+  private long power;
+
+  /**
+   * Create an empty draw pile which can hold up to capacity cards.
+   * @param capacity the maximum number of cards in this pile
+   * @throws IllegalArgumentException if capacity is negative
+   */
+  DrawPile(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative");
+    }
+    this.cards = new int[capacity];
+    this.head = 0;
+    this.size = 0;
+    this.hash = 0;
+    this.power = 1;
+  }
+
+  /**
+   * Create a copy of the given draw pile with the same capacity and cards.
+   * @param other the pile to copy
+   */
+  DrawPile(DrawPile other) {
+    this.cards = other.cards.clone();
+    this.head = other.head;
+    this.size = other.size;
+    this.hash = other.hash;
+    this.power = other.power;
+  }
+
+  /**
+   * Returns the number of cards in this pile.
+   * @return the number of cards in this pile
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of cards this pile can hold.
+   * @return the capacity of this pile
+   */
+  int capacity() {
+    return this.cards.length;
+  }
+
+  /**
+   * Checks if this pile has no cards.
+   * @return true if there are no cards in this pile
+   */
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Add a card to the end of this pile.
+   * @param card the code of the card to add
+   * @throws IllegalStateException if the pile is at capacity
+   */
+  void addLast(int card) {
+    if (this.size == this.cards.length) {
+      throw new IllegalStateException("Draw pile is full");
+    }
+    this.cards[index(this.size)] = card;
+    this.size++;
+    this.hash += Zobrist.drawKey(card) * this.power;
+    this.power *= Zobrist.BASE;
+  }
+
+  /**
+   * Returns the card at the given position from the front of this pile.
+   * @param position 0 indexed from the next card to be drawn
+   * @return the code of the card at that position
+   * @throws IllegalArgumentException if there is no card at that position
+   */
+  int get(int position) {
+    if (position < 0 || position >= this.size) {
+      throw new IllegalArgumentException("No draw card at the given position");
+    }
+    return this.cards[index(position)];
+  }
+
+  /**
+   * Remove and return the first card of this pile.
+   * @return the code of the card that was first in this pile
+   * @throws IllegalStateException if the pile is empty
+   */
+  int removeFirst() {
+    if (this.size == 0) {
+      throw new IllegalStateException("Can't remove a card from an empty pile");
+    }
+    int first = this.cards[this.head];
+    this.head = index(1);
+    this.size--;
+    this.hash = (this.hash - Zobrist.drawKey(first)) * Zobrist.BASE_INVERSE;
+    this.power *= Zobrist.BASE_INVERSE;
+    return first;
+  }
+
+  /**
+   * Move the first card of this pile to the end of this pile.
+   * @throws IllegalStateException if the pile is empty
+   */
+  void rotate() {
+    if (this.size == 0) {
+      throw new IllegalStateException("Can't cycle an empty pile");
+    }
+    int first = this.cards[this.head];
+    this.cards[index(this.size)] = first;
+    this.head = index(1);
+    long key = Zobrist.drawKey(first);
+    this.hash = (this.hash - key) * Zobrist.BASE_INVERSE + key * this.power * Zobrist.BASE_INVERSE;
+  }
+
+  /**
+   * Add a card to the front of this pile, so that it is the next card drawn.
+   * @param card the code of the card to add
+   * @throws IllegalStateException if the pile is at capacity
+   */
+  void addFirst(int card) {
+    if (this.size == this.cards.length) {
+      throw new IllegalStateException("Draw pile is full");
+    }
+    this.head = index(this.cards.length - 1);
+    this.cards[this.head] = card;
+    this.size++;
+    this.hash = this.hash * Zobrist.BASE + Zobrist.drawKey(card);
+    this.power *= Zobrist.BASE;
+  }
+
+  /**
+   * Move the last card of this pile to the front of this pile, reversing {@link #rotate()}.
+   * @throws IllegalStateException if the pile is empty
+   */
+  void rotateBack() {
+    if (this.size == 0) {
+      throw new IllegalStateException("Can't cycle an empty pile");
+    }
+    int last = this.cards[index(this.size - 1)];
+    this.head = index(this.cards.length - 1);
+    this.cards[this.head] = last;
+    long key = Zobrist.drawKey(last);
+    this.hash = (this.hash - key * this.power * Zobrist.BASE_INVERSE) * Zobrist.BASE + key;
+  }
+
+  /**
+   * Remove every card from this pile.
+   */
+  void clear() {
+    this.head = 0;
+    this.size = 0;
+    this.hash = 0;
+    this.power = 1;
+  }
+
+  /**
+   * Returns a hash of the cards in this pile in order from the first, which is kept up to date
+   * as the pile changes.
+   * @return the polynomial hash of this pile
+   */
+  long hash() {
+    return this.hash;
+  }
+
+  /**
+   * Converts a position from the front of the pile to an index in the backing array.
+   * @param position 0 indexed from the next card to be drawn
+   * @return the index of that position in the array
+   */
+  private int index(int position) {
+    int i = this.head + position;
+    return i >= this.cards.length ? i - this.cards.length : i;
+  }
+}
@@ -1,7 +1,6 @@
 package cs3500.klondike.model.hw04;
 
 import cs3500.klondike.model.hw02.BasicKlondike;
-import cs3500.klondike.model.hw02.KlondikeModel;
 
 /**
  * A factory class for creating Klondike Models. Number of redraws defaults to 2
@@ -22,8 +21,8 @@ public class KlondikeCreator {
    * @param type enum for choosing which klondikeModel to create
    * @return the KlondikeModel
    */
-  public static KlondikeModel create(GameType type) {
-    KlondikeModel product;
+  public static SearchableKlondike create(GameType type) {
+    SearchableKlondike product;
     switch (type) {
       case BASIC:
         product = new BasicKlondike();
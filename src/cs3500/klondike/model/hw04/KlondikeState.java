@@ -0,0 +1,74 @@
+package cs3500.klondike.model.hw04;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of a klondike game in progress, taken by
+ * {@link SearchableKlondike#snapshot()} and applied with
+ * {@link SearchableKlondike#restore(KlondikeState)}.
+ *
+ * <p>A snapshot stores every card as its code in a single int array, so taking and restoring
+ * one never copies card objects. Two snapshots are equal if they describe the same position,
+ * which lets them be used as keys when searching for repeated positions.</p>
+ */
+public final class KlondikeState {
+  private final int[] data;
+  private final int hash;
+
+  /**
+   * Wrap the given encoded state. The array must not be changed afterwards.
+   * @param data the state written by a model
+   */
+  KlondikeState(int[] data) {
+    this.data = data;
+    this.hash = Arrays.hashCode(data);
+  }
+
+  /**
+   * Returns the encoded state. The array must not be changed.
+   * @return the state written by the model that took this snapshot
+   */
+  int[] data() {
+    return this.data;
+  }
+
+  /**
+   * Returns the number of ints used to encode this snapshot.
+   * @return the size of this snapshot in ints
+   */
+  public int size() {
+    return this.data.length;
+  }
+
+  /**
+   * Returns a 64-bit hash of this snapshot, for use as a key in tables of positions too large
+   * to hold the snapshots themselves. Different positions are very unlikely, but not
+   * guaranteed, to have different hashes.
+   * @return a 64-bit hash of the position
+   */
+  public long longHash() {
+    long hash = 0x9E3779B97F4A7C15L;
+    for (int value : this.data) {
+      hash = (hash ^ value) * 0xBF58476D1CE4E5B9L;
+      hash ^= hash >>> 31;
+    }
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof KlondikeState)) {
+      return false;
+    }
+    KlondikeState that = (KlondikeState) other;
+    return this.hash == that.hash && Arrays.equals(this.data, that.data);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+}
@@ -0,0 +1,295 @@
+package cs3500.klondike.model.hw04;
+
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+
+/**
+ * Keeps count of the legal moves that take a card from a cascade pile, so that whether a game
+ * is over can be answered without scanning the whole table.
+ *
+ * <p>The counter records which cards each cascade pile can move, which cards the top of each
+ * cascade pile and each foundation pile accepts, and the number of (card, destination) pairs
+ * that match. Models tell the counter which piles changed after each move, and only those
+ * piles are re-read the next time the count is needed. Moves from the draw pile are not
+ * counted, since a non-empty draw pile can always be discarded.</p>
+ *
+ * <p>When verification is enabled, models cross-check every answer against a full scan of
+ * the legal moves. Verification defaults to the value of the {@code klondike.verifyGameOver}
+ * system property.</p>
+ */
+public final class LegalMoveCounter {
+  private static final int NONE = -1;
+  private static volatile boolean verifying = Boolean.getBoolean("klondike.verifyGameOver");
+
+  private final BaseKlondike game;
+  private final boolean whitehead;
+
+  //counts indexed by card code
+  private final int[] movable = new int[CardCode.NUM_CODES];
+  private final int[] tops = new int[CardCode.NUM_CODES];
+  private final int[] cascadeWanted = new int[CardCode.NUM_CODES];
+  private final int[] foundationWanted = new int[CardCode.NUM_CODES];
+  private int totalMovable;
+  private int kingsMovable;
+  private int emptyPiles;
+  private long cascadeMoves;
+  private long foundationMoves;
+
+  //what each pile contributed to the counts the last time it was read
+  private int[][] pileCodes;
+  private int[] pileCount;
+  private int[] pileTop;
+  private int[] foundationTop;
+
+  private boolean[] pileDirty;
+  private int[] dirtyPiles;
+  private int numDirtyPiles;
+  private boolean[] foundationDirty;
+  private int[] dirtyFoundations;
+  private int numDirtyFoundations;
+
+  /**
+   * Create a counter for the given game which follows the rules of the given type of game.
+   * @param game the game to count the moves of
+   * @param rules the type of game, where basic and limited share the same rules
+   */
+  LegalMoveCounter(BaseKlondike game, GameType rules) {
+    this.game = game;
+    this.whitehead = rules == GameType.WHITEHEAD;
+  }
+
+  /**
+   * Enable or disable cross-checking the counters of every model against a full scan.
+   * @param verify true to enable verification
+   */
+  public static void setVerifying(boolean verify) {
+    verifying = verify;
+  }
+
+  /**
+   * Checks if models should cross-check their counters against a full scan.
+   * @return true if verification is enabled
+   */
+  public static boolean isVerifying() {
+    return verifying;
+  }
+
+  /**
+   * Forget all counts and read every pile again the next time the count is needed.
+   * Must be called once the game has been dealt and its cards have been turned face up.
+   */
+  void reset() {
+    int numPiles = game.getNumPiles();
+    int numFoundations = game.getNumFoundations();
+    int capacity = game.getDeck().size();
+    for (int code = 0; code < CardCode.NUM_CODES; code++) {
+      movable[code] = 0;
+      tops[code] = 0;
+      cascadeWanted[code] = 0;
+      foundationWanted[code] = 0;
+    }
+    totalMovable = 0;
+    kingsMovable = 0;
+    emptyPiles = 0;
+    cascadeMoves = 0;
+    foundationMoves = 0;
+
+    pileCodes = new int[numPiles][];
+    pileCount = new int[numPiles];
+    pileTop = new int[numPiles];
+    pileDirty = new boolean[numPiles];
+    dirtyPiles = new int[numPiles];
+    numDirtyPiles = 0;
+    for (int pile = 0; pile < numPiles; pile++) {
+      pileCodes[pile] = new int[Math.max(capacity, game.getPileHeight(pile))];
+      pileTop[pile] = NONE;
+      //count every pile as empty so that reading it retracts that correctly
+      emptyPiles++;
+      pileChanged(pile);
+    }
+    foundationTop = new int[numFoundations];
+    foundationDirty = new boolean[numFoundations];
+    dirtyFoundations = new int[numFoundations];
+    numDirtyFoundations = 0;
+    for (int foundation = 0; foundation < numFoundations; foundation++) {
+      foundationTop[foundation] = NONE;
+      foundationChanged(foundation);
+    }
+  }
+
+  /**
+   * Record that the cards in the given cascade pile changed.
+   * @param pile the 0-based index (from the left) of the pile
+   */
+  void pileChanged(int pile) {
+    if (!pileDirty[pile]) {
+      pileDirty[pile] = true;
+      dirtyPiles[numDirtyPiles++] = pile;
+    }
+  }
+
+  /**
+   * Record that the top card of the given foundation pile changed.
+   * @param foundation the 0-based index (from the left) of the foundation pile
+   */
+  void foundationChanged(int foundation) {
+    if (!foundationDirty[foundation]) {
+      foundationDirty[foundation] = true;
+      dirtyFoundations[numDirtyFoundations++] = foundation;
+    }
+  }
+
+  /**
+   * Record the piles changed by a change from a {@link MoveJournal} being made or reversed.
+   * @param change the packed change
+   */
+  void changeMade(int change) {
+    switch (Move.type(change)) {
+      case Move.PILE:
+        pileChanged(Move.source(change));
+        pileChanged(Move.destination(change));
+        break;
+      case Move.DRAW:
+        pileChanged(Move.destination(change));
+        break;
+      case Move.TO_FOUNDATION:
+        pileChanged(Move.source(change));
+        foundationChanged(Move.destination(change));
+        break;
+      case Move.DRAW_TO_FOUNDATION:
+        foundationChanged(Move.destination(change));
+        break;
+      case MoveJournal.FLIP:
+        pileChanged(Move.source(change));
+        break;
+      default:
+        //changes to the draw pile don't change the cascade moves
+        break;
+    }
+  }
+
+  /**
+   * Determines if any card can legally move from a cascade pile, re-reading only the piles
+   * that changed since the last call.
+   * @return true if a card can move from a cascade pile to a cascade or foundation pile
+   */
+  boolean hasCascadeMoves() {
+    for (int i = 0; i < numDirtyPiles; i++) {
+      readPile(dirtyPiles[i]);
+      pileDirty[dirtyPiles[i]] = false;
+    }
+    numDirtyPiles = 0;
+    for (int i = 0; i < numDirtyFoundations; i++) {
+      readFoundation(dirtyFoundations[i]);
+      foundationDirty[dirtyFoundations[i]] = false;
+    }
+    numDirtyFoundations = 0;
+
+    long toEmptyPiles = (long) emptyPiles * (whitehead ? totalMovable : kingsMovable);
+    return cascadeMoves + toEmptyPiles + foundationMoves > 0;
+  }
+
+  /**
+   * Replace what the given pile contributed to the counts with its current contents.
+   */
+  private void readPile(int pile) {
+    int[] codes = pileCodes[pile];
+    for (int i = 0; i < pileCount[pile]; i++) {
+      addMovable(codes[i], -1);
+    }
+    if (pileTop[pile] == NONE) {
+      emptyPiles--;
+    } else {
+      addTop(pileTop[pile], -1);
+    }
+
+    int height = game.getPileHeight(pile);
+    int count = 0;
+    if (height == 0) {
+      emptyPiles++;
+      pileTop[pile] = NONE;
+    } else {
+      int top = game.getCardAt(pile, height - 1).getCode();
+      pileTop[pile] = top;
+      addTop(top, 1);
+      //walk down the pile for as long as the cards form a run that can move together
+      int above = NONE;
+      for (int card = height - 1; card >= 0 && game.isCardVisible(pile, card); card--) {
+        int code = game.getCardAt(pile, card).getCode();
+        if (whitehead && above != NONE && (!CardCode.sameSuit(code, above)
+            || CardCode.valueOf(above) > CardCode.valueOf(code))) {
+          break;
+        }
+        codes[count++] = code;
+        addMovable(code, 1);
+        above = code;
+      }
+    }
+    pileCount[pile] = count;
+  }
+
+  /**
+   * Replace what the given foundation contributed to the counts with its current top card.
+   */
+  private void readFoundation(int foundation) {
+    if (foundationTop[foundation] != NONE) {
+      addFoundationTop(foundationTop[foundation], -1);
+    }
+    int top = game.getCardAt(foundation) == null ? 0 : game.getCardAt(foundation).getCode();
+    foundationTop[foundation] = top;
+    addFoundationTop(top, 1);
+  }
+
+  /**
+   * Change the number of movable copies of a card.
+   */
+  private void addMovable(int code, int change) {
+    movable[code] += change;
+    totalMovable += change;
+    if (CardCode.valueOf(code) == CardCode.MAX_VALUE) {
+      kingsMovable += change;
+    }
+    cascadeMoves += (long) change * cascadeWanted[code];
+  }
+
+  /**
+   * Change the number of cascade piles topped by a card, along with the cards it accepts.
+   */
+  private void addTop(int code, int change) {
+    tops[code] += change;
+    foundationMoves += (long) change * foundationWanted[code];
+    int value = CardCode.valueOf(code);
+    if (value == 1) {
+      return;
+    }
+    for (int suit = 0; suit < CardCode.NUM_SUITS; suit++) {
+      int wanted = CardCode.encode(suit, value - 1);
+      if (CardCode.sameColor(wanted, code) == whitehead) {
+        cascadeWanted[wanted] += change;
+        cascadeMoves += (long) change * movable[wanted];
+      }
+    }
+  }
+
+  /**
+   * Change the number of foundation piles topped by a card, where 0 is an empty foundation
+   * which accepts any ace.
+   */
+  private void addFoundationTop(int code, int change) {
+    if (code == 0) {
+      for (int suit = 0; suit < CardCode.NUM_SUITS; suit++) {
+        addFoundationWanted(CardCode.encode(suit, 1), change);
+      }
+    } else if (CardCode.valueOf(code) < CardCode.MAX_VALUE) {
+      addFoundationWanted(code + 1, change);
+    }
+  }
+
+  /**
+   * Change the number of foundation piles which accept a card.
+   */
+  private void addFoundationWanted(int code, int change) {
+    foundationWanted[code] += change;
+    foundationMoves += (long) change * tops[code];
+  }
+}
@@ -2,20 +2,21 @@ package cs3500.klondike.model.hw04;
 
 import cs3500.klondike.model.hw02.KlondikeModel;
 import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.MoveResult;
 
 import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * This is a model to represent a game of Klondike Solitaire where the number of times each card can
  * be the top card on the draw pile is limited before it will be discarded.
  */
-public class LimitedDrawKlondike implements KlondikeModel {
+public class LimitedDrawKlondike implements SearchableKlondike {
   private final int maxReDraws;
   private int numReDraws;
   private final BaseKlondike delegate;
   private final BasicLimitedHelper helper;
   private int numDiscards;
-  private int deckSize;
 
   /**
    * Construct a new game of limited draw klondike where the given amount of draws are allowed.
@@ -32,6 +33,19 @@ public class LimitedDrawKlondike implements KlondikeModel {
     this.numDiscards = 0;
   }
 
+  /**
+   * Create a copy of the given game which shares no mutable state with it.
+   * @param other the game to copy
+   */
+  private LimitedDrawKlondike(LimitedDrawKlondike other) {
+    this.maxReDraws = other.maxReDraws;
+    this.delegate = other.delegate.copy();
+    this.helper = new BasicLimitedHelper(this.delegate);
+    this.numReDraws = other.numReDraws;
+    this.numDiscards = other.numDiscards;
+    this.delegate.clearHistory(counters());
+  }
+
   @Override
   public List<Card> getDeck() {
     return delegate.getDeck();
@@ -41,7 +55,6 @@ public class LimitedDrawKlondike implements KlondikeModel {
   public void startGame(List<Card> deck, boolean shuffle, int numPiles, int numDraw)
       throws IllegalArgumentException, IllegalStateException {
     helper.startGame(deck, shuffle, numPiles, numDraw);
-    deckSize = deck.size() - (numPiles * (numPiles + 1) / 2);
   }
 
   /**
@@ -77,8 +90,7 @@ public class LimitedDrawKlondike implements KlondikeModel {
    */
   @Override
   public void moveDraw(int destPile) throws IllegalStateException, IllegalArgumentException {
-    helper.moveDraw(destPile);
-    deckSize--;
+    tryMoveDraw(destPile).throwIfFailed("Draw card can't stack on destination pile");
   }
 
   /**
@@ -108,8 +120,59 @@ public class LimitedDrawKlondike implements KlondikeModel {
    */
   @Override
   public void moveDrawToFoundation(int foundationPile) throws IllegalStateException {
-    helper.moveDrawToFoundation(foundationPile);
-    deckSize--;
+    tryMoveDrawToFoundation(foundationPile).throwIfFailed(
+        "foundationPile must be a valid index and the top draw card must be able to move to it");
+  }
+
+  /**
+   * Attempts to move the requested number of cards from the source pile to the destination
+   * pile, if allowable by the rules of the game, without throwing exceptions.
+   * @param srcPile  the 0-based index (from the left) of the pile to be moved
+   * @param numCards how many cards to be moved from that pile
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 moved cards
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMovePile(int srcPile, int numCards, int destPile) {
+    return helper.tryMovePile(srcPile, numCards, destPile);
+  }
+
+  /**
+   * Attempts to move the topmost draw-card to the destination pile without throwing
+   * exceptions.
+   * @param destPile the 0-based index (from the left) of the destination pile for the
+   *                 card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMoveDraw(int destPile) {
+    return helper.tryMoveDraw(destPile);
+  }
+
+  /**
+   * Attempts to move the top card of the given pile to the requested foundation pile without
+   * throwing exceptions.
+   * @param srcPile        the 0-based index (from the left) of the pile to move a card
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMoveToFoundation(int srcPile, int foundationPile) {
+    return helper.tryMoveToFoundation(srcPile, foundationPile);
+  }
+
+  /**
+   * Attempts to move the topmost draw-card directly to a foundation pile without throwing
+   * exceptions.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile to
+   *                       place the card
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryMoveDrawToFoundation(int foundationPile) {
+    return helper.tryMoveDrawToFoundation(foundationPile);
   }
 
   /**
@@ -121,14 +184,75 @@ public class LimitedDrawKlondike implements KlondikeModel {
    */
   @Override
   public void discardDraw() throws IllegalStateException {
+    tryDiscardDraw().throwIfFailed("There is no face up draw card to discard");
+  }
+
+  /**
+   * Attempts to discard the topmost draw-card without throwing exceptions.
+   * The card gets added to the bottom of the deck if it has been redrawn
+   * less than maxRedraws times otherwise it is permanently discarded.
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  @Override
+  public MoveResult tryDiscardDraw() {
+    MoveResult result;
     if (numReDraws < maxReDraws) {
-      delegate.discardDraw();
-      numDiscards++;
-      numReDraws = numDiscards / deckSize;
+      result = delegate.tryDiscardDraw();
+      if (result == MoveResult.SUCCESS) {
+        numDiscards++;
+        //the draw pile shrinks as cards are played from it, so the count of whole cycles can
+        //jump past the limit, which has the same effect as reaching it
+        numReDraws = Math.min(maxReDraws, numDiscards / delegate.getDrawPileSize());
+      }
     } else {
-      delegate.removeDraw();
-      deckSize--;
+      result = delegate.tryRemoveDraw();
     }
+    //the redraw counters are part of the move so undoing it restores them
+    delegate.endMove(counters());
+    return result;
+  }
+
+  /**
+   * Pack the redraw counters into the state kept with each move in the journal.
+   * @return the packed counters
+   */
+  private long counters() {
+    return (long) numReDraws << 32 | numDiscards;
+  }
+
+  /**
+   * Take back the last move made that hasn't been undone, including any change it made to how
+   * many times the draw pile has been cycled.
+   * @return true if a move was undone, false if there was no move to undo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean undo() throws IllegalStateException {
+    boolean undone = helper.undo();
+    restoreCounters(delegate.historyState());
+    return undone;
+  }
+
+  /**
+   * Make the last move undone by {@link #undo()} again, as long as no other move has been
+   * made since.
+   * @return true if a move was redone, false if there was no move to redo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean redo() throws IllegalStateException {
+    boolean redone = helper.redo();
+    restoreCounters(delegate.historyState());
+    return redone;
+  }
+
+  /**
+   * Set the redraw counters from the state kept with a move in the journal.
+   * @param counters the packed counters
+   */
+  private void restoreCounters(long counters) {
+    numReDraws = (int) (counters >>> 32);
+    numDiscards = (int) counters;
   }
 
   /**
@@ -163,6 +287,93 @@ public class LimitedDrawKlondike implements KlondikeModel {
     return delegate.getNumDraw();
   }
 
+  /**
+   * Write every move that is legal in the current position to the given buffer.
+   * @param moves the buffer to write packed moves to
+   * @return the number of legal moves, which may be greater than moves.length
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if moves is null
+   */
+  @Override
+  public int generateMoves(int[] moves) throws IllegalStateException {
+    return helper.generateMoves(moves);
+  }
+
+  /**
+   * Create an independent copy of this game in its current state, including how many times
+   * the draw pile has been cycled.
+   * @return a copy of this game
+   */
+  @Override
+  public LimitedDrawKlondike copy() {
+    return new LimitedDrawKlondike(this);
+  }
+
+  /**
+   * Take a snapshot of the current state of this game, including how many times the draw pile
+   * has been cycled.
+   * @return an immutable snapshot of this game
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public KlondikeState snapshot() throws IllegalStateException {
+    int[] data = new int[2 + delegate.stateSize()];
+    data[0] = numReDraws;
+    data[1] = numDiscards;
+    delegate.writeState(data, 2);
+    return new KlondikeState(data);
+  }
+
+  /**
+   * Returns a 64-bit hash of the current position, including how many times the draw pile has
+   * been cycled, which is kept up to date as moves are made.
+   * @param canonical whether to ignore the order of the cascade and foundation piles
+   * @return the hash of the position
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public long positionHash(boolean canonical) throws IllegalStateException {
+    return delegate.positionHash(canonical) + Zobrist.mix(counters());
+  }
+
+  /**
+   * Return this game to the position recorded in the given snapshot.
+   * @param state a snapshot taken from a limited draw game with the same number of piles
+   *              dealt from the same cards
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if the state is null or from an incompatible game
+   */
+  @Override
+  public void restore(KlondikeState state)
+      throws IllegalStateException, IllegalArgumentException {
+    if (state == null) {
+      throw new IllegalArgumentException("State cannot be null");
+    }
+    int[] data = state.data();
+    if (data.length < 2 || data[0] < 0 || data[0] > maxReDraws || data[1] < 0) {
+      throw new IllegalArgumentException("State is not from a compatible game");
+    }
+    delegate.readState(data, 2);
+    numReDraws = data[0];
+    numDiscards = data[1];
+    helper.stateReplaced();
+    delegate.clearHistory(counters());
+  }
+
+  /**
+   * Shuffle the face down cascade cards and the draw cards after the visible ones among the
+   * places they could be. The number of times the draw pile has been cycled is kept.
+   * @param random the source of the shuffle
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if random is null
+   */
+  @Override
+  public void shuffleHiddenCards(SplittableRandom random)
+      throws IllegalStateException, IllegalArgumentException {
+    helper.shuffleHiddenCards(random);
+    delegate.clearHistory(counters());
+  }
+
   /**
    * Signal if the game is over or not.  A game is over if there are no more
    * possible moves to be made, or draw cards to be used (or discarded).
@@ -236,6 +447,11 @@ public class LimitedDrawKlondike implements KlondikeModel {
     return delegate.getCardAt(foundationPile);
   }
 
+  @Override
+  public int readBoard(int[] board) throws IllegalStateException {
+    return delegate.readBoard(board);
+  }
+
   /**
    * Returns the currently available draw cards.
    * There should be at most {@link KlondikeModel#getNumDraw} cards (the number
@@ -258,4 +474,14 @@ public class LimitedDrawKlondike implements KlondikeModel {
   public int getNumFoundations() throws IllegalStateException {
     return delegate.getNumFoundations();
   }
+
+  /**
+   * Return the number of cards left in the draw pile, including the ones not yet visible.
+   * @return the size of the draw pile
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public int getDrawPileSize() throws IllegalStateException {
+    return delegate.getDrawPileSize();
+  }
 }
@@ -0,0 +1,182 @@
+package cs3500.klondike.model.hw04;
+
+/**
+ * Utility class for packing klondike moves into a single int so that moves can be stored in
+ * primitive arrays.
+ *
+ * <p>A packed move holds its type in bits 24-31, its source pile in bits 16-23, its number of
+ * cards in bits 8-15, and its destination pile in bits 0-7. Pile numbers are 0 indexed from the
+ * left, and fields that a type of move doesn't use are 0.</p>
+ */
+public class Move {
+  /**
+   * Type of a move of one or more cards from a cascade pile to another cascade pile.
+   */
+  public static final int PILE = 1;
+
+  /**
+   * Type of a move of the top draw card to a cascade pile.
+   */
+  public static final int DRAW = 2;
+
+  /**
+   * Type of a move of the top card of a cascade pile to a foundation pile.
+   */
+  public static final int TO_FOUNDATION = 3;
+
+  /**
+   * Type of a move of the top draw card to a foundation pile.
+   */
+  public static final int DRAW_TO_FOUNDATION = 4;
+
+  /**
+   * Type of a discard of the top draw card.
+   */
+  public static final int DISCARD_DRAW = 5;
+
+  private static final int FIELD_MASK = 0xFF;
+
+  /**
+   * Pack a move of numCards cards from srcPile to destPile.
+   * @param srcPile the cascade pile to move from
+   * @param numCards the number of cards to move
+   * @param destPile the cascade pile to move to
+   * @return the packed move
+   * @throws IllegalArgumentException if any argument doesn't fit in its field
+   */
+  public static int pile(int srcPile, int numCards, int destPile) {
+    return pack(PILE, srcPile, numCards, destPile);
+  }
+
+  /**
+   * Pack a move of the top draw card to destPile.
+   * @param destPile the cascade pile to move to
+   * @return the packed move
+   * @throws IllegalArgumentException if destPile doesn't fit in its field
+   */
+  public static int draw(int destPile) {
+    return pack(DRAW, 0, 1, destPile);
+  }
+
+  /**
+   * Pack a move of the top card of srcPile to foundationPile.
+   * @param srcPile the cascade pile to move from
+   * @param foundationPile the foundation pile to move to
+   * @return the packed move
+   * @throws IllegalArgumentException if either argument doesn't fit in its field
+   */
+  public static int toFoundation(int srcPile, int foundationPile) {
+    return pack(TO_FOUNDATION, srcPile, 1, foundationPile);
+  }
+
+  /**
+   * Pack a move of the top draw card to foundationPile.
+   * @param foundationPile the foundation pile to move to
+   * @return the packed move
+   * @throws IllegalArgumentException if foundationPile doesn't fit in its field
+   */
+  public static int drawToFoundation(int foundationPile) {
+    return pack(DRAW_TO_FOUNDATION, 0, 1, foundationPile);
+  }
+
+  /**
+   * Pack a discard of the top draw card.
+   * @return the packed move
+   */
+  public static int discardDraw() {
+    return pack(DISCARD_DRAW, 0, 1, 0);
+  }
+
+  /**
+   * Returns the type of the given move.
+   * @param move a packed move
+   * @return one of the type constants of this class
+   */
+  public static int type(int move) {
+    return move >>> 24;
+  }
+
+  /**
+   * Returns the source cascade pile of the given move.
+   * @param move a packed move
+   * @return the source pile, or 0 if the move doesn't come from a cascade pile
+   */
+  public static int source(int move) {
+    return move >>> 16 & FIELD_MASK;
+  }
+
+  /**
+   * Returns the number of cards moved by the given move.
+   * @param move a packed move
+   * @return the number of cards moved
+   */
+  public static int count(int move) {
+    return move >>> 8 & FIELD_MASK;
+  }
+
+  /**
+   * Returns the destination cascade or foundation pile of the given move.
+   * @param move a packed move
+   * @return the destination pile, or 0 for a discard
+   */
+  public static int destination(int move) {
+    return move & FIELD_MASK;
+  }
+
+  /**
+   * Renders the given move as the command that makes it in the textual controller,
+   * with pile numbers 1 indexed. For example, moving 2 cards from the first pile to the
+   * third pile is rendered as {@code "mpp 1 2 3"}.
+   * @param move a packed move
+   * @return the command for the move
+   * @throws IllegalArgumentException if the move has an unknown type
+   */
+  public static String toString(int move) {
+    switch (type(move)) {
+      case PILE:
+        return "mpp " + (source(move) + 1) + " " + count(move) + " " + (destination(move) + 1);
+      case DRAW:
+        return "md " + (destination(move) + 1);
+      case TO_FOUNDATION:
+        return "mpf " + (source(move) + 1) + " " + (destination(move) + 1);
+      case DRAW_TO_FOUNDATION:
+        return "mdf " + (destination(move) + 1);
+      case DISCARD_DRAW:
+        return "dd";
+      default:
+        throw new IllegalArgumentException("Not a valid move");
+    }
+  }
+
+  /**
+   * Write a move to the buffer if there is space for it.
+   * @param moves the buffer to write to
+   * @param count the number of moves generated so far
+   * @param move the packed move to write
+   * @return the number of moves generated including this one
+   */
+  static int append(int[] moves, int count, int move) {
+    if (count < moves.length) {
+      moves[count] = move;
+    }
+    return count + 1;
+  }
+
+  /**
+   * Pack the fields of a move into an int.
+   * @param type the type of the move
+   * @param source the source field
+   * @param count the count field
+   * @param destination the destination field
+   * @return the packed move
+   * @throws IllegalArgumentException if any field is out of range
+   */
+  static int pack(int type, int source, int count, int destination) {
+    if (source < 0 || source > FIELD_MASK
+        || count < 0 || count > FIELD_MASK
+        || destination < 0 || destination > FIELD_MASK) {
+      throw new IllegalArgumentException("Move fields must be between 0 and 255");
+    }
+    return type << 24 | source << 16 | count << 8 | destination;
+  }
+}
@@ -0,0 +1,164 @@
+package cs3500.klondike.model.hw04;
+
+import java.util.Arrays;
+
+/**
+ * An append-only record of the changes made to a klondike game, grouped into the moves that
+ * made them, which lets the moves be undone and redone.
+ *
+ * <p>Each change is a single int packed like a {@link Move}, using the move types for the
+ * changes the moves of the same name make, plus {@link #REMOVE_DRAW} and {@link #FLIP}.
+ * Each group of changes also records a long holding any state the model using the journal
+ * keeps outside of the game, as it was once the move was made.</p>
+ *
+ * <p>Undone moves stay in the journal so that they can be redone, until a new change is
+ * recorded.</p>
+ */
+final class MoveJournal {
+  /**
+   * Type of a change removing the top draw card from the game. The destination holds the code
+   * of the removed card.
+   */
+  static final int REMOVE_DRAW = 6;
+
+  /**
+   * Type of a change flipping a cascade card. The source holds the pile and the count holds
+   * the index of the card in the pile.
+   */
+  static final int FLIP = 7;
+
+  private int[] changes = new int[64];
+  private int numChanges;
+  //the index after the last change of each move
+  private int[] moveEnds = new int[16];
+  private long[] states = new long[16];
+  private int numMoves;
+  //the number of moves currently made, moves after this have been undone
+  private int cursor;
+  private long initialState;
+
+  /**
+   * Forget every recorded move.
+   * @param state the state kept outside of the game before any move is made
+   */
+  void clear(long state) {
+    this.numChanges = 0;
+    this.numMoves = 0;
+    this.cursor = 0;
+    this.initialState = state;
+  }
+
+  /**
+   * Record a change as part of the move being made, forgetting any undone moves.
+   * @param change the packed change
+   */
+  void record(int change) {
+    if (this.cursor < this.numMoves) {
+      this.numMoves = this.cursor;
+      this.numChanges = appliedEnd();
+    }
+    if (this.numChanges == this.changes.length) {
+      this.changes = Arrays.copyOf(this.changes, this.changes.length * 2);
+    }
+    this.changes[this.numChanges++] = change;
+  }
+
+  /**
+   * Group every change recorded since the last move into a move. Does nothing if no change was
+   * recorded.
+   * @param state the state kept outside of the game after the move
+   */
+  void endMove(long state) {
+    if (this.cursor < this.numMoves || this.numChanges == appliedEnd()) {
+      return;
+    }
+    if (this.numMoves == this.moveEnds.length) {
+      this.moveEnds = Arrays.copyOf(this.moveEnds, this.moveEnds.length * 2);
+      this.states = Arrays.copyOf(this.states, this.states.length * 2);
+    }
+    this.moveEnds[this.numMoves] = this.numChanges;
+    this.states[this.numMoves] = state;
+    this.numMoves++;
+    this.cursor++;
+  }
+
+  /**
+   * Checks if there is a move that can be undone.
+   * @return true if at least one move has been made and not undone
+   */
+  boolean canUndo() {
+    return this.cursor > 0;
+  }
+
+  /**
+   * Checks if there is an undone move that can be redone.
+   * @return true if a move has been undone and no change has been recorded since
+   */
+  boolean canRedo() {
+    return this.cursor < this.numMoves;
+  }
+
+  /**
+   * Returns the number of moves made and not undone.
+   * @return the number of moves that can be undone
+   */
+  int movesMade() {
+    return this.cursor;
+  }
+
+  /**
+   * Returns the index of the first change of the given move.
+   * @param move the 0-based index of the move
+   * @return the index of its first change
+   */
+  int moveStart(int move) {
+    return move == 0 ? 0 : this.moveEnds[move - 1];
+  }
+
+  /**
+   * Returns the index after the last change of the given move.
+   * @param move the 0-based index of the move
+   * @return the index after its last change
+   */
+  int moveEnd(int move) {
+    return this.moveEnds[move];
+  }
+
+  /**
+   * Returns the change at the given index.
+   * @param index the index of the change
+   * @return the packed change
+   */
+  int change(int index) {
+    return this.changes[index];
+  }
+
+  /**
+   * Mark the last move made as undone.
+   */
+  void stepBack() {
+    this.cursor--;
+  }
+
+  /**
+   * Mark the first undone move as made again.
+   */
+  void stepForward() {
+    this.cursor++;
+  }
+
+  /**
+   * Returns the state kept outside of the game once the moves made so far had been made.
+   * @return the state recorded with the last move made, or the initial state
+   */
+  long state() {
+    return this.cursor == 0 ? this.initialState : this.states[this.cursor - 1];
+  }
+
+  /**
+   * Returns the index after the last change of the moves made so far.
+   */
+  private int appliedEnd() {
+    return moveStart(this.cursor);
+  }
+}
@@ -0,0 +1,221 @@
+package cs3500.klondike.model.hw04;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.MoveResult;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A view of a game which can be looked at but not changed, for handing a game to code which
+ * should only read it, such as an automated player choosing a move. The view always shows the
+ * current position of the game it was made from. Every method which would change the game
+ * throws an {@link UnsupportedOperationException} instead, including the ones which would
+ * report a failed move as a {@link MoveResult}, so that changing the game by mistake is never
+ * silent. Copies of the game made by {@link #copy()} can be changed as usual.
+ */
+public final class ReadOnlyKlondike implements SearchableKlondike {
+  private final SearchableKlondike game;
+
+  /**
+   * Create a read-only view of the given game.
+   * @param game the game to view
+   * @throws IllegalArgumentException if the game is null
+   */
+  public ReadOnlyKlondike(SearchableKlondike game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Game must not be null");
+    }
+    this.game = game;
+  }
+
+  /**
+   * Returns the exception thrown by every method which would change the game.
+   */
+  private static UnsupportedOperationException readOnly() {
+    return new UnsupportedOperationException("Game is read only");
+  }
+
+  @Override
+  public List<Card> getDeck() {
+    return Collections.unmodifiableList(this.game.getDeck());
+  }
+
+  @Override
+  public void startGame(List<Card> deck, boolean shuffle, int numPiles, int numDraw) {
+    throw readOnly();
+  }
+
+  @Override
+  public void startGame(List<Card> deck, SplittableRandom random, int numPiles, int numDraw) {
+    throw readOnly();
+  }
+
+  @Override
+  public void startGame(List<Card> deck, long seed, int numPiles, int numDraw) {
+    throw readOnly();
+  }
+
+  @Override
+  public void movePile(int srcPile, int numCards, int destPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public void moveDraw(int destPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public void moveToFoundation(int srcPile, int foundationPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public void moveDrawToFoundation(int foundationPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public void discardDraw() {
+    throw readOnly();
+  }
+
+  @Override
+  public MoveResult tryMovePile(int srcPile, int numCards, int destPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public MoveResult tryMoveDraw(int destPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public MoveResult tryMoveToFoundation(int srcPile, int foundationPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public MoveResult tryMoveDrawToFoundation(int foundationPile) {
+    throw readOnly();
+  }
+
+  @Override
+  public MoveResult tryDiscardDraw() {
+    throw readOnly();
+  }
+
+  @Override
+  public MoveResult tryMove(int move) {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean undo() {
+    throw readOnly();
+  }
+
+  @Override
+  public boolean redo() {
+    throw readOnly();
+  }
+
+  @Override
+  public void restore(KlondikeState state) {
+    throw readOnly();
+  }
+
+  @Override
+  public void shuffleHiddenCards(SplittableRandom random) {
+    throw readOnly();
+  }
+
+  @Override
+  public int getNumRows() throws IllegalStateException {
+    return this.game.getNumRows();
+  }
+
+  @Override
+  public int getNumPiles() throws IllegalStateException {
+    return this.game.getNumPiles();
+  }
+
+  @Override
+  public int getNumDraw() throws IllegalStateException {
+    return this.game.getNumDraw();
+  }
+
+  @Override
+  public boolean isGameOver() throws IllegalStateException {
+    return this.game.isGameOver();
+  }
+
+  @Override
+  public int getScore() throws IllegalStateException {
+    return this.game.getScore();
+  }
+
+  @Override
+  public int getPileHeight(int pileNum) throws IllegalArgumentException, IllegalStateException {
+    return this.game.getPileHeight(pileNum);
+  }
+
+  @Override
+  public boolean isCardVisible(int pileNum, int card)
+      throws IllegalArgumentException, IllegalStateException {
+    return this.game.isCardVisible(pileNum, card);
+  }
+
+  @Override
+  public Card getCardAt(int pileNum, int card)
+      throws IllegalArgumentException, IllegalStateException {
+    return this.game.getCardAt(pileNum, card);
+  }
+
+  @Override
+  public Card getCardAt(int foundationPile)
+      throws IllegalArgumentException, IllegalStateException {
+    return this.game.getCardAt(foundationPile);
+  }
+
+  @Override
+  public List<Card> getDrawCards() throws IllegalStateException {
+    return this.game.getDrawCards();
+  }
+
+  @Override
+  public int readBoard(int[] board) throws IllegalStateException {
+    return this.game.readBoard(board);
+  }
+
+  @Override
+  public int getNumFoundations() throws IllegalStateException {
+    return this.game.getNumFoundations();
+  }
+
+  @Override
+  public int generateMoves(int[] moves) throws IllegalStateException, IllegalArgumentException {
+    return this.game.generateMoves(moves);
+  }
+
+  @Override
+  public int getDrawPileSize() throws IllegalStateException {
+    return this.game.getDrawPileSize();
+  }
+
+  @Override
+  public SearchableKlondike copy() {
+    return this.game.copy();
+  }
+
+  @Override
+  public KlondikeState snapshot() throws IllegalStateException {
+    return this.game.snapshot();
+  }
+
+  @Override
+  public long positionHash(boolean canonical) throws IllegalStateException {
+    return this.game.positionHash(canonical);
+  }
+}
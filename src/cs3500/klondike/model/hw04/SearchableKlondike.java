@@ -0,0 +1,107 @@
+package cs3500.klondike.model.hw04;
+
+import cs3500.klondike.model.hw02.KlondikeModel;
+import cs3500.klondike.model.hw02.MoveResult;
+import java.util.SplittableRandom;
+
+/**
+ * A klondike model which can be explored by automated players and solvers without relying on
+ * exceptions or allocating per move. Moves are represented as ints packed by {@link Move}.
+ */
+public interface SearchableKlondike extends KlondikeModel {
+  /**
+   * Write every move that is legal in the current position to the given buffer.
+   * Moves are written from the start of the buffer and no other part of the buffer is changed.
+   * If there are more legal moves than fit in the buffer, only the first moves.length moves
+   * are written, and the returned count tells the caller how large a buffer is needed.
+   *
+   * @param moves the buffer to write packed moves to
+   * @return the number of legal moves, which may be greater than moves.length
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if moves is null
+   */
+  int generateMoves(int[] moves) throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Returns the number of cards left in the draw pile, including the ones not yet visible.
+   * @return the size of the draw pile
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  int getDrawPileSize() throws IllegalStateException;
+
+  /**
+   * Create an independent copy of this game in its current state. Moves made on the copy
+   * don't affect this game and vice versa.
+   * @return a copy of this game
+   */
+  SearchableKlondike copy();
+
+  /**
+   * Take a snapshot of the current state of this game, which can later be restored to this
+   * game or to any other game of the same type with the same number of piles dealt from the
+   * same cards.
+   * @return an immutable snapshot of this game
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  KlondikeState snapshot() throws IllegalStateException;
+
+  /**
+   * Returns a 64-bit hash of the current position, covering everything a snapshot records.
+   * The hash is kept up to date as moves are made, so this takes constant time. Positions with
+   * equal snapshots have equal hashes, and different positions are very unlikely, but not
+   * guaranteed, to have different hashes.
+   *
+   * <p>A canonical hash ignores the order of the cascade piles and of the foundation piles,
+   * so positions which differ only in which pile holds which cards have the same canonical
+   * hash. Such positions can be won in the same number of moves.</p>
+   *
+   * @param canonical whether to ignore the order of the cascade and foundation piles
+   * @return the hash of the position
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  long positionHash(boolean canonical) throws IllegalStateException;
+
+  /**
+   * Return this game to the position recorded in the given snapshot.
+   * Nothing is changed if the snapshot can't be restored to this game.
+   * @param state a snapshot taken from a compatible game
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if the state is null or from an incompatible game
+   */
+  void restore(KlondikeState state) throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Shuffle the cards the player can't see, the face down cascade cards and the draw cards
+   * after the visible ones, among the places they could be. Every visible card stays where it
+   * is, so the result is one of the positions this game could really be in, as far as a player
+   * who doesn't remember the draw cards they've passed can tell. Moves can't be undone past
+   * the shuffle.
+   * @param random the source of the shuffle
+   * @throws IllegalStateException if the game hasn't been started yet
+   * @throws IllegalArgumentException if random is null
+   */
+  void shuffleHiddenCards(SplittableRandom random)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Attempts to make the given packed move without throwing exceptions.
+   * @param move a move packed by {@link Move}
+   * @return {@link MoveResult#SUCCESS} if the move was made, otherwise the reason it wasn't
+   */
+  default MoveResult tryMove(int move) {
+    switch (Move.type(move)) {
+      case Move.PILE:
+        return tryMovePile(Move.source(move), Move.count(move), Move.destination(move));
+      case Move.DRAW:
+        return tryMoveDraw(Move.destination(move));
+      case Move.TO_FOUNDATION:
+        return tryMoveToFoundation(Move.source(move), Move.destination(move));
+      case Move.DRAW_TO_FOUNDATION:
+        return tryMoveDrawToFoundation(Move.destination(move));
+      case Move.DISCARD_DRAW:
+        return tryDiscardDraw();
+      default:
+        return MoveResult.INVALID_ARGUMENT;
+    }
+  }
+}
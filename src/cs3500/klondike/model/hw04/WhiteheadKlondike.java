@@ -1,14 +1,13 @@
 package cs3500.klondike.model.hw04;
 
-import cs3500.klondike.model.hw02.KlondikeModel;
 import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw02.MoveResult;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
 
 /**
  * This is a model for playing a game of whitehead klondike according to the
@@ -27,14 +26,32 @@ import java.util.stream.IntStream;
  *
  * <p>INVARIANT: All cards in cascade piles are visible.
  */
-public class WhiteheadKlondike implements KlondikeModel {
+public class WhiteheadKlondike implements SearchableKlondike {
+  private static final int[] NO_MOVES = new int[0];
   private final BaseKlondike delegate;
+  private final LegalMoveCounter moveCounter;
+  private final IntConsumer changeListener;
 
   /**
    * Create a new WhiteheadKlondike model by initializing a new BaseKlondike delegate.
    */
   public WhiteheadKlondike() {
     this.delegate = new BaseKlondike();
+    this.moveCounter = new LegalMoveCounter(delegate, GameType.WHITEHEAD);
+    this.changeListener = moveCounter::changeMade;
+  }
+
+  /**
+   * Create a WhiteheadKlondike model playing the given game.
+   * @param delegate the game to play, which has either not started or been revealed already
+   */
+  private WhiteheadKlondike(BaseKlondike delegate) {
+    this.delegate = delegate;
+    this.moveCounter = new LegalMoveCounter(delegate, GameType.WHITEHEAD);
+    this.changeListener = moveCounter::changeMade;
+    if (delegate.hasStarted()) {
+      moveCounter.reset();
+    }
   }
 
   @Override
@@ -47,6 +64,8 @@ public class WhiteheadKlondike implements KlondikeModel {
       throws IllegalArgumentException {
     delegate.startGame(deck, shuffle, numPiles, numDraw);
     revealAllCascadePiles();
+    delegate.clearHistory(0);
+    moveCounter.reset();
   }
 
   /**
@@ -72,69 +91,106 @@ public class WhiteheadKlondike implements KlondikeModel {
     boolean validSuit = false;
     boolean srcOneLess = false;
     if (!destEmpty) {
-      Card destCard = getTopCard(dest);
-      boolean bothBlack =
-          "♣♠".contains("" + srcCard.getSuit()) && "♣♠".contains("" + destCard.getSuit());
-      boolean bothRed =
-          "♡♢".contains("" + srcCard.getSuit()) && "♡♢".contains("" + destCard.getSuit());
-      validSuit = bothBlack || bothRed;
-      srcOneLess = destCard.getPointValue() - srcCard.getPointValue() == 1;
+      int srcCode = srcCard.getCode();
+      int destCode = getTopCard(dest).getCode();
+      validSuit = CardCode.sameColor(srcCode, destCode);
+      srcOneLess = CardCode.valueOf(destCode) - CardCode.valueOf(srcCode) == 1;
     }
     return destEmpty
         || (validSuit && srcOneLess);
   }
 
   /**
-   * Determines if all the cards in the list the same suit.
-   * @param cards A list of cards to see whether they are the same suit
-   * @return True if all of the cards are the same suit
+   * Determines if the top cards of the given pile are all the same suit and in decreasing order.
+   * @param srcPile the pile to check 0 indexed from the left
+   * @param numCards the number of cards from the top of the pile to check
+   * @return True if all of the cards are the same suit and no card is greater than the one
+   *         below it
    */
-  private boolean sameSuit(List<Card> cards) {
-    char firstSuit = cards.get(0).getSuit();
-    return cards.stream()
-        .map(Card::getSuit)
-        .allMatch((Character c) -> c == firstSuit);
+  private boolean sameSuitInOrder(int srcPile, int numCards) {
+    int srcHeight = getPileHeight(srcPile);
+    int prev = getCardAt(srcPile, srcHeight - numCards).getCode();
+    for (int i = srcHeight - numCards + 1; i < srcHeight; i++) {
+      int next = getCardAt(srcPile, i).getCode();
+      if (!CardCode.sameSuit(prev, next) || CardCode.valueOf(next) > CardCode.valueOf(prev)) {
+        return false;
+      }
+      prev = next;
+    }
+    return true;
   }
 
-  /**
-   * Determines if all the cards in the list are in decreasing order.
-   * @param cards cards to check order
-   * @return True if the cards are in decreasing order
-   */
-  private boolean inOrder(List<Card> cards) {
-    List<Card> sortedCards = new ArrayList<>(cards);
-    sortedCards.sort(Collections.reverseOrder(Card::compareValue));
-    return cards.equals(sortedCards);
+  @Override
+  public void movePile(int srcPile, int numCards, int destPile) throws IllegalStateException {
+    tryMovePile(srcPile, numCards, destPile).throwIfFailed("Illegal move");
   }
 
   @Override
-  public void movePile(int srcPile, int numCards, int destPile) throws IllegalStateException {
-    int srcHeight = getPileHeight(srcPile);
-    if (numCards > srcHeight || numCards < 0) {
-      throw new IllegalArgumentException("Not enough cards in source pile.");
+  public MoveResult tryMovePile(int srcPile, int numCards, int destPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
+    }
+    if (!isPile(srcPile) || !isPile(destPile) || srcPile == destPile) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    if (srcPile == destPile) {
-      throw new IllegalArgumentException("Source and destination piles must be distinct.");
+    int srcHeight = getPileHeight(srcPile);
+    if (numCards > srcHeight || numCards < 1) {
+      return MoveResult.INVALID_ARGUMENT;
     }
-    List<Card> cardsToMove = IntStream.range(srcHeight - numCards, srcHeight)
-        .mapToObj((int i) -> getCardAt(srcPile, i))
-        .collect(Collectors.toList());
-    if (cardCanStackOnCascade(cardsToMove.get(0), destPile)
-        && sameSuit(cardsToMove)
-        && inOrder(cardsToMove)) {
-      delegate.movePile(srcPile, numCards, destPile);
-    } else {
-      throw new IllegalStateException("Illegal move");
+    if (!cardCanStackOnCascade(getCardAt(srcPile, srcHeight - numCards), destPile)
+        || !sameSuitInOrder(srcPile, numCards)) {
+      return MoveResult.ILLEGAL_MOVE;
     }
+    MoveResult result = delegate.tryMovePile(srcPile, numCards, destPile);
+    moveCounter.pileChanged(srcPile);
+    moveCounter.pileChanged(destPile);
+    delegate.endMove(0);
+    return result;
+  }
+
+  /**
+   * Determines if there is a cascade pile at the given index in a started game.
+   * @param pileNum the 0-based index (from the left) of the pile
+   * @return true if the pile exists
+   */
+  private boolean isPile(int pileNum) {
+    return pileNum >= 0 && pileNum < getNumPiles();
+  }
+
+  /**
+   * Determines if there is a foundation pile at the given index in a started game.
+   * @param foundationPile the 0-based index (from the left) of the foundation pile
+   * @return true if the foundation pile exists
+   */
+  private boolean isFoundation(int foundationPile) {
+    return foundationPile >= 0 && foundationPile < getNumFoundations();
   }
 
   @Override
   public void moveDraw(int destPile) throws IllegalStateException {
-    if (!getDrawCards().isEmpty() && cardCanStackOnCascade(getDrawCards().get(0), destPile)) {
-      delegate.moveDraw(destPile);
-    } else {
-      throw new IllegalStateException("Draw pile is empty or card can't stack on the target pile");
+    tryMoveDraw(destPile).throwIfFailed(
+        "Draw pile is empty or card can't stack on the target pile");
+  }
+
+  @Override
+  public MoveResult tryMoveDraw(int destPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
+    }
+    Card top = delegate.getTopDrawCard();
+    if (top == null) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    if (!isPile(destPile)) {
+      return MoveResult.INVALID_ARGUMENT;
+    }
+    if (!cardCanStackOnCascade(top, destPile)) {
+      return MoveResult.ILLEGAL_MOVE;
     }
+    MoveResult result = delegate.tryMoveDraw(destPile);
+    moveCounter.pileChanged(destPile);
+    delegate.endMove(0);
+    return result;
   }
 
   /**
@@ -147,15 +203,11 @@ public class WhiteheadKlondike implements KlondikeModel {
    */
   private boolean canStackOnFoundation(Card sourceCard, int foundationPile) {
     Card destCard = getCardAt(foundationPile);
-    boolean foundationEmpty = destCard == null;
-    boolean sameSuit = destCard != null
-        && sourceCard.getSuit() == destCard.getSuit();
-    boolean srcOneGreater = destCard != null
-        && sourceCard.getPointValue() - destCard.getPointValue() == 1;
-    boolean srcCardAce = sourceCard.getPointValue() == 1;
-
-    return (sameSuit && srcOneGreater)
-        || (foundationEmpty && srcCardAce);
+    if (destCard == null) {
+      return sourceCard.getPointValue() == 1;
+    }
+    //the next card of the same suit is always the next code
+    return sourceCard.getCode() == destCard.getCode() + 1;
   }
 
   /**
@@ -169,28 +221,67 @@ public class WhiteheadKlondike implements KlondikeModel {
 
   @Override
   public void moveToFoundation(int srcPile, int foundationPile) throws IllegalStateException {
-    if (getPileHeight(srcPile) > 0 && canStackOnFoundation(getTopCard(srcPile), foundationPile)) {
-      delegate.moveToFoundation(srcPile, foundationPile);
-    } else {
-      throw new IllegalStateException("The move is not allowable");
+    tryMoveToFoundation(srcPile, foundationPile).throwIfFailed("The move is not allowable");
+  }
+
+  @Override
+  public MoveResult tryMoveToFoundation(int srcPile, int foundationPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
+    }
+    if (!isPile(srcPile)) {
+      return MoveResult.INVALID_ARGUMENT;
     }
+    if (getPileHeight(srcPile) == 0) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    if (!isFoundation(foundationPile)) {
+      return MoveResult.INVALID_ARGUMENT;
+    }
+    if (!canStackOnFoundation(getTopCard(srcPile), foundationPile)) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    MoveResult result = delegate.tryMoveToFoundation(srcPile, foundationPile);
+    moveCounter.pileChanged(srcPile);
+    moveCounter.foundationChanged(foundationPile);
+    delegate.endMove(0);
+    return result;
   }
 
   @Override
   public void moveDrawToFoundation(int foundationPile) throws IllegalStateException {
-    if (foundationPile >= getNumFoundations() || foundationPile < 0) {
-      throw new IllegalArgumentException("foundationPile must be a valid index");
+    tryMoveDrawToFoundation(foundationPile).throwIfFailed(
+        "foundationPile must be a valid index and the top draw card must be able to move to it");
+  }
+
+  @Override
+  public MoveResult tryMoveDrawToFoundation(int foundationPile) {
+    if (!delegate.hasStarted()) {
+      return MoveResult.NOT_STARTED;
     }
-    if (!getDrawCards().isEmpty() && canStackOnFoundation(getDrawCards().get(0), foundationPile)) {
-      delegate.moveDrawToFoundation(foundationPile);
-    } else {
-      throw new IllegalStateException("The move is not allowable");
+    if (!isFoundation(foundationPile)) {
+      return MoveResult.INVALID_ARGUMENT;
     }
+    Card top = delegate.getTopDrawCard();
+    if (top == null || !canStackOnFoundation(top, foundationPile)) {
+      return MoveResult.ILLEGAL_MOVE;
+    }
+    MoveResult result = delegate.tryMoveDrawToFoundation(foundationPile);
+    moveCounter.foundationChanged(foundationPile);
+    delegate.endMove(0);
+    return result;
   }
 
   @Override
   public void discardDraw() throws IllegalStateException {
-    delegate.discardDraw();
+    tryDiscardDraw().throwIfFailed("There is no face up draw card to discard");
+  }
+
+  @Override
+  public MoveResult tryDiscardDraw() {
+    MoveResult result = delegate.tryDiscardDraw();
+    delegate.endMove(0);
+    return result;
   }
 
   @Override
@@ -208,45 +299,137 @@ public class WhiteheadKlondike implements KlondikeModel {
     return delegate.getNumDraw();
   }
 
+  /**
+   * Signal if the game is over or not, examining only the piles changed since the last call.
+   * When {@link LegalMoveCounter#isVerifying()} is true the answer is also checked against
+   * {@link #generateMoves(int[])}.
+   * @return true if game is over, false otherwise
+   * @throws IllegalStateException if the game hasn't been started yet, or if verifying and
+   *                               the two checks disagree
+   */
   @Override
   public boolean isGameOver() throws IllegalStateException {
     //error checking
     delegate.isGameOver();
 
-    Predicate<Card> toAnyFoundationLegal = (Card c) -> IntStream.range(0,
-        getNumFoundations()).anyMatch((int i) -> canStackOnFoundation(c, i));
-    //can the draw card be moved to any foundation pile
-    boolean drawToFoundationLegal = !getDrawCards().isEmpty()
-        && toAnyFoundationLegal.test(getDrawCards().get(0));
-    //can the top card of any non-empty cascade pile be moved to any foundation pile
-    boolean cascadeToFoundationLegal = IntStream.range(0, getNumPiles())
-        //filter non-empty
-        .filter((int pileNum) -> getPileHeight(pileNum) > 0)
-        //get top card
-        .mapToObj((int pile) -> getCardAt(pile, getPileHeight(pile) - 1))
-        //check if each card can move to any foundation
-        .anyMatch(toAnyFoundationLegal);
-    Predicate<Card> toAnyCascadeLegal = (Card c) -> IntStream.range(0, getNumPiles())
-        .anyMatch((int i) -> cardCanStackOnCascade(c, i));
-    //can the draw card be moved to any cascade pile
-    boolean drawToCascadeLegal = !getDrawCards().isEmpty()
-        && toAnyCascadeLegal.test(getDrawCards().get(0));
-    //does any cascade pile have a face up card that can be moved to any cascade pile?
-    boolean movePileLegal = IntStream.range(0, getNumPiles())
-        //filter non-empty
-        .filter((int pileNum) -> getPileHeight(pileNum) > 0)
-        .anyMatch((int pileNum) -> IntStream.range(0, getPileHeight(pileNum) - 1)
-            //map to card
-            .mapToObj((int card) -> getCardAt(pileNum, card))
-            //check if card can go to any foundation
-            .anyMatch(toAnyCascadeLegal));
-    boolean discardLegal = !getDrawCards().isEmpty();
-
-    return !discardLegal
-        && !drawToFoundationLegal
-        && !drawToCascadeLegal
-        && !cascadeToFoundationLegal
-        && !movePileLegal;
+    //a draw card can always be discarded
+    boolean gameOver = delegate.getTopDrawCard() == null && !moveCounter.hasCascadeMoves();
+    if (LegalMoveCounter.isVerifying() && gameOver != (generateMoves(NO_MOVES) == 0)) {
+      throw new IllegalStateException("Legal move counter disagrees with a full scan");
+    }
+    return gameOver;
+  }
+
+  @Override
+  public int generateMoves(int[] moves) throws IllegalStateException {
+    if (moves == null) {
+      throw new IllegalArgumentException("Move buffer cannot be null");
+    }
+    int numPiles = getNumPiles();
+    int numFoundations = getNumFoundations();
+    Card topDraw = delegate.getTopDrawCard();
+    int count = 0;
+
+    //top cards of cascade piles and the draw pile to foundation piles
+    for (int pile = 0; pile < numPiles; pile++) {
+      if (getPileHeight(pile) > 0) {
+        Card top = getTopCard(pile);
+        for (int foundation = 0; foundation < numFoundations; foundation++) {
+          if (canStackOnFoundation(top, foundation)) {
+            count = Move.append(moves, count, Move.toFoundation(pile, foundation));
+          }
+        }
+      }
+    }
+    if (topDraw != null) {
+      for (int foundation = 0; foundation < numFoundations; foundation++) {
+        if (canStackOnFoundation(topDraw, foundation)) {
+          count = Move.append(moves, count, Move.drawToFoundation(foundation));
+        }
+      }
+    }
+
+    //every same suit run of cards to every other cascade pile
+    for (int src = 0; src < numPiles; src++) {
+      int height = getPileHeight(src);
+      int above = -1;
+      for (int card = height - 1; card >= 0; card--) {
+        Card bottom = getCardAt(src, card);
+        int code = bottom.getCode();
+        //a run that can't be moved can't be extended into one that can
+        if (above >= 0 && (!CardCode.sameSuit(code, above)
+            || CardCode.valueOf(above) > CardCode.valueOf(code))) {
+          break;
+        }
+        for (int dest = 0; dest < numPiles; dest++) {
+          if (dest != src && cardCanStackOnCascade(bottom, dest)) {
+            count = Move.append(moves, count, Move.pile(src, height - card, dest));
+          }
+        }
+        above = code;
+      }
+    }
+
+    //the top draw card to cascade piles, or discarding it
+    if (topDraw != null) {
+      for (int dest = 0; dest < numPiles; dest++) {
+        if (cardCanStackOnCascade(topDraw, dest)) {
+          count = Move.append(moves, count, Move.draw(dest));
+        }
+      }
+      count = Move.append(moves, count, Move.discardDraw());
+    }
+    return count;
+  }
+
+  /**
+   * Take back the last move made that hasn't been undone.
+   * @return true if a move was undone, false if there was no move to undo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean undo() throws IllegalStateException {
+    return delegate.undo(changeListener);
+  }
+
+  /**
+   * Make the last move undone by {@link #undo()} again, as long as no other move has been
+   * made since.
+   * @return true if a move was redone, false if there was no move to redo
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  @Override
+  public boolean redo() throws IllegalStateException {
+    return delegate.redo(changeListener);
+  }
+
+  @Override
+  public WhiteheadKlondike copy() {
+    return new WhiteheadKlondike(delegate.copy());
+  }
+
+  @Override
+  public KlondikeState snapshot() throws IllegalStateException {
+    return delegate.snapshot();
+  }
+
+  @Override
+  public long positionHash(boolean canonical) throws IllegalStateException {
+    return delegate.positionHash(canonical);
+  }
+
+  @Override
+  public void restore(KlondikeState state)
+      throws IllegalStateException, IllegalArgumentException {
+    delegate.restore(state);
+    moveCounter.reset();
+  }
+
+  @Override
+  public void shuffleHiddenCards(SplittableRandom random)
+      throws IllegalStateException, IllegalArgumentException {
+    delegate.shuffleHiddenCards(random);
+    moveCounter.reset();
   }
 
   @Override
@@ -274,6 +457,11 @@ public class WhiteheadKlondike implements KlondikeModel {
     return delegate.isCardVisible(pileNum, card);
   }
 
+  @Override
+  public int readBoard(int[] board) throws IllegalStateException {
+    return delegate.readBoard(board);
+  }
+
   @Override
   public List<Card> getDrawCards() throws IllegalStateException {
     return delegate.getDrawCards();
@@ -283,4 +471,9 @@ public class WhiteheadKlondike implements KlondikeModel {
   public int getNumFoundations() throws IllegalStateException {
     return delegate.getNumFoundations();
   }
+
+  @Override
+  public int getDrawPileSize() throws IllegalStateException {
+    return delegate.getDrawPileSize();
+  }
 }
@@ -0,0 +1,98 @@
+package cs3500.klondike.model.hw04;
+
+/**
+ * The random keys used to hash klondike positions. Rather than being stored in tables, each
+ * key is computed by mixing a number describing what it stands for, so keys need no memory and
+ * are the same in every game and every run.
+ */
+final class Zobrist {
+  /**
+   * The odd multiplier of the polynomial hash of a draw pile.
+   */
+  static final long BASE = 0x9E3779B97F4A7C15L;
+  /**
+   * The multiplicative inverse of {@link #BASE} modulo 2^64.
+   */
+  static final long BASE_INVERSE = inverse(BASE);
+
+  //the kinds of things keys stand for, in the bits above a card code and a position
+  private static final int CASCADE = 1 << 24;
+  private static final int PILE = 2 << 24;
+  private static final int FOUNDATION = 3 << 24;
+  private static final int FOUNDATION_CARD = 4 << 24;
+  private static final int DRAW = 5 << 24;
+
+  private Zobrist() {
+  }
+
+  /**
+   * Returns the key of a card at the given row of a cascade pile.
+   * @param row the 0-indexed row of the card
+   * @param code the code of the card, including whether it is face up
+   * @return the key of the card
+   */
+  static long cascadeKey(int row, int code) {
+    return mix(CASCADE | row << 8 | code);
+  }
+
+  /**
+   * Returns the key which tells the cascade pile at the given index apart from the others.
+   * @param pile the 0-indexed pile
+   * @return the key of the pile
+   */
+  static long pileKey(int pile) {
+    return mix(PILE | pile);
+  }
+
+  /**
+   * Returns the key of a card on top of the foundation pile at the given index.
+   * @param foundation the 0-indexed foundation pile
+   * @param code the code of the card, or 0 for an empty pile
+   * @return the key of the card, which is 0 for an empty pile
+   */
+  static long foundationKey(int foundation, int code) {
+    return code == 0 ? 0 : mix(FOUNDATION | foundation << 8 | code);
+  }
+
+  /**
+   * Returns the key of a card on top of some foundation pile, whichever it is.
+   * @param code the code of the card, or 0 for an empty pile
+   * @return the key of the card, which is 0 for an empty pile
+   */
+  static long foundationKey(int code) {
+    return code == 0 ? 0 : mix(FOUNDATION_CARD | code);
+  }
+
+  /**
+   * Returns the key of a card in the draw pile.
+   * @param code the code of the card
+   * @return the key of the card
+   */
+  static long drawKey(int code) {
+    return mix(DRAW | code);
+  }
+
+  /**
+   * Scramble the bits of a number, so that similar numbers give unrelated results.
+   * @param value the number to scramble
+   * @return the scrambled number
+   */
+  static long mix(long value) {
+    long z = value * BASE + BASE;
+    z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+    return z ^ z >>> 31;
+  }
+
+  /**
+   * Returns the inverse of an odd number modulo 2^64, by Newton's method, each step of which
+   * doubles the number of correct low bits.
+   */
+  private static long inverse(long odd) {
+    long inverse = odd;
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2 - odd * inverse;
+    }
+    return inverse;
+  }
+}
@@ -0,0 +1,136 @@
+package cs3500.klondike.player;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+
+/**
+ * A player which makes the best looking move every turn without looking ahead. In order of
+ * preference it moves cards to foundations, moves runs off face down cards to reveal them,
+ * uncovers cards which can go to a foundation, empties piles, plays draw cards, moves runs
+ * off cards they weren't built on, and finally turns over the draw pile.
+ *
+ * <p>Moves between piles which only take a run from one card to an equivalent one are never
+ * made, since they could be undone by the next move and lead nowhere, and neither are moves
+ * of a whole pile onto an empty pile. The player gives up once it has turned through the
+ * whole draw pile without making any other move. It only reads the game through methods which
+ * don't allocate, so choosing a move allocates nothing.</p>
+ */
+public final class GreedyPlayer implements Player {
+  private static final int FOUNDATION_SCORE = 1000;
+  private static final int DRAW_TO_FOUNDATION_SCORE = 900;
+  private static final int REVEAL_SCORE = 800;
+  private static final int UNCOVER_FOUNDATION_SCORE = 700;
+  private static final int EMPTY_PILE_SCORE = 600;
+  private static final int DRAW_TO_EMPTY_SCORE = 550;
+  private static final int DRAW_SCORE = 500;
+  private static final int UNBUILT_SCORE = 400;
+  private static final int DISCARD_SCORE = 1;
+
+  private int discardsInARow;
+
+  @Override
+  public void newDeal(long seed) {
+    this.discardsInARow = 0;
+  }
+
+  @Override
+  public int chooseMove(SearchableKlondike game, int[] moves, int count) {
+    int best = 0;
+    int bestScore = 0;
+    for (int i = 0; i < count; i++) {
+      int score = score(game, moves[i]);
+      if (score > bestScore) {
+        best = moves[i];
+        bestScore = score;
+      }
+    }
+    if (Move.type(best) != Move.DISCARD_DRAW) {
+      this.discardsInARow = 0;
+    } else if (++this.discardsInARow > game.getDrawPileSize()) {
+      return 0;
+    }
+    return best;
+  }
+
+  /**
+   * Score a legal move by how good it looks.
+   * @param game the game the move is legal in
+   * @param move the packed move
+   * @return a score where higher is better, or 0 if the move should never be made
+   */
+  static int score(SearchableKlondike game, int move) {
+    switch (Move.type(move)) {
+      case Move.TO_FOUNDATION:
+        //prefer moves which also reveal a card
+        return FOUNDATION_SCORE + hiddenBelow(game, Move.source(move), 1);
+      case Move.DRAW_TO_FOUNDATION:
+        return DRAW_TO_FOUNDATION_SCORE;
+      case Move.DRAW:
+        return game.getPileHeight(Move.destination(move)) == 0 ? DRAW_TO_EMPTY_SCORE
+            : DRAW_SCORE;
+      case Move.DISCARD_DRAW:
+        return DISCARD_SCORE;
+      default:
+        break;
+    }
+    int src = Move.source(move);
+    int dest = Move.destination(move);
+    int left = game.getPileHeight(src) - Move.count(move);
+    int destHeight = game.getPileHeight(dest);
+    if (left == 0) {
+      return destHeight == 0 ? 0 : EMPTY_PILE_SCORE;
+    }
+    if (!game.isCardVisible(src, left - 1)) {
+      //reveal cards from the piles with the most face down cards first
+      return REVEAL_SCORE + hiddenBelow(game, src, Move.count(move));
+    }
+    int below = game.getCardAt(src, left - 1).getCode();
+    if (canFound(game, below)) {
+      return UNCOVER_FOUNDATION_SCORE;
+    }
+    if (destHeight == 0) {
+      return 0;
+    }
+    //the run can be built on the new card, so if the card under it is the same value and
+    //color it was already built on an equivalent card
+    int parent = game.getCardAt(dest, destHeight - 1).getCode();
+    return CardCode.valueOf(below) == CardCode.valueOf(parent)
+        && CardCode.sameColor(below, parent) ? 0 : UNBUILT_SCORE;
+  }
+
+  /**
+   * Checks if a card could be moved to some foundation pile.
+   * @param game the game the card is in
+   * @param code the code of the card
+   * @return true if the card is next on a foundation pile
+   */
+  private static boolean canFound(SearchableKlondike game, int code) {
+    for (int i = 0; i < game.getNumFoundations(); i++) {
+      Card top = game.getCardAt(i);
+      if (top == null ? CardCode.valueOf(code) == 1 : CardCode.sameSuit(top.getCode(), code)
+          && CardCode.valueOf(top.getCode()) + 1 == CardCode.valueOf(code)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Count the face down cards left in a pile once its top cards are moved.
+   * @param game the game the pile is in
+   * @param pile the 0-indexed pile
+   * @param moved the number of cards moved off the top of the pile
+   * @return the number of face down cards under the moved cards
+   */
+  private static int hiddenBelow(SearchableKlondike game, int pile, int moved) {
+    int hidden = 0;
+    for (int row = game.getPileHeight(pile) - moved - 1; row >= 0; row--) {
+      if (!game.isCardVisible(pile, row)) {
+        hidden++;
+      }
+    }
+    return hidden;
+  }
+}
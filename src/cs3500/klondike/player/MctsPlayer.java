@@ -0,0 +1,446 @@
+package cs3500.klondike.player;
+
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.solver.SearchRules;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A player which chooses each move by Monte Carlo tree search over the positions the game
+ * could really be in. Every iteration shuffles the cards the player can't see into one of the
+ * places they could be, walks down a tree of moves choosing between the moves legal in that
+ * shuffle by their upper confidence bounds, adds one new move to the tree, and plays the rest
+ * of the game out with a {@link GreedyPlayer}. Since a move may only be legal in some shuffles,
+ * each move is judged against the number of times it was available rather than the number of
+ * times its parent was visited. The move made is the one tried the most from the current
+ * position.
+ *
+ * <p>Most of a game's outcome rests on the hidden cards, so a few hundred playouts can't tell
+ * similar moves apart. The search leans on the greedy player's judgement until the playouts
+ * say otherwise: it only considers moves the greedy player would make, tries them in the order
+ * it prefers, and adds a bias towards them to their bounds which fades as they are tried.</p>
+ *
+ * <p>Several threads grow the same tree at once. A thread walking down the tree counts a
+ * visit to each node before its playout is finished, as though the playout were lost, so the
+ * other threads spread out over other moves until the real result is added. Searching stops
+ * once the time budget for the move has passed or every thread has made its share of a limit
+ * on iterations, and since the budget is only checked between iterations, a move can take one
+ * playout longer than its budget.</p>
+ *
+ * <p>Unlike simpler players, this player allocates the nodes of its tree for every decision.
+ * Its threads are started the first time it chooses a move and stopped by {@link #close()},
+ * unless it is given a pool to share with other players by {@link #setPool}.</p>
+ */
+public final class MctsPlayer implements Player {
+  //rewards are fractions of one kept as fixed point numbers so that they can be added
+  //atomically
+  private static final long REWARD_SCALE = 1L << 20;
+  private static final double EXPLORATION = 0.7;
+  //how many visits' worth of trust to put in the greedy player's opinion of a move
+  private static final double PRIOR_WEIGHT = 20;
+  private static final int VIRTUAL_LOSS = 1;
+  private static final Node[] NO_CHILDREN = new Node[0];
+
+  private Duration moveBudget;
+  private int numThreads;
+  private int maxIterations;
+  private int moveLimit;
+  private long seed;
+  private int decisions;
+  private int discardsInARow;
+  //the threads this player started, or null until it needs them
+  private ExecutorService pool;
+  //threads shared with other players, which this player doesn't shut down, or null
+  private ExecutorService sharedPool;
+
+  /**
+   * Create a player which spends up to 100 milliseconds on each move, searching on one thread
+   * per processor with no limit on iterations, and plays each playout for at most 1000 moves.
+   */
+  public MctsPlayer() {
+    this.moveBudget = Duration.ofMillis(100);
+    this.numThreads = Runtime.getRuntime().availableProcessors();
+    this.maxIterations = Integer.MAX_VALUE;
+    this.moveLimit = 1000;
+  }
+
+  /**
+   * Set how long to search for each move.
+   * @param moveBudget the time to spend on one move
+   * @return this
+   * @throws IllegalArgumentException if the budget is null or negative
+   */
+  public MctsPlayer setMoveBudget(Duration moveBudget) {
+    if (moveBudget == null || moveBudget.isNegative()) {
+      throw new IllegalArgumentException("Move budget must be non-negative");
+    }
+    this.moveBudget = moveBudget;
+    return this;
+  }
+
+  /**
+   * Set the number of threads to search on at once, including the thread choosing the move.
+   * @param numThreads the number of threads
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public MctsPlayer setNumThreads(int numThreads) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    close();
+    this.numThreads = numThreads;
+    return this;
+  }
+
+  /**
+   * Search on the given pool rather than on threads of this player's own, so that players of
+   * games played at once can share one pool. For every player sharing it to search at full
+   * speed, the pool needs one thread fewer than the number each player searches on.
+   * @param pool the pool to search on, which closing this player doesn't shut down, or null
+   *             to go back to starting threads of its own
+   * @return this
+   */
+  public MctsPlayer setPool(ExecutorService pool) {
+    close();
+    this.sharedPool = pool;
+    return this;
+  }
+
+  /**
+   * Set the number of iterations after which to stop searching for a move even if there is
+   * time left. The iterations are split evenly between the threads, so a search on one thread
+   * with a long enough budget always chooses the same move.
+   * @param maxIterations the most iterations to search for each move
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public MctsPlayer setMaxIterations(int maxIterations) {
+    if (maxIterations < 1) {
+      throw new IllegalArgumentException("Number of iterations must be positive");
+    }
+    this.maxIterations = maxIterations;
+    return this;
+  }
+
+  /**
+   * Set the number of moves after which a playout which hasn't ended counts as lost.
+   * @param moveLimit the most moves to make in one playout
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public MctsPlayer setMoveLimit(int moveLimit) {
+    if (moveLimit < 1) {
+      throw new IllegalArgumentException("Move limit must be positive");
+    }
+    this.moveLimit = moveLimit;
+    return this;
+  }
+
+  @Override
+  public void newDeal(long seed) {
+    this.seed = seed;
+    this.decisions = 0;
+    this.discardsInARow = 0;
+  }
+
+  @Override
+  public int chooseMove(SearchableKlondike game, int[] moves, int count) {
+    int best = count == 1 && GreedyPlayer.score(game, moves[0]) > 0 ? moves[0]
+        : search(game, moves, count);
+    //like the greedy player, give up once the draw pile has been turned through without
+    //finding anything better to do
+    if (Move.type(best) != Move.DISCARD_DRAW) {
+      this.discardsInARow = 0;
+    } else if (++this.discardsInARow > game.getDrawPileSize()) {
+      return 0;
+    }
+    return best;
+  }
+
+  /**
+   * Stop the threads this player started to search on, leaving any shared pool running. The
+   * player can still be used afterwards, and starts new threads the next time it needs them.
+   */
+  @Override
+  public void close() {
+    if (this.pool != null) {
+      this.pool.shutdownNow();
+      this.pool = null;
+    }
+  }
+
+  /**
+   * Search the current position of the given game and choose the move tried the most.
+   * @param game the game being played, which isn't changed
+   * @param moves the packed legal moves in the game
+   * @param count the number of legal moves
+   * @return the chosen move, or 0 if no move is worth making
+   */
+  private int search(SearchableKlondike game, int[] moves, int count) {
+    long deadline = System.nanoTime() + this.moveBudget.toNanos();
+    KlondikeState root = game.snapshot();
+    int numCards = SearchRules.countCards(game);
+    Node tree = new Node(0, 0);
+    SplittableRandom random = new SplittableRandom(this.seed * 0x9E3779B97F4A7C15L
+        + this.decisions++);
+    int perThread = Math.max(1, this.maxIterations / this.numThreads);
+    List<Worker> workers = new ArrayList<>();
+    for (int t = 0; t < this.numThreads; t++) {
+      workers.add(new Worker(game.copy(), root, numCards, tree, random.split()));
+    }
+    if (this.numThreads > 1 && this.sharedPool == null && this.pool == null) {
+      this.pool = Executors.newFixedThreadPool(this.numThreads - 1, runnable -> {
+        Thread thread = new Thread(runnable, "mcts-player");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    ExecutorService pool = this.sharedPool != null ? this.sharedPool : this.pool;
+    List<Future<?>> futures = new ArrayList<>();
+    for (Worker worker : workers.subList(1, workers.size())) {
+      futures.add(pool.submit(() -> worker.run(perThread, deadline)));
+    }
+    workers.get(0).run(perThread, deadline);
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Search was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Search failed", e.getCause());
+    }
+
+    int best = 0;
+    int bestVisits = 0;
+    for (int i = 0; i < count; i++) {
+      Node child = tree.child(moves[i]);
+      int visits = child == null ? 0 : child.visits.get();
+      if (visits > bestVisits) {
+        best = moves[i];
+        bestVisits = visits;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * A move in the search tree, with the results of every playout which made it.
+   */
+  private static final class Node {
+    private final int move;
+    private final double prior;
+    private final AtomicInteger visits = new AtomicInteger();
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicLong reward = new AtomicLong();
+    //replaced rather than changed so that it can be read without locking
+    private volatile Node[] children = NO_CHILDREN;
+
+    /**
+     * Create a node for a move which hasn't been tried yet.
+     * @param move the packed move
+     * @param score the greedy player's score for the move, where its best moves score about
+     *              1000
+     */
+    private Node(int move, int score) {
+      this.move = move;
+      this.prior = score / 1000.0;
+    }
+
+    /**
+     * Find the child made by the given move.
+     * @param move the packed move
+     * @return the child, or null if the move hasn't been tried from here
+     */
+    private Node child(int move) {
+      for (Node child : this.children) {
+        if (child.move == move) {
+          return child;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Add a child for the given move, unless another thread already has.
+     * @param move the packed move
+     * @return the child made by the move
+     */
+    private synchronized Node addChild(int move, int score) {
+      Node child = child(move);
+      if (child == null) {
+        child = new Node(move, score);
+        Node[] grown = Arrays.copyOf(this.children, this.children.length + 1);
+        grown[this.children.length] = child;
+        this.children = grown;
+      }
+      return child;
+    }
+
+    /**
+     * Returns the upper confidence bound on the reward of this move, plus a bias towards the
+     * moves the greedy player likes which fades as the move is tried.
+     */
+    private double bound() {
+      int n = Math.max(1, this.visits.get());
+      return (double) this.reward.get() / REWARD_SCALE / n
+          + EXPLORATION * Math.sqrt(Math.log(Math.max(1, this.available.get())) / n)
+          + PRIOR_WEIGHT * this.prior / n;
+    }
+  }
+
+  /**
+   * The state one thread searches with.
+   */
+  private final class Worker {
+    private final SearchableKlondike game;
+    private final KlondikeState root;
+    private final int numCards;
+    private final Node tree;
+    private final SplittableRandom random;
+    private final Player rollout;
+    private final List<Node> path;
+    private int[] moves;
+
+    private Worker(SearchableKlondike game, KlondikeState root, int numCards, Node tree,
+                   SplittableRandom random) {
+      this.game = game;
+      this.root = root;
+      this.numCards = numCards;
+      this.tree = tree;
+      this.random = random;
+      this.rollout = new GreedyPlayer();
+      this.path = new ArrayList<>();
+      this.moves = new int[256];
+    }
+
+    /**
+     * Search until the given number of iterations have been made or the deadline passes.
+     * @param iterations the most iterations to make
+     * @param deadline the value of {@link System#nanoTime()} to stop at
+     */
+    private void run(int iterations, long deadline) {
+      for (int i = 0; i < iterations; i++) {
+        iterate();
+        if (System.nanoTime() - deadline >= 0) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Shuffle the hidden cards, walk down the tree to a new move, play the game out from
+     * there, and add the result to every node on the way.
+     */
+    private void iterate() {
+      this.game.restore(this.root);
+      this.game.shuffleHiddenCards(this.random);
+      this.path.clear();
+      Node node = this.tree;
+      visit(node);
+      int made = 0;
+      boolean expanded = false;
+      while (!expanded && made < moveLimit) {
+        int count = generate();
+        if (count == 0) {
+          break;
+        }
+        //expand the best looking move not tried from here yet, and otherwise choose the
+        //tried move with the highest bound, skipping moves the greedy player would never make
+        Node next = null;
+        int untried = 0;
+        int untriedScore = 0;
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+          int score = GreedyPlayer.score(this.game, this.moves[i]);
+          Node child = score == 0 ? null : node.child(this.moves[i]);
+          if (child != null) {
+            child.available.incrementAndGet();
+            double bound = child.bound();
+            if (bound > bestBound) {
+              next = child;
+              bestBound = bound;
+            }
+          } else if (score > untriedScore) {
+            untried = this.moves[i];
+            untriedScore = score;
+          }
+        }
+        if (untried != 0) {
+          next = node.addChild(untried, untriedScore);
+          expanded = true;
+        } else if (next == null) {
+          break;
+        }
+        if (this.game.tryMove(next.move) != MoveResult.SUCCESS) {
+          break;
+        }
+        made++;
+        node = next;
+        visit(node);
+      }
+
+      long reward = playOut(made);
+      for (Node visited : this.path) {
+        visited.visits.addAndGet(1 - VIRTUAL_LOSS);
+        visited.reward.addAndGet(reward);
+      }
+    }
+
+    /**
+     * Count a visit to the given node before its result is known.
+     */
+    private void visit(Node node) {
+      node.visits.addAndGet(VIRTUAL_LOSS);
+      //a new node was available the time it was added
+      node.available.compareAndSet(0, 1);
+      this.path.add(node);
+    }
+
+    /**
+     * Play the game out with the rollout player and score how it ended. A win is worth one,
+     * and a loss is worth up to a half for the fraction of cards moved to foundations.
+     * @param made the number of moves made already
+     * @return the reward scaled by {@link #REWARD_SCALE}
+     */
+    private long playOut(int made) {
+      this.rollout.newDeal(0);
+      for (; made < moveLimit; made++) {
+        int count = generate();
+        int move = count == 0 ? 0 : this.rollout.chooseMove(this.game, this.moves, count);
+        if (move == 0 || this.game.tryMove(move) != MoveResult.SUCCESS) {
+          break;
+        }
+      }
+      int score = this.game.getScore();
+      return score == this.numCards ? REWARD_SCALE : REWARD_SCALE * score / this.numCards / 2;
+    }
+
+    /**
+     * Fill the move buffer with the legal moves, growing it if needed.
+     * @return the number of legal moves
+     */
+    private int generate() {
+      int count = this.game.generateMoves(this.moves);
+      if (count > this.moves.length) {
+        this.moves = new int[count];
+        count = this.game.generateMoves(this.moves);
+      }
+      return count;
+    }
+  }
+}
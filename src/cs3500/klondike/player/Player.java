@@ -0,0 +1,44 @@
+package cs3500.klondike.player;
+
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.ReadOnlyKlondike;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+
+/**
+ * An automated klondike player, which chooses each move of a game from the legal moves.
+ *
+ * <p>Players are given a {@link ReadOnlyKlondike} view of the game to look at and a buffer of
+ * its legal moves, packed by {@link Move}, which the caller fills and reuses for every
+ * decision. A player which needs to try moves out does so on a copy of the game. Players
+ * should not allocate per decision, so that many games can be played quickly. A player is only
+ * used by one thread at a time.</p>
+ *
+ * <p>Players which start threads of their own stop them when closed, so whoever creates a
+ * player should close it once it has finished playing.</p>
+ */
+public interface Player extends AutoCloseable {
+  /**
+   * Get ready to play a new deal. Players which make random choices should seed them from the
+   * given seed, so that playing the same deal with the same seed makes the same moves.
+   * @param seed the seed the deal was shuffled with
+   */
+  default void newDeal(long seed) {
+  }
+
+  /**
+   * Choose the next move to make.
+   * @param game a read-only view of the game being played
+   * @param moves the packed legal moves in the game
+   * @param count the number of legal moves, which is at least one
+   * @return one of the given moves, or 0 to stop playing
+   */
+  int chooseMove(SearchableKlondike game, int[] moves, int count);
+
+  /**
+   * Release anything the player holds between games, such as threads. By default there is
+   * nothing to release.
+   */
+  @Override
+  default void close() {
+  }
+}
@@ -0,0 +1,108 @@
+package cs3500.klondike.player;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * A factory class for creating automated players.
+ */
+public final class PlayerCreator {
+  /**
+   * Enum containing each kind of player this factory can create.
+   */
+  public enum Strategy {
+    RANDOM, GREEDY, MCTS;
+  }
+
+  private PlayerCreator() {
+  }
+
+  /**
+   * Create a new player of the given kind.
+   * @param strategy which kind of player to create
+   * @return the player
+   * @throws IllegalArgumentException if the strategy is null
+   */
+  public static Player create(Strategy strategy) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("Strategy must not be null");
+    }
+    switch (strategy) {
+      case RANDOM:
+        return new RandomPlayer();
+      case GREEDY:
+        return new GreedyPlayer();
+      case MCTS:
+        return new MctsPlayer();
+      default:
+        throw new IllegalArgumentException("Unknown strategy " + strategy);
+    }
+  }
+
+  /**
+   * Make players of the given kind for the given number of threads playing games at once,
+   * such as the threads of a simulation. Players which search on threads of their own share
+   * one pool, and search on as many threads each as leaves one thread per processor overall.
+   * @param strategy which kind of player to create
+   * @param numThreads the number of threads which will be playing at once
+   * @return the players, which must be closed once every game has been played
+   * @throws IllegalArgumentException if the strategy is null or the number isn't positive
+   */
+  public static Players players(Strategy strategy, int numThreads) {
+    return new Players(strategy, numThreads);
+  }
+
+  /**
+   * Makes a new player for each thread playing games at once, and owns the pool the players
+   * search on. Closing it stops the pool, so it should only be closed once every game has
+   * been played.
+   */
+  public static final class Players implements Supplier<Player>, AutoCloseable {
+    private final Strategy strategy;
+    //the threads each player searches on, including the one playing its game
+    private final int searchThreads;
+    private final ExecutorService pool;
+
+    private Players(Strategy strategy, int numThreads) {
+      if (strategy == null || numThreads < 1) {
+        throw new IllegalArgumentException("Strategy and a positive thread count must be given");
+      }
+      this.strategy = strategy;
+      this.searchThreads = Math.max(1,
+          Runtime.getRuntime().availableProcessors() / numThreads);
+      if (strategy == Strategy.MCTS && this.searchThreads > 1) {
+        this.pool = Executors.newFixedThreadPool(numThreads * (this.searchThreads - 1),
+            runnable -> {
+              Thread thread = new Thread(runnable, "mcts-player");
+              thread.setDaemon(true);
+              return thread;
+            });
+      } else {
+        this.pool = null;
+      }
+    }
+
+    /**
+     * Create a new player for one thread.
+     * @return the player
+     */
+    @Override
+    public Player get() {
+      if (this.strategy == Strategy.MCTS) {
+        return new MctsPlayer().setNumThreads(this.searchThreads).setPool(this.pool);
+      }
+      return create(this.strategy);
+    }
+
+    /**
+     * Stop the pool the players search on.
+     */
+    @Override
+    public void close() {
+      if (this.pool != null) {
+        this.pool.shutdownNow();
+      }
+    }
+  }
+}
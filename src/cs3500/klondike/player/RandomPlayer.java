@@ -0,0 +1,34 @@
+package cs3500.klondike.player;
+
+import cs3500.klondike.model.hw04.SearchableKlondike;
+
+/**
+ * A player which makes a uniformly random legal move every turn. It keeps the state of its
+ * own random number generator, so that reseeding it for each deal allocates nothing.
+ */
+public final class RandomPlayer implements Player {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private long state;
+
+  @Override
+  public void newDeal(long seed) {
+    this.state = seed;
+  }
+
+  @Override
+  public int chooseMove(SearchableKlondike game, int[] moves, int count) {
+    return moves[(int) ((nextLong() >>> 33) * count >>> 31)];
+  }
+
+  /**
+   * Returns the next random number, by adding the golden gamma to the state and mixing the sum
+   * with the fmix64 finalizer of MurmurHash3.
+   */
+  private long nextLong() {
+    long z = this.state += GOLDEN_GAMMA;
+    z = (z ^ z >>> 33) * 0xFF51AFD7ED558CCDL;
+    z = (z ^ z >>> 33) * 0xC4CEB9FE1A85EC53L;
+    return z ^ z >>> 33;
+  }
+}
@@ -0,0 +1,315 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.Player;
+import cs3500.klondike.solver.HeapTranspositionTable;
+import cs3500.klondike.solver.KlondikeSolver;
+import cs3500.klondike.solver.SolverResult;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Rates how hard each deal in a range of seeds is. Every deal is searched by a
+ * {@link KlondikeSolver} with a node limit, and played a number of times by an automated
+ * player, and the results are written to a file as one {@link DealRating} per line, after a
+ * first line starting with "#" which records the settings they were rated with.
+ *
+ * <p>Rating a large range can take hours, so a rating is written and flushed as soon as its
+ * deal is done, and rating the same range into the same file again carries on where an
+ * interrupted run stopped: deals the file already has a rating for are skipped, and a last
+ * line cut off part way through is removed. A file rated with other settings is never carried
+ * on, since its ratings couldn't be compared with the new ones. Ratings are written in the
+ * order deals finish, which depends on the number of threads, but the rating of each deal
+ * doesn't, since the search is only bounded by nodes and play i of the deal with seed s always
+ * tells the player the seed s * plays + i.</p>
+ */
+public final class DealRater {
+  private final GameSettings settings;
+  private final Supplier<? extends Player> players;
+  private int numThreads;
+  private long nodeLimit;
+  private int botGames;
+
+  /**
+   * Create a rater of deals with the given settings, which by default searches up to 1000000
+   * nodes and plays each deal once. It rates on one thread per processor.
+   * @param settings the deals to rate, which are copied so later changes don't affect this
+   * @param players makes a new player for each thread
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public DealRater(GameSettings settings, Supplier<? extends Player> players) {
+    if (settings == null || players == null) {
+      throw new IllegalArgumentException("Settings and players must not be null");
+    }
+    this.settings = new GameSettings(settings);
+    this.players = players;
+    this.numThreads = Runtime.getRuntime().availableProcessors();
+    this.nodeLimit = 1_000_000;
+    this.botGames = 1;
+  }
+
+  /**
+   * Create a rater for the given kind of game with the default {@link GameSettings}.
+   * @param type the rules to rate deals by
+   * @param players makes a new player for each thread
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public DealRater(GameType type, Supplier<? extends Player> players) {
+    this(new GameSettings(type), players);
+  }
+
+  /**
+   * Set the number of threads to rate deals on at once.
+   * @param numThreads the number of threads
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public DealRater setNumThreads(int numThreads) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    this.numThreads = numThreads;
+    return this;
+  }
+
+  /**
+   * Set the number of positions the search of each deal may visit before giving up on it.
+   * @param nodeLimit the maximum number of nodes to search per deal
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public DealRater setNodeLimit(long nodeLimit) {
+    if (nodeLimit < 1) {
+      throw new IllegalArgumentException("Node limit must be positive");
+    }
+    this.nodeLimit = nodeLimit;
+    return this;
+  }
+
+  /**
+   * Set the number of times the automated player plays each deal. A player which always
+   * makes the same moves on the same deal only needs to play it once.
+   * @param botGames the number of games to play per deal, or 0 to not play deals at all
+   * @return this
+   * @throws IllegalArgumentException if the number is negative
+   */
+  public DealRater setBotGames(int botGames) {
+    if (botGames < 0) {
+      throw new IllegalArgumentException("Number of bot games can't be negative");
+    }
+    this.botGames = botGames;
+    return this;
+  }
+
+  /**
+   * Rate every deal with a seed from firstSeed to firstSeed + numSeeds - 1 which the output
+   * file doesn't already have a rating for, and append the new ratings to the file, creating
+   * it if it doesn't exist.
+   * @param firstSeed the seed of the first deal
+   * @param numSeeds the number of deals in the range
+   * @param output the file to write ratings to
+   * @return the number of deals newly rated
+   * @throws IllegalArgumentException if the output is null, the number of seeds isn't between
+   *                                  1 and {@link Integer#MAX_VALUE}, or the deals can't be
+   *                                  made with the set numbers of piles and draw cards
+   * @throws IllegalStateException if the output file can't be read or written, holds a line
+   *                               which isn't a rating, or was rated with other settings
+   */
+  public int rate(long firstSeed, long numSeeds, Path output) {
+    if (output == null || numSeeds < 1 || numSeeds > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Output and a valid number of seeds must be given");
+    }
+    //deal one game first so that invalid settings fail here rather than on every thread
+    this.settings.deal(firstSeed);
+    int[] pending = pendingDeals(firstSeed, (int) numSeeds, output, header());
+    AtomicInteger next = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(this.numThreads);
+    try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < this.numThreads; t++) {
+        futures.add(pool.submit(() -> rateDeals(firstSeed, pending, next, writer)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      return pending.length;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not write ratings to " + output, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Rating was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A deal failed to rate", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the first line of an output file, which records every setting that changes the
+   * ratings: the game settings, the node limit, the number of plays, and the class of the
+   * player.
+   */
+  private String header() {
+    String player;
+    try (Player sample = this.players.get()) {
+      player = sample.getClass().getName();
+    }
+    return "#\t" + this.settings + "\tnodes=" + this.nodeLimit + "\tplays=" + this.botGames
+        + "\tplayer=" + player;
+  }
+
+  /**
+   * Read every rating in the given file, in the order they were written.
+   * @param file a file written by {@link #rate(long, long, Path)}
+   * @return the ratings in the file, without the line of settings
+   * @throws IllegalArgumentException if the file is null
+   * @throws IllegalStateException if the file can't be read or holds a line which isn't a
+   *                               rating
+   */
+  public static List<DealRating> read(Path file) {
+    if (file == null) {
+      throw new IllegalArgumentException("File must not be null");
+    }
+    List<DealRating> ratings = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (!line.startsWith("#")) {
+          ratings.add(DealRating.parse(line));
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read ratings from " + file, e);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(file + " holds a line which isn't a rating", e);
+    }
+    return ratings;
+  }
+
+  /**
+   * Find the deals in the range which the output doesn't have a rating for yet, first
+   * removing a last line which was cut off part way through writing it. An output with no
+   * lines left is given the header, and one which already has a different header is rejected.
+   * @return the indices in the range of the deals still to rate, in order
+   */
+  private static int[] pendingDeals(long firstSeed, int numSeeds, Path output, String header) {
+    try (RandomAccessFile file = new RandomAccessFile(output.toFile(), "rw")) {
+      long end = file.length();
+      while (end > 0) {
+        file.seek(end - 1);
+        if (file.read() == '\n') {
+          break;
+        }
+        end--;
+      }
+      file.setLength(end);
+      if (end == 0) {
+        file.write((header + "\n").getBytes(StandardCharsets.UTF_8));
+        return allDeals(numSeeds, new BitSet());
+      }
+      file.seek(0);
+      //the header is plain ASCII, so reading it a byte at a time is safe
+      String first = file.readLine();
+      if (!header.equals(first)) {
+        throw new IllegalStateException(output + " was rated with other settings: "
+            + (first != null && first.startsWith("#") ? first : "none recorded"));
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not repair " + output, e);
+    }
+    BitSet rated = new BitSet(numSeeds);
+    for (DealRating rating : read(output)) {
+      long index = rating.getSeed() - firstSeed;
+      if (index >= 0 && index < numSeeds) {
+        rated.set((int) index);
+      }
+    }
+    return allDeals(numSeeds, rated);
+  }
+
+  /**
+   * Returns the indices from 0 to numSeeds - 1 which aren't set in rated.
+   */
+  private static int[] allDeals(int numSeeds, BitSet rated) {
+    int[] pending = new int[numSeeds - rated.cardinality()];
+    int count = 0;
+    for (int i = rated.nextClearBit(0); i < numSeeds; i = rated.nextClearBit(i + 1)) {
+      pending[count++] = i;
+    }
+    return pending;
+  }
+
+  /**
+   * Returns the size of table to give a search with the given node limit: twice the limit, so
+   * that the table is never more than half full and rarely has to forget a position. The
+   * table only grows as far as it is used, so a large limit costs nothing on easy deals.
+   */
+  private static int tableEntries(long nodeLimit) {
+    return nodeLimit > 1 << 29 ? 1 << 30 : (int) (2 * nodeLimit);
+  }
+
+  /**
+   * Rate deals on this thread until every pending deal has been taken, writing each rating as
+   * soon as it is done.
+   * @param firstSeed the seed of the first deal in the range
+   * @param pending the indices in the range of the deals to rate
+   * @param next the index in pending of the next deal no thread has taken
+   * @param writer where to write ratings, shared by every thread
+   * @return null, so that this can be submitted as a callable which throws
+   * @throws IOException if a rating can't be written
+   */
+  private Void rateDeals(long firstSeed, int[] pending, AtomicInteger next,
+                         BufferedWriter writer) throws IOException {
+    KlondikeSolver solver = new KlondikeSolver(this.settings.getType()).setNodeLimit(this.nodeLimit)
+        .setTable(new HeapTranspositionTable(tableEntries(this.nodeLimit)));
+    try (Player player = this.players.get()) {
+      Playout playout = new Playout(player, this.settings.getMoveLimit());
+      for (int i = next.getAndIncrement(); i < pending.length; i = next.getAndIncrement()) {
+        String line = rateDeal(firstSeed + pending[i], solver, playout).toString();
+        synchronized (writer) {
+          writer.write(line);
+          writer.newLine();
+          writer.flush();
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Search and play the deal with the given seed.
+   */
+  private DealRating rateDeal(long seed, KlondikeSolver solver, Playout playout) {
+    SearchableKlondike game = this.settings.deal(seed);
+    SolverResult result = solver.solve(game);
+    int wins = 0;
+    for (int play = 0; play < this.botGames; play++) {
+      if (play > 0) {
+        game = this.settings.deal(seed);
+      }
+      playout.play(game, seed * this.botGames + play);
+      wins += game.getScore() == game.getDeck().size() ? 1 : 0;
+    }
+    int length = result.getStatus() == SolverResult.Status.SOLVED
+        ? result.getSolution().length : -1;
+    return new DealRating(seed, result.getStatus(), length, result.getNodes(), wins,
+        this.botGames);
+  }
+}
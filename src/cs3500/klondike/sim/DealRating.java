@@ -0,0 +1,134 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.solver.SolverResult.Status;
+
+/**
+ * How hard one deal of klondike is, as rated by a {@link DealRater}: whether a bounded search
+ * could win it, how long the win it found was, how much searching that took, and how often an
+ * automated player won it.
+ *
+ * <p>A rating is written as one line of tab separated fields, in the order seed, status,
+ * solution length, nodes searched, and bot wins out of bot games, for example
+ * {@code 42	SOLVED	131	20716	7/20}, and can be read back with {@link #parse(String)}.</p>
+ */
+public final class DealRating {
+  private final long seed;
+  private final Status status;
+  private final int solutionLength;
+  private final long nodes;
+  private final int botWins;
+  private final int botGames;
+
+  /**
+   * Create a rating from the results of searching and playing a deal.
+   * @param seed the seed the deal was shuffled with
+   * @param status what the search found out about the deal
+   * @param solutionLength the number of moves in the win found, or -1 if none was found
+   * @param nodes the number of positions searched
+   * @param botWins the number of times the automated player won the deal
+   * @param botGames the number of times the automated player played the deal
+   */
+  DealRating(long seed, Status status, int solutionLength, long nodes, int botWins,
+             int botGames) {
+    this.seed = seed;
+    this.status = status;
+    this.solutionLength = solutionLength;
+    this.nodes = nodes;
+    this.botWins = botWins;
+    this.botGames = botGames;
+  }
+
+  /**
+   * Read a rating from a line written by {@link #toString()}.
+   * @param line the line to read, without its line separator
+   * @return the rating
+   * @throws IllegalArgumentException if the line is null or not a rating
+   */
+  public static DealRating parse(String line) {
+    if (line == null) {
+      throw new IllegalArgumentException("Line must not be null");
+    }
+    String[] fields = line.split("\t", -1);
+    String[] bot = fields.length == 5 ? fields[4].split("/", -1) : new String[0];
+    if (bot.length != 2) {
+      throw new IllegalArgumentException("Not a deal rating: " + line);
+    }
+    try {
+      DealRating rating = new DealRating(Long.parseLong(fields[0]), Status.valueOf(fields[1]),
+          Integer.parseInt(fields[2]), Long.parseLong(fields[3]), Integer.parseInt(bot[0]),
+          Integer.parseInt(bot[1]));
+      if ((rating.status == Status.SOLVED) != (rating.solutionLength >= 0)
+          || rating.nodes < 0 || rating.botWins < 0 || rating.botWins > rating.botGames) {
+        throw new IllegalArgumentException("Not a deal rating: " + line);
+      }
+      return rating;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Not a deal rating: " + line, e);
+    }
+  }
+
+  /**
+   * Returns the seed the deal was shuffled with.
+   * @return the seed of the deal
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Returns what the bounded search found out about the deal.
+   * @return SOLVED if it found a win, UNSOLVABLE if it proved there is none, or LIMIT_REACHED
+   *         if it ran out of nodes first
+   */
+  public Status getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Returns the number of moves in the win the search found, including automatic moves to
+   * foundations. This is a win, not necessarily the shortest one.
+   * @return the length of the solution, or -1 if the deal wasn't solved
+   */
+  public int getSolutionLength() {
+    return this.solutionLength;
+  }
+
+  /**
+   * Returns the number of positions the search visited, which grows with how hard the deal is
+   * to decide.
+   * @return the number of nodes searched
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns the number of times the automated player won the deal.
+   * @return the number of bot wins
+   */
+  public int getBotWins() {
+    return this.botWins;
+  }
+
+  /**
+   * Returns the number of times the automated player played the deal.
+   * @return the number of bot games
+   */
+  public int getBotGames() {
+    return this.botGames;
+  }
+
+  /**
+   * Returns the fraction of games the automated player won.
+   * @return the bot win rate between 0 and 1, or 0 if the deal wasn't played
+   */
+  public double getBotWinRate() {
+    return this.botGames == 0 ? 0 : (double) this.botWins / this.botGames;
+  }
+
+  @Override
+  public String toString() {
+    return this.seed + "\t" + this.status + "\t" + this.solutionLength + "\t" + this.nodes
+        + "\t" + this.botWins + "/" + this.botGames;
+  }
+}
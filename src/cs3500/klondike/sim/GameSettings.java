@@ -0,0 +1,180 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw04.KlondikeCreator;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import java.util.Locale;
+
+/**
+ * The rules and layout of the deals played by a {@link Simulation} or rated by a
+ * {@link DealRater}, and how long an automated player may play each of them.
+ */
+public final class GameSettings {
+  private final GameType type;
+  private int numPiles;
+  private int numDraw;
+  private int maxRedraws;
+  private int moveLimit;
+
+  /**
+   * Create settings for the given kind of game, which by default deal 7 piles with 3 visible
+   * draw cards, allow 2 redraws in limited draw games, and stop each game after 1000 moves.
+   * @param type the rules to play by
+   * @throws IllegalArgumentException if the type is null
+   */
+  public GameSettings(GameType type) {
+    if (type == null) {
+      throw new IllegalArgumentException("Game type must not be null");
+    }
+    this.type = type;
+    this.numPiles = 7;
+    this.numDraw = 3;
+    this.maxRedraws = 2;
+    this.moveLimit = 1000;
+  }
+
+  /**
+   * Create a copy of the given settings, which doesn't change when they do.
+   * @param other the settings to copy
+   * @throws IllegalArgumentException if the settings are null
+   */
+  public GameSettings(GameSettings other) {
+    this(other == null ? null : other.type);
+    this.numPiles = other.numPiles;
+    this.numDraw = other.numDraw;
+    this.maxRedraws = other.maxRedraws;
+    this.moveLimit = other.moveLimit;
+  }
+
+  /**
+   * Set the number of cascade piles to deal.
+   * @param numPiles the number of piles
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public GameSettings setNumPiles(int numPiles) {
+    if (numPiles < 1) {
+      throw new IllegalArgumentException("Number of piles must be positive");
+    }
+    this.numPiles = numPiles;
+    return this;
+  }
+
+  /**
+   * Set the number of visible draw cards.
+   * @param numDraw the number of visible draw cards
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public GameSettings setNumDraw(int numDraw) {
+    if (numDraw < 1) {
+      throw new IllegalArgumentException("Number of draw cards must be positive");
+    }
+    this.numDraw = numDraw;
+    return this;
+  }
+
+  /**
+   * Set the number of redraws allowed in limited draw games. Other games ignore this.
+   * @param maxRedraws the number of times the draw pile can be cycled
+   * @return this
+   * @throws IllegalArgumentException if the number is negative
+   */
+  public GameSettings setMaxRedraws(int maxRedraws) {
+    if (maxRedraws < 0) {
+      throw new IllegalArgumentException("Number of redraws can't be negative");
+    }
+    this.maxRedraws = maxRedraws;
+    return this;
+  }
+
+  /**
+   * Set the number of moves after which a game which hasn't ended is given up on, and counts
+   * as lost, since many players could cycle the draw pile forever.
+   * @param moveLimit the most moves to make in one game
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public GameSettings setMoveLimit(int moveLimit) {
+    if (moveLimit < 1) {
+      throw new IllegalArgumentException("Move limit must be positive");
+    }
+    this.moveLimit = moveLimit;
+    return this;
+  }
+
+  /**
+   * Returns the rules to play by.
+   * @return the game type
+   */
+  public GameType getType() {
+    return this.type;
+  }
+
+  /**
+   * Returns the number of cascade piles to deal.
+   * @return the number of piles
+   */
+  public int getNumPiles() {
+    return this.numPiles;
+  }
+
+  /**
+   * Returns the number of visible draw cards.
+   * @return the number of visible draw cards
+   */
+  public int getNumDraw() {
+    return this.numDraw;
+  }
+
+  /**
+   * Returns the number of redraws allowed in limited draw games.
+   * @return the number of times the draw pile can be cycled
+   */
+  public int getMaxRedraws() {
+    return this.maxRedraws;
+  }
+
+  /**
+   * Returns the number of moves after which a game is given up on.
+   * @return the most moves to make in one game
+   */
+  public int getMoveLimit() {
+    return this.moveLimit;
+  }
+
+  /**
+   * Returns the settings as tab separated name=value pairs, such as
+   * "game=basic\tpiles=7\tdraw=3\tredraws=2\tmoves=1000". Equal settings give equal strings.
+   * @return the settings as a line of text
+   */
+  @Override
+  public String toString() {
+    return "game=" + this.type.name().toLowerCase(Locale.ROOT) + "\tpiles=" + this.numPiles
+        + "\tdraw=" + this.numDraw + "\tredraws=" + this.maxRedraws + "\tmoves="
+        + this.moveLimit;
+  }
+
+  /**
+   * Create an unstarted game with these rules.
+   * @return a new game
+   */
+  public SearchableKlondike createGame() {
+    return this.type == GameType.LIMITED ? new LimitedDrawKlondike(this.maxRedraws)
+        : KlondikeCreator.create(this.type);
+  }
+
+  /**
+   * Create a game with these rules and deal it, shuffled by the given seed.
+   * @param seed the seed to shuffle the deck with
+   * @return the started game
+   * @throws IllegalArgumentException if the deck can't be dealt into the set numbers of piles
+   *                                  and draw cards
+   */
+  public SearchableKlondike deal(long seed) {
+    SearchableKlondike game = createGame();
+    game.startGame(game.getDeck(), seed, this.numPiles, this.numDraw);
+    return game;
+  }
+}
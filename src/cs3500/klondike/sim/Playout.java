@@ -0,0 +1,55 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.ReadOnlyKlondike;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.Player;
+
+/**
+ * Plays games out with one automated player, reusing the same move buffer for every game so
+ * that playing allocates nothing once the buffer is large enough. Not thread safe, so each
+ * thread should play with its own playout.
+ */
+final class Playout {
+  private final Player player;
+  private final int moveLimit;
+  private int[] moves;
+
+  /**
+   * Create a playout with the given player.
+   * @param player the player choosing every move
+   * @param moveLimit the most moves to make in one game
+   */
+  Playout(Player player, int moveLimit) {
+    this.player = player;
+    this.moveLimit = moveLimit;
+    this.moves = new int[256];
+  }
+
+  /**
+   * Play the given game until there are no legal moves, the player stops, or the move limit is
+   * reached.
+   * @param game a started game to play
+   * @param seed the seed the player is told the game was dealt with
+   * @return the number of moves made
+   */
+  int play(SearchableKlondike game, long seed) {
+    this.player.newDeal(seed);
+    //the player only sees the game through a view, so it can't change the game itself
+    SearchableKlondike view = new ReadOnlyKlondike(game);
+    int made = 0;
+    while (made < this.moveLimit) {
+      int count = game.generateMoves(this.moves);
+      if (count > this.moves.length) {
+        this.moves = new int[count];
+        count = game.generateMoves(this.moves);
+      }
+      int move = count == 0 ? 0 : this.player.chooseMove(view, this.moves, count);
+      if (move == 0 || game.tryMove(move) != MoveResult.SUCCESS) {
+        break;
+      }
+      made++;
+    }
+    return made;
+  }
+}
@@ -0,0 +1,170 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.Player;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Plays many deals of klondike with an automated player, without rendering them, and adds up
+ * how well the player did.
+ *
+ * <p>Deals are shuffled with consecutive seeds starting from a first seed, and each player is
+ * told the seed of every deal it plays, so a simulation plays the same moves every time it is
+ * run no matter how many threads play it. Each thread plays with its own player, and takes the
+ * next deal that hasn't been played until every deal has been.</p>
+ */
+public final class Simulation {
+  private final GameSettings settings;
+  private final Supplier<? extends Player> players;
+  private long numGames;
+  private int numThreads;
+  private long firstSeed;
+
+  /**
+   * Create a simulation of deals with the given settings, which by default plays 1000 deals on
+   * one thread starting from seed 0.
+   * @param settings the deals to play, which are copied so later changes don't affect this
+   * @param players makes a new player for each thread
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public Simulation(GameSettings settings, Supplier<? extends Player> players) {
+    if (settings == null || players == null) {
+      throw new IllegalArgumentException("Settings and players must not be null");
+    }
+    this.settings = new GameSettings(settings);
+    this.players = players;
+    this.numGames = 1000;
+    this.numThreads = 1;
+    this.firstSeed = 0;
+  }
+
+  /**
+   * Create a simulation of the given kind of game with the default {@link GameSettings}.
+   * @param type the rules to play by
+   * @param players makes a new player for each thread
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public Simulation(GameType type, Supplier<? extends Player> players) {
+    this(new GameSettings(type), players);
+  }
+
+  /**
+   * Set the number of deals to play.
+   * @param numGames the number of deals
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public Simulation setNumGames(long numGames) {
+    if (numGames < 1) {
+      throw new IllegalArgumentException("Number of games must be positive");
+    }
+    this.numGames = numGames;
+    return this;
+  }
+
+  /**
+   * Set the number of threads to play deals on at once.
+   * @param numThreads the number of threads
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public Simulation setNumThreads(int numThreads) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    this.numThreads = numThreads;
+    return this;
+  }
+
+  /**
+   * Set the seed of the first deal. Later deals use the following seeds.
+   * @param firstSeed the seed of the first deal
+   * @return this
+   */
+  public Simulation setFirstSeed(long firstSeed) {
+    this.firstSeed = firstSeed;
+    return this;
+  }
+
+  /**
+   * Play every deal and add up the results.
+   * @return the totals over every deal
+   * @throws IllegalArgumentException if the deals can't be made with the set numbers of piles
+   *                                  and draw cards
+   */
+  public SimulationResult run() {
+    //deal one game first so that invalid settings fail here rather than on every thread
+    this.settings.deal(this.firstSeed);
+    long start = System.nanoTime();
+    AtomicLong nextDeal = new AtomicLong();
+    ExecutorService pool = Executors.newFixedThreadPool(this.numThreads);
+    try {
+      List<Future<Tally>> futures = new ArrayList<>();
+      for (int t = 0; t < this.numThreads; t++) {
+        futures.add(pool.submit(() -> playDeals(nextDeal)));
+      }
+      Tally total = new Tally();
+      for (Future<Tally> future : futures) {
+        total.add(future.get());
+      }
+      return new SimulationResult(total.games, total.wins, total.score, total.moves,
+          System.nanoTime() - start);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Simulation was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed to play", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Play deals on this thread until every deal has been taken.
+   * @param nextDeal the index of the next deal no thread has taken
+   * @return the totals of the deals this thread played
+   */
+  private Tally playDeals(AtomicLong nextDeal) {
+    try (Player player = this.players.get()) {
+      Playout playout = new Playout(player, this.settings.getMoveLimit());
+      Tally tally = new Tally();
+      for (long deal = nextDeal.getAndIncrement(); deal < this.numGames;
+           deal = nextDeal.getAndIncrement()) {
+        long seed = this.firstSeed + deal;
+        SearchableKlondike game = this.settings.deal(seed);
+        int made = playout.play(game, seed);
+        int score = game.getScore();
+        tally.games++;
+        tally.wins += score == game.getDeck().size() ? 1 : 0;
+        tally.score += score;
+        tally.moves += made;
+      }
+      return tally;
+    }
+  }
+
+  /**
+   * Running totals of the deals played by one thread.
+   */
+  private static final class Tally {
+    private long games;
+    private long wins;
+    private long score;
+    private long moves;
+
+    private void add(Tally other) {
+      this.games += other.games;
+      this.wins += other.wins;
+      this.score += other.score;
+      this.moves += other.moves;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package cs3500.klondike.sim;
+
+/**
+ * The totals of playing many deals of klondike in a {@link Simulation}.
+ */
+public final class SimulationResult {
+  private final long games;
+  private final long wins;
+  private final long totalScore;
+  private final long totalMoves;
+  private final long elapsedNanos;
+
+  /**
+   * Create a result from the given totals.
+   * @param games the number of deals played
+   * @param wins the number of deals won
+   * @param totalScore the sum of the final scores of every deal
+   * @param totalMoves the sum of the number of moves made in every deal
+   * @param elapsedNanos the time taken to play every deal in nanoseconds
+   */
+  SimulationResult(long games, long wins, long totalScore, long totalMoves,
+                   long elapsedNanos) {
+    this.games = games;
+    this.wins = wins;
+    this.totalScore = totalScore;
+    this.totalMoves = totalMoves;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the number of deals played.
+   * @return the number of games
+   */
+  public long getGames() {
+    return this.games;
+  }
+
+  /**
+   * Returns the number of deals which ended with every card on a foundation.
+   * @return the number of wins
+   */
+  public long getWins() {
+    return this.wins;
+  }
+
+  /**
+   * Returns the fraction of deals won.
+   * @return the win rate between 0 and 1
+   */
+  public double getWinRate() {
+    return (double) this.wins / this.games;
+  }
+
+  /**
+   * Returns the mean of the final scores of the deals.
+   * @return the average score
+   */
+  public double getAverageScore() {
+    return (double) this.totalScore / this.games;
+  }
+
+  /**
+   * Returns the mean number of moves made per deal.
+   * @return the average number of moves
+   */
+  public double getMovesPerGame() {
+    return (double) this.totalMoves / this.games;
+  }
+
+  /**
+   * Returns the time taken to play every deal.
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Returns the number of deals played per second of elapsed time.
+   * @return the throughput in games per second
+   */
+  public double getGamesPerSecond() {
+    return this.games * 1e9 / Math.max(1, this.elapsedNanos);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("games: %d%nwins: %d (%.2f%%)%naverage score: %.2f%n"
+            + "moves per game: %.1f%ngames per second: %.0f",
+        this.games, this.wins, 100 * getWinRate(), getAverageScore(), getMovesPerGame(),
+        getGamesPerSecond());
+  }
+}
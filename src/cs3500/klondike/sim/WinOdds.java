@@ -0,0 +1,100 @@
+package cs3500.klondike.sim;
+
+/**
+ * An estimate of the chance of winning a game in progress, made by a {@link WinOddsEstimator}
+ * from the number of sampled playouts which were won.
+ */
+public final class WinOdds {
+  //the normal quantile for a two sided 95% confidence interval
+  private static final double Z = 1.959964;
+
+  private final long samples;
+  private final long wins;
+  private final long elapsedNanos;
+
+  /**
+   * Create an estimate from the given counts.
+   * @param samples the number of playouts made, which must be positive
+   * @param wins the number of playouts won
+   * @param elapsedNanos the time taken to make every playout in nanoseconds
+   */
+  WinOdds(long samples, long wins, long elapsedNanos) {
+    this.samples = samples;
+    this.wins = wins;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the number of playouts the estimate is made from.
+   * @return the number of samples
+   */
+  public long getSamples() {
+    return this.samples;
+  }
+
+  /**
+   * Returns the number of playouts which were won.
+   * @return the number of wins
+   */
+  public long getWins() {
+    return this.wins;
+  }
+
+  /**
+   * Returns the fraction of playouts won, which is the estimated chance of winning.
+   * @return the estimate between 0 and 1
+   */
+  public double getProbability() {
+    return (double) this.wins / this.samples;
+  }
+
+  /**
+   * Returns the lower end of the 95% Wilson score interval around the estimate. Unlike the
+   * usual interval of two standard errors, it stays between 0 and 1 and doesn't shrink to
+   * nothing when every playout or none of them was won.
+   * @return the lower confidence bound between 0 and 1
+   */
+  public double getLowerBound() {
+    return center() - halfWidth();
+  }
+
+  /**
+   * Returns the upper end of the 95% Wilson score interval around the estimate.
+   * @return the upper confidence bound between 0 and 1
+   */
+  public double getUpperBound() {
+    return center() + halfWidth();
+  }
+
+  /**
+   * Returns the time taken to make every playout.
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Returns the middle of the Wilson score interval, which is pulled from the estimate
+   * towards one half by fewer samples.
+   */
+  private double center() {
+    double zz = Z * Z / this.samples;
+    return (getProbability() + zz / 2) / (1 + zz);
+  }
+
+  /**
+   * Returns half the width of the Wilson score interval.
+   */
+  private double halfWidth() {
+    double p = getProbability();
+    double zz = Z * Z / this.samples;
+    return Z * Math.sqrt(p * (1 - p) / this.samples + zz / (4 * this.samples)) / (1 + zz);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%.1f%% (95%% confidence %.1f%% to %.1f%%, %d samples)",
+        100 * getProbability(), 100 * getLowerBound(), 100 * getUpperBound(), this.samples);
+  }
+}
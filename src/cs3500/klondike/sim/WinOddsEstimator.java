@@ -0,0 +1,210 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.Player;
+import cs3500.klondike.solver.SearchRules;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Estimates the chance of winning a game in progress by Monte Carlo sampling. Each sample
+ * shuffles the cards the player can't see into one of the places they could be, then plays
+ * the game out from there with an automated player, and the estimate is the fraction of
+ * samples won. A sample is won when every card still in play is moved to a foundation.
+ *
+ * <p>Samples are played from a snapshot of the game, so the game itself is never changed.
+ * Each thread plays with its own copy of the game and its own player, taking the next sample
+ * until either the time budget runs out or enough samples have been played. Sample i is always
+ * shuffled and played the same way for a given seed, so an estimate which isn't cut short by
+ * its budget is the same on any number of threads.</p>
+ *
+ * <p>The calling thread plays samples too, and the other threads are started the first time
+ * they are needed and kept for later estimates, until the estimator is closed.</p>
+ */
+public final class WinOddsEstimator implements AutoCloseable {
+  private final Supplier<? extends Player> players;
+  private int numThreads;
+  private long maxSamples;
+  private long seed;
+  private int moveLimit;
+  //plays samples alongside the calling thread, or null until more than one thread is needed
+  private ExecutorService pool;
+
+  /**
+   * Create an estimator which plays samples out with players from the given supplier. By
+   * default it plays up to 10000 samples of at most 1000 moves on one thread per processor,
+   * starting from seed 0.
+   * @param players makes a new player for each thread
+   * @throws IllegalArgumentException if players is null
+   */
+  public WinOddsEstimator(Supplier<? extends Player> players) {
+    if (players == null) {
+      throw new IllegalArgumentException("Players must not be null");
+    }
+    this.players = players;
+    this.numThreads = Runtime.getRuntime().availableProcessors();
+    this.maxSamples = 10000;
+    this.seed = 0;
+    this.moveLimit = 1000;
+  }
+
+  /**
+   * Set the number of threads to play samples on at once.
+   * @param numThreads the number of threads
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public WinOddsEstimator setNumThreads(int numThreads) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    if (numThreads != this.numThreads) {
+      close();
+    }
+    this.numThreads = numThreads;
+    return this;
+  }
+
+  /**
+   * Set the number of samples after which to stop even if there is time left.
+   * @param maxSamples the most samples to play
+   * @return this
+   * @throws IllegalArgumentException if the number isn't positive
+   */
+  public WinOddsEstimator setMaxSamples(long maxSamples) {
+    if (maxSamples < 1) {
+      throw new IllegalArgumentException("Number of samples must be positive");
+    }
+    this.maxSamples = maxSamples;
+    return this;
+  }
+
+  /**
+   * Set the seed the hidden cards of every sample are shuffled from.
+   * @param seed the seed of the first sample
+   * @return this
+   */
+  public WinOddsEstimator setSeed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Set the number of moves after which a sample which hasn't ended counts as lost.
+   * @param moveLimit the most moves to make in one sample
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public WinOddsEstimator setMoveLimit(int moveLimit) {
+    if (moveLimit < 1) {
+      throw new IllegalArgumentException("Move limit must be positive");
+    }
+    this.moveLimit = moveLimit;
+    return this;
+  }
+
+  /**
+   * Estimate the chance of winning the given game from its current position. Playing stops
+   * once the budget has passed, but since the budget is only checked between samples, the
+   * estimate can take one sample longer, and every thread plays at least one sample.
+   * @param game a started game, which isn't changed
+   * @param budget how long to spend playing samples
+   * @return the estimate with its confidence interval
+   * @throws IllegalArgumentException if either argument is null or the budget is negative
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public WinOdds estimate(SearchableKlondike game, Duration budget) {
+    if (game == null || budget == null || budget.isNegative()) {
+      throw new IllegalArgumentException("Game and a non-negative budget must be given");
+    }
+    long start = System.nanoTime();
+    long deadline = start + budget.toNanos();
+    KlondikeState root = game.snapshot();
+    int numCards = SearchRules.countCards(game);
+    AtomicLong nextSample = new AtomicLong();
+    //copy on this thread so that no thread reads the game while another copies it
+    List<SearchableKlondike> copies = new ArrayList<>();
+    for (int t = 0; t < this.numThreads; t++) {
+      copies.add(game.copy());
+    }
+    if (this.numThreads > 1 && this.pool == null) {
+      this.pool = Executors.newFixedThreadPool(this.numThreads - 1, runnable -> {
+        Thread thread = new Thread(runnable, "win-odds");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    List<Future<long[]>> futures = new ArrayList<>();
+    for (SearchableKlondike copy : copies.subList(1, copies.size())) {
+      futures.add(this.pool.submit(() -> playSamples(copy, root, numCards, nextSample,
+          deadline)));
+    }
+    long[] tally = playSamples(copies.get(0), root, numCards, nextSample, deadline);
+    long samples = tally[0];
+    long wins = tally[1];
+    try {
+      for (Future<long[]> future : futures) {
+        tally = future.get();
+        samples += tally[0];
+        wins += tally[1];
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Estimate was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A sample failed to play", e.getCause());
+    }
+    return new WinOdds(samples, wins, System.nanoTime() - start);
+  }
+
+  /**
+   * Stop the threads this estimator plays samples on. The estimator can still be used
+   * afterwards, and starts new threads the next time it needs them.
+   */
+  @Override
+  public void close() {
+    if (this.pool != null) {
+      this.pool.shutdownNow();
+      this.pool = null;
+    }
+  }
+
+  /**
+   * Play samples on this thread until every sample has been taken or the deadline passes.
+   * @param game this thread's copy of the game
+   * @param root the position to play every sample from
+   * @param numCards the number of cards which must reach a foundation to win
+   * @param nextSample the index of the next sample no thread has taken
+   * @param deadline the value of {@link System#nanoTime()} to stop at
+   * @return the number of samples played and the number won
+   */
+  private long[] playSamples(SearchableKlondike game, KlondikeState root, int numCards,
+                             AtomicLong nextSample, long deadline) {
+    try (Player player = this.players.get()) {
+      Playout playout = new Playout(player, this.moveLimit);
+      long[] tally = new long[2];
+      for (long sample = nextSample.getAndIncrement(); sample < this.maxSamples;
+           sample = nextSample.getAndIncrement()) {
+        long sampleSeed = this.seed + sample;
+        game.restore(root);
+        game.shuffleHiddenCards(new SplittableRandom(sampleSeed));
+        playout.play(game, sampleSeed);
+        tally[0]++;
+        tally[1] += game.getScore() == numCards ? 1 : 0;
+        if (System.nanoTime() - deadline >= 0) {
+          break;
+        }
+      }
+      return tally;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package cs3500.klondike.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A transposition table which many threads can add positions to at once without locking.
+ * Positions are stored in a fixed number of slots, each claimed by a compare-and-set, and
+ * once the slots a position probes are full it replaces the position in the first of them.
+ * The position replaced may be one another thread is still searching below, so searches must
+ * not rely on the table to stop them going around a cycle of moves.
+ */
+public final class ConcurrentTranspositionTable implements TranspositionTable {
+  //a hash of 0 marks an empty slot, so positions hashing to 0 are stored as this instead
+  private static final long ZERO_HASH = 0x5DEECE66DL;
+  private static final int MAX_PROBES = 16;
+
+  private final AtomicLongArray slots;
+  private final int shift;
+  private final LongAdder size;
+
+  /**
+   * Create a table which can hold up to the given number of positions before it starts
+   * replacing old positions. All of its memory is allocated up front.
+   * @param maxEntries the maximum number of positions to store, rounded up to a power of two
+   * @throws IllegalArgumentException if maxEntries is not positive or is too large
+   */
+  public ConcurrentTranspositionTable(int maxEntries) {
+    if (maxEntries < 1 || maxEntries > 1 << 30) {
+      throw new IllegalArgumentException("Table must hold between 1 and 2^30 entries");
+    }
+    int capacity = Integer.highestOneBit(maxEntries);
+    capacity = capacity < maxEntries ? capacity << 1 : capacity;
+    this.slots = new AtomicLongArray(capacity);
+    this.shift = Long.numberOfLeadingZeros(capacity - 1L);
+    this.size = new LongAdder();
+  }
+
+  @Override
+  public boolean add(long hash, int depth) {
+    long key = hash == 0 ? ZERO_HASH : hash;
+    int mask = this.slots.length() - 1;
+    //the high bits of the key times an odd constant, so that similar keys land far apart
+    int home = (int) ((key * 0x9E3779B97F4A7C15L) >>> this.shift) & mask;
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      int i = (home + probe) & mask;
+      long current = this.slots.get(i);
+      if (current == 0) {
+        if (this.slots.compareAndSet(i, 0, key)) {
+          this.size.increment();
+          return true;
+        }
+        //another thread claimed the slot first, possibly for the same position
+        current = this.slots.get(i);
+      }
+      if (current == key) {
+        return false;
+      }
+    }
+    //every probed slot is taken, so forget the position in the first one
+    this.slots.set(home, key);
+    return true;
+  }
+
+  @Override
+  public long size() {
+    return this.size.sum();
+  }
+
+  @Override
+  public long memoryBytes() {
+    return (long) this.slots.length() * Long.BYTES;
+  }
+
+  /**
+   * Forget every position in the table. This must not be called while other threads are
+   * adding positions.
+   */
+  @Override
+  public void clear() {
+    for (int i = 0; i < this.slots.length(); i++) {
+      this.slots.set(i, 0);
+    }
+    this.size.reset();
+  }
+}
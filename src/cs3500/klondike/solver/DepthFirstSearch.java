@@ -0,0 +1,351 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.util.Arrays;
+
+/**
+ * A depth first search of the positions reachable from a klondike game, kept on explicit
+ * stacks of primitive arrays so that the search can be paused between nodes and so that its
+ * untried moves can be handed to other searches.
+ *
+ * <p>A search plays moves on the game it is given and undoes them as it backtracks. Each
+ * position the search visits is added to a shared {@link TranspositionTable} by its canonical
+ * hash and positions already in the table are skipped, including positions which only differ
+ * from one already searched by the order of the piles. The stacks are kept between searches,
+ * so one instance should be reused for many searches by the same thread.</p>
+ *
+ * <p>The positions on the current path are also kept in a {@link PathSet} and skipped, so the
+ * search never cycles back to a position it is still below even after the table has
+ * forgotten it.</p>
+ */
+final class DepthFirstSearch {
+  /**
+   * Called after every new position the search visits.
+   */
+  interface NodeListener {
+    /**
+     * Decide whether the search should carry on.
+     * @param search the search that visited a new position
+     * @return true to continue searching, false to stop
+     */
+    boolean visited(DepthFirstSearch search);
+  }
+
+  private final SearchRules rules;
+  private final boolean autoMoves;
+  private final PathSet onPath = new PathSet();
+  private TranspositionTable table;
+  private SearchableKlondike game;
+  //the number of cards in the game where the search started, all of which must be moved to
+  //foundations to win
+  private int numCards;
+
+  private int[] moves = new int[256];
+  private int[] scores = new int[64];
+  private int[] generated = new int[64];
+  //per frame: where its moves start, how many there are, the next to try, the number of moves
+  //made to reach it from its parent, the length of the path once it was reached, and the hash
+  //of its position
+  private int[] frameStart = new int[64];
+  private int[] frameCount = new int[64];
+  private int[] frameNext = new int[64];
+  private int[] frameMoves = new int[64];
+  private int[] framePath = new int[64];
+  private long[] frameHash = new long[64];
+  private int depth;
+  private int[] path = new int[64];
+  private int pathLength;
+  private long nodes;
+  private int maxDepth;
+
+  /**
+   * Create a search guided by the given rules.
+   * @param rules the rules used to order and prune moves
+   * @param autoMoves whether to make safe moves to foundations without searching alternatives
+   */
+  DepthFirstSearch(SearchRules rules, boolean autoMoves) {
+    this.rules = rules;
+    this.autoMoves = autoMoves;
+  }
+
+  /**
+   * Prepare to search every move from the current position of the given game, after making
+   * any safe automatic moves, and add the position to the table.
+   * @param game the game to search, which the search plays on
+   * @param table the table of positions already searched
+   * @return false if the position is already won, otherwise true
+   */
+  boolean startAtRoot(SearchableKlondike game, TranspositionTable table) {
+    reset(game, table);
+    int made = makeAutoMoves();
+    long hash = game.positionHash(true);
+    table.add(hash, 0);
+    this.nodes = 1;
+    return pushFrame(0, 0, made, hash);
+  }
+
+  /**
+   * Prepare to search only the given moves from the current position of the given game,
+   * which must already be in the table and not won.
+   * @param game the game to search, which the search plays on
+   * @param table the table of positions already searched
+   * @param rootMoves the legal moves to search, in the order to search them
+   * @param pathHashes the hashes of the positions on the path from where the whole search
+   *                   started to the current position, including it, which the search will
+   *                   not return to
+   */
+  void startWithMoves(SearchableKlondike game, TranspositionTable table, int[] rootMoves,
+                      long[] pathHashes) {
+    reset(game, table);
+    for (long hash : pathHashes) {
+      this.onPath.add(hash);
+    }
+    if (rootMoves.length > this.moves.length) {
+      this.moves = new int[Math.max(this.moves.length * 2, rootMoves.length)];
+    }
+    System.arraycopy(rootMoves, 0, this.moves, 0, rootMoves.length);
+    this.frameStart[0] = 0;
+    this.frameCount[0] = rootMoves.length;
+    this.frameNext[0] = 0;
+    this.frameMoves[0] = 0;
+    this.framePath[0] = 0;
+  }
+
+  /**
+   * Search until a won position is found, every position has been searched, or the listener
+   * stops the search.
+   * @param listener told of every new position visited
+   * @return SOLVED if a won position was found, UNSOLVABLE if there was none, or
+   *         LIMIT_REACHED if the listener stopped the search
+   */
+  Status run(NodeListener listener) {
+    while (true) {
+      if (this.frameNext[this.depth] == this.frameCount[this.depth]) {
+        if (this.depth == 0) {
+          return Status.UNSOLVABLE;
+        }
+        undo(this.frameMoves[this.depth]);
+        this.onPath.remove(this.frameHash[this.depth]);
+        this.depth--;
+        continue;
+      }
+      int move = this.moves[this.frameStart[this.depth] + this.frameNext[this.depth]++];
+      if (this.game.tryMove(move) != MoveResult.SUCCESS) {
+        throw new IllegalStateException("Generated move was not legal");
+      }
+      addToPath(move);
+      int made = 1 + makeAutoMoves();
+      long hash = this.game.positionHash(true);
+      //a position which has lost a card for good can't be won, so it isn't worth remembering
+      if (Move.type(move) == Move.DISCARD_DRAW
+          && SearchRules.countCards(this.game) < this.numCards
+          || this.onPath.contains(hash) || !this.table.add(hash, this.depth + 1)) {
+        undo(made);
+        continue;
+      }
+      this.nodes++;
+      this.depth++;
+      this.maxDepth = Math.max(this.maxDepth, this.depth);
+      int start = this.frameStart[this.depth - 1] + this.frameCount[this.depth - 1];
+      if (!pushFrame(this.depth, start, made, hash)) {
+        return Status.SOLVED;
+      }
+      if (!listener.visited(this)) {
+        return Status.LIMIT_REACHED;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of new positions visited since the search started.
+   * @return the number of nodes searched
+   */
+  long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns the greatest depth the search has reached since it started.
+   * @return the maximum depth
+   */
+  int getMaxDepth() {
+    return this.maxDepth;
+  }
+
+  /**
+   * Returns the moves made from the start of the search to the current position.
+   * @return a copy of the current path
+   */
+  int[] getPath() {
+    return Arrays.copyOf(this.path, this.pathLength);
+  }
+
+  /**
+   * Returns the memory used by the search stacks.
+   * @return the size of the stacks in bytes
+   */
+  long stackBytes() {
+    return (long) Integer.BYTES * (this.moves.length + this.scores.length + this.generated.length
+        + this.frameStart.length * 5L + this.path.length)
+        + (long) Long.BYTES * this.frameHash.length + this.onPath.memoryBytes();
+  }
+
+  /**
+   * Find the shallowest frame which still has more than one move left to try, so that its
+   * untried moves can be searched elsewhere.
+   * @return the depth of the frame, or -1 if there is none
+   */
+  int findSplitFrame() {
+    for (int i = 0; i <= this.depth; i++) {
+      if (this.frameCount[i] - this.frameNext[i] > 1) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the moves made from the start of the search to reach the given frame.
+   * @param frame the depth of a frame on the stack
+   * @return a copy of the path to the frame
+   */
+  int[] getPathTo(int frame) {
+    return Arrays.copyOf(this.path, this.framePath[frame]);
+  }
+
+  /**
+   * Remove the untried moves of the given frame from this search, leaving them to be searched
+   * by someone else.
+   * @param frame the depth of a frame on the stack
+   * @return the removed moves, in the order they would have been tried
+   */
+  int[] takeUntriedMoves(int frame) {
+    int from = this.frameStart[frame] + this.frameNext[frame];
+    int to = this.frameStart[frame] + this.frameCount[frame];
+    this.frameCount[frame] = this.frameNext[frame];
+    return Arrays.copyOfRange(this.moves, from, to);
+  }
+
+  private void reset(SearchableKlondike game, TranspositionTable table) {
+    this.game = game;
+    this.table = table;
+    this.numCards = SearchRules.countCards(game);
+    this.onPath.clear();
+    this.depth = 0;
+    this.pathLength = 0;
+    this.nodes = 0;
+    this.maxDepth = 0;
+  }
+
+  /**
+   * Generate, order, and store the moves to search from the current position.
+   * @param frame the depth of the new frame
+   * @param start the index in the move stack to store the moves at
+   * @param made the number of moves made to reach the position from its parent
+   * @param hash the hash of the position, which is added to the path
+   * @return false if the position is won, otherwise true
+   */
+  private boolean pushFrame(int frame, int start, int made, long hash) {
+    if (this.game.getScore() == this.numCards) {
+      return false;
+    }
+    int count = generate();
+    if (frame == this.frameStart.length) {
+      int length = frame * 2;
+      this.frameStart = Arrays.copyOf(this.frameStart, length);
+      this.frameCount = Arrays.copyOf(this.frameCount, length);
+      this.frameNext = Arrays.copyOf(this.frameNext, length);
+      this.frameMoves = Arrays.copyOf(this.frameMoves, length);
+      this.framePath = Arrays.copyOf(this.framePath, length);
+      this.frameHash = Arrays.copyOf(this.frameHash, length);
+    }
+    if (start + count > this.moves.length) {
+      this.moves = Arrays.copyOf(this.moves, Math.max(this.moves.length * 2, start + count));
+    }
+    if (count > this.scores.length) {
+      this.scores = new int[Math.max(this.scores.length * 2, count)];
+    }
+
+    //insertion sort by descending score, dropping pruned moves
+    int kept = 0;
+    for (int i = 0; i < count; i++) {
+      int move = this.generated[i];
+      int score = this.rules.score(this.game, move);
+      if (score == SearchRules.PRUNE) {
+        continue;
+      }
+      int j = kept++;
+      while (j > 0 && this.scores[j - 1] < score) {
+        this.scores[j] = this.scores[j - 1];
+        this.moves[start + j] = this.moves[start + j - 1];
+        j--;
+      }
+      this.scores[j] = score;
+      this.moves[start + j] = move;
+    }
+    this.frameStart[frame] = start;
+    this.frameCount[frame] = kept;
+    this.frameNext[frame] = 0;
+    this.frameMoves[frame] = made;
+    this.framePath[frame] = this.pathLength;
+    this.frameHash[frame] = hash;
+    this.onPath.add(hash);
+    return true;
+  }
+
+  /**
+   * Generate every legal move in the current position into the generated buffer.
+   * @return the number of legal moves
+   */
+  private int generate() {
+    int count = this.game.generateMoves(this.generated);
+    if (count > this.generated.length) {
+      this.generated = new int[Math.max(this.generated.length * 2, count)];
+      count = this.game.generateMoves(this.generated);
+    }
+    return count;
+  }
+
+  /**
+   * Make safe moves to foundations until there are none left, if automatic moves are on.
+   * @return the number of moves made
+   */
+  private int makeAutoMoves() {
+    if (!this.autoMoves) {
+      return 0;
+    }
+    int made = 0;
+    while (true) {
+      int count = generate();
+      int move = this.rules.findSafeMove(this.game, this.generated, count);
+      if (move == 0) {
+        return made;
+      }
+      if (this.game.tryMove(move) != MoveResult.SUCCESS) {
+        throw new IllegalStateException("Generated move was not legal");
+      }
+      addToPath(move);
+      made++;
+    }
+  }
+
+  /**
+   * Undo the given number of moves, removing them from the path.
+   */
+  private void undo(int count) {
+    for (int i = 0; i < count; i++) {
+      this.game.undo();
+    }
+    this.pathLength -= count;
+  }
+
+  private void addToPath(int move) {
+    if (this.pathLength == this.path.length) {
+      this.path = Arrays.copyOf(this.path, this.path.length * 2);
+    }
+    this.path[this.pathLength++] = move;
+  }
+}
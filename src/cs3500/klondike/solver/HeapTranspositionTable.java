@@ -0,0 +1,111 @@
+package cs3500.klondike.solver;
+
+import java.util.Arrays;
+
+/**
+ * A transposition table backed by an open addressing array of longs on the Java heap.
+ * The table starts small and doubles in size as it fills, up to a maximum capacity.
+ * Once the table is at its maximum capacity and full, new positions replace the position in
+ * the first slot they probe. Growing the table may also forget the odd position which can't
+ * be placed near its new first slot.
+ *
+ * <p>This table is not thread safe.</p>
+ */
+public final class HeapTranspositionTable implements TranspositionTable {
+  private static final int INITIAL_CAPACITY = 1 << 10;
+  //a hash of 0 marks an empty slot, so positions hashing to 0 are stored as this instead
+  private static final long ZERO_HASH = 0x5DEECE66DL;
+  private static final int MAX_PROBES = 16;
+
+  private final int maxCapacity;
+  private long[] slots;
+  private int size;
+
+  /**
+   * Create a table which can hold up to the given number of positions before it starts
+   * replacing old positions.
+   * @param maxEntries the maximum number of positions to store, rounded up to a power of two
+   * @throws IllegalArgumentException if maxEntries is not positive or is too large
+   */
+  public HeapTranspositionTable(int maxEntries) {
+    if (maxEntries < 1 || maxEntries > 1 << 30) {
+      throw new IllegalArgumentException("Table must hold between 1 and 2^30 entries");
+    }
+    int capacity = Integer.highestOneBit(maxEntries);
+    this.maxCapacity = capacity < maxEntries ? capacity << 1 : capacity;
+    this.slots = new long[Math.min(INITIAL_CAPACITY, this.maxCapacity)];
+  }
+
+  @Override
+  public boolean add(long hash, int depth) {
+    long key = hash == 0 ? ZERO_HASH : hash;
+    if (this.size * 2L >= this.slots.length && this.slots.length < this.maxCapacity) {
+      grow();
+    }
+    int mask = this.slots.length - 1;
+    int home = index(key, this.slots.length);
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      int i = (home + probe) & mask;
+      if (this.slots[i] == key) {
+        return false;
+      }
+      if (this.slots[i] == 0) {
+        this.slots[i] = key;
+        this.size++;
+        return true;
+      }
+    }
+    //every probed slot is taken, so forget the position in the first one
+    this.slots[home] = key;
+    return true;
+  }
+
+  @Override
+  public long size() {
+    return this.size;
+  }
+
+  @Override
+  public long memoryBytes() {
+    return (long) this.slots.length * Long.BYTES;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(this.slots, 0);
+    this.size = 0;
+  }
+
+  /**
+   * Double the number of slots, moving every stored position to its new slot.
+   */
+  private void grow() {
+    long[] old = this.slots;
+    this.slots = new long[old.length * 2];
+    this.size = 0;
+    int mask = this.slots.length - 1;
+    for (long key : old) {
+      if (key == 0) {
+        continue;
+      }
+      int home = index(key, this.slots.length);
+      for (int probe = 0; probe < MAX_PROBES; probe++) {
+        int i = (home + probe) & mask;
+        if (this.slots[i] == 0) {
+          this.slots[i] = key;
+          this.size++;
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the first slot to probe for the given key, taken from the high bits of the key
+   * multiplied by an odd constant so that similar keys land far apart.
+   */
+  private static int index(long key, int capacity) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> Long.numberOfLeadingZeros(capacity - 1L))
+        & capacity - 1;
+  }
+}
@@ -0,0 +1,143 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.time.Duration;
+
+/**
+ * A solver which decides whether a klondike position can be won, and finds a winning sequence
+ * of moves if it can.
+ *
+ * <p>The solver searches depth first, trying the most promising moves first and skipping
+ * positions it has already searched by recording them in a {@link TranspositionTable}.
+ * Moves to a foundation which can never lose a win are made automatically without searching
+ * the alternatives. The search can be bounded by a number of nodes and by time.</p>
+ *
+ * <p>The solver plays on a copy of the position through the model, which knows the cards
+ * that are face down, so it decides whether the deal can be won rather than whether a player
+ * who can't see those cards would win it. In limited draw games the number of redraws used
+ * and where the draw pile has been turned to are part of the position, so the same cards with
+ * less budget left are searched again.</p>
+ */
+public final class KlondikeSolver {
+  private static final int DEFAULT_TABLE_ENTRIES = 1 << 22;
+  //at most half the default table is filled, so it never has to forget a position
+  private static final long DEFAULT_NODE_LIMIT = DEFAULT_TABLE_ENTRIES / 2;
+  //how many nodes are searched between checks of the time limit
+  private static final int TIME_CHECK_INTERVAL = 1 << 10;
+
+  private final SearchRules rules;
+  private TranspositionTable table;
+  private long nodeLimit;
+  private long timeLimitNanos;
+  //rebuilt when automatic moves are turned on or off, and kept between solves so that solving
+  //many deals allocates little
+  private DepthFirstSearch search;
+
+  /**
+   * Create a solver for games played by the basic klondike rules.
+   */
+  public KlondikeSolver() {
+    this(GameType.BASIC);
+  }
+
+  /**
+   * Create a solver for games played by the given rules. The solver searches up to 2^21 nodes
+   * with no time limit, makes safe moves to foundations automatically, and uses a table of up
+   * to 2^22 positions.
+   * @param type the rules the solved games are played by
+   * @throws IllegalArgumentException if the type is null
+   */
+  public KlondikeSolver(GameType type) {
+    this.rules = new SearchRules(type);
+    this.table = new HeapTranspositionTable(DEFAULT_TABLE_ENTRIES);
+    this.nodeLimit = DEFAULT_NODE_LIMIT;
+    this.timeLimitNanos = Long.MAX_VALUE;
+    this.search = new DepthFirstSearch(this.rules, true);
+  }
+
+  /**
+   * Set the number of positions a search may visit before giving up. A search which visits
+   * many more positions than its table holds revisits the ones it forgets, so the limit should
+   * be raised along with the size of the table.
+   * @param nodeLimit the maximum number of nodes to search
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public KlondikeSolver setNodeLimit(long nodeLimit) {
+    if (nodeLimit < 1) {
+      throw new IllegalArgumentException("Node limit must be positive");
+    }
+    this.nodeLimit = nodeLimit;
+    return this;
+  }
+
+  /**
+   * Set the time a search may take before giving up.
+   * @param timeLimit the maximum time to search for
+   * @return this
+   * @throws IllegalArgumentException if the limit is null, zero or negative
+   */
+  public KlondikeSolver setTimeLimit(Duration timeLimit) {
+    if (timeLimit == null || timeLimit.isZero() || timeLimit.isNegative()) {
+      throw new IllegalArgumentException("Time limit must be positive");
+    }
+    this.timeLimitNanos = timeLimit.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0
+        ? Long.MAX_VALUE : timeLimit.toNanos();
+    return this;
+  }
+
+  /**
+   * Set whether safe moves to foundations are made automatically. Turning them off makes
+   * searches slower but never changes whether a position is found to be winnable.
+   * @param autoMoves true to make safe moves automatically
+   * @return this
+   */
+  public KlondikeSolver setAutoMoves(boolean autoMoves) {
+    this.search = new DepthFirstSearch(this.rules, autoMoves);
+    return this;
+  }
+
+  /**
+   * Set the table used to remember searched positions. The table is cleared at the start of
+   * every search.
+   * @param table the transposition table to use
+   * @return this
+   * @throws IllegalArgumentException if the table is null
+   */
+  public KlondikeSolver setTable(TranspositionTable table) {
+    if (table == null) {
+      throw new IllegalArgumentException("Table must not be null");
+    }
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * Search for a winning sequence of moves from the given position. The given game is not
+   * changed.
+   * @param position a started game played by the rules this solver was created for
+   * @return the outcome of the search
+   * @throws IllegalArgumentException if the position is null
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public SolverResult solve(SearchableKlondike position) {
+    if (position == null) {
+      throw new IllegalArgumentException("Position must not be null");
+    }
+    long start = System.nanoTime();
+    this.table.clear();
+    Status status = Status.SOLVED;
+    if (this.search.startAtRoot(position.copy(), this.table)) {
+      status = this.search.run(search -> search.getNodes() < this.nodeLimit
+          && (search.getNodes() % TIME_CHECK_INTERVAL != 0
+          || System.nanoTime() - start <= this.timeLimitNanos));
+    }
+
+    int[] solution = status == Status.SOLVED ? this.search.getPath() : new int[0];
+    return new SolverResult(status, solution, this.search.getNodes(), System.nanoTime() - start,
+        this.search.getMaxDepth(), this.table.size(),
+        this.table.memoryBytes() + this.search.stackBytes());
+  }
+}
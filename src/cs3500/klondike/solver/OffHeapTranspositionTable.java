@@ -0,0 +1,216 @@
+package cs3500.klondike.solver;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A transposition table of a fixed size stored outside the Java heap, which many threads can
+ * add positions to at once without locking.
+ *
+ * <p>Entries are 16 bytes, a key and the depth and age of the position, and are grouped into
+ * buckets of four which each fill one cache line. A position is only ever stored in its own
+ * bucket. Once the bucket is full the position replaces an entry from an earlier search if
+ * there is one, or otherwise the deepest entry, since positions nearer the start of a search
+ * lead to more positions and are more costly to search again.</p>
+ *
+ * <p>Finding a position already in the table takes no lock. A thread storing a new position
+ * locks its bucket by a compare-and-set on a bit of the first entry, looks for the position
+ * again, and only then chooses an entry to replace and writes the key and depth. Every change
+ * to a bucket is made under its lock, so no thread chooses an entry to replace by a depth
+ * another thread hasn't finished writing, and no two threads store the same position in
+ * different entries of one bucket.</p>
+ *
+ * <p>Every call to {@link #clear()} starts a new age instead of erasing the table. Keys are
+ * stored mixed with their age, so entries from earlier ages are never found again and are
+ * replaced as they are needed. The counts of hits, misses and collisions are of the current
+ * age only.</p>
+ */
+public final class OffHeapTranspositionTable implements TranspositionTable {
+  //a stored key of 0 marks an empty slot, so keys mixing to 0 are stored as this instead
+  private static final long ZERO_KEY = 0x5DEECE66DL;
+  private static final int ENTRY_BYTES = 16;
+  private static final int BUCKET_ENTRIES = 4;
+  private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+  private static final long MAX_BYTES = 1L << 30;
+  //the top bit of the depth of the first entry of a bucket, set while the bucket is locked
+  private static final long LOCKED = 1L << 31;
+  //reads and compare-and-sets of the longs in the buffer, at byte offsets
+  private static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final ByteBuffer buffer;
+  private final int numBuckets;
+  private final int shift;
+  private volatile int age;
+  private final LongAdder size;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder collisions;
+
+  /**
+   * Create a table using at most the given number of bytes, all of which are allocated up
+   * front outside the Java heap.
+   * @param maxBytes the most memory the table may use, rounded down to a power of two
+   * @throws IllegalArgumentException if maxBytes is less than 64 bytes or more than 1 GiB
+   */
+  public OffHeapTranspositionTable(long maxBytes) {
+    if (maxBytes < BUCKET_BYTES || maxBytes > MAX_BYTES) {
+      throw new IllegalArgumentException("Table must use between 64 bytes and 1 GiB");
+    }
+    this.numBuckets = (int) (Long.highestOneBit(maxBytes) / BUCKET_BYTES);
+    //direct buffers are zeroed, so every slot starts empty
+    this.buffer = ByteBuffer.allocateDirect(this.numBuckets * BUCKET_BYTES + BUCKET_BYTES)
+        .alignedSlice(BUCKET_BYTES);
+    this.shift = Long.numberOfLeadingZeros(this.numBuckets - 1L);
+    this.age = 1;
+    this.size = new LongAdder();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.collisions = new LongAdder();
+  }
+
+  @Override
+  public boolean add(long hash, int depth) {
+    int age = this.age;
+    long key = hash ^ age * 0xC2B2AE3D27D4EB4FL;
+    key = key == 0 ? ZERO_KEY : key;
+    //the high bits of the hash, folded and multiplied by an odd constant so that every bit of
+    //the hash decides the bucket
+    long mixed = (hash ^ hash >>> 31) * 0xBF58476D1CE4E5B9L;
+    int base = ((int) (mixed >>> this.shift) & this.numBuckets - 1) * BUCKET_BYTES;
+    if (contains(base, key)) {
+      this.hits.increment();
+      return false;
+    }
+    lock(base);
+    //another thread may have stored the position since it was looked for
+    if (contains(base, key)) {
+      unlock(base);
+      this.hits.increment();
+      return false;
+    }
+    //empty slots are best to replace, then entries of earlier ages, then the deepest
+    int victim = base;
+    long victimRank = Long.MIN_VALUE;
+    for (int offset = base; offset < base + BUCKET_BYTES; offset += ENTRY_BYTES) {
+      long rank;
+      if ((long) LONGS.get(this.buffer, offset) == 0) {
+        rank = Long.MAX_VALUE;
+      } else {
+        long entry = (long) LONGS.get(this.buffer, offset + Long.BYTES) & ~LOCKED;
+        rank = (int) (entry >>> 32) != age ? Long.MAX_VALUE - 1 : (int) entry;
+      }
+      if (rank > victimRank) {
+        victim = offset;
+        victimRank = rank;
+      }
+    }
+    long info = (long) age << 32 | depth & ~LOCKED & 0xFFFFFFFFL;
+    LONGS.set(this.buffer, victim + Long.BYTES, victim == base ? info | LOCKED : info);
+    LONGS.setRelease(this.buffer, victim, key);
+    unlock(base);
+    if (victimRank >= Long.MAX_VALUE - 1) {
+      this.size.increment();
+    } else {
+      this.collisions.increment();
+    }
+    this.misses.increment();
+    return true;
+  }
+
+  /**
+   * Checks if the given key is stored in the bucket starting at the given offset.
+   */
+  private boolean contains(int base, long key) {
+    for (int offset = base; offset < base + BUCKET_BYTES; offset += ENTRY_BYTES) {
+      if ((long) LONGS.getAcquire(this.buffer, offset) == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Lock the bucket starting at the given offset, waiting for any other thread to unlock it.
+   */
+  private void lock(int base) {
+    int header = base + Long.BYTES;
+    while (true) {
+      long entry = (long) LONGS.getVolatile(this.buffer, header);
+      if ((entry & LOCKED) == 0
+          && LONGS.compareAndSet(this.buffer, header, entry, entry | LOCKED)) {
+        return;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  /**
+   * Unlock the bucket starting at the given offset, publishing every change made to it.
+   */
+  private void unlock(int base) {
+    int header = base + Long.BYTES;
+    LONGS.setRelease(this.buffer, header, (long) LONGS.get(this.buffer, header) & ~LOCKED);
+  }
+
+  @Override
+  public long size() {
+    return this.size.sum();
+  }
+
+  @Override
+  public long memoryBytes() {
+    return (long) this.numBuckets * BUCKET_BYTES;
+  }
+
+  /**
+   * Forget every position in the table by starting a new age, which takes constant time.
+   * The counts of hits, misses and collisions are reset too. This must not be called while
+   * other threads are adding positions.
+   */
+  @Override
+  public void clear() {
+    this.age++;
+    this.size.reset();
+    this.hits.reset();
+    this.misses.reset();
+    this.collisions.reset();
+  }
+
+  /**
+   * Returns the number of positions added which were already in the table.
+   * @return the number of hits since the table was last cleared
+   */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Returns the number of positions added which were not in the table, including those which
+   * were once stored but have since been replaced.
+   * @return the number of misses since the table was last cleared
+   */
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Returns the number of positions stored by replacing another position of the current age,
+   * because every slot of their bucket was taken.
+   * @return the number of collisions since the table was last cleared
+   */
+  public long getCollisions() {
+    return this.collisions.sum();
+  }
+
+  /**
+   * Returns the number of positions the table can hold at once.
+   * @return the capacity in entries
+   */
+  public long capacity() {
+    return (long) this.numBuckets * BUCKET_ENTRIES;
+  }
+}
@@ -0,0 +1,350 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A solver which searches a klondike position on many threads at once, sharing one
+ * transposition table between them.
+ *
+ * <p>The search runs on a fork/join pool. Each thread searches depth first exactly like
+ * {@link KlondikeSolver}, and whenever a thread in the pool is idle, a busy thread splits off
+ * the untried moves nearest the root of its search as new tasks for idle threads to steal.
+ * Splitting near the root hands out large pieces of work, so threads rarely need to split
+ * again. A position added to the table by one thread is skipped by every other thread.</p>
+ *
+ * <p>Each task also skips the positions on the path from the root to where it started, so a
+ * position forgotten by the shared table never sends a thread back around a cycle of moves.
+ * How evenly the work is spread can be seen from the nodes each thread searched, which are
+ * reported with the result.</p>
+ */
+public final class ParallelKlondikeSolver {
+  private static final int DEFAULT_TABLE_ENTRIES = 1 << 22;
+  //at most half the default table is filled, so it never has to forget a position
+  private static final long DEFAULT_NODE_LIMIT = DEFAULT_TABLE_ENTRIES / 2;
+  //how many nodes a thread searches between checks for idle threads
+  private static final int SPLIT_INTERVAL = 1 << 6;
+  //how many nodes a thread searches between adding to the shared node count
+  private static final int REPORT_INTERVAL = 1 << 10;
+
+  private final SearchRules rules;
+  private final int parallelism;
+  private TranspositionTable table;
+  private long nodeLimit;
+  private long timeLimitNanos;
+  private boolean autoMoves;
+
+  /**
+   * Create a solver for games played by the given rules which uses every available processor.
+   * @param type the rules the solved games are played by
+   * @throws IllegalArgumentException if the type is null
+   */
+  public ParallelKlondikeSolver(GameType type) {
+    this(type, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Create a solver for games played by the given rules which uses the given number of
+   * threads. The solver searches up to 2^21 nodes with no time limit, makes safe moves to
+   * foundations automatically, and uses a concurrent table of 2^22 positions.
+   * @param type the rules the solved games are played by
+   * @param parallelism the number of threads to search with
+   * @throws IllegalArgumentException if the type is null or parallelism is not positive
+   */
+  public ParallelKlondikeSolver(GameType type, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive");
+    }
+    this.rules = new SearchRules(type);
+    this.parallelism = parallelism;
+    this.table = new ConcurrentTranspositionTable(DEFAULT_TABLE_ENTRIES);
+    this.nodeLimit = DEFAULT_NODE_LIMIT;
+    this.timeLimitNanos = Long.MAX_VALUE;
+    this.autoMoves = true;
+  }
+
+  /**
+   * Set the number of positions a search may visit, over all threads, before giving up.
+   * A search may visit a few more positions than this before every thread notices the limit.
+   * @param nodeLimit the maximum number of nodes to search
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public ParallelKlondikeSolver setNodeLimit(long nodeLimit) {
+    if (nodeLimit < 1) {
+      throw new IllegalArgumentException("Node limit must be positive");
+    }
+    this.nodeLimit = nodeLimit;
+    return this;
+  }
+
+  /**
+   * Set the time a search may take before giving up.
+   * @param timeLimit the maximum time to search for
+   * @return this
+   * @throws IllegalArgumentException if the limit is null, zero or negative
+   */
+  public ParallelKlondikeSolver setTimeLimit(Duration timeLimit) {
+    if (timeLimit == null || timeLimit.isZero() || timeLimit.isNegative()) {
+      throw new IllegalArgumentException("Time limit must be positive");
+    }
+    this.timeLimitNanos = timeLimit.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0
+        ? Long.MAX_VALUE : timeLimit.toNanos();
+    return this;
+  }
+
+  /**
+   * Set whether safe moves to foundations are made automatically.
+   * @param autoMoves true to make safe moves automatically
+   * @return this
+   */
+  public ParallelKlondikeSolver setAutoMoves(boolean autoMoves) {
+    this.autoMoves = autoMoves;
+    return this;
+  }
+
+  /**
+   * Set the table used to remember searched positions, which must be safe to add to from
+   * many threads at once. The table is cleared at the start of every search.
+   * @param table the transposition table to use
+   * @return this
+   * @throws IllegalArgumentException if the table is null
+   */
+  public ParallelKlondikeSolver setTable(TranspositionTable table) {
+    if (table == null) {
+      throw new IllegalArgumentException("Table must not be null");
+    }
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * Search for a winning sequence of moves from the given position. The given game is not
+   * changed. Which winning sequence is found may differ between runs.
+   * @param position a started game played by the rules this solver was created for
+   * @return the outcome of the search and statistics about each thread
+   * @throws IllegalArgumentException if the position is null
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public ParallelSolverResult solve(SearchableKlondike position) {
+    if (position == null) {
+      throw new IllegalArgumentException("Position must not be null");
+    }
+    Search shared = new Search(position.copy(), System.nanoTime());
+    this.table.clear();
+
+    //the root is searched on this thread, so that a position won by automatic moves alone
+    //never starts the pool
+    DepthFirstSearch first = new DepthFirstSearch(this.rules, this.autoMoves);
+    shared.nodes.set(1);
+    if (!first.startAtRoot(shared.root.copy(), this.table)) {
+      shared.solution.set(first.getPath());
+      return shared.result(new ArrayList<>(), first.stackBytes());
+    }
+    shared.maxDepth.set(first.getMaxDepth());
+    SearchTask rootTask = new SearchTask(shared, first.getPathTo(0), first.takeUntriedMoves(0),
+        0, null);
+    ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+    try {
+      pool.invoke(rootTask);
+    } finally {
+      pool.shutdown();
+    }
+    List<Worker> workers = new ArrayList<>(shared.workers.values());
+    long stackBytes = first.stackBytes();
+    for (Worker worker : workers) {
+      stackBytes += worker.search.stackBytes();
+    }
+    return shared.result(workers, stackBytes);
+  }
+
+  /**
+   * The state of one search shared between all of its tasks.
+   */
+  private final class Search {
+    private final SearchableKlondike root;
+    private final long start;
+    private final AtomicLong nodes = new AtomicLong();
+    private final AtomicLong maxDepth = new AtomicLong();
+    private final AtomicReference<int[]> solution = new AtomicReference<>();
+    private final Map<Thread, Worker> workers = new ConcurrentHashMap<>();
+    private volatile boolean limitReached;
+
+    Search(SearchableKlondike root, long start) {
+      this.root = root;
+      this.start = start;
+    }
+
+    /**
+     * Checks if every task should stop searching.
+     */
+    boolean stopped() {
+      return this.limitReached || this.solution.get() != null;
+    }
+
+    /**
+     * Add to the number of nodes searched, stopping the search if it is over its limits.
+     */
+    void addNodes(long count) {
+      long total = this.nodes.addAndGet(count);
+      if (total >= nodeLimit || System.nanoTime() - this.start > timeLimitNanos) {
+        this.limitReached = true;
+      }
+    }
+
+    Worker workerFor(Thread thread) {
+      return this.workers.computeIfAbsent(thread,
+          t -> new Worker(new DepthFirstSearch(rules, autoMoves)));
+    }
+
+    ParallelSolverResult result(List<Worker> workers, long stackBytes) {
+      int[] found = this.solution.get();
+      Status status = found != null ? Status.SOLVED
+          : this.limitReached ? Status.LIMIT_REACHED : Status.UNSOLVABLE;
+      SolverResult result = new SolverResult(status, found != null ? found : new int[0],
+          this.nodes.get(), System.nanoTime() - this.start, (int) this.maxDepth.get(),
+          table.size(), table.memoryBytes() + stackBytes);
+      long[] threadNodes = new long[workers.size()];
+      long tasks = 0;
+      long steals = 0;
+      for (int i = 0; i < workers.size(); i++) {
+        threadNodes[i] = workers.get(i).nodes;
+        tasks += workers.get(i).tasks;
+        steals += workers.get(i).steals;
+      }
+      return new ParallelSolverResult(result, threadNodes, tasks, steals);
+    }
+  }
+
+  /**
+   * The search stacks and statistics of one thread, which only that thread changes.
+   */
+  private static final class Worker {
+    private final DepthFirstSearch search;
+    private long nodes;
+    private long tasks;
+    private long steals;
+
+    Worker(DepthFirstSearch search) {
+      this.search = search;
+    }
+  }
+
+  /**
+   * A task searching some of the moves from one position.
+   */
+  private final class SearchTask extends RecursiveAction
+      implements DepthFirstSearch.NodeListener {
+    private static final long serialVersionUID = 1L;
+
+    private final Search shared;
+    //the moves from the root to the position this task searches from
+    private final int[] prefix;
+    private final int[] moves;
+    private final int depth;
+    private final Thread forkedBy;
+    private final List<SearchTask> forked = new ArrayList<>();
+    private long reported;
+
+    SearchTask(Search shared, int[] prefix, int[] moves, int depth, Thread forkedBy) {
+      this.shared = shared;
+      this.prefix = prefix;
+      this.moves = moves;
+      this.depth = depth;
+      this.forkedBy = forkedBy;
+    }
+
+    @Override
+    protected void compute() {
+      Thread thread = Thread.currentThread();
+      Worker worker = this.shared.workerFor(thread);
+      worker.tasks++;
+      if (this.forkedBy != null && this.forkedBy != thread) {
+        worker.steals++;
+      }
+      if (this.shared.stopped()) {
+        return;
+      }
+
+      SearchableKlondike game = this.shared.root.copy();
+      long[] pathHashes = new long[this.prefix.length + 1];
+      pathHashes[0] = game.positionHash(true);
+      for (int i = 0; i < this.prefix.length; i++) {
+        if (game.tryMove(this.prefix[i]) != MoveResult.SUCCESS) {
+          throw new IllegalStateException("Searched move was not legal");
+        }
+        pathHashes[i + 1] = game.positionHash(true);
+      }
+      DepthFirstSearch search = worker.search;
+      search.startWithMoves(game, table, this.moves, pathHashes);
+      Status status = search.run(this);
+      long nodes = search.getNodes();
+      worker.nodes += nodes;
+      this.shared.addNodes(nodes - this.reported);
+      this.shared.maxDepth.accumulateAndGet(this.depth + search.getMaxDepth(), Math::max);
+      if (status == Status.SOLVED) {
+        this.shared.solution.compareAndSet(null, concat(this.prefix, search.getPath()));
+      }
+
+      //the worker's search may be reused by the tasks it helps with while joining
+      for (int i = this.forked.size() - 1; i >= 0; i--) {
+        this.forked.get(i).join();
+      }
+    }
+
+    @Override
+    public boolean visited(DepthFirstSearch search) {
+      long nodes = search.getNodes();
+      if (nodes % REPORT_INTERVAL == 0) {
+        this.shared.addNodes(nodes - this.reported);
+        this.reported = nodes;
+      }
+      if (nodes % SPLIT_INTERVAL == 0) {
+        if (this.shared.stopped()) {
+          return false;
+        }
+        ForkJoinPool pool = getPool();
+        if (getQueuedTaskCount() == 0 && pool.getActiveThreadCount() < pool.getParallelism()) {
+          split(search);
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Hand the untried moves nearest the root of the search to new tasks, one per move.
+     */
+    private void split(DepthFirstSearch search) {
+      int frame = search.findSplitFrame();
+      if (frame < 0) {
+        return;
+      }
+      int[] path = concat(this.prefix, search.getPathTo(frame));
+      Thread thread = Thread.currentThread();
+      for (int move : search.takeUntriedMoves(frame)) {
+        SearchTask task = new SearchTask(this.shared, path, new int[] {move},
+            this.depth + frame, thread);
+        task.fork();
+        this.forked.add(task);
+      }
+    }
+  }
+
+  private static int[] concat(int[] first, int[] second) {
+    int[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+}
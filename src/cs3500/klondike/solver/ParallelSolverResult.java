@@ -0,0 +1,69 @@
+package cs3500.klondike.solver;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of a parallel search of a klondike position, along with statistics about how
+ * the work was shared between threads.
+ */
+public final class ParallelSolverResult {
+  private final SolverResult result;
+  private final long[] threadNodes;
+  private final long tasks;
+  private final long steals;
+
+  /**
+   * Create a result from the outcome of the search and its per-thread statistics.
+   * @param result the outcome of the search as a whole
+   * @param threadNodes the number of positions each thread that took part searched
+   * @param tasks the number of pieces the search was split into
+   * @param steals the number of pieces searched by a thread other than the one that split
+   *               them off
+   */
+  ParallelSolverResult(SolverResult result, long[] threadNodes, long tasks, long steals) {
+    this.result = result;
+    this.threadNodes = threadNodes;
+    this.tasks = tasks;
+    this.steals = steals;
+  }
+
+  /**
+   * Returns the outcome of the search, with totals over every thread.
+   * @return the combined result
+   */
+  public SolverResult getResult() {
+    return this.result;
+  }
+
+  /**
+   * Returns the number of positions searched by each thread that took part in the search,
+   * in no particular order.
+   * @return a copy of the node count of each thread
+   */
+  public long[] getThreadNodes() {
+    return this.threadNodes.clone();
+  }
+
+  /**
+   * Returns the number of pieces the search was split into, including the first.
+   * @return the number of tasks searched
+   */
+  public long getTasks() {
+    return this.tasks;
+  }
+
+  /**
+   * Returns the number of pieces of the search that were stolen by an idle thread from the
+   * thread that split them off.
+   * @return the number of stolen tasks
+   */
+  public long getSteals() {
+    return this.steals;
+  }
+
+  @Override
+  public String toString() {
+    return this.result + ", " + this.threadNodes.length + " threads, " + this.tasks + " tasks, "
+        + this.steals + " steals, nodes per thread " + Arrays.toString(this.threadNodes);
+  }
+}
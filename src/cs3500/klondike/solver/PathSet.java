@@ -0,0 +1,135 @@
+package cs3500.klondike.solver;
+
+import java.util.Arrays;
+
+/**
+ * The hashes of the positions on the current path of a depth first search, from where the
+ * search started to the position it is searching below.
+ *
+ * <p>A bounded {@link TranspositionTable} may forget a position while the search is still
+ * below it, and a search which then reaches the position again would search it below itself,
+ * around and around a cycle of moves. Checking this set as well as the table stops that, since
+ * every position on the path is in the set until the search backtracks past it.</p>
+ *
+ * <p>The set is an open addressing table which grows as the path gets longer, and entries are
+ * removed by shifting later entries back so that no slot is ever left marked as deleted.</p>
+ */
+final class PathSet {
+  private static final int INITIAL_CAPACITY = 64;
+  //a hash of 0 marks an empty slot, so positions hashing to 0 are stored as this instead
+  private static final long ZERO_HASH = 0x5DEECE66DL;
+
+  private long[] slots = new long[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Add the position with the given hash to the path.
+   * @param hash the 64-bit hash of the position
+   * @return true if the position was not already on the path
+   */
+  boolean add(long hash) {
+    long key = hash == 0 ? ZERO_HASH : hash;
+    if (this.size * 2 >= this.slots.length) {
+      grow();
+    }
+    int mask = this.slots.length - 1;
+    for (int i = index(key, mask); ; i = (i + 1) & mask) {
+      if (this.slots[i] == key) {
+        return false;
+      }
+      if (this.slots[i] == 0) {
+        this.slots[i] = key;
+        this.size++;
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Checks if the position with the given hash is on the path.
+   * @param hash the 64-bit hash of the position
+   * @return true if the position is on the path
+   */
+  boolean contains(long hash) {
+    return find(hash == 0 ? ZERO_HASH : hash) >= 0;
+  }
+
+  /**
+   * Remove the position with the given hash from the path, if it is on it.
+   * @param hash the 64-bit hash of the position
+   */
+  void remove(long hash) {
+    int hole = find(hash == 0 ? ZERO_HASH : hash);
+    if (hole < 0) {
+      return;
+    }
+    int mask = this.slots.length - 1;
+    //move back every later entry of the run whose probes pass over the hole
+    for (int i = (hole + 1) & mask; this.slots[i] != 0; i = (i + 1) & mask) {
+      int home = index(this.slots[i], mask);
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        this.slots[hole] = this.slots[i];
+        hole = i;
+      }
+    }
+    this.slots[hole] = 0;
+    this.size--;
+  }
+
+  /**
+   * Remove every position from the path.
+   */
+  void clear() {
+    if (this.size > 0) {
+      Arrays.fill(this.slots, 0);
+      this.size = 0;
+    }
+  }
+
+  /**
+   * Returns the memory used by the set.
+   * @return the size of the slots in bytes
+   */
+  long memoryBytes() {
+    return (long) this.slots.length * Long.BYTES;
+  }
+
+  /**
+   * Returns the slot holding the given key, or -1 if it isn't in the set.
+   */
+  private int find(long key) {
+    int mask = this.slots.length - 1;
+    for (int i = index(key, mask); this.slots[i] != 0; i = (i + 1) & mask) {
+      if (this.slots[i] == key) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Double the number of slots, moving every position to its new slot.
+   */
+  private void grow() {
+    long[] old = this.slots;
+    this.slots = new long[old.length * 2];
+    int mask = this.slots.length - 1;
+    for (long key : old) {
+      if (key != 0) {
+        int i = index(key, mask);
+        while (this.slots[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        this.slots[i] = key;
+      }
+    }
+  }
+
+  /**
+   * Returns the first slot to probe for the given key, taken from the high bits of the key
+   * multiplied by an odd constant so that similar keys land far apart.
+   */
+  private static int index(long key, int mask) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> Long.numberOfLeadingZeros((long) mask)) & mask;
+  }
+}
@@ -0,0 +1,95 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.solver.SolverResult.Status;
+
+/**
+ * The smallest number of redraws needed to win a limited draw deal, as found by
+ * {@link RedrawBudgetSolver}.
+ */
+public final class RedrawBudget {
+  private final long seed;
+  private final Status status;
+  private final int minRedraws;
+  private final boolean exact;
+  private final int[] solution;
+  private final long nodes;
+
+  /**
+   * Create the outcome of finding the budget of one deal.
+   * @param seed the seed the deal was shuffled with
+   * @param status SOLVED if some budget wins, UNSOLVABLE if no budget tried wins, or
+   *               LIMIT_REACHED if no budget tried was found to win but some weren't decided
+   * @param minRedraws the smallest budget found to win, or -1 if there is none
+   * @param exact whether every smaller budget was proven not to win
+   * @param solution the winning moves with the smallest budget, or an empty array
+   * @param nodes the number of positions searched over every budget tried
+   */
+  RedrawBudget(long seed, Status status, int minRedraws, boolean exact, int[] solution,
+               long nodes) {
+    this.seed = seed;
+    this.status = status;
+    this.minRedraws = minRedraws;
+    this.exact = exact;
+    this.solution = solution;
+    this.nodes = nodes;
+  }
+
+  /**
+   * Returns the seed the deal was shuffled with.
+   * @return the seed of the deal
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Returns whether the deal can be won with one of the budgets tried.
+   * @return SOLVED if a budget was found which wins, UNSOLVABLE if every budget tried was
+   *         proven not to win, or LIMIT_REACHED if no budget was found which wins but the
+   *         search ran out of nodes or time for some of them
+   */
+  public Status getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Returns the smallest number of redraws found to win the deal.
+   * @return the smallest winning budget, or -1 if no budget tried wins
+   */
+  public int getMinRedraws() {
+    return this.minRedraws;
+  }
+
+  /**
+   * Returns whether the deal was proven not to be winnable with fewer redraws than
+   * {@link #getMinRedraws()}. If not, the search ran out of nodes or time for a smaller budget,
+   * which might also win.
+   * @return true if the minimum is exact, false if it is only an upper bound
+   */
+  public boolean isExact() {
+    return this.exact;
+  }
+
+  /**
+   * Returns the winning moves found with the smallest budget, packed as moves for the model.
+   * @return a copy of the winning moves, which is empty unless the status is SOLVED
+   */
+  public int[] getSolution() {
+    return this.solution.clone();
+  }
+
+  /**
+   * Returns the number of positions searched over every budget tried.
+   * @return the total number of nodes searched
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  @Override
+  public String toString() {
+    String budget = this.status == Status.SOLVED
+        ? (this.exact ? "" : "at most ") + this.minRedraws + " redraws" : this.status.toString();
+    return "seed " + this.seed + ": " + budget + " (" + this.nodes + " nodes)";
+  }
+}
@@ -0,0 +1,118 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the smallest number of redraws a limited draw deal needs to be won.
+ *
+ * <p>The solver deals the same cards into limited draw games with budgets of 0, 1, 2, and so on
+ * redraws, and searches each with a {@link KlondikeSolver} until one can be won. Every line of
+ * play allowed by a budget is allowed by every larger budget, so the first budget which wins is
+ * the smallest. Within each search the redraws used and where the draw pile has been turned to
+ * are part of the position, so a position reached again with less budget left is searched
+ * again rather than skipped.</p>
+ */
+public final class RedrawBudgetSolver {
+  private final int maxRedraws;
+  private final KlondikeSolver solver;
+
+  /**
+   * Create a solver which tries budgets of up to the given number of redraws.
+   * @param maxRedraws the largest budget to try
+   * @throws IllegalArgumentException if maxRedraws is negative
+   */
+  public RedrawBudgetSolver(int maxRedraws) {
+    if (maxRedraws < 0) {
+      throw new IllegalArgumentException("Redraw budget can't be negative");
+    }
+    this.maxRedraws = maxRedraws;
+    this.solver = new KlondikeSolver(GameType.LIMITED);
+  }
+
+  /**
+   * Set the number of positions the search of each budget may visit before giving up.
+   * @param nodeLimit the maximum number of nodes to search per budget
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public RedrawBudgetSolver setNodeLimit(long nodeLimit) {
+    this.solver.setNodeLimit(nodeLimit);
+    return this;
+  }
+
+  /**
+   * Find the smallest number of redraws needed to win the deal made from the given cards and
+   * seed, as {@link cs3500.klondike.model.hw02.KlondikeModel#startGame(List, long, int, int)}
+   * would deal it.
+   * @param deck the cards to deal
+   * @param seed the seed to shuffle the cards with
+   * @param numPiles the number of cascade piles
+   * @param numDraw the number of visible draw cards
+   * @return the smallest budget which wins, if any
+   * @throws IllegalArgumentException if the deal can't be made
+   */
+  public RedrawBudget solve(List<Card> deck, long seed, int numPiles, int numDraw) {
+    long nodes = 0;
+    boolean exact = true;
+    for (int budget = 0; budget <= this.maxRedraws; budget++) {
+      LimitedDrawKlondike game = new LimitedDrawKlondike(budget);
+      game.startGame(deck, seed, numPiles, numDraw);
+      SolverResult result = this.solver.solve(game);
+      nodes += result.getNodes();
+      if (result.getStatus() == Status.SOLVED) {
+        return new RedrawBudget(seed, Status.SOLVED, budget, exact, result.getSolution(), nodes);
+      }
+      exact &= result.getStatus() == Status.UNSOLVABLE;
+    }
+    return new RedrawBudget(seed, exact ? Status.UNSOLVABLE : Status.LIMIT_REACHED, -1, exact,
+        new int[0], nodes);
+  }
+
+  /**
+   * Find the smallest number of redraws needed to win each of a range of deals, which are
+   * made from the same cards shuffled with consecutive seeds.
+   * @param deck the cards to deal
+   * @param firstSeed the seed of the first deal
+   * @param numDeals the number of deals
+   * @param numPiles the number of cascade piles
+   * @param numDraw the number of visible draw cards
+   * @return the budget of each deal, in order of seed
+   * @throws IllegalArgumentException if numDeals is negative or the deals can't be made
+   */
+  public List<RedrawBudget> classify(List<Card> deck, long firstSeed, int numDeals,
+                                     int numPiles, int numDraw) {
+    if (numDeals < 0) {
+      throw new IllegalArgumentException("Number of deals can't be negative");
+    }
+    List<RedrawBudget> budgets = new ArrayList<>(numDeals);
+    for (int i = 0; i < numDeals; i++) {
+      budgets.add(solve(deck, firstSeed + i, numPiles, numDraw));
+    }
+    return budgets;
+  }
+
+  /**
+   * Count how many of the given deals need each number of redraws.
+   * @param budgets the budgets of some deals
+   * @return an array whose element i is the number of deals needing exactly i redraws, up to
+   *         the largest budget tried, followed by the number of deals with no winning budget
+   *         and the number which couldn't be decided
+   */
+  public int[] tally(List<RedrawBudget> budgets) {
+    int[] counts = new int[this.maxRedraws + 3];
+    for (RedrawBudget budget : budgets) {
+      if (budget.getStatus() == Status.SOLVED) {
+        counts[budget.getMinRedraws()]++;
+      } else {
+        counts[budget.getStatus() == Status.UNSOLVABLE ? this.maxRedraws + 1
+            : this.maxRedraws + 2]++;
+      }
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,149 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+
+/**
+ * Knowledge about klondike used to guide a search: which moves to try first, which moves are
+ * never worth trying, and which moves to a foundation can be made without losing a win.
+ * Only {@link #countCards(SearchableKlondike)} is public, for automated players which need to
+ * know when a game is won.
+ */
+public final class SearchRules {
+  /**
+   * Score given to moves that should not be searched at all.
+   */
+  static final int PRUNE = -1;
+
+  private static final int FOUNDATION_SCORE = 100;
+  private static final int DRAW_TO_FOUNDATION_SCORE = 90;
+  private static final int REVEAL_SCORE = 80;
+  private static final int EMPTY_PILE_SCORE = 60;
+  private static final int DRAW_SCORE = 50;
+  private static final int PILE_SCORE = 30;
+  private static final int DISCARD_SCORE = 10;
+
+  //whether cards are built on cards of the same color, rather than the opposite color
+  private final boolean sameColorBuilds;
+  //whether draw cards can be moved to foundations automatically, which is not safe when the
+  //size of the draw pile decides how many redraws are left
+  private final boolean drawAutoMoves;
+
+  /**
+   * Create the rules for the given type of game.
+   * @param type the rules the searched games are played by
+   * @throws IllegalArgumentException if the type is null
+   */
+  SearchRules(GameType type) {
+    if (type == null) {
+      throw new IllegalArgumentException("Game type must not be null");
+    }
+    this.sameColorBuilds = type == GameType.WHITEHEAD;
+    this.drawAutoMoves = type != GameType.LIMITED;
+  }
+
+  /**
+   * Score a legal move by how promising it is, so that better moves are searched first.
+   * @param game the game the move is legal in
+   * @param move the packed move
+   * @return a score where higher is better, or {@link #PRUNE} if the move is never useful
+   */
+  int score(SearchableKlondike game, int move) {
+    switch (Move.type(move)) {
+      case Move.TO_FOUNDATION:
+        return FOUNDATION_SCORE;
+      case Move.DRAW_TO_FOUNDATION:
+        return DRAW_TO_FOUNDATION_SCORE;
+      case Move.DRAW:
+        return DRAW_SCORE;
+      case Move.DISCARD_DRAW:
+        return DISCARD_SCORE;
+      default:
+        break;
+    }
+    int height = game.getPileHeight(Move.source(move));
+    int left = height - Move.count(move);
+    if (left == 0) {
+      //moving a whole pile to an empty pile just swaps two piles
+      return game.getPileHeight(Move.destination(move)) == 0 ? PRUNE : EMPTY_PILE_SCORE;
+    }
+    return game.isCardVisible(Move.source(move), left - 1) ? PILE_SCORE : REVEAL_SCORE;
+  }
+
+  /**
+   * Find a move to a foundation among the given legal moves which never needs to be searched
+   * against the alternatives, because the moved card can never be needed in the cascade
+   * again. A card is safe to move when it is an ace or a two, or when every card which could
+   * be built on it is already on a foundation. Draw cards are never moved automatically in
+   * limited draw games, since removing one from the draw pile can use up a redraw.
+   * @param game the game the moves are legal in
+   * @param moves the legal moves
+   * @param count the number of legal moves
+   * @return a safe move to a foundation, or 0 if there is none
+   */
+  int findSafeMove(SearchableKlondike game, int[] moves, int count) {
+    Card drawCard = null;
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      int type = Move.type(move);
+      int code;
+      if (type == Move.TO_FOUNDATION) {
+        int pile = Move.source(move);
+        code = game.getCardAt(pile, game.getPileHeight(pile) - 1).getCode();
+      } else if (type == Move.DRAW_TO_FOUNDATION && this.drawAutoMoves) {
+        if (drawCard == null) {
+          drawCard = game.getDrawCards().get(0);
+        }
+        code = drawCard.getCode();
+      } else {
+        continue;
+      }
+      if (isSafe(game, code)) {
+        return move;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Checks if every card which could be built on the given card is on a foundation.
+   */
+  private boolean isSafe(SearchableKlondike game, int code) {
+    int value = CardCode.valueOf(code);
+    if (value <= 2) {
+      return true;
+    }
+    boolean holderRed = CardCode.isRed(code) == this.sameColorBuilds;
+    for (int i = 0; i < game.getNumFoundations(); i++) {
+      Card top = game.getCardAt(i);
+      if (top == null) {
+        //the cards of this foundation's suit aren't known yet
+        return false;
+      }
+      int topCode = top.getCode();
+      if (CardCode.isRed(topCode) == holderRed && CardCode.valueOf(topCode) < value - 1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of cards still in the game, counting those on foundations. A game is
+   * won when all of these are on foundations, and can no longer be won once this is less
+   * than the number of cards it was dealt.
+   * @param game a started game
+   * @return the number of cards which haven't been removed from the game
+   */
+  public static int countCards(SearchableKlondike game) {
+    //the score is the number of cards on foundations
+    int count = game.getScore() + game.getDrawPileSize();
+    for (int i = 0; i < game.getNumPiles(); i++) {
+      count += game.getPileHeight(i);
+    }
+    return count;
+  }
+}
@@ -0,0 +1,147 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw04.Move;
+
+/**
+ * The outcome of solving a klondike position, along with statistics about the search.
+ */
+public final class SolverResult {
+  /**
+   * What a search found out about a position.
+   */
+  public enum Status {
+    /**
+     * The position can be won, and the result holds a winning sequence of moves.
+     */
+    SOLVED,
+    /**
+     * Every sequence of moves from the position was searched and none of them wins.
+     */
+    UNSOLVABLE,
+    /**
+     * The search ran out of nodes or time before deciding the position.
+     */
+    LIMIT_REACHED
+  }
+
+  private final Status status;
+  private final int[] solution;
+  private final long nodes;
+  private final long elapsedNanos;
+  private final int maxDepth;
+  private final long tableEntries;
+  private final long memoryBytes;
+
+  /**
+   * Create a result with the given outcome and statistics.
+   * @param status what the search found out
+   * @param solution the packed moves of a winning sequence, or an empty array
+   * @param nodes the number of distinct positions searched
+   * @param elapsedNanos the time the search took in nanoseconds
+   * @param maxDepth the greatest number of moves from the start the search reached
+   * @param tableEntries the number of positions in the transposition table at the end
+   * @param memoryBytes the memory used by the table and the search stacks in bytes
+   */
+  SolverResult(Status status, int[] solution, long nodes, long elapsedNanos, int maxDepth,
+               long tableEntries, long memoryBytes) {
+    this.status = status;
+    this.solution = solution;
+    this.nodes = nodes;
+    this.elapsedNanos = elapsedNanos;
+    this.maxDepth = maxDepth;
+    this.tableEntries = tableEntries;
+    this.memoryBytes = memoryBytes;
+  }
+
+  /**
+   * Returns what the search found out about the position.
+   * @return the status of the search
+   */
+  public Status getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Returns the moves of a winning sequence from the solved position, packed by {@link Move}.
+   * The moves include every automatic move to a foundation the search made, so replaying them
+   * in order from the solved position wins the game.
+   * @return a copy of the winning moves, which is empty unless the status is SOLVED
+   */
+  public int[] getSolution() {
+    return this.solution.clone();
+  }
+
+  /**
+   * Returns the number of distinct positions the search visited.
+   * @return the number of nodes searched
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Returns the time the search took.
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Returns the rate at which the search visited positions.
+   * @return the number of nodes searched per second
+   */
+  public double getNodesPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.nodes * 1e9 / this.elapsedNanos;
+  }
+
+  /**
+   * Returns the greatest number of moves from the start of the search to any position it
+   * visited, not counting automatic moves.
+   * @return the maximum search depth
+   */
+  public int getMaxDepth() {
+    return this.maxDepth;
+  }
+
+  /**
+   * Returns the number of positions stored in the transposition table when the search ended.
+   * @return the number of table entries
+   */
+  public long getTableEntries() {
+    return this.tableEntries;
+  }
+
+  /**
+   * Returns the memory used by the transposition table and the search stacks.
+   * @return the memory used in bytes
+   */
+  public long getMemoryBytes() {
+    return this.memoryBytes;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(this.status.toString());
+    if (this.status == Status.SOLVED) {
+      result.append(" in ").append(this.solution.length).append(" moves");
+    }
+    result.append(String.format(": %d nodes in %.3f s (%.0f nodes/s), max depth %d, "
+            + "%d table entries, %.1f MB",
+        this.nodes, this.elapsedNanos / 1e9, getNodesPerSecond(), this.maxDepth,
+        this.tableEntries, this.memoryBytes / (1024.0 * 1024.0)));
+    return result.toString();
+  }
+
+  /**
+   * Renders the winning moves as controller commands, one per line.
+   * @return the commands of the solution, or an empty string if there is none
+   */
+  public String solutionToString() {
+    StringBuilder result = new StringBuilder();
+    for (int move : this.solution) {
+      result.append(Move.toString(move)).append('\n');
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,40 @@
+package cs3500.klondike.solver;
+
+/**
+ * A table of the 64-bit hashes of positions a search has already visited, so that a search
+ * can skip positions it reaches again by a different order of moves.
+ *
+ * <p>Tables may have a bounded size, in which case they forget some positions once full, and
+ * a forgotten position is searched again the next time it is reached. A table therefore can't
+ * tell a search that it has come back around to a position it is still searching below, so
+ * searches keep the positions on their current path separately. Even so, a search which goes
+ * on long after its table is full spends more and more of its time searching positions again,
+ * so it should be bounded by a number of nodes suited to the size of the table.</p>
+ */
+public interface TranspositionTable {
+  /**
+   * Record that the position with the given hash has been visited.
+   * @param hash the 64-bit hash of the position
+   * @param depth the number of moves from the start of the search to the position, which
+   *              bounded tables may use to choose which positions to forget
+   * @return true if the position was not already in the table
+   */
+  boolean add(long hash, int depth);
+
+  /**
+   * Returns the number of positions currently in the table.
+   * @return the number of positions stored
+   */
+  long size();
+
+  /**
+   * Returns an estimate of the memory the table uses.
+   * @return the memory used in bytes
+   */
+  long memoryBytes();
+
+  /**
+   * Forget every position in the table.
+   */
+  void clear();
+}
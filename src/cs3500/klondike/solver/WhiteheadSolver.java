@@ -0,0 +1,666 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.model.hw04.WhiteheadKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A solver for whitehead klondike which searches its own compact copy of the position instead
+ * of playing moves on the model.
+ *
+ * <p>Every cascade card in whitehead is face up, and draw cards can be discarded forever, so
+ * the solver knows the whole position and any remaining draw card can be brought to the top
+ * of the draw pile. The solver uses this to search much less than {@link KlondikeSolver}:</p>
+ * <ul>
+ *   <li>Playing any remaining draw card is a single move, so discards are never searched and
+ *   where the draw pile was turned to is not part of the position.</li>
+ *   <li>Each card records the length of the same suit run it tops, so the runs that can be
+ *   moved as a unit are known without scanning the piles.</li>
+ *   <li>Positions which differ only in the order of their cascade or foundation piles are
+ *   hashed alike, so only one of them is searched.</li>
+ *   <li>A run which can be moved onto the next card of its own suit is moved nowhere else,
+ *   because from there it can still be moved to any other pile it could have gone to. Only one
+ *   empty pile is tried as a destination, and only one copy of a duplicated draw card.</li>
+ *   <li>Safe moves to foundations are made automatically, as in {@link SearchRules}.</li>
+ * </ul>
+ *
+ * <p>As in {@link KlondikeSolver}, the positions on the current path are kept in a
+ * {@link PathSet} as well as the table, so the search never goes around a cycle of moves back
+ * to a position the table has forgotten.</p>
+ *
+ * <p>Solutions are turned back into moves for the model, with the discards needed to reach
+ * each draw card, so they can be replayed on the solved game.</p>
+ */
+public final class WhiteheadSolver {
+  private static final int DEFAULT_TABLE_ENTRIES = 1 << 22;
+  //at most half the default table is filled, so it never has to forget a position
+  private static final long DEFAULT_NODE_LIMIT = DEFAULT_TABLE_ENTRIES / 2;
+  //how many nodes are searched between checks of the time limit
+  private static final int TIME_CHECK_INTERVAL = 1 << 10;
+
+  //kinds of internal moves, packed with the kind in bits 28-31, the source pile or draw card
+  //index in bits 16-27, the number of cards in bits 8-15, and the destination in bits 0-7
+  private static final int PILE = 1;
+  private static final int PILE_TO_FOUNDATION = 2;
+  private static final int DRAW = 3;
+  private static final int DRAW_TO_FOUNDATION = 4;
+
+  private static final int FOUNDATION_SCORE = 100;
+  private static final int EMPTY_SOURCE_SCORE = 70;
+  private static final int SAME_SUIT_SCORE = 60;
+  private static final int DRAW_SCORE = 40;
+  private static final int PILE_SCORE = 30;
+  private static final int EMPTY_DEST_SCORE = 20;
+
+  private TranspositionTable table;
+  private long nodeLimit;
+  private long timeLimitNanos;
+
+  //the position being searched
+  private int numPiles;
+  private int[][] piles;
+  //runs[p][i] is the length of the same suit, non-increasing run whose top is card i of pile p
+  private int[][] runs;
+  private int[] heights;
+  private int[] foundations;
+  private int[] drawCodes;
+  private boolean[] drawLeft;
+  private int drawCount;
+
+  //hash keys, and the parts of the hash of the current position
+  private long[][] pileKeys;
+  private long[] foundationKeys;
+  private long[] drawKeys;
+  private long[] pileHashes;
+  private long foundationHash;
+  private long drawHash;
+
+  //the search stacks
+  private int[] moves = new int[256];
+  private int[] scores = new int[64];
+  private int[] frameStart = new int[64];
+  private int[] frameCount = new int[64];
+  private int[] frameNext = new int[64];
+  private int[] frameMoves = new int[64];
+  private long[] frameHash = new long[64];
+  private final PathSet onPath = new PathSet();
+  private int[] path = new int[64];
+  private int pathLength;
+
+  /**
+   * Create a solver which searches up to 2^21 nodes with no time limit, and uses a table of up
+   * to 2^22 positions.
+   */
+  public WhiteheadSolver() {
+    this.table = new HeapTranspositionTable(DEFAULT_TABLE_ENTRIES);
+    this.nodeLimit = DEFAULT_NODE_LIMIT;
+    this.timeLimitNanos = Long.MAX_VALUE;
+  }
+
+  /**
+   * Set the number of positions a search may visit before giving up.
+   * @param nodeLimit the maximum number of nodes to search
+   * @return this
+   * @throws IllegalArgumentException if the limit isn't positive
+   */
+  public WhiteheadSolver setNodeLimit(long nodeLimit) {
+    if (nodeLimit < 1) {
+      throw new IllegalArgumentException("Node limit must be positive");
+    }
+    this.nodeLimit = nodeLimit;
+    return this;
+  }
+
+  /**
+   * Set the time a search may take before giving up.
+   * @param timeLimit the maximum time to search for
+   * @return this
+   * @throws IllegalArgumentException if the limit is null, zero or negative
+   */
+  public WhiteheadSolver setTimeLimit(Duration timeLimit) {
+    if (timeLimit == null || timeLimit.isZero() || timeLimit.isNegative()) {
+      throw new IllegalArgumentException("Time limit must be positive");
+    }
+    this.timeLimitNanos = timeLimit.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0
+        ? Long.MAX_VALUE : timeLimit.toNanos();
+    return this;
+  }
+
+  /**
+   * Set the table used to remember searched positions. The table is cleared at the start of
+   * every search.
+   * @param table the transposition table to use
+   * @return this
+   * @throws IllegalArgumentException if the table is null
+   */
+  public WhiteheadSolver setTable(TranspositionTable table) {
+    if (table == null) {
+      throw new IllegalArgumentException("Table must not be null");
+    }
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * Search for a winning sequence of moves from the given position. The given game is not
+   * changed.
+   * @param position a started whitehead game
+   * @return the outcome of the search, whose solution is made of moves for the model
+   * @throws IllegalArgumentException if the position is null
+   * @throws IllegalStateException if the game hasn't been started yet
+   */
+  public SolverResult solve(WhiteheadKlondike position) {
+    if (position == null) {
+      throw new IllegalArgumentException("Position must not be null");
+    }
+    long start = System.nanoTime();
+    load(position);
+    this.table.clear();
+    this.onPath.clear();
+    this.pathLength = 0;
+    long nodes = 1;
+    int maxDepth = 0;
+
+    int depth = 0;
+    int rootMoves = makeAutoMoves();
+    long rootHash = hash();
+    this.table.add(rootHash, 0);
+    Status status = pushFrame(0, 0, rootMoves, rootHash) ? null : Status.SOLVED;
+    while (status == null) {
+      if (this.frameNext[depth] == this.frameCount[depth]) {
+        if (depth == 0) {
+          status = Status.UNSOLVABLE;
+          break;
+        }
+        undo(this.frameMoves[depth]);
+        this.onPath.remove(this.frameHash[depth]);
+        depth--;
+        continue;
+      }
+      int move = this.moves[this.frameStart[depth] + this.frameNext[depth]++];
+      apply(move);
+      int made = 1 + makeAutoMoves();
+      long hash = hash();
+      if (this.onPath.contains(hash) || !this.table.add(hash, depth + 1)) {
+        undo(made);
+        continue;
+      }
+      nodes++;
+      depth++;
+      maxDepth = Math.max(maxDepth, depth);
+      if (!pushFrame(depth, this.frameStart[depth - 1] + this.frameCount[depth - 1], made,
+          hash)) {
+        status = Status.SOLVED;
+      } else if (nodes >= this.nodeLimit
+          || nodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - start > this.timeLimitNanos) {
+        status = Status.LIMIT_REACHED;
+      }
+    }
+
+    int[] solution = status == Status.SOLVED ? toModelMoves(position) : new int[0];
+    return new SolverResult(status, solution, nodes, System.nanoTime() - start, maxDepth,
+        this.table.size(), this.table.memoryBytes() + memoryBytes());
+  }
+
+  /**
+   * Read the position of the given game into the search state.
+   */
+  private void load(WhiteheadKlondike game) {
+    SearchableKlondike draws = game.copy();
+    int drawSize = draws.getDrawPileSize();
+    this.numPiles = game.getNumPiles();
+    int numFoundations = game.getNumFoundations();
+    int deckSize = drawSize;
+    for (int pile = 0; pile < this.numPiles; pile++) {
+      deckSize += game.getPileHeight(pile);
+    }
+    this.foundations = new int[numFoundations];
+    for (int i = 0; i < numFoundations; i++) {
+      Card top = game.getCardAt(i);
+      this.foundations[i] = top == null ? 0 : top.getCode();
+      deckSize += top == null ? 0 : top.getPointValue();
+    }
+
+    SplittableRandom random = new SplittableRandom(0x5EED);
+    this.pileKeys = new long[CardCode.NUM_CODES][deckSize];
+    for (long[] keys : this.pileKeys) {
+      Arrays.setAll(keys, i -> random.nextLong());
+    }
+    this.foundationKeys = new long[CardCode.NUM_CODES];
+    Arrays.setAll(this.foundationKeys, i -> random.nextLong());
+    this.drawKeys = new long[drawSize];
+    Arrays.setAll(this.drawKeys, i -> random.nextLong());
+
+    this.piles = new int[this.numPiles][deckSize];
+    this.runs = new int[this.numPiles][deckSize];
+    this.heights = new int[this.numPiles];
+    this.pileHashes = new long[this.numPiles];
+    for (int pile = 0; pile < this.numPiles; pile++) {
+      for (int card = 0; card < game.getPileHeight(pile); card++) {
+        push(pile, game.getCardAt(pile, card).getCode());
+      }
+    }
+    this.foundationHash = 0;
+    for (int top : this.foundations) {
+      this.foundationHash += this.foundationKeys[top];
+    }
+
+    //discarding on a copy turns up every draw card in the order the model will show them
+    this.drawCodes = new int[drawSize];
+    this.drawLeft = new boolean[drawSize];
+    this.drawHash = 0;
+    for (int i = 0; i < drawSize; i++) {
+      this.drawCodes[i] = draws.getDrawCards().get(0).getCode();
+      this.drawLeft[i] = true;
+      this.drawHash ^= this.drawKeys[i];
+      draws.tryDiscardDraw();
+    }
+    this.drawCount = drawSize;
+  }
+
+  /**
+   * Returns the hash of the current position, which ignores the order of the cascade and
+   * foundation piles.
+   */
+  private long hash() {
+    long hash = this.foundationHash + this.drawHash;
+    for (long pileHash : this.pileHashes) {
+      //mixed so that sums of different piles rarely collide
+      long mixed = (pileHash ^ pileHash >>> 33) * 0xFF51AFD7ED558CCDL;
+      hash += mixed ^ mixed >>> 33;
+    }
+    return hash;
+  }
+
+  private void push(int pile, int code) {
+    int height = this.heights[pile];
+    int[] cards = this.piles[pile];
+    cards[height] = code;
+    this.runs[pile][height] = height > 0 && continuesRun(cards[height - 1], code)
+        ? this.runs[pile][height - 1] + 1 : 1;
+    this.pileHashes[pile] ^= this.pileKeys[code][height];
+    this.heights[pile] = height + 1;
+  }
+
+  private int pop(int pile) {
+    int height = --this.heights[pile];
+    int code = this.piles[pile][height];
+    this.pileHashes[pile] ^= this.pileKeys[code][height];
+    return code;
+  }
+
+  /**
+   * Checks if a card on top of another can be moved along with it, by the whitehead rule that
+   * multiple cards can only be moved if they are all of the same suit and in order.
+   */
+  private static boolean continuesRun(int below, int above) {
+    return CardCode.sameSuit(below, above) && CardCode.valueOf(above) <= CardCode.valueOf(below);
+  }
+
+  /**
+   * Checks if a card can be built on a pile by the whitehead rule: any card on an empty pile,
+   * otherwise a card one lower of the same color.
+   */
+  private boolean canBuild(int code, int pile) {
+    if (this.heights[pile] == 0) {
+      return true;
+    }
+    int top = this.piles[pile][this.heights[pile] - 1];
+    return CardCode.sameColor(code, top) && CardCode.valueOf(top) == CardCode.valueOf(code) + 1;
+  }
+
+  /**
+   * Returns the foundation the given card can be moved to, or -1 if there is none.
+   */
+  private int foundationFor(int code) {
+    for (int i = 0; i < this.foundations.length; i++) {
+      int top = this.foundations[i];
+      if (top == 0 ? CardCode.valueOf(code) == 1 : top + 1 == code) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks if every card which could be built on the given card is on a foundation.
+   */
+  private boolean isSafe(int code) {
+    int value = CardCode.valueOf(code);
+    if (value <= 2) {
+      return true;
+    }
+    for (int top : this.foundations) {
+      if (top == 0) {
+        return false;
+      }
+      if (CardCode.sameColor(top, code) && CardCode.valueOf(top) < value - 1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int pack(int kind, int source, int count, int dest) {
+    return kind << 28 | source << 16 | count << 8 | dest;
+  }
+
+  /**
+   * Make the given internal move and add it to the path.
+   */
+  private void apply(int move) {
+    int source = move >>> 16 & 0xFFF;
+    int count = move >>> 8 & 0xFF;
+    int dest = move & 0xFF;
+    switch (move >>> 28) {
+      case PILE:
+        int from = this.heights[source] - count;
+        for (int i = 0; i < count; i++) {
+          push(dest, this.piles[source][from + i]);
+        }
+        for (int i = 0; i < count; i++) {
+          pop(source);
+        }
+        break;
+      case PILE_TO_FOUNDATION:
+        setFoundation(dest, pop(source));
+        break;
+      case DRAW:
+        takeDraw(source);
+        push(dest, this.drawCodes[source]);
+        break;
+      default:
+        takeDraw(source);
+        setFoundation(dest, this.drawCodes[source]);
+        break;
+    }
+    if (this.pathLength == this.path.length) {
+      this.path = Arrays.copyOf(this.path, this.path.length * 2);
+    }
+    this.path[this.pathLength++] = move;
+  }
+
+  /**
+   * Undo the given number of moves from the end of the path.
+   */
+  private void undo(int count) {
+    for (int n = 0; n < count; n++) {
+      int move = this.path[--this.pathLength];
+      int source = move >>> 16 & 0xFFF;
+      int moved = move >>> 8 & 0xFF;
+      int dest = move & 0xFF;
+      switch (move >>> 28) {
+        case PILE:
+          int from = this.heights[dest] - moved;
+          for (int i = 0; i < moved; i++) {
+            push(source, this.piles[dest][from + i]);
+          }
+          for (int i = 0; i < moved; i++) {
+            pop(dest);
+          }
+          break;
+        case PILE_TO_FOUNDATION:
+          push(source, this.foundations[dest]);
+          setFoundation(dest, previousFoundation(this.foundations[dest]));
+          break;
+        case DRAW:
+          pop(dest);
+          returnDraw(source);
+          break;
+        default:
+          setFoundation(dest, previousFoundation(this.foundations[dest]));
+          returnDraw(source);
+          break;
+      }
+    }
+  }
+
+  private static int previousFoundation(int top) {
+    return CardCode.valueOf(top) == 1 ? 0 : top - 1;
+  }
+
+  private void setFoundation(int foundation, int code) {
+    this.foundationHash += this.foundationKeys[code]
+        - this.foundationKeys[this.foundations[foundation]];
+    this.foundations[foundation] = code;
+  }
+
+  private void takeDraw(int index) {
+    this.drawLeft[index] = false;
+    this.drawHash ^= this.drawKeys[index];
+    this.drawCount--;
+  }
+
+  private void returnDraw(int index) {
+    this.drawLeft[index] = true;
+    this.drawHash ^= this.drawKeys[index];
+    this.drawCount++;
+  }
+
+  /**
+   * Make safe moves to foundations from the cascade and draw piles until there are none left.
+   * @return the number of moves made
+   */
+  private int makeAutoMoves() {
+    int made = 0;
+    boolean moved = true;
+    while (moved) {
+      moved = false;
+      for (int pile = 0; pile < this.numPiles; pile++) {
+        while (this.heights[pile] > 0) {
+          int code = this.piles[pile][this.heights[pile] - 1];
+          int foundation = foundationFor(code);
+          if (foundation < 0 || !isSafe(code)) {
+            break;
+          }
+          apply(pack(PILE_TO_FOUNDATION, pile, 1, foundation));
+          made++;
+          moved = true;
+        }
+      }
+      for (int i = 0; i < this.drawCodes.length; i++) {
+        if (this.drawLeft[i]) {
+          int foundation = foundationFor(this.drawCodes[i]);
+          if (foundation >= 0 && isSafe(this.drawCodes[i])) {
+            apply(pack(DRAW_TO_FOUNDATION, i, 1, foundation));
+            made++;
+            moved = true;
+          }
+        }
+      }
+    }
+    return made;
+  }
+
+  /**
+   * Generate, order, and store the moves to search from the current position.
+   * @param depth the depth of the new frame
+   * @param start the index in the move stack to store the moves at
+   * @param made the number of moves made to reach the position from its parent
+   * @param hash the hash of the position, which is added to the path
+   * @return false if the position is won, otherwise true
+   */
+  private boolean pushFrame(int depth, int start, int made, long hash) {
+    if (this.drawCount == 0 && isCascadeEmpty()) {
+      return false;
+    }
+    if (depth == this.frameStart.length) {
+      int length = depth * 2;
+      this.frameStart = Arrays.copyOf(this.frameStart, length);
+      this.frameCount = Arrays.copyOf(this.frameCount, length);
+      this.frameNext = Arrays.copyOf(this.frameNext, length);
+      this.frameMoves = Arrays.copyOf(this.frameMoves, length);
+      this.frameHash = Arrays.copyOf(this.frameHash, length);
+    }
+    this.frameStart[depth] = start;
+    this.frameCount[depth] = 0;
+    this.frameNext[depth] = 0;
+    this.frameMoves[depth] = made;
+    this.frameHash[depth] = hash;
+    this.onPath.add(hash);
+
+    int firstEmpty = -1;
+    for (int pile = 0; pile < this.numPiles && firstEmpty < 0; pile++) {
+      if (this.heights[pile] == 0) {
+        firstEmpty = pile;
+      }
+    }
+    for (int src = 0; src < this.numPiles; src++) {
+      int height = this.heights[src];
+      if (height == 0) {
+        continue;
+      }
+      int top = this.piles[src][height - 1];
+      int foundation = foundationFor(top);
+      if (foundation >= 0) {
+        addMove(depth, pack(PILE_TO_FOUNDATION, src, 1, foundation), FOUNDATION_SCORE);
+      }
+      for (int count = 1; count <= this.runs[src][height - 1]; count++) {
+        int bottom = this.piles[src][height - count];
+        int score = count == height ? EMPTY_SOURCE_SCORE : PILE_SCORE;
+        addBuilds(depth, bottom, count == height ? -1 : firstEmpty, score,
+            PILE, src, count);
+      }
+    }
+    long seen = 0;
+    for (int i = 0; i < this.drawCodes.length; i++) {
+      int code = this.drawCodes[i];
+      if (!this.drawLeft[i] || (seen & 1L << code) != 0) {
+        continue;
+      }
+      seen |= 1L << code;
+      int foundation = foundationFor(code);
+      if (foundation >= 0) {
+        addMove(depth, pack(DRAW_TO_FOUNDATION, i, 1, foundation), FOUNDATION_SCORE);
+      }
+      addBuilds(depth, code, firstEmpty, DRAW_SCORE, DRAW, i, 1);
+    }
+    return true;
+  }
+
+  /**
+   * Add the moves building the given cards on cascade piles. If the bottom card can go on the
+   * next card of its own suit, that is the only move added.
+   * @param bottom the lowest card moved
+   * @param emptyPile the empty pile to try, or -1 for none
+   * @param score the score of moves to non-empty piles of another suit
+   */
+  private void addBuilds(int depth, int bottom, int emptyPile, int score, int kind,
+                         int source, int count) {
+    for (int dest = 0; dest < this.numPiles; dest++) {
+      int height = this.heights[dest];
+      if (height > 0 && this.piles[dest][height - 1] == bottom + 1
+          && CardCode.valueOf(bottom) < CardCode.valueOf(bottom + 1)
+          && (kind != PILE || dest != source)) {
+        addMove(depth, pack(kind, source, count, dest), Math.max(score, SAME_SUIT_SCORE));
+        return;
+      }
+    }
+    for (int dest = 0; dest < this.numPiles; dest++) {
+      if (this.heights[dest] > 0 && (kind != PILE || dest != source)
+          && canBuild(bottom, dest)) {
+        addMove(depth, pack(kind, source, count, dest), score);
+      }
+    }
+    if (emptyPile >= 0) {
+      addMove(depth, pack(kind, source, count, emptyPile), EMPTY_DEST_SCORE);
+    }
+  }
+
+  /**
+   * Insert a move into the current frame, keeping the frame sorted by descending score.
+   */
+  private void addMove(int depth, int move, int score) {
+    int start = this.frameStart[depth];
+    int count = this.frameCount[depth]++;
+    if (start + count >= this.moves.length) {
+      this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+    }
+    if (count >= this.scores.length) {
+      this.scores = Arrays.copyOf(this.scores, this.scores.length * 2);
+    }
+    int j = count;
+    while (j > 0 && this.scores[j - 1] < score) {
+      this.scores[j] = this.scores[j - 1];
+      this.moves[start + j] = this.moves[start + j - 1];
+      j--;
+    }
+    this.scores[j] = score;
+    this.moves[start + j] = move;
+  }
+
+  private boolean isCascadeEmpty() {
+    for (int height : this.heights) {
+      if (height > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Turn the internal moves on the path into moves for the model, adding the discards needed
+   * to bring each played draw card to the top of the draw pile.
+   */
+  private int[] toModelMoves(WhiteheadKlondike position) {
+    //the indices of the remaining draw cards, in the order the model holds them
+    int[] order = new int[this.drawCodes.length];
+    Arrays.setAll(order, i -> i);
+    int remaining = order.length;
+    int[] result = new int[this.pathLength * 2];
+    int length = 0;
+    for (int p = 0; p < this.pathLength; p++) {
+      int move = this.path[p];
+      int kind = move >>> 28;
+      int source = move >>> 16 & 0xFFF;
+      int dest = move & 0xFF;
+      if (kind == PILE) {
+        result = ensure(result, length + 1);
+        result[length++] = Move.pile(source, move >>> 8 & 0xFF, dest);
+      } else if (kind == PILE_TO_FOUNDATION) {
+        result = ensure(result, length + 1);
+        result[length++] = Move.toFoundation(source, dest);
+      } else {
+        int at = 0;
+        while (order[at] != source) {
+          at++;
+        }
+        result = ensure(result, length + at + 1);
+        for (int i = 0; i < at; i++) {
+          result[length++] = Move.discardDraw();
+        }
+        result[length++] = kind == DRAW ? Move.draw(dest) : Move.drawToFoundation(dest);
+        //the discarded cards go to the back, in the order they were discarded
+        int[] rotated = new int[remaining - 1];
+        System.arraycopy(order, at + 1, rotated, 0, remaining - at - 1);
+        System.arraycopy(order, 0, rotated, remaining - at - 1, at);
+        remaining--;
+        System.arraycopy(rotated, 0, order, 0, remaining);
+      }
+    }
+    return Arrays.copyOf(result, length);
+  }
+
+  private static int[] ensure(int[] array, int length) {
+    return length <= array.length ? array : Arrays.copyOf(array, Math.max(length,
+        array.length * 2));
+  }
+
+  /**
+   * Returns the memory used by the search state and stacks in bytes.
+   */
+  private long memoryBytes() {
+    long cells = this.moves.length + this.scores.length + this.frameStart.length * 4L
+        + this.path.length + 2L * this.numPiles * this.pileKeys[0].length;
+    long keys = (long) this.pileKeys.length * this.pileKeys[0].length + this.drawKeys.length
+        + this.frameHash.length;
+    return cells * Integer.BYTES + keys * Long.BYTES + this.onPath.memoryBytes();
+  }
+}
@@ -0,0 +1,155 @@
+package cs3500.klondike.view;
+
+import cs3500.klondike.model.hw02.KlondikeModel;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A text-based rendering of the Klondike game for ANSI terminals, which keeps the board at the
+ * top of the screen and rewrites only the lines of it that changed since the last render.
+ *
+ * <p>The board is laid out as by {@link KlondikeTextualView}: the draw cards, the foundations,
+ * then one line per row of the tableau. The first render clears the screen, draws the whole
+ * board, and makes the lines below it a scrolling region, so that whatever else is written to
+ * the output scrolls underneath the board rather than pushing it off the screen. Later renders
+ * move the cursor to each line of the board which changed, rewrite it, and put the cursor
+ * back where it was, so a render after a move that changed nothing writes nothing at all. If
+ * the number of lines changes, the screen is cleared and the whole board drawn again.</p>
+ *
+ * <p>Closing the view gives the terminal back its whole screen for scrolling.</p>
+ */
+public class IncrementalTextualView implements TextualView, Closeable {
+  private static final String ESC = "\u001b[";
+  private static final String SAVE_CURSOR = "\u001b7";
+  private static final String RESTORE_CURSOR = "\u001b8";
+
+  private final KlondikeTextualView board;
+  private final Appendable out;
+  //the board as the terminal shows it, and where each of its lines starts
+  private final StringBuilder shown = new StringBuilder(512);
+  private int[] shownStarts = new int[16];
+  private int shownLines;
+  private int[] currentStarts = new int[16];
+
+  /**
+   * Create a view of the given model which renders to the given output.
+   * @param model the game to render
+   * @param out a terminal which understands ANSI escape sequences
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public IncrementalTextualView(KlondikeModel model, Appendable out) {
+    if (model == null || out == null) {
+      throw new IllegalArgumentException("Model and output must not be null");
+    }
+    this.board = new KlondikeTextualView(model);
+    this.out = out;
+  }
+
+  /**
+   * Returns the whole board as {@link KlondikeTextualView#toString()} does, without escape
+   * sequences.
+   * @return the formatted String
+   */
+  @Override
+  public String toString() {
+    return this.board.toString();
+  }
+
+  @Override
+  public void render() throws IOException {
+    StringBuilder current = this.board.renderBoard();
+    int lines = findLines(current);
+    if (lines != this.shownLines) {
+      redraw(current, lines);
+    } else {
+      boolean saved = false;
+      for (int line = 0; line < lines; line++) {
+        if (!sameLine(current, line)) {
+          if (!saved) {
+            this.out.append(SAVE_CURSOR);
+            saved = true;
+          }
+          this.out.append(ESC).append(Integer.toString(line + 1)).append(";1H")
+              .append(current, this.currentStarts[line], this.currentStarts[line + 1] - 1)
+              .append(ESC).append('K');
+        }
+      }
+      if (saved) {
+        this.out.append(RESTORE_CURSOR);
+      }
+    }
+    this.shown.setLength(0);
+    this.shown.append(current);
+    int[] starts = this.shownStarts;
+    this.shownStarts = this.currentStarts;
+    this.currentStarts = starts;
+  }
+
+  /**
+   * Clear the screen, draw the whole board at the top, and make the lines below it scroll.
+   */
+  private void redraw(StringBuilder current, int lines) throws IOException {
+    this.out.append(ESC).append("r").append(ESC).append("H").append(ESC).append("2J")
+        .append(current).append(System.lineSeparator());
+    String below = Integer.toString(lines + 1);
+    this.out.append(ESC).append(below).append(";r").append(ESC).append(below).append(";1H");
+    this.shownLines = lines;
+  }
+
+  /**
+   * Find where each line of the given board starts, recording one more start past the end
+   * of the last line as if the board ended with a line separator.
+   * @return the number of lines
+   */
+  private int findLines(StringBuilder current) {
+    int lines = 0;
+    int length = current.length();
+    for (int i = 0; i <= length; i++) {
+      if (i == 0 || current.charAt(i - 1) == '\n') {
+        addStart(lines++, i);
+      }
+    }
+    addStart(lines, length + 1);
+    return lines;
+  }
+
+  private void addStart(int line, int start) {
+    if (line == this.currentStarts.length) {
+      int[] grown = new int[line * 2];
+      System.arraycopy(this.currentStarts, 0, grown, 0, line);
+      this.currentStarts = grown;
+    }
+    this.currentStarts[line] = start;
+  }
+
+  /**
+   * Determines if the given line of the current board is the same as the terminal shows.
+   */
+  private boolean sameLine(StringBuilder current, int line) {
+    int start = this.currentStarts[line];
+    int length = this.currentStarts[line + 1] - start;
+    int shownStart = this.shownStarts[line];
+    if (this.shownStarts[line + 1] - shownStart != length) {
+      return false;
+    }
+    for (int i = 0; i < length - 1; i++) {
+      if (current.charAt(start + i) != this.shown.charAt(shownStart + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Give the terminal back its whole screen for scrolling, leaving the cursor where it is. The
+   * next render draws the whole board again.
+   * @throws IOException if writing to the output fails
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.shownLines > 0) {
+      this.out.append(SAVE_CURSOR).append(ESC).append("r").append(RESTORE_CURSOR);
+      this.shownLines = 0;
+    }
+  }
+}
@@ -1,16 +1,30 @@
 package cs3500.klondike.view;
 
-import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.BoardLayout;
+import cs3500.klondike.model.hw02.CardCode;
 import cs3500.klondike.model.hw02.KlondikeModel;
 import java.io.IOException;
-import java.util.List;
 
 /**
  * A simple text-based rendering of the Klondike game.
+ *
+ * <p>The whole board is read from the model with one call to
+ * {@link KlondikeModel#readBoard(int[])} and written into a buffer, both of which are kept
+ * between renders, and every card is written from text made once for each card code, so
+ * rendering the same size of board again allocates nothing.</p>
  */
 public class KlondikeTextualView implements TextualView {
+  private static final String[] VALUE_NAMES = {
+      "", "A", "2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K"};
+  //the text of each card by its code, as rendered by Card.toString
+  private static final String[] GLYPHS = glyphs();
+  private static final int CELL_WIDTH = 3;
+
   private final KlondikeModel model;
   private Appendable out;
+  private final StringBuilder buffer = new StringBuilder(512);
+  //the board as read from the model, laid out as described by BoardLayout
+  private int[] board = new int[64];
 
   public KlondikeTextualView(KlondikeModel model) {
     this.model = model;
@@ -21,6 +35,20 @@ public class KlondikeTextualView implements TextualView {
     this.out = out;
   }
 
+  /**
+   * Returns the text of every card indexed by card code.
+   */
+  private static String[] glyphs() {
+    String[] glyphs = new String[CardCode.NUM_CODES];
+    for (int suit = 0; suit < CardCode.NUM_SUITS; suit++) {
+      for (int value = 1; value <= CardCode.MAX_VALUE; value++) {
+        int code = CardCode.encode(suit, value);
+        glyphs[code] = VALUE_NAMES[value] + CardCode.suitOf(code);
+      }
+    }
+    return glyphs;
+  }
+
   /**
    * Returns a string that can be used to view the game of solitaire.
    * Below is an example game rendering. Note that the output does not end with a newline.
@@ -36,77 +64,101 @@ public class KlondikeTextualView implements TextualView {
    * @return the formatted String
    */
   public String toString() {
-    StringBuilder result = new StringBuilder("Draw: " + renderDrawCards() + "\n");
-    result.append("Foundation: ").append(renderFoundationPiles()).append("\n");
-    for (int i = 0; i < model.getNumRows(); i++) {
-      result.append(renderRow(i)).append("\n");
+    return renderBoard().toString();
+  }
+
+  /**
+   * Write the board into the buffer, replacing what it held, as described by
+   * {@link #toString()}.
+   * @return the buffer
+   */
+  StringBuilder renderBoard() {
+    int[] board = readBoard();
+    StringBuilder result = this.buffer;
+    result.setLength(0);
+    result.append("Draw: ");
+    renderDrawCards(result, board);
+    result.append("\nFoundation: ");
+    renderFoundationPiles(result, board);
+    result.append('\n');
+    int numRows = model.getNumRows();
+    for (int row = 0; row < numRows; row++) {
+      renderRow(result, board, row);
+      result.append('\n');
     }
-    result.delete(result.length() - 1, result.length());
-    return result.toString();
+    result.setLength(result.length() - 1);
+    return result;
   }
 
-  private String renderDrawCards() {
-    List<Card> drawCards = model.getDrawCards();
-    return drawCards.stream().map(Card::toString).reduce(
-        (String s1, String s2) -> s1 + ", " + s2).orElse("");
+  /**
+   * Read the board from the model into the array kept for it, growing the array if the board
+   * is larger than any rendered before.
+   * @return the board
+   */
+  private int[] readBoard() {
+    int length = model.readBoard(this.board);
+    if (length > this.board.length) {
+      this.board = new int[Math.max(length, this.board.length * 2)];
+      model.readBoard(this.board);
+    }
+    return this.board;
   }
 
-  private String renderFoundationPiles() {
-    StringBuilder foundationTops = new StringBuilder();
-    for (int i = 0; i < model.getNumFoundations(); i++) {
-      try {
-        Card c = model.getCardAt(i);
-        String toAppend = c.toString();
-        foundationTops.append(toAppend);
-      } catch (IllegalArgumentException | NullPointerException e) {
-        foundationTops.append("<none>");
+  private void renderDrawCards(StringBuilder result, int[] board) {
+    int numDraw = BoardLayout.numDraw(board);
+    for (int i = 0; i < numDraw; i++) {
+      if (i > 0) {
+        result.append(", ");
       }
-      foundationTops.append(", ");
+      result.append(GLYPHS[board[BoardLayout.drawIndex(board, i)]]);
     }
-    if (foundationTops.length() != 0) {
-      foundationTops.delete(foundationTops.length() - 2, foundationTops.length());
+  }
+
+  private void renderFoundationPiles(StringBuilder result, int[] board) {
+    int numFoundations = BoardLayout.numFoundations(board);
+    for (int i = 0; i < numFoundations; i++) {
+      if (i > 0) {
+        result.append(", ");
+      }
+      int code = board[BoardLayout.foundationIndex(board, i)];
+      result.append(code == BoardLayout.EMPTY ? "<none>" : GLYPHS[code]);
     }
-    return foundationTops.toString();
   }
 
   /**
-   * Render the given row or the model as a string.
+   * Render the given row of the tableau.
+   * @param result where to write the row
+   * @param board the board read from the model
    * @param rowNum zero indexed from top
-   * @return rendered row
    */
-  private String renderRow(int rowNum) {
-    StringBuilder row = new StringBuilder();
-    for (int i = 0; i < model.getNumPiles(); i++) {
-      if (rowNum < model.getPileHeight(i)) {
-        if (model.isCardVisible(i, rowNum)) {
-          row.append(leftPadToThree(model.getCardAt(i, rowNum).toString()));
-        } else {
-          row.append(leftPadToThree("?"));
-        }
+  private void renderRow(StringBuilder result, int[] board, int rowNum) {
+    int numPiles = BoardLayout.numPiles(board);
+    for (int pile = 0; pile < numPiles; pile++) {
+      if (rowNum < BoardLayout.pileHeight(board, pile)) {
+        int code = board[BoardLayout.cellIndex(board, pile, rowNum)];
+        leftPadToThree(result, code == BoardLayout.FACE_DOWN ? "?" : GLYPHS[code]);
       } else if (rowNum == 0) {
-        row.append(leftPadToThree("X"));
+        leftPadToThree(result, "X");
       } else {
-        row.append("   ");
+        result.append("   ");
       }
     }
-    return row.toString();
   }
 
   /**
-   * Left pads the given string with spaces until it is at least 3 characters long.
+   * Writes the given string left padded with spaces until it is at least 3 characters long.
+   * @param result where to write the padded string
    * @param str string to left pad
-   * @return padded string
    */
-  private String leftPadToThree(String str) {
-    StringBuilder result = new StringBuilder().append(str);
-    while (result.length() < 3) {
-      result.insert(0, " ");
+  private static void leftPadToThree(StringBuilder result, String str) {
+    for (int pad = str.length(); pad < CELL_WIDTH; pad++) {
+      result.append(' ');
     }
-    return result.toString();
+    result.append(str);
   }
 
   @Override
   public void render() throws IOException {
-    out.append(this.toString()).append(System.lineSeparator());
+    out.append(renderBoard()).append(System.lineSeparator());
   }
 }
@@ -8,6 +8,7 @@ import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.SplittableRandom;
 import java.util.stream.Stream;
 import org.junit.Assert;
 import org.junit.Before;
@@ -114,4 +115,23 @@ public class TestBasicKlondike {
     defaultGame.startGame(defaultDeck, false, 3, 2);
     Assert.assertEquals(0, defaultGame.getScore());
   }
+
+  @Test
+  public void testSeededStartGame() {
+    init();
+    KlondikeModel sameSeed = KlondikeCreator.create(GameType.BASIC);
+    KlondikeModel otherSeed = KlondikeCreator.create(GameType.BASIC);
+    List<Card> deckBefore = new ArrayList<>(defaultDeck);
+    defaultGame.startGame(defaultDeck, 42L, 7, 3);
+    sameSeed.startGame(defaultDeck, new SplittableRandom(42L), 7, 3);
+    otherSeed.startGame(defaultDeck, 43L, 7, 3);
+    Assert.assertEquals(deckBefore, defaultDeck);
+    boolean anyDifferent = false;
+    for (int pile = 0; pile < 7; pile++) {
+      Assert.assertEquals(defaultGame.getCardAt(pile, pile), sameSeed.getCardAt(pile, pile));
+      anyDifferent |= !defaultGame.getCardAt(pile, pile).equals(otherSeed.getCardAt(pile, pile));
+    }
+    Assert.assertEquals(defaultGame.getDrawCards(), sameSeed.getDrawCards());
+    Assert.assertTrue(anyDifferent);
+  }
 }
@@ -1,5 +1,6 @@
 package cs3500.klondike;
 
+import cs3500.klondike.model.hw02.CardCode;
 import cs3500.klondike.model.hw02.StandardCard;
 import org.junit.Test;
 import org.junit.Assert;
@@ -84,4 +85,23 @@ public class TestCard {
     Assert.assertTrue(eightOfHearts.compareValue(aceOfHearts) > 0);
     Assert.assertTrue(eightOfHearts.compareValue(tenOfHearts) < 0);
   }
+
+  @Test
+  public void testGetCode() {
+    StandardCard aceOfHearts = new StandardCard("A", "hearts");
+    StandardCard twoOfHearts = new StandardCard("2", "hearts");
+    StandardCard kingOfClubs = new StandardCard("K", "clubs");
+    StandardCard kingOfSpades = new StandardCard("K", "spades");
+
+    Assert.assertEquals(aceOfHearts.getCode(), new StandardCard("a", "♡").getCode());
+    Assert.assertEquals(aceOfHearts.getCode() + 1, twoOfHearts.getCode());
+    Assert.assertEquals(13, CardCode.valueOf(kingOfClubs.getCode()));
+    Assert.assertEquals('♠', CardCode.suitOf(kingOfSpades.getCode()));
+    Assert.assertTrue(CardCode.isRed(aceOfHearts.getCode()));
+    Assert.assertFalse(CardCode.isRed(kingOfClubs.getCode()));
+    Assert.assertTrue(CardCode.sameColor(kingOfClubs.getCode(), kingOfSpades.getCode()));
+    Assert.assertFalse(CardCode.sameSuit(kingOfClubs.getCode(), kingOfSpades.getCode()));
+    Assert.assertTrue(aceOfHearts.getCode() < CardCode.NUM_CODES);
+    Assert.assertThrows(IllegalArgumentException.class, () -> CardCode.encode('h', 1));
+  }
 }
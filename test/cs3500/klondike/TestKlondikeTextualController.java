@@ -4,11 +4,13 @@ import cs3500.klondike.controller.BadAppendable;
 import cs3500.klondike.controller.BadReadable;
 import cs3500.klondike.controller.KlondikeController;
 import cs3500.klondike.controller.KlondikeTextualController;
+import cs3500.klondike.controller.MockKlondike;
 import cs3500.klondike.model.hw02.BasicKlondike;
 import cs3500.klondike.model.hw02.Card;
 import cs3500.klondike.model.hw02.DeckBuilder;
 import cs3500.klondike.model.hw02.KlondikeModel;
 import cs3500.klondike.model.hw02.StandardCard;
+import cs3500.klondike.view.KlondikeTextualView;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.util.ArrayList;
@@ -124,6 +126,22 @@ public class TestKlondikeTextualController {
     Assert.assertTrue(out.toString().contains("Invalid move. Play again."));
   }
 
+  @Test
+  public void testUndo() {
+    init();
+    in = new StringReader("u dd u q");
+    controller = new KlondikeTextualController(in, out);
+    controller.playGame(model, closeToWin, false, 2, 2);
+    KlondikeModel fresh = new BasicKlondike();
+    fresh.startGame(closeToWin, false, 2, 2);
+    String output = out.toString();
+    Assert.assertTrue(output.contains("Invalid move. Play again. There are no moves to undo."));
+    Assert.assertEquals(1,
+        output.split("Invalid move. Play again. There are no moves to undo.").length - 1);
+    Assert.assertTrue(output.substring(output.indexOf("State of game when quit:"))
+        .contains(new KlondikeTextualView(fresh).toString()));
+  }
+
   @Test
   public void testInValidCommand() {
     init();
@@ -137,6 +155,26 @@ public class TestKlondikeTextualController {
         .contains("Invalid move. Play again. Commands must be mpp, md, mpf, mdf, or dd"));
   }
 
+  @Test
+  public void testOdds() {
+    init();
+    in = new StringReader("odds q");
+    controller = new KlondikeTextualController(in, out);
+    controller.playGame(model, closeToWin, false, 2, 2);
+    Assert.assertTrue(out.toString().contains("Chance of winning: "));
+    Assert.assertTrue(out.toString().contains("95% confidence"));
+    Assert.assertFalse(out.toString().contains("Invalid move. Play again."));
+  }
+
+  @Test
+  public void testOddsNeedSearchableModel() {
+    init();
+    in = new StringReader("odds q");
+    controller = new KlondikeTextualController(in, out);
+    controller.playGame(new MockKlondike(new StringBuilder()), closeToWin, false, 2, 2);
+    Assert.assertTrue(out.toString().contains("Odds are not available for this game."));
+  }
+
   @Test
   public void testGameOverNotWin() {
     init();
@@ -147,4 +185,22 @@ public class TestKlondikeTextualController {
     controller.playGame(model, deck, false, 2, 1);
     Assert.assertTrue(out.toString().contains("Game over. Score: 0"));
   }
+
+  @Test
+  public void testIncremental() {
+    init();
+    String commands = "mpp 9 1 1 md 9 u mpf 1 1 q";
+    new KlondikeTextualController(new StringReader(commands), out)
+        .playGame(model, closeToWin, false, 2, 2);
+    StringBuilder incremental = new StringBuilder();
+    new KlondikeTextualController(new StringReader(commands), incremental, true)
+        .playGame(new BasicKlondike(), closeToWin, false, 2, 2);
+    String output = incremental.toString();
+    //the board is drawn once, then only the lines the last move changed are rewritten
+    Assert.assertEquals(output.indexOf("\u001b[2J"), output.lastIndexOf("\u001b[2J"));
+    Assert.assertTrue(output.indexOf("\u001b[2J") >= 0);
+    Assert.assertTrue(output.length() < out.toString().length());
+    Assert.assertTrue(output.contains("Game quit!"));
+    Assert.assertTrue(output.endsWith("\u001b7\u001b[r\u001b8"));
+  }
 }
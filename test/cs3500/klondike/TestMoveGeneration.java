@@ -0,0 +1,220 @@
+package cs3500.klondike;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.LegalMoveCounter;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.model.hw04.WhiteheadKlondike;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the legal move generators and non-throwing moves of each model agree with the
+ * moves the models accept.
+ */
+public class TestMoveGeneration {
+  private static final int NUM_PILES = 4;
+  private static final int NUM_DRAW = 2;
+
+  /**
+   * Make the given packed move on the model using its exception throwing methods.
+   */
+  static void apply(SearchableKlondike model, int move) {
+    switch (Move.type(move)) {
+      case Move.PILE:
+        model.movePile(Move.source(move), Move.count(move), Move.destination(move));
+        break;
+      case Move.DRAW:
+        model.moveDraw(Move.destination(move));
+        break;
+      case Move.TO_FOUNDATION:
+        model.moveToFoundation(Move.source(move), Move.destination(move));
+        break;
+      case Move.DRAW_TO_FOUNDATION:
+        model.moveDrawToFoundation(Move.destination(move));
+        break;
+      default:
+        model.discardDraw();
+        break;
+    }
+  }
+
+  /**
+   * Deal a new game from the seed and replay the given moves on it.
+   */
+  private SearchableKlondike replay(Supplier<SearchableKlondike> factory, long seed,
+                                    List<Integer> history) {
+    SearchableKlondike model = factory.get();
+    model.startGame(model.getDeck(), seed, NUM_PILES, NUM_DRAW);
+    for (int move : history) {
+      apply(model, move);
+    }
+    return model;
+  }
+
+  /**
+   * Find every legal move by trying every physically possible move on a copy of the game.
+   */
+  private Set<Integer> bruteForce(Supplier<SearchableKlondike> factory, long seed,
+                                  List<Integer> history) {
+    SearchableKlondike model = replay(factory, seed, history);
+    List<Integer> candidates = new ArrayList<>();
+    for (int src = 0; src < NUM_PILES; src++) {
+      for (int dest = 0; dest < NUM_PILES; dest++) {
+        for (int num = 1; num <= model.getPileHeight(src); num++) {
+          candidates.add(Move.pile(src, num, dest));
+        }
+      }
+      for (int f = 0; f < model.getNumFoundations(); f++) {
+        candidates.add(Move.toFoundation(src, f));
+      }
+      candidates.add(Move.draw(src));
+    }
+    for (int f = 0; f < model.getNumFoundations(); f++) {
+      candidates.add(Move.drawToFoundation(f));
+    }
+    candidates.add(Move.discardDraw());
+
+    Set<Integer> legal = new HashSet<>();
+    for (int move : candidates) {
+      MoveResult expected;
+      try {
+        apply(replay(factory, seed, history), move);
+        legal.add(move);
+        expected = MoveResult.SUCCESS;
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        expected = MoveResult.of(e);
+      }
+      Assert.assertEquals(Move.toString(move), expected,
+          replay(factory, seed, history).tryMove(move));
+    }
+    return legal;
+  }
+
+  /**
+   * Play random legal moves checking the generated moves against brute force at every step.
+   */
+  private void checkGenerator(Supplier<SearchableKlondike> factory) {
+    for (long seed = 0; seed < 3; seed++) {
+      Random random = new Random(seed);
+      List<Integer> history = new ArrayList<>();
+      SearchableKlondike model = replay(factory, seed, history);
+      int[] moves = new int[256];
+      for (int step = 0; step < 25; step++) {
+        int numMoves = model.generateMoves(moves);
+        Set<Integer> generated = new HashSet<>();
+        for (int i = 0; i < numMoves; i++) {
+          Assert.assertTrue("duplicate " + Move.toString(moves[i]), generated.add(moves[i]));
+        }
+        Assert.assertEquals(bruteForce(factory, seed, history), generated);
+        if (numMoves == 0) {
+          Assert.assertTrue(model.isGameOver());
+          break;
+        }
+        int move = moves[random.nextInt(numMoves)];
+        apply(model, move);
+        history.add(move);
+      }
+    }
+  }
+
+  @Test
+  public void testBasicMoves() {
+    checkGenerator(BasicKlondike::new);
+  }
+
+  @Test
+  public void testLimitedDrawMoves() {
+    checkGenerator(() -> new LimitedDrawKlondike(1));
+  }
+
+  @Test
+  public void testWhiteheadMoves() {
+    checkGenerator(WhiteheadKlondike::new);
+  }
+
+  /**
+   * Play random games to the end checking the incremental game over check against a full scan
+   * after every move.
+   */
+  private void checkGameOver(Supplier<SearchableKlondike> factory) {
+    LegalMoveCounter.setVerifying(true);
+    try {
+      for (long seed = 0; seed < 20; seed++) {
+        Random random = new Random(seed);
+        SearchableKlondike model = replay(factory, seed, new ArrayList<>());
+        int[] moves = new int[256];
+        for (int step = 0; step < 2000; step++) {
+          int numMoves = model.generateMoves(moves);
+          Assert.assertEquals(numMoves == 0, model.isGameOver());
+          if (numMoves == 0) {
+            break;
+          }
+          model.tryMove(moves[random.nextInt(numMoves)]);
+        }
+      }
+    } finally {
+      LegalMoveCounter.setVerifying(false);
+    }
+  }
+
+  @Test
+  public void testBasicGameOver() {
+    checkGameOver(BasicKlondike::new);
+  }
+
+  @Test
+  public void testLimitedDrawGameOver() {
+    checkGameOver(() -> new LimitedDrawKlondike(1));
+  }
+
+  @Test
+  public void testWhiteheadGameOver() {
+    checkGameOver(WhiteheadKlondike::new);
+  }
+
+  @Test
+  public void testSmallBuffer() {
+    SearchableKlondike model = new BasicKlondike();
+    Assert.assertThrows(IllegalStateException.class, () -> model.generateMoves(new int[4]));
+    model.startGame(model.getDeck(), 0L, NUM_PILES, NUM_DRAW);
+    int[] all = new int[256];
+    int numMoves = model.generateMoves(all);
+    int[] one = new int[1];
+    Assert.assertEquals(numMoves, model.generateMoves(one));
+    Assert.assertEquals(all[0], one[0]);
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.generateMoves(null));
+  }
+
+  @Test
+  public void testMoveEncoding() {
+    int move = Move.pile(3, 12, 6);
+    Assert.assertEquals(Move.PILE, Move.type(move));
+    Assert.assertEquals(3, Move.source(move));
+    Assert.assertEquals(12, Move.count(move));
+    Assert.assertEquals(6, Move.destination(move));
+    Assert.assertEquals("mpp 4 12 7", Move.toString(move));
+    Assert.assertEquals("mdf 2", Move.toString(Move.drawToFoundation(1)));
+    Assert.assertEquals("dd", Move.toString(Move.discardDraw()));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Move.pile(256, 1, 0));
+  }
+
+  @Test
+  public void testTryMovesNotStarted() {
+    SearchableKlondike model = new WhiteheadKlondike();
+    Assert.assertEquals(MoveResult.NOT_STARTED, model.tryMovePile(0, 1, 1));
+    Assert.assertEquals(MoveResult.NOT_STARTED, model.tryMoveDraw(0));
+    Assert.assertEquals(MoveResult.NOT_STARTED, model.tryMoveToFoundation(0, 0));
+    Assert.assertEquals(MoveResult.NOT_STARTED, model.tryMoveDrawToFoundation(0));
+    Assert.assertEquals(MoveResult.NOT_STARTED, model.tryDiscardDraw());
+    Assert.assertThrows(IllegalStateException.class, () -> model.discardDraw());
+  }
+}
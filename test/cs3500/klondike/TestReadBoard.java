@@ -0,0 +1,132 @@
+package cs3500.klondike;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.BoardLayout;
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.KlondikeModel;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.model.hw04.WhiteheadKlondike;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests reading the whole board of a game in one call.
+ */
+public class TestReadBoard {
+  private static final int NUM_PILES = 6;
+  private static final int NUM_DRAW = 3;
+
+  /**
+   * Check the given board against what the model returns one card at a time.
+   */
+  private void checkBoard(KlondikeModel model, int[] board, int length) {
+    int numPiles = model.getNumPiles();
+    Assert.assertEquals(numPiles, BoardLayout.numPiles(board));
+    Assert.assertEquals(model.getNumFoundations(), BoardLayout.numFoundations(board));
+    List<Card> drawCards = model.getDrawCards();
+    Assert.assertEquals(drawCards.size(), BoardLayout.numDraw(board));
+    for (int i = 0; i < drawCards.size(); i++) {
+      Assert.assertEquals(drawCards.get(i).getCode(), board[BoardLayout.drawIndex(board, i)]);
+    }
+    for (int f = 0; f < model.getNumFoundations(); f++) {
+      Card top = model.getCardAt(f);
+      Assert.assertEquals(top == null ? BoardLayout.EMPTY : top.getCode(),
+          board[BoardLayout.foundationIndex(board, f)]);
+    }
+    int numCells = 0;
+    for (int pile = 0; pile < numPiles; pile++) {
+      int height = model.getPileHeight(pile);
+      Assert.assertEquals(height, BoardLayout.pileHeight(board, pile));
+      numCells += height;
+      for (int row = 0; row < height; row++) {
+        Assert.assertEquals(model.isCardVisible(pile, row)
+                ? model.getCardAt(pile, row).getCode() : BoardLayout.FACE_DOWN,
+            board[BoardLayout.cellIndex(board, pile, row)]);
+      }
+    }
+    Assert.assertEquals(BoardLayout.length(numPiles, model.getNumFoundations(),
+        drawCards.size(), numCells), length);
+    Assert.assertEquals(length, BoardLayout.cellIndex(board, numPiles - 1, 0)
+        + BoardLayout.pileHeight(board, numPiles - 1));
+  }
+
+  private void checkRandomPlay(Supplier<SearchableKlondike> factory) {
+    int[] board = new int[256];
+    int[] moves = new int[256];
+    for (long seed = 0; seed < 5; seed++) {
+      Random random = new Random(seed);
+      SearchableKlondike model = factory.get();
+      model.startGame(model.getDeck(), seed, NUM_PILES, NUM_DRAW);
+      for (int i = 0; i < 100; i++) {
+        checkBoard(model, board, model.readBoard(board));
+        int count = model.generateMoves(moves);
+        if (count == 0) {
+          break;
+        }
+        TestMoveGeneration.apply(model, moves[random.nextInt(count)]);
+      }
+    }
+  }
+
+  @Test
+  public void testBasicReadBoard() {
+    checkRandomPlay(BasicKlondike::new);
+  }
+
+  @Test
+  public void testLimitedDrawReadBoard() {
+    checkRandomPlay(() -> new LimitedDrawKlondike(1));
+  }
+
+  @Test
+  public void testWhiteheadReadBoard() {
+    checkRandomPlay(WhiteheadKlondike::new);
+  }
+
+  @Test
+  public void testDefaultReadBoard() {
+    KlondikeModel game = new BasicKlondike();
+    game.startGame(game.getDeck(), false, NUM_PILES, NUM_DRAW);
+    game.moveToFoundation(0, 0);
+    //a model which only has the default implementation of readBoard
+    InvocationHandler handler = (proxy, method, args) -> method.isDefault()
+        ? InvocationHandler.invokeDefault(proxy, method, args) : method.invoke(game, args);
+    KlondikeModel model = (KlondikeModel) Proxy.newProxyInstance(
+        KlondikeModel.class.getClassLoader(), new Class<?>[] {KlondikeModel.class}, handler);
+    int[] expected = new int[128];
+    int[] board = new int[128];
+    int length = model.readBoard(board);
+    checkBoard(game, board, length);
+    Assert.assertEquals(length, game.readBoard(expected));
+    Assert.assertArrayEquals(expected, board);
+  }
+
+  @Test
+  public void testBoardTooSmall() {
+    KlondikeModel model = new BasicKlondike();
+    model.startGame(model.getDeck(), 0L, NUM_PILES, NUM_DRAW);
+    int length = model.readBoard(new int[256]);
+    int[] small = new int[length - 1];
+    Arrays.fill(small, -1);
+    Assert.assertEquals(length, model.readBoard(small));
+    for (int value : small) {
+      Assert.assertEquals(-1, value);
+    }
+    Assert.assertEquals(length, model.readBoard(new int[length]));
+  }
+
+  @Test
+  public void testInvalidReadBoard() {
+    KlondikeModel model = new WhiteheadKlondike();
+    Assert.assertThrows(IllegalStateException.class, () -> model.readBoard(new int[256]));
+    model.startGame(model.getDeck(), 0L, NUM_PILES, NUM_DRAW);
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.readBoard(null));
+  }
+}
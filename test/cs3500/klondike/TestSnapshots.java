@@ -0,0 +1,210 @@
+package cs3500.klondike;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw04.CardCounts;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.model.hw04.WhiteheadKlondike;
+import cs3500.klondike.view.KlondikeTextualView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests copying, snapshotting, and restoring games in progress.
+ */
+public class TestSnapshots {
+  private static final int NUM_PILES = 5;
+  private static final int NUM_DRAW = 2;
+
+  /**
+   * Make up to the given number of random legal moves.
+   */
+  private void playRandomly(SearchableKlondike model, Random random, int numMoves) {
+    int[] moves = new int[256];
+    for (int i = 0; i < numMoves; i++) {
+      int count = model.generateMoves(moves);
+      if (count == 0) {
+        return;
+      }
+      TestMoveGeneration.apply(model, moves[random.nextInt(count)]);
+    }
+  }
+
+  /**
+   * Everything a player can observe about a game.
+   */
+  private String observe(SearchableKlondike model) {
+    int[] moves = new int[256];
+    int count = model.generateMoves(moves);
+    StringBuilder legal = new StringBuilder();
+    for (int i = 0; i < Math.min(count, moves.length); i++) {
+      legal.append(moves[i]).append(' ');
+    }
+    return new KlondikeTextualView(model).toString() + "\n" + model.getScore() + " "
+        + model.isGameOver() + " " + legal;
+  }
+
+  private void checkSnapshots(Supplier<SearchableKlondike> factory) {
+    for (long seed = 0; seed < 5; seed++) {
+      Random random = new Random(seed);
+      SearchableKlondike model = factory.get();
+      model.startGame(model.getDeck(), seed, NUM_PILES, NUM_DRAW);
+      playRandomly(model, random, 20);
+
+      KlondikeState state = model.snapshot();
+      SearchableKlondike copy = model.copy();
+      String before = observe(model);
+      Assert.assertEquals(before, observe(copy));
+      Assert.assertEquals(state, copy.snapshot());
+
+      //moves on the original don't change the copy or the snapshot
+      playRandomly(model, random, 40);
+      Assert.assertEquals(before, observe(copy));
+      Assert.assertEquals(state, copy.snapshot());
+
+      //restoring goes back to exactly the same position, after which both games play alike
+      model.restore(state);
+      Assert.assertEquals(before, observe(model));
+      Assert.assertEquals(state, model.snapshot());
+      playRandomly(model, new Random(seed), 40);
+      playRandomly(copy, new Random(seed), 40);
+      Assert.assertEquals(observe(copy), observe(model));
+    }
+  }
+
+  @Test
+  public void testBasicSnapshots() {
+    checkSnapshots(BasicKlondike::new);
+  }
+
+  @Test
+  public void testLimitedDrawSnapshots() {
+    checkSnapshots(() -> new LimitedDrawKlondike(1));
+  }
+
+  @Test
+  public void testWhiteheadSnapshots() {
+    checkSnapshots(WhiteheadKlondike::new);
+  }
+
+  private void checkShuffleHiddenCards(Supplier<SearchableKlondike> factory) {
+    for (long seed = 0; seed < 5; seed++) {
+      SearchableKlondike model = factory.get();
+      model.startGame(model.getDeck(), seed, NUM_PILES, NUM_DRAW);
+      playRandomly(model, new Random(seed), 10);
+      String before = observe(model);
+      SearchableKlondike shuffled = model.copy();
+      shuffled.shuffleHiddenCards(new SplittableRandom(seed));
+
+      //nothing the player can see changes, but the hidden cards do
+      Assert.assertEquals(before, observe(shuffled));
+      Assert.assertNotEquals(model.snapshot(), shuffled.snapshot());
+      Assert.assertFalse(shuffled.undo());
+      //the position hash is kept up to date with the new places of the cards
+      SearchableKlondike restored = model.copy();
+      restored.restore(shuffled.snapshot());
+      Assert.assertEquals(restored.positionHash(false), shuffled.positionHash(false));
+      Assert.assertEquals(before, observe(model));
+    }
+  }
+
+  @Test
+  public void testShuffleHiddenCards() {
+    checkShuffleHiddenCards(BasicKlondike::new);
+    checkShuffleHiddenCards(() -> new LimitedDrawKlondike(1));
+    checkShuffleHiddenCards(WhiteheadKlondike::new);
+  }
+
+  @Test
+  public void testShuffleHiddenCardsOfTwoDecks() {
+    List<Supplier<SearchableKlondike>> factories = List.of(BasicKlondike::new,
+        () -> new LimitedDrawKlondike(1), WhiteheadKlondike::new);
+    for (Supplier<SearchableKlondike> factory : factories) {
+      SearchableKlondike model = factory.get();
+      List<Card> deck = new ArrayList<>(model.getDeck());
+      deck.addAll(model.getDeck());
+      //with 7 piles, 76 of the 104 cards are in the draw pile, and most of them are hidden
+      model.startGame(deck, 3L, 7, 3);
+      playRandomly(model, new Random(3L), 10);
+      String before = observe(model);
+      int[] counts = CardCounts.inPlay(model);
+      model.shuffleHiddenCards(new SplittableRandom(3L));
+      Assert.assertEquals(before, observe(model));
+      Assert.assertArrayEquals(counts, CardCounts.inPlay(model));
+    }
+  }
+
+  @Test
+  public void testShuffleHiddenCardsIsRepeatable() {
+    SearchableKlondike first = new BasicKlondike();
+    first.startGame(first.getDeck(), 4L, NUM_PILES, NUM_DRAW);
+    SearchableKlondike second = first.copy();
+    first.shuffleHiddenCards(new SplittableRandom(8L));
+    second.shuffleHiddenCards(new SplittableRandom(8L));
+    Assert.assertEquals(first.snapshot(), second.snapshot());
+    Assert.assertThrows(IllegalArgumentException.class, () -> first.shuffleHiddenCards(null));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> new BasicKlondike().shuffleHiddenCards(new SplittableRandom(8L)));
+  }
+
+  @Test
+  public void testRestoreLimitedDrawAfterDrawPileShrinks() {
+    //deal the ace to the only pile and 4, 3, 2 to the draw pile
+    List<Card> suit = new DeckBuilder().addSuit("spades").setMax(4).getDeck();
+    List<Card> deck = List.of(suit.get(0), suit.get(3), suit.get(2), suit.get(1));
+    SearchableKlondike model = new LimitedDrawKlondike(2);
+    model.startGame(deck, false, 1, 1);
+    for (int i = 0; i < 5; i++) {
+      model.discardDraw();
+    }
+    model.moveToFoundation(0, 0);
+    model.moveDrawToFoundation(0);
+    //six discards of a pile of two cards count as three cycles, one past the last redraw
+    model.discardDraw();
+    KlondikeState state = model.snapshot();
+    SearchableKlondike other = model.copy();
+    other.restore(state);
+    Assert.assertEquals(state, other.snapshot());
+    Assert.assertEquals(model.positionHash(false), other.positionHash(false));
+    Assert.assertEquals(4, model.getDrawPileSize() + model.getScore());
+    //clamping the count changes nothing about play, which still has a last card to discard
+    model.discardDraw();
+    Assert.assertEquals(1, model.getDrawPileSize());
+  }
+
+  @Test
+  public void testRestoreToAnotherDeal() {
+    SearchableKlondike first = new BasicKlondike();
+    first.startGame(first.getDeck(), 1L, NUM_PILES, NUM_DRAW);
+    SearchableKlondike second = new BasicKlondike();
+    second.startGame(second.getDeck(), 2L, NUM_PILES, NUM_DRAW);
+    second.restore(first.snapshot());
+    Assert.assertEquals(observe(first), observe(second));
+  }
+
+  @Test
+  public void testInvalidRestore() {
+    SearchableKlondike model = new WhiteheadKlondike();
+    Assert.assertThrows(IllegalStateException.class, () -> model.snapshot());
+    model.startGame(model.getDeck(), 0L, NUM_PILES, NUM_DRAW);
+    String before = observe(model);
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.restore(null));
+
+    SearchableKlondike wider = new WhiteheadKlondike();
+    wider.startGame(wider.getDeck(), 0L, NUM_PILES + 1, NUM_DRAW);
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.restore(wider.snapshot()));
+
+    LimitedDrawKlondike limited = new LimitedDrawKlondike(2);
+    limited.startGame(limited.getDeck(), 0L, NUM_PILES, NUM_DRAW);
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.restore(limited.snapshot()));
+    Assert.assertEquals(before, observe(model));
+  }
+}
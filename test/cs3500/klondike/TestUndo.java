@@ -0,0 +1,114 @@
+package cs3500.klondike;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.LegalMoveCounter;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.model.hw04.WhiteheadKlondike;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests undoing and redoing moves on each model.
+ */
+public class TestUndo {
+  private static final int NUM_PILES = 5;
+  private static final int NUM_DRAW = 2;
+
+  /**
+   * Play random moves, then undo and redo all of them checking every position along the way.
+   */
+  private void checkUndo(Supplier<SearchableKlondike> factory) {
+    LegalMoveCounter.setVerifying(true);
+    try {
+      for (long seed = 0; seed < 5; seed++) {
+        Random random = new Random(seed);
+        SearchableKlondike model = factory.get();
+        model.startGame(model.getDeck(), seed, NUM_PILES, NUM_DRAW);
+        Assert.assertFalse(model.undo());
+        List<KlondikeState> states = new ArrayList<>();
+        states.add(model.snapshot());
+        int[] moves = new int[256];
+        for (int step = 0; step < 150; step++) {
+          int count = model.generateMoves(moves);
+          if (count == 0) {
+            break;
+          }
+          TestMoveGeneration.apply(model, moves[random.nextInt(count)]);
+          states.add(model.snapshot());
+          model.isGameOver();
+        }
+
+        for (int i = states.size() - 2; i >= 0; i--) {
+          Assert.assertTrue(model.undo());
+          Assert.assertEquals(states.get(i), model.snapshot());
+          model.isGameOver();
+        }
+        Assert.assertFalse(model.undo());
+        for (int i = 1; i < states.size(); i++) {
+          Assert.assertTrue(model.redo());
+          Assert.assertEquals(states.get(i), model.snapshot());
+          model.isGameOver();
+        }
+        Assert.assertFalse(model.redo());
+
+        //a new move after undoing forgets the undone moves
+        model.undo();
+        model.undo();
+        if (model.generateMoves(moves) > 0) {
+          model.tryMove(moves[0]);
+          Assert.assertFalse(model.redo());
+          Assert.assertTrue(model.undo());
+          Assert.assertEquals(states.get(states.size() - 3), model.snapshot());
+        }
+      }
+    } finally {
+      LegalMoveCounter.setVerifying(false);
+    }
+  }
+
+  @Test
+  public void testBasicUndo() {
+    checkUndo(BasicKlondike::new);
+  }
+
+  @Test
+  public void testLimitedDrawUndo() {
+    checkUndo(() -> new LimitedDrawKlondike(1));
+  }
+
+  @Test
+  public void testWhiteheadUndo() {
+    checkUndo(WhiteheadKlondike::new);
+  }
+
+  @Test
+  public void testFailedMovesAreNotUndone() {
+    SearchableKlondike model = new BasicKlondike();
+    Assert.assertThrows(IllegalStateException.class, () -> model.undo());
+    model.startGame(model.getDeck(), 3L, NUM_PILES, NUM_DRAW);
+    KlondikeState start = model.snapshot();
+    model.discardDraw();
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.movePile(0, 5, 1));
+    Assert.assertTrue(model.undo());
+    Assert.assertEquals(start, model.snapshot());
+    Assert.assertFalse(model.undo());
+  }
+
+  @Test
+  public void testCopyAndRestoreClearHistory() {
+    SearchableKlondike model = new LimitedDrawKlondike(0);
+    model.startGame(model.getDeck(), 3L, NUM_PILES, NUM_DRAW);
+    KlondikeState start = model.snapshot();
+    model.discardDraw();
+    SearchableKlondike copy = model.copy();
+    Assert.assertFalse(copy.undo());
+    model.restore(start);
+    Assert.assertFalse(model.undo());
+  }
+}
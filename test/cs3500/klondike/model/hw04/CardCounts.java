@@ -0,0 +1,40 @@
+package cs3500.klondike.model.hw04;
+
+import cs3500.klondike.model.hw02.CardCode;
+
+/**
+ * Counts the cards of a game in progress by their codes, face down cards included, for tests
+ * which check that no card was lost or duplicated.
+ */
+public final class CardCounts {
+  private CardCounts() {
+  }
+
+  /**
+   * Count how many of each card are in the cascade piles and the draw pile of the given game,
+   * which is every card not yet moved to a foundation.
+   * @param game a started game
+   * @return the number of cards with each code, indexed by code
+   */
+  public static int[] inPlay(SearchableKlondike game) {
+    int[] data = game.snapshot().data();
+    int numPiles = game.getNumPiles();
+    int numCascade = 0;
+    for (int pile = 0; pile < numPiles; pile++) {
+      numCascade += game.getPileHeight(pile);
+    }
+    //the state of the piles ends the snapshot, after any extra state of the variant
+    int start = data.length - (3 + numPiles + numCascade + game.getNumFoundations()
+        + game.getDrawPileSize());
+    int[] counts = new int[CardCode.NUM_CODES];
+    int cascade = start + 3 + numPiles;
+    for (int i = cascade; i < cascade + numCascade; i++) {
+      //face up cards are marked by the bit above the largest code
+      counts[data[i] & (CardCode.NUM_CODES - 1)]++;
+    }
+    for (int i = data.length - game.getDrawPileSize(); i < data.length; i++) {
+      counts[data[i]]++;
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,142 @@
+package cs3500.klondike.model.hw04;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.CardCode;
+import cs3500.klondike.model.hw02.StandardCard;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the circular draw pile used by base klondike.
+ */
+public class TestDrawPile {
+  DrawPile pile;
+  int ace;
+  int two;
+  int three;
+
+  @Before
+  public void init() {
+    pile = new DrawPile(3);
+    ace = new StandardCard("A", "hearts").getCode();
+    two = new StandardCard("2", "hearts").getCode();
+    three = new StandardCard("3", "hearts").getCode();
+    pile.addLast(ace);
+    pile.addLast(two);
+    pile.addLast(three);
+  }
+
+  @Test
+  public void testRotate() {
+    init();
+    pile.rotate();
+    Assert.assertEquals(two, pile.get(0));
+    Assert.assertEquals(ace, pile.get(2));
+    pile.rotate();
+    pile.rotate();
+    Assert.assertEquals(ace, pile.get(0));
+    Assert.assertEquals(3, pile.size());
+  }
+
+  @Test
+  public void testRemoveFirst() {
+    init();
+    pile.rotate();
+    Assert.assertEquals(two, pile.removeFirst());
+    Assert.assertEquals(2, pile.size());
+    pile.rotate();
+    Assert.assertEquals(ace, pile.get(0));
+    Assert.assertEquals(three, pile.get(1));
+    pile.removeFirst();
+    pile.removeFirst();
+    Assert.assertTrue(pile.isEmpty());
+    Assert.assertThrows(IllegalStateException.class, () -> pile.removeFirst());
+    Assert.assertThrows(IllegalStateException.class, () -> pile.rotate());
+    Assert.assertThrows(IllegalArgumentException.class, () -> pile.get(0));
+  }
+
+  @Test
+  public void testCopyAndClear() {
+    init();
+    pile.rotate();
+    DrawPile copy = new DrawPile(pile);
+    pile.removeFirst();
+    Assert.assertEquals(3, copy.size());
+    Assert.assertEquals(two, copy.get(0));
+    Assert.assertEquals(ace, copy.get(2));
+    copy.clear();
+    Assert.assertTrue(copy.isEmpty());
+    Assert.assertEquals(2, pile.size());
+  }
+
+  @Test
+  public void testAddFirstAndRotateBack() {
+    init();
+    pile.rotate();
+    pile.rotateBack();
+    Assert.assertEquals(ace, pile.get(0));
+    Assert.assertEquals(three, pile.get(2));
+    pile.rotateBack();
+    Assert.assertEquals(three, pile.get(0));
+    Assert.assertEquals(ace, pile.get(1));
+    Assert.assertEquals(three, pile.removeFirst());
+    pile.addFirst(two);
+    Assert.assertEquals(two, pile.get(0));
+    Assert.assertEquals(3, pile.size());
+    Assert.assertThrows(IllegalStateException.class, () -> pile.addFirst(ace));
+    Assert.assertThrows(IllegalStateException.class, () -> new DrawPile(1).rotateBack());
+  }
+
+  @Test
+  public void testAddLastFull() {
+    init();
+    Assert.assertThrows(IllegalStateException.class, () -> pile.addLast(ace));
+  }
+
+  @Test
+  public void testRestoreChecksCapacity() {
+    init();
+    Assert.assertEquals(3, pile.capacity());
+    SearchableKlondike game = new BasicKlondike();
+    game.startGame(game.getDeck(), 1L, 7, 3);
+    KlondikeState before = game.snapshot();
+    //move the card of the first pile to the end of the draw pile, one more than it holds
+    int[] data = before.data().clone();
+    int numPiles = data[0];
+    int card = data[3 + numPiles];
+    System.arraycopy(data, 4 + numPiles, data, 3 + numPiles, data.length - 4 - numPiles);
+    //cascade cards carry a face up flag above their code, which draw cards don't
+    data[data.length - 1] = card % CardCode.NUM_CODES;
+    data[2]++;
+    data[3]--;
+    KlondikeState tooMany = new KlondikeState(data);
+    Assert.assertThrows(IllegalArgumentException.class, () -> game.restore(tooMany));
+    Assert.assertEquals(before, game.snapshot());
+  }
+
+  @Test
+  public void testHash() {
+    init();
+    long dealt = pile.hash();
+    pile.rotate();
+    DrawPile rotated = new DrawPile(3);
+    rotated.addLast(two);
+    rotated.addLast(three);
+    rotated.addLast(ace);
+    Assert.assertEquals(rotated.hash(), pile.hash());
+    Assert.assertNotEquals(dealt, pile.hash());
+    pile.rotate();
+    pile.rotate();
+    Assert.assertEquals(dealt, pile.hash());
+
+    pile.rotateBack();
+    Assert.assertEquals(three, pile.removeFirst());
+    pile.addFirst(three);
+    pile.rotate();
+    Assert.assertEquals(dealt, pile.hash());
+    Assert.assertEquals(dealt, new DrawPile(pile).hash());
+    pile.clear();
+    Assert.assertEquals(new DrawPile(3).hash(), pile.hash());
+  }
+}
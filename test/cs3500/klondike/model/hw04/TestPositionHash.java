@@ -0,0 +1,127 @@
+package cs3500.klondike.model.hw04;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.MoveResult;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the position hashes kept up to date by klondike models.
+ */
+public class TestPositionHash {
+  private static final int NUM_PILES = 5;
+  private static final int NUM_DRAW = 2;
+
+  /**
+   * Make a random legal move, returning false if there are none.
+   */
+  private boolean playRandomly(SearchableKlondike model, Random random) {
+    int[] moves = new int[256];
+    int count = model.generateMoves(moves);
+    if (count == 0) {
+      return false;
+    }
+    Assert.assertEquals(MoveResult.SUCCESS, model.tryMove(moves[random.nextInt(count)]));
+    return true;
+  }
+
+  /**
+   * Check that the hashes kept while playing match hashes computed from scratch, and that
+   * undoing a move gives back the hash from before it.
+   */
+  private void checkHashes(Supplier<SearchableKlondike> factory) {
+    for (long seed = 0; seed < 5; seed++) {
+      Random random = new Random(seed);
+      SearchableKlondike model = factory.get();
+      model.startGame(model.getDeck(), seed, NUM_PILES, NUM_DRAW);
+      SearchableKlondike fresh = factory.get();
+      fresh.startGame(fresh.getDeck(), seed + 1, NUM_PILES, NUM_DRAW);
+      for (int i = 0; i < 60; i++) {
+        long exact = model.positionHash(false);
+        long canonical = model.positionHash(true);
+        fresh.restore(model.snapshot());
+        Assert.assertEquals(exact, fresh.positionHash(false));
+        Assert.assertEquals(canonical, fresh.positionHash(true));
+        Assert.assertEquals(exact, model.copy().positionHash(false));
+        if (!playRandomly(model, random)) {
+          break;
+        }
+        Assert.assertNotEquals(exact, model.positionHash(false));
+        Assert.assertTrue(model.undo());
+        Assert.assertEquals(exact, model.positionHash(false));
+        Assert.assertEquals(canonical, model.positionHash(true));
+        Assert.assertTrue(model.redo());
+      }
+    }
+  }
+
+  @Test
+  public void testBasicHashes() {
+    checkHashes(BasicKlondike::new);
+  }
+
+  @Test
+  public void testLimitedDrawHashes() {
+    checkHashes(() -> new LimitedDrawKlondike(1));
+  }
+
+  @Test
+  public void testWhiteheadHashes() {
+    checkHashes(WhiteheadKlondike::new);
+  }
+
+  @Test
+  public void testCanonicalIgnoresPileOrder() {
+    SearchableKlondike model = new BasicKlondike();
+    model.startGame(model.getDeck(), 4L, NUM_PILES, NUM_DRAW);
+    Random random = new Random(0);
+    for (int i = 0; i < 30; i++) {
+      playRandomly(model, random);
+    }
+    Assert.assertTrue(model.getScore() > 0);
+
+    //reverse the order of the cascade piles and of the foundation piles
+    int[] data = model.snapshot().data();
+    int[] reversed = data.clone();
+    int numPiles = data[0];
+    int numFoundations = data[1];
+    int[] starts = new int[numPiles + 1];
+    starts[0] = 3 + numPiles;
+    for (int pile = 0; pile < numPiles; pile++) {
+      starts[pile + 1] = starts[pile] + data[3 + pile];
+    }
+    int i = starts[0];
+    for (int pile = numPiles - 1; pile >= 0; pile--) {
+      reversed[3 + numPiles - 1 - pile] = data[3 + pile];
+      System.arraycopy(data, starts[pile], reversed, i, data[3 + pile]);
+      i += data[3 + pile];
+    }
+    for (int f = 0; f < numFoundations; f++) {
+      reversed[i + f] = data[i + numFoundations - 1 - f];
+    }
+
+    SearchableKlondike permuted = model.copy();
+    permuted.restore(new KlondikeState(reversed));
+    Assert.assertNotEquals(model.snapshot(), permuted.snapshot());
+    Assert.assertEquals(model.positionHash(true), permuted.positionHash(true));
+    Assert.assertNotEquals(model.positionHash(false), permuted.positionHash(false));
+  }
+
+  @Test
+  public void testRedrawsChangeHash() {
+    LimitedDrawKlondike model = new LimitedDrawKlondike(2);
+    model.startGame(model.getDeck(), 0L, NUM_PILES, NUM_DRAW);
+    long dealt = model.positionHash(false);
+    for (int i = 0; i < model.getDrawPileSize(); i++) {
+      model.discardDraw();
+    }
+    //the draw pile is back in its dealt order, but a redraw has been used
+    Assert.assertEquals(1, model.snapshot().data()[0]);
+    Assert.assertNotEquals(dealt, model.positionHash(false));
+    Assert.assertNotEquals(dealt, model.positionHash(true));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> new LimitedDrawKlondike(2).positionHash(false));
+  }
+}
@@ -0,0 +1,72 @@
+package cs3500.klondike.model.hw04;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.sim.Simulation;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the read-only view of a game handed to automated players.
+ */
+public class TestReadOnlyKlondike {
+
+  @Test
+  public void testViewFollowsGame() {
+    SearchableKlondike game = new BasicKlondike();
+    game.startGame(game.getDeck(), 3L, 7, 3);
+    SearchableKlondike view = new ReadOnlyKlondike(game);
+    int[] moves = new int[256];
+    int[] viewMoves = new int[256];
+    for (int i = 0; i < 20; i++) {
+      int count = game.generateMoves(moves);
+      Assert.assertEquals(count, view.generateMoves(viewMoves));
+      Assert.assertEquals(game.positionHash(false), view.positionHash(false));
+      Assert.assertEquals(game.getScore(), view.getScore());
+      Assert.assertEquals(game.getDrawPileSize(), view.getDrawPileSize());
+      Assert.assertEquals(game.snapshot(), view.snapshot());
+      Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(moves[count - 1]));
+    }
+    //copies of the view can be played on without changing the game
+    SearchableKlondike copy = view.copy();
+    Assert.assertEquals(MoveResult.SUCCESS, copy.tryMove(moves[0]));
+    Assert.assertEquals(game.positionHash(false), view.positionHash(false));
+  }
+
+  @Test
+  public void testViewCantChangeGame() {
+    SearchableKlondike game = new BasicKlondike();
+    game.startGame(game.getDeck(), 3L, 7, 3);
+    SearchableKlondike view = new ReadOnlyKlondike(game);
+    int[] moves = new int[256];
+    int move = moves[game.generateMoves(moves) - 1];
+    Assert.assertThrows(UnsupportedOperationException.class, () -> view.tryMove(move));
+    Assert.assertThrows(UnsupportedOperationException.class, () -> view.tryDiscardDraw());
+    Assert.assertThrows(UnsupportedOperationException.class, () -> view.discardDraw());
+    Assert.assertThrows(UnsupportedOperationException.class, () -> view.moveDraw(0));
+    Assert.assertThrows(UnsupportedOperationException.class, () -> view.undo());
+    Assert.assertThrows(UnsupportedOperationException.class,
+        () -> view.restore(game.snapshot()));
+    Assert.assertThrows(UnsupportedOperationException.class,
+        () -> view.shuffleHiddenCards(new SplittableRandom(0)));
+    Assert.assertThrows(UnsupportedOperationException.class,
+        () -> view.startGame(view.getDeck(), 0L, 7, 3));
+    Assert.assertThrows(UnsupportedOperationException.class, () -> view.getDeck().clear());
+    Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new ReadOnlyKlondike(null));
+  }
+
+  @Test
+  public void testPlayersOnlySeeView() {
+    //a player which tries to make its own move, rather than returning it
+    Simulation simulation = new Simulation(GameType.BASIC, () -> (game, moves, count) -> {
+      game.tryMove(moves[0]);
+      return moves[0];
+    }).setNumGames(1);
+    IllegalStateException e = Assert.assertThrows(IllegalStateException.class,
+        simulation::run);
+    Assert.assertTrue(e.getCause() instanceof UnsupportedOperationException);
+  }
+}
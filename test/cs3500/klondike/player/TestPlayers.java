@@ -0,0 +1,251 @@
+package cs3500.klondike.player;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.Move;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.PlayerCreator.Players;
+import cs3500.klondike.player.PlayerCreator.Strategy;
+import cs3500.klondike.sim.GameSettings;
+import cs3500.klondike.sim.Simulation;
+import cs3500.klondike.sim.SimulationResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the automated players.
+ */
+public class TestPlayers {
+
+  private SearchableKlondike deal(long seed) {
+    SearchableKlondike game = new BasicKlondike();
+    game.startGame(game.getDeck(), seed, 7, 1);
+    return game;
+  }
+
+  @Test
+  public void testGreedyBeatsRandom() {
+    for (GameType type : GameType.values()) {
+      GameSettings settings = new GameSettings(type).setNumDraw(1);
+      SimulationResult greedy = new Simulation(settings, GreedyPlayer::new).setNumGames(200)
+          .run();
+      SimulationResult random = new Simulation(settings, RandomPlayer::new).setNumGames(200)
+          .run();
+      //random play wanders until the move limit, and only wins by making many more moves
+      Assert.assertTrue(greedy.getMovesPerGame() * 5 < random.getMovesPerGame());
+      Assert.assertTrue(greedy.getWins() > 0);
+      if (type == GameType.LIMITED) {
+        //where wandering uses up the draw pile, greedy play does much better
+        Assert.assertTrue(greedy.getAverageScore() > 2 * random.getAverageScore());
+      }
+    }
+  }
+
+  @Test
+  public void testGreedyPrefersFoundations() {
+    int[] moves = new int[256];
+    for (long seed = 0; seed < 20; seed++) {
+      SearchableKlondike game = deal(seed);
+      int count = game.generateMoves(moves);
+      boolean canFound = false;
+      for (int i = 0; i < count; i++) {
+        canFound |= Move.type(moves[i]) == Move.TO_FOUNDATION;
+      }
+      int chosen = new GreedyPlayer().chooseMove(game, moves, count);
+      Assert.assertEquals(canFound, Move.type(chosen) == Move.TO_FOUNDATION);
+    }
+  }
+
+  @Test
+  public void testGreedyGivesUpAfterCyclingTheDrawPile() {
+    SearchableKlondike game = deal(3L);
+    Player player = new GreedyPlayer();
+    player.newDeal(3L);
+    int[] moves = new int[256];
+    int made = 0;
+    int move = player.chooseMove(game, moves, game.generateMoves(moves));
+    while (move != 0) {
+      game.tryMove(move);
+      made++;
+      Assert.assertTrue(made < 1000);
+      move = player.chooseMove(game, moves, game.generateMoves(moves));
+    }
+    Assert.assertTrue(game.getDrawPileSize() > 0);
+  }
+
+  @Test
+  public void testRandomIsRepeatable() {
+    int[] moves = new int[256];
+    int count = deal(0L).generateMoves(moves);
+    Player first = new RandomPlayer();
+    Player second = new RandomPlayer();
+    first.newDeal(9L);
+    second.newDeal(9L);
+    boolean varied = false;
+    int previous = -1;
+    for (int i = 0; i < 50; i++) {
+      int move = first.chooseMove(deal(0L), moves, count);
+      Assert.assertEquals(move, second.chooseMove(deal(0L), moves, count));
+      varied |= previous >= 0 && move != previous;
+      previous = move;
+    }
+    Assert.assertTrue(varied);
+  }
+
+  @Test
+  public void testMctsIsRepeatable() {
+    int[] moves = new int[256];
+    try (MctsPlayer first = new MctsPlayer().setNumThreads(1).setMaxIterations(40)
+        .setMoveBudget(Duration.ofMinutes(1));
+         MctsPlayer second = new MctsPlayer().setNumThreads(1).setMaxIterations(40)
+             .setMoveBudget(Duration.ofMinutes(1))) {
+      first.newDeal(6L);
+      second.newDeal(6L);
+      SearchableKlondike one = deal(6L);
+      SearchableKlondike two = deal(6L);
+      for (int i = 0; i < 10; i++) {
+        int count = one.generateMoves(moves);
+        KlondikeState before = one.snapshot();
+        int move = first.chooseMove(one, moves, count);
+        //searching leaves the game alone
+        Assert.assertEquals(before, one.snapshot());
+        Assert.assertEquals(move, second.chooseMove(two, moves, two.generateMoves(moves)));
+        Assert.assertEquals(MoveResult.SUCCESS, one.tryMove(move));
+        Assert.assertEquals(MoveResult.SUCCESS, two.tryMove(move));
+      }
+    }
+  }
+
+  /**
+   * Check that the given player chooses five moves in a row, taking well under five seconds
+   * over each of them. The bound is generous so that a slow or busy machine doesn't fail it,
+   * while a search which ignores its budget or iteration limit would take far longer.
+   */
+  private void checkStopsSearching(MctsPlayer player) {
+    int[] moves = new int[256];
+    SearchableKlondike game = deal(1L);
+    player.newDeal(1L);
+    for (int i = 0; i < 5; i++) {
+      int count = game.generateMoves(moves);
+      long start = System.nanoTime();
+      int move = player.chooseMove(game, moves, count);
+      Assert.assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+      Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+    }
+  }
+
+  @Test
+  public void testMctsKeepsToBudget() {
+    try (MctsPlayer player = new MctsPlayer().setNumThreads(3)
+        .setMoveBudget(Duration.ofMillis(30))) {
+      checkStopsSearching(player);
+    }
+    //with an hour to spare, only the iteration limit stops the search
+    try (MctsPlayer player = new MctsPlayer().setNumThreads(3).setMaxIterations(30)
+        .setMoveBudget(Duration.ofHours(1))) {
+      checkStopsSearching(player);
+    }
+  }
+
+  @Test
+  public void testMctsFinishesGames() {
+    int[] moves = new int[256];
+    for (long seed = 0; seed < 3; seed++) {
+      SearchableKlondike game = new LimitedDrawKlondike(1);
+      game.startGame(game.getDeck(), seed, 7, 1);
+      try (MctsPlayer player = new MctsPlayer().setNumThreads(2).setMaxIterations(20)) {
+        player.newDeal(seed);
+        int made = 0;
+        int count = game.generateMoves(moves);
+        int move = count == 0 ? 0 : player.chooseMove(game, moves, count);
+        while (move != 0) {
+          Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+          Assert.assertTrue(++made < 1000);
+          count = game.generateMoves(moves);
+          move = count == 0 ? 0 : player.chooseMove(game, moves, count);
+        }
+        Assert.assertTrue(game.getScore() > 0);
+      }
+    }
+  }
+
+  @Test
+  public void testMctsSharesPool() throws InterruptedException {
+    int[] moves = new int[256];
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try (MctsPlayer first = new MctsPlayer().setNumThreads(2).setMaxIterations(20)
+        .setPool(pool);
+         MctsPlayer second = new MctsPlayer().setNumThreads(2).setMaxIterations(20)
+             .setPool(pool)) {
+      for (MctsPlayer player : List.of(first, second)) {
+        SearchableKlondike game = deal(2L);
+        player.newDeal(2L);
+        for (int i = 0; i < 5; i++) {
+          int move = player.chooseMove(game, moves, game.generateMoves(moves));
+          Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+        }
+      }
+    }
+    //closing the players leaves the shared pool to its owner
+    Assert.assertFalse(pool.isShutdown());
+    pool.shutdown();
+    Assert.assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+  }
+
+  @Test
+  public void testMctsTwoDecks() {
+    SearchableKlondike game = new BasicKlondike();
+    List<Card> deck = new ArrayList<>(game.getDeck());
+    deck.addAll(game.getDeck());
+    //with 7 piles and 3 draw cards, each iteration shuffles 94 hidden cards
+    game.startGame(deck, 6L, 7, 3);
+    int[] moves = new int[256];
+    int count = game.generateMoves(moves);
+    try (MctsPlayer player = new MctsPlayer().setMaxIterations(50).setNumThreads(2)) {
+      player.newDeal(6L);
+      int move = player.chooseMove(game, moves, count);
+      Assert.assertTrue(Arrays.stream(moves, 0, count).anyMatch(legal -> legal == move));
+    }
+  }
+
+  @Test
+  public void testInvalidMctsSettings() {
+    MctsPlayer player = new MctsPlayer();
+    Assert.assertThrows(IllegalArgumentException.class, () -> player.setNumThreads(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> player.setMaxIterations(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> player.setMoveLimit(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> player.setMoveBudget(null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> player.setMoveBudget(Duration.ofMillis(-1)));
+  }
+
+  @Test
+  public void testCreator() {
+    Assert.assertTrue(PlayerCreator.create(Strategy.RANDOM) instanceof RandomPlayer);
+    Assert.assertTrue(PlayerCreator.create(Strategy.GREEDY) instanceof GreedyPlayer);
+    Assert.assertTrue(PlayerCreator.create(Strategy.MCTS) instanceof MctsPlayer);
+    Assert.assertThrows(IllegalArgumentException.class, () -> PlayerCreator.create(null));
+    try (Players players = PlayerCreator.players(Strategy.MCTS, 1)) {
+      Assert.assertTrue(players.get() instanceof MctsPlayer);
+      Assert.assertTrue(players.get() != players.get());
+    }
+    try (Players players = PlayerCreator.players(Strategy.GREEDY, 64)) {
+      Assert.assertTrue(players.get() instanceof GreedyPlayer);
+    }
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PlayerCreator.players(null, 1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PlayerCreator.players(Strategy.RANDOM, 0));
+  }
+}
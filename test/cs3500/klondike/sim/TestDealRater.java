@@ -0,0 +1,166 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.player.GreedyPlayer;
+import cs3500.klondike.player.RandomPlayer;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests rating how hard a range of deals is.
+ */
+public class TestDealRater {
+  private Path output;
+
+  @Before
+  public void setUp() throws IOException {
+    this.output = Files.createTempFile("ratings", ".tsv");
+    Files.delete(this.output);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.output);
+  }
+
+  private DealRater rater() {
+    return new DealRater(GameType.BASIC, GreedyPlayer::new).setNodeLimit(20000)
+        .setNumThreads(1);
+  }
+
+  /**
+   * Returns the ratings in the output file in order of seed, as lines.
+   */
+  private List<String> sorted() {
+    return DealRater.read(this.output).stream()
+        .sorted(Comparator.comparingLong(DealRating::getSeed))
+        .map(DealRating::toString).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testRatesEverySeed() {
+    Assert.assertEquals(6, rater().setBotGames(3).rate(10, 6, this.output));
+    List<DealRating> ratings = DealRater.read(this.output);
+    Assert.assertEquals(6, ratings.size());
+    for (int i = 0; i < ratings.size(); i++) {
+      DealRating rating = ratings.get(i);
+      Assert.assertEquals(10 + i, rating.getSeed());
+      Assert.assertEquals(rating.getStatus() == Status.SOLVED, rating.getSolutionLength() > 0);
+      Assert.assertTrue(rating.getNodes() > 0 && rating.getNodes() <= 20000);
+      Assert.assertEquals(3, rating.getBotGames());
+      //greedy play makes the same moves every time it plays a deal
+      Assert.assertTrue(rating.getBotWins() == 0 || rating.getBotWins() == 3);
+    }
+  }
+
+  @Test
+  public void testSameRatingsOnAnyNumberOfThreads() throws IOException {
+    rater().setBotGames(2).rate(0, 8, this.output);
+    List<String> one = sorted();
+    Files.delete(this.output);
+    rater().setBotGames(2).setNumThreads(3).rate(0, 8, this.output);
+    Assert.assertEquals(one, sorted());
+  }
+
+  @Test
+  public void testResume() throws IOException {
+    GameSettings settings = new GameSettings(GameType.LIMITED).setMaxRedraws(1).setNumDraw(1);
+    DealRater rater = new DealRater(settings, RandomPlayer::new).setNodeLimit(5000)
+        .setNumThreads(2).setBotGames(2);
+    Assert.assertEquals(4, rater.rate(0, 4, this.output));
+    List<String> first = sorted();
+    //a run interrupted while writing leaves part of a line behind
+    String partial = first.get(0).substring(0, 4);
+    Files.writeString(this.output, partial, StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+    Assert.assertEquals(3, rater.rate(2, 5, this.output));
+    List<String> all = sorted();
+    Assert.assertEquals(7, all.size());
+    Assert.assertEquals(first, all.subList(0, 4));
+    Assert.assertEquals(0, rater.rate(0, 7, this.output));
+    Assert.assertEquals(all, sorted());
+    //rating the same seeds from scratch gives the same lines
+    Files.delete(this.output);
+    rater.setNumThreads(1).rate(0, 7, this.output);
+    Assert.assertEquals(all, sorted());
+  }
+
+  @Test
+  public void testSettingsMustMatchToResume() throws IOException {
+    GameSettings settings = new GameSettings(GameType.BASIC).setNumPiles(6);
+    rater().rate(0, 2, this.output);
+    String header = Files.readAllLines(this.output, StandardCharsets.UTF_8).get(0);
+    Assert.assertEquals("#\tgame=basic\tpiles=7\tdraw=3\tredraws=2\tmoves=1000\tnodes=20000"
+        + "\tplays=1\tplayer=" + GreedyPlayer.class.getName(), header);
+    Assert.assertEquals(2, DealRater.read(this.output).size());
+    List<String> before = Files.readAllLines(this.output, StandardCharsets.UTF_8);
+    Assert.assertThrows(IllegalStateException.class,
+        () -> rater().setNodeLimit(1000).rate(0, 4, this.output));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> rater().setBotGames(2).rate(0, 4, this.output));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> new DealRater(settings, GreedyPlayer::new).setNodeLimit(20000).rate(0, 4,
+            this.output));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> new DealRater(GameType.BASIC, RandomPlayer::new).setNodeLimit(20000).rate(0, 4,
+            this.output));
+    Assert.assertEquals(before, Files.readAllLines(this.output, StandardCharsets.UTF_8));
+    //the number of threads doesn't change the ratings, so it may differ
+    Assert.assertEquals(2, rater().setNumThreads(2).rate(0, 4, this.output));
+  }
+
+  @Test
+  public void testParse() {
+    DealRating rating = DealRating.parse("42\tSOLVED\t131\t20716\t7/20");
+    Assert.assertEquals(42, rating.getSeed());
+    Assert.assertEquals(Status.SOLVED, rating.getStatus());
+    Assert.assertEquals(131, rating.getSolutionLength());
+    Assert.assertEquals(20716, rating.getNodes());
+    Assert.assertEquals(7, rating.getBotWins());
+    Assert.assertEquals(20, rating.getBotGames());
+    Assert.assertEquals(0.35, rating.getBotWinRate(), 1e-9);
+    Assert.assertEquals("42\tSOLVED\t131\t20716\t7/20", rating.toString());
+    Assert.assertEquals(0, DealRating.parse("-3\tLIMIT_REACHED\t-1\t5\t0/0").getBotWinRate(),
+        0);
+    for (String bad : new String[] {"", "42\tSOLVED\t131\t20716", "42\tWON\t131\t20716\t7/20",
+        "42\tSOLVED\t-1\t20716\t7/20", "42\tUNSOLVABLE\t3\t20716\t7/20",
+        "42\tSOLVED\t131\t20716\t21/20", "42\tSOLVED\t131\tmany\t7/20",
+        "42\tSOLVED\t131\t20716\t7"}) {
+      Assert.assertThrows(IllegalArgumentException.class, () -> DealRating.parse(bad));
+    }
+    Assert.assertThrows(IllegalArgumentException.class, () -> DealRating.parse(null));
+  }
+
+  @Test
+  public void testInvalidArguments() throws IOException {
+    DealRater rater = rater();
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new DealRater((GameType) null, GreedyPlayer::new));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new DealRater((GameSettings) null, GreedyPlayer::new));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new DealRater(GameType.BASIC, null));
+    Assert.assertThrows(IllegalArgumentException.class, () -> rater.rate(0, 1, null));
+    Assert.assertThrows(IllegalArgumentException.class, () -> rater.rate(0, 0, this.output));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new DealRater(new GameSettings(GameType.BASIC).setNumPiles(10), GreedyPlayer::new)
+            .rate(0, 1, this.output));
+    Assert.assertThrows(IllegalArgumentException.class, () -> rater.setNumThreads(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> rater.setNodeLimit(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> rater.setBotGames(-1));
+    Files.writeString(this.output, "not a rating\n", StandardCharsets.UTF_8);
+    Assert.assertThrows(IllegalStateException.class, () -> rater.rate(0, 1, this.output));
+    Assert.assertThrows(IllegalStateException.class, () -> DealRater.read(this.output));
+  }
+}
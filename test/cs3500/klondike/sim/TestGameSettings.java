@@ -0,0 +1,57 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw02.KlondikeModel;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.WhiteheadKlondike;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the settings of the deals simulated or rated.
+ */
+public class TestGameSettings {
+
+  @Test
+  public void testDeal() {
+    GameSettings settings = new GameSettings(GameType.WHITEHEAD);
+    Assert.assertEquals(GameType.WHITEHEAD, settings.getType());
+    Assert.assertEquals(7, settings.getNumPiles());
+    Assert.assertEquals(3, settings.getNumDraw());
+    Assert.assertEquals(2, settings.getMaxRedraws());
+    Assert.assertEquals(1000, settings.getMoveLimit());
+    KlondikeModel game = settings.setNumPiles(5).setNumDraw(2).deal(8L);
+    Assert.assertTrue(game instanceof WhiteheadKlondike);
+    Assert.assertEquals(5, game.getNumPiles());
+    Assert.assertEquals(2, game.getNumDraw());
+    Assert.assertEquals(game.getCardAt(4, 4), settings.deal(8L).getCardAt(4, 4));
+    Assert.assertFalse(settings.createGame().getDeck().isEmpty());
+  }
+
+  @Test
+  public void testCopy() {
+    GameSettings settings = new GameSettings(GameType.LIMITED).setMaxRedraws(0)
+        .setMoveLimit(50);
+    GameSettings copy = new GameSettings(settings);
+    settings.setMaxRedraws(4).setNumPiles(3);
+    Assert.assertEquals(GameType.LIMITED, copy.getType());
+    Assert.assertEquals(0, copy.getMaxRedraws());
+    Assert.assertEquals(7, copy.getNumPiles());
+    Assert.assertEquals(50, copy.getMoveLimit());
+    Assert.assertTrue(copy.createGame() instanceof LimitedDrawKlondike);
+  }
+
+  @Test
+  public void testInvalidSettings() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> new GameSettings((GameType) null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new GameSettings((GameSettings) null));
+    GameSettings settings = new GameSettings(GameType.BASIC);
+    Assert.assertThrows(IllegalArgumentException.class, () -> settings.setNumPiles(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> settings.setNumDraw(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> settings.setMaxRedraws(-1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> settings.setMoveLimit(0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> settings.setNumPiles(20).deal(0L));
+  }
+}
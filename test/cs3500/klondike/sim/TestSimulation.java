@@ -0,0 +1,91 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.GreedyPlayer;
+import cs3500.klondike.player.Player;
+import cs3500.klondike.player.RandomPlayer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests simulating many games with an automated player.
+ */
+public class TestSimulation {
+
+  private Simulation simulation(GameSettings settings) {
+    return new Simulation(settings.setMoveLimit(300), RandomPlayer::new).setNumGames(60)
+        .setFirstSeed(5L);
+  }
+
+  private Simulation simulation(GameType type) {
+    return simulation(new GameSettings(type));
+  }
+
+  @Test
+  public void testSameResultOnAnyNumberOfThreads() {
+    for (GameType type : GameType.values()) {
+      SimulationResult one = simulation(type).run();
+      SimulationResult three = simulation(type).setNumThreads(3).run();
+      Assert.assertEquals(60, one.getGames());
+      Assert.assertEquals(60, three.getGames());
+      Assert.assertEquals(one.getWins(), three.getWins());
+      Assert.assertEquals(one.getAverageScore(), three.getAverageScore(), 0);
+      Assert.assertEquals(one.getMovesPerGame(), three.getMovesPerGame(), 0);
+      Assert.assertTrue(one.getMovesPerGame() <= 300);
+      Assert.assertTrue(one.getAverageScore() > 0);
+      Assert.assertTrue(one.getGamesPerSecond() > 0);
+    }
+  }
+
+  @Test
+  public void testSettingsChangeResults() {
+    SimulationResult basic = simulation(GameType.BASIC).run();
+    Assert.assertTrue(basic.getAverageScore()
+        != simulation(GameType.BASIC).setFirstSeed(100L).run().getAverageScore());
+    SimulationResult small = simulation(new GameSettings(GameType.BASIC).setNumPiles(4)
+        .setNumDraw(1)).run();
+    Assert.assertTrue(basic.getAverageScore() != small.getAverageScore());
+    SimulationResult limited = simulation(new GameSettings(GameType.LIMITED).setMaxRedraws(0))
+        .run();
+    Assert.assertTrue(limited.getWinRate() <= basic.getWinRate());
+    Assert.assertTrue(basic.toString().startsWith("games: 60"));
+  }
+
+  @Test
+  public void testPlayersAreClosed() {
+    AtomicInteger closed = new AtomicInteger();
+    Simulation simulation = new Simulation(GameType.BASIC, () -> new Player() {
+      private final Player delegate = new GreedyPlayer();
+
+      @Override
+      public int chooseMove(SearchableKlondike game, int[] moves, int count) {
+        return this.delegate.chooseMove(game, moves, count);
+      }
+
+      @Override
+      public void close() {
+        closed.incrementAndGet();
+      }
+    }).setNumGames(10).setNumThreads(3);
+    simulation.run();
+    //each thread closes the player it played with
+    Assert.assertEquals(3, closed.get());
+  }
+
+  @Test
+  public void testInvalidSettings() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new Simulation((GameType) null, RandomPlayer::new));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new Simulation((GameSettings) null, RandomPlayer::new));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new Simulation(GameType.BASIC, null));
+    Simulation simulation = simulation(GameType.BASIC);
+    Assert.assertThrows(IllegalArgumentException.class, () -> simulation.setNumGames(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> simulation.setNumThreads(0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> simulation(new GameSettings(GameType.BASIC).setNumPiles(20)).run());
+  }
+}
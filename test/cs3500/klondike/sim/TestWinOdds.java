@@ -0,0 +1,166 @@
+package cs3500.klondike.sim;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.CardCounts;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.player.GreedyPlayer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests estimating the chance of winning a game in progress.
+ */
+public class TestWinOdds {
+  private static final Duration LONG = Duration.ofMinutes(1);
+
+  private SearchableKlondike deal(SearchableKlondike game, long seed) {
+    game.startGame(game.getDeck(), seed, 7, 1);
+    return game;
+  }
+
+  private WinOddsEstimator estimator() {
+    return new WinOddsEstimator(GreedyPlayer::new).setMaxSamples(100).setNumThreads(1);
+  }
+
+  /**
+   * Returns the live threads estimators play samples on which weren't in the given set.
+   */
+  private Set<Thread> newThreads(Set<Thread> old) {
+    return Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> thread.getName().equals("win-odds") && !old.contains(thread))
+        .collect(Collectors.toSet());
+  }
+
+  @Test
+  public void testSameEstimateOnAnyNumberOfThreads() {
+    try (WinOddsEstimator threaded = estimator().setNumThreads(3)) {
+      for (long seed = 0; seed < 3; seed++) {
+        SearchableKlondike game = deal(new BasicKlondike(), seed);
+        KlondikeState dealt = game.snapshot();
+        int[] moves = new int[256];
+        Assert.assertTrue(game.generateMoves(moves) > 0);
+        Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(moves[0]));
+        KlondikeState before = game.snapshot();
+        WinOdds one = estimator().estimate(game, LONG);
+        WinOdds three = threaded.estimate(game, LONG);
+        Assert.assertEquals(100, one.getSamples());
+        Assert.assertEquals(one.getSamples(), three.getSamples());
+        Assert.assertEquals(one.getWins(), three.getWins());
+        //the game being estimated is left alone, its history included
+        Assert.assertEquals(before, game.snapshot());
+        Assert.assertTrue(game.undo());
+        Assert.assertEquals(dealt, game.snapshot());
+      }
+    }
+  }
+
+  @Test
+  public void testTwoDecks() {
+    SearchableKlondike game = new BasicKlondike();
+    List<Card> deck = new ArrayList<>(game.getDeck());
+    deck.addAll(game.getDeck());
+    //with 7 piles and 3 draw cards, 94 of the 104 cards are hidden
+    game.startGame(deck, 5L, 7, 3);
+    KlondikeState before = game.snapshot();
+    int[] counts = CardCounts.inPlay(game);
+    try (WinOddsEstimator estimator = estimator().setMaxSamples(20).setNumThreads(2)) {
+      WinOdds odds = estimator.estimate(game, LONG);
+      Assert.assertEquals(20, odds.getSamples());
+      Assert.assertTrue(odds.getProbability() >= 0 && odds.getProbability() <= 1);
+    }
+    Assert.assertEquals(before, game.snapshot());
+    Assert.assertArrayEquals(counts, CardCounts.inPlay(game));
+  }
+
+  @Test
+  public void testThreadsAreReused() {
+    SearchableKlondike game = deal(new BasicKlondike(), 4L);
+    Set<Thread> before = newThreads(Set.of());
+    WinOddsEstimator estimator = estimator().setNumThreads(3);
+    WinOdds first = estimator.estimate(game, LONG);
+    //the calling thread plays samples too, so only two more threads are started, once
+    Set<Thread> started = newThreads(before);
+    Assert.assertEquals(2, started.size());
+    Assert.assertEquals(first.getWins(), estimator.estimate(game, LONG).getWins());
+    Assert.assertEquals(started, newThreads(before));
+    estimator.close();
+    //a closed estimator starts new threads when it is used again
+    Assert.assertEquals(first.getWins(), estimator.estimate(game, LONG).getWins());
+    estimator.close();
+    estimator.close();
+  }
+
+  @Test
+  public void testEstimatesDiffer() {
+    //greedy play wins some deals and loses others, so over a handful of deals the estimates
+    //shouldn't all be the same
+    double first = estimator().estimate(deal(new BasicKlondike(), 0L), LONG).getProbability();
+    boolean varied = false;
+    for (long seed = 1; seed < 6; seed++) {
+      varied |= first
+          != estimator().estimate(deal(new BasicKlondike(), seed), LONG).getProbability();
+    }
+    Assert.assertTrue(varied);
+    SearchableKlondike limited = deal(new LimitedDrawKlondike(0), 1L);
+    Assert.assertTrue(estimator().estimate(limited, LONG).getProbability() < 1);
+  }
+
+  @Test
+  public void testWonGame() {
+    SearchableKlondike game = new BasicKlondike();
+    game.startGame(game.getDeck().subList(0, 1), false, 1, 1);
+    WinOdds odds = estimator().setMaxSamples(10).estimate(game, LONG);
+    Assert.assertEquals(1, odds.getProbability(), 0);
+    Assert.assertEquals(1, odds.getUpperBound(), 1e-9);
+    Assert.assertTrue(odds.getLowerBound() > 0.6 && odds.getLowerBound() < 1);
+  }
+
+  @Test
+  public void testConfidenceInterval() {
+    WinOdds odds = new WinOdds(400, 100, 1);
+    Assert.assertEquals(0.25, odds.getProbability(), 0);
+    Assert.assertEquals(0.2101, odds.getLowerBound(), 1e-4);
+    Assert.assertEquals(0.2947, odds.getUpperBound(), 1e-4);
+    Assert.assertEquals(0, new WinOdds(5, 0, 1).getLowerBound(), 1e-9);
+    Assert.assertTrue(new WinOdds(5, 0, 1).getUpperBound() > 0.4);
+    Assert.assertTrue(odds.toString().startsWith("25.0% (95% confidence 21.0% to 29.5%"));
+  }
+
+  @Test
+  public void testBudget() {
+    SearchableKlondike game = deal(new BasicKlondike(), 2L);
+    WinOdds odds;
+    try (WinOddsEstimator estimator = new WinOddsEstimator(GreedyPlayer::new).setNumThreads(2)
+        .setMaxSamples(Long.MAX_VALUE)) {
+      odds = estimator.estimate(game, Duration.ofMillis(100));
+    }
+    Assert.assertTrue(odds.getSamples() >= 2);
+    Assert.assertTrue(odds.getElapsedNanos() < Duration.ofSeconds(5).toNanos());
+    Assert.assertTrue(estimator().estimate(game, Duration.ZERO).getSamples() >= 1);
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    WinOddsEstimator estimator = estimator();
+    SearchableKlondike game = deal(new BasicKlondike(), 0L);
+    Assert.assertThrows(IllegalArgumentException.class, () -> new WinOddsEstimator(null));
+    Assert.assertThrows(IllegalArgumentException.class, () -> estimator.estimate(null, LONG));
+    Assert.assertThrows(IllegalArgumentException.class, () -> estimator.estimate(game, null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> estimator.estimate(game, Duration.ofMillis(-1)));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> estimator.estimate(new BasicKlondike(), LONG));
+    Assert.assertThrows(IllegalArgumentException.class, () -> estimator.setNumThreads(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> estimator.setMaxSamples(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> estimator.setMoveLimit(0));
+  }
+}
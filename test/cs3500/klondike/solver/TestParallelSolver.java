@@ -0,0 +1,228 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the parallel klondike solver against the sequential one.
+ */
+public class TestParallelSolver {
+  private List<Card> smallDeck;
+
+  @Before
+  public void init() {
+    smallDeck = new DeckBuilder().setMax(4).addSuit("hearts").addSuit("clubs")
+        .addSuit("spades").getDeck();
+  }
+
+  private SearchableKlondike deal(GameType type, List<Card> deck, long seed, int numDraw) {
+    SearchableKlondike game = KlondikeCreator.create(type);
+    game.startGame(deck, seed, 3, numDraw);
+    return game;
+  }
+
+  private long sum(long[] values) {
+    long total = 0;
+    for (long value : values) {
+      total += value;
+    }
+    return total;
+  }
+
+  /**
+   * Check that the parallel solver decides the same small deals as the sequential solver, and
+   * that its solutions win.
+   */
+  private void checkAgreesWithSequential(GameType type) {
+    KlondikeSolver sequential = new KlondikeSolver(type);
+    ParallelKlondikeSolver parallel = new ParallelKlondikeSolver(type, 4);
+    int solved = 0;
+    for (long seed = 0; seed < 20; seed++) {
+      for (int numDraw = 1; numDraw <= 3; numDraw += 2) {
+        SearchableKlondike game = deal(type, smallDeck, seed, numDraw);
+        KlondikeState before = game.snapshot();
+        ParallelSolverResult result = parallel.solve(game);
+        Assert.assertEquals(before, game.snapshot());
+
+        Status expected = sequential.solve(game).getStatus();
+        Assert.assertEquals(expected, result.getResult().getStatus());
+        if (expected == Status.SOLVED) {
+          solved++;
+          for (int move : result.getResult().getSolution()) {
+            Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+          }
+          Assert.assertEquals(0, game.getPileHeight(0) + game.getPileHeight(1)
+              + game.getPileHeight(2));
+          Assert.assertTrue(game.getDrawCards().isEmpty());
+        } else {
+          //every node but the root is searched by a worker thread
+          Assert.assertEquals(result.getResult().getNodes(),
+              1 + sum(result.getThreadNodes()));
+        }
+        Assert.assertTrue(result.getSteals() <= result.getTasks());
+      }
+    }
+    Assert.assertTrue(solved > 0);
+  }
+
+  @Test
+  public void testBasicAgreesWithSequential() {
+    checkAgreesWithSequential(GameType.BASIC);
+  }
+
+  @Test
+  public void testWhiteheadAgreesWithSequential() {
+    checkAgreesWithSequential(GameType.WHITEHEAD);
+  }
+
+  @Test
+  public void testLimitedAgreesWithSequential() {
+    checkAgreesWithSequential(GameType.LIMITED);
+  }
+
+  @Test
+  public void testNodeLimit() {
+    SearchableKlondike game = KlondikeCreator.create(GameType.BASIC);
+    game.startGame(game.getDeck(), 0L, 7, 1);
+    ParallelSolverResult result = new ParallelKlondikeSolver(GameType.BASIC, 2)
+        .setNodeLimit(5000).solve(game);
+    Assert.assertEquals(Status.LIMIT_REACHED, result.getResult().getStatus());
+    Assert.assertTrue(result.getResult().getNodes() >= 5000);
+    Assert.assertEquals(0, result.getResult().getSolution().length);
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ParallelKlondikeSolver(null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ParallelKlondikeSolver(GameType.BASIC, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ParallelKlondikeSolver(GameType.BASIC).solve(null));
+  }
+
+  @Test
+  public void testTinyTableNeverCycles() {
+    //the table forgets the positions on the paths of the tasks almost at once, which must not
+    //send them around a cycle of moves back to the positions they started below
+    ParallelKlondikeSolver parallel = new ParallelKlondikeSolver(GameType.BASIC, 4)
+        .setTable(new ConcurrentTranspositionTable(4)).setNodeLimit(Long.MAX_VALUE);
+    KlondikeSolver sequential = new KlondikeSolver();
+    for (long seed = 0; seed < 10; seed++) {
+      SearchableKlondike game = deal(GameType.BASIC, smallDeck, seed, 1);
+      SolverResult result = parallel.solve(game).getResult();
+      Assert.assertEquals(sequential.solve(game).getStatus(), result.getStatus());
+      Assert.assertTrue(result.getMaxDepth() < 100);
+    }
+  }
+
+  @Test
+  public void testConcurrentTable() throws InterruptedException {
+    TranspositionTable table = new ConcurrentTranspositionTable(1 << 16);
+    Thread[] threads = new Thread[4];
+    int[] added = new int[threads.length];
+    for (int t = 0; t < threads.length; t++) {
+      int index = t;
+      threads[t] = new Thread(() -> {
+        for (long key = 1; key <= 10000; key++) {
+          if (table.add(key * 0x9E3779B97F4A7C15L, 0)) {
+            added[index]++;
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    //each position is added by exactly one thread
+    Assert.assertEquals(10000, added[0] + added[1] + added[2] + added[3]);
+    Assert.assertEquals(10000, table.size());
+    Assert.assertEquals((1 << 16) * Long.BYTES, table.memoryBytes());
+    table.clear();
+    Assert.assertEquals(0, table.size());
+  }
+
+  @Test
+  public void testOffHeapTable() throws InterruptedException {
+    OffHeapTranspositionTable table = new OffHeapTranspositionTable(1 << 22);
+    Thread[] threads = new Thread[4];
+    int[] added = new int[threads.length];
+    for (int t = 0; t < threads.length; t++) {
+      int index = t;
+      threads[t] = new Thread(() -> {
+        for (long key = 1; key <= 10000; key++) {
+          if (table.add(key * 0x9E3779B97F4A7C15L, 0)) {
+            added[index]++;
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(10000, added[0] + added[1] + added[2] + added[3]);
+    Assert.assertEquals(10000, table.size());
+    Assert.assertEquals(30000, table.getHits());
+
+    ParallelKlondikeSolver parallel = new ParallelKlondikeSolver(GameType.BASIC, 4)
+        .setTable(table);
+    KlondikeSolver sequential = new KlondikeSolver();
+    for (long seed = 0; seed < 10; seed++) {
+      SearchableKlondike game = deal(GameType.BASIC, smallDeck, seed, 1);
+      Assert.assertEquals(sequential.solve(game).getStatus(),
+          parallel.solve(game).getResult().getStatus());
+    }
+  }
+
+  @Test
+  public void testOffHeapFullBucket() throws InterruptedException {
+    OffHeapTranspositionTable table = new OffHeapTranspositionTable(64);
+    int rounds = 2000;
+    Thread[] threads = new Thread[4];
+    int[][] added = new int[threads.length][rounds];
+    CyclicBarrier barrier = new CyclicBarrier(threads.length);
+    for (int t = 0; t < threads.length; t++) {
+      int index = t;
+      threads[t] = new Thread(() -> {
+        //every thread adds the same position at once, into a bucket which is already full
+        for (int round = 0; round < rounds; round++) {
+          try {
+            barrier.await();
+          } catch (InterruptedException | BrokenBarrierException e) {
+            return;
+          }
+          if (table.add((round + 1) * 0x9E3779B97F4A7C15L, round % 7)) {
+            added[index][round]++;
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    //each position is stored once, by exactly one thread
+    for (int round = 0; round < rounds; round++) {
+      Assert.assertEquals(1, added[0][round] + added[1][round] + added[2][round]
+          + added[3][round]);
+    }
+    Assert.assertEquals(4, table.size());
+    Assert.assertEquals(rounds - 4, table.getCollisions());
+    Assert.assertEquals(rounds * (threads.length - 1), table.getHits());
+    Assert.assertFalse(table.add(rounds * 0x9E3779B97F4A7C15L, 0));
+  }
+}
@@ -0,0 +1,97 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.LimitedDrawKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests finding the smallest redraw budget of limited draw deals.
+ */
+public class TestRedrawBudgetSolver {
+  private RedrawBudgetSolver solver;
+  private List<Card> smallDeck;
+
+  @Before
+  public void init() {
+    solver = new RedrawBudgetSolver(3);
+    smallDeck = new DeckBuilder().setMax(4).addSuit("hearts").addSuit("clubs")
+        .addSuit("spades").getDeck();
+  }
+
+  @Test
+  public void testMinimumBudgetWins() {
+    KlondikeSolver limited = new KlondikeSolver(GameType.LIMITED);
+    int needRedraws = 0;
+    for (long seed = 0; seed < 30; seed++) {
+      RedrawBudget budget = solver.solve(smallDeck, seed, 3, 1);
+      Assert.assertEquals(seed, budget.getSeed());
+      Assert.assertNotEquals(Status.LIMIT_REACHED, budget.getStatus());
+      Assert.assertTrue(budget.isExact());
+      if (budget.getStatus() != Status.SOLVED) {
+        Assert.assertEquals(-1, budget.getMinRedraws());
+        Assert.assertEquals(0, budget.getSolution().length);
+        continue;
+      }
+      int min = budget.getMinRedraws();
+      needRedraws += min > 0 ? 1 : 0;
+
+      LimitedDrawKlondike game = new LimitedDrawKlondike(min);
+      game.startGame(smallDeck, seed, 3, 1);
+      for (int move : budget.getSolution()) {
+        Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+      }
+      Assert.assertEquals(smallDeck.size(), game.getScore());
+
+      if (min > 0) {
+        LimitedDrawKlondike fewer = new LimitedDrawKlondike(min - 1);
+        fewer.startGame(smallDeck, seed, 3, 1);
+        Assert.assertEquals(Status.UNSOLVABLE, limited.solve(fewer).getStatus());
+      }
+    }
+    Assert.assertTrue(needRedraws > 0);
+  }
+
+  @Test
+  public void testClassify() {
+    List<RedrawBudget> budgets = solver.classify(smallDeck, 10L, 8, 3, 1);
+    Assert.assertEquals(8, budgets.size());
+    for (int i = 0; i < budgets.size(); i++) {
+      RedrawBudget expected = solver.solve(smallDeck, 10L + i, 3, 1);
+      Assert.assertEquals(10L + i, budgets.get(i).getSeed());
+      Assert.assertEquals(expected.getStatus(), budgets.get(i).getStatus());
+      Assert.assertEquals(expected.getMinRedraws(), budgets.get(i).getMinRedraws());
+    }
+    int[] counts = solver.tally(budgets);
+    Assert.assertEquals(3 + 3, counts.length);
+    int total = 0;
+    for (int count : counts) {
+      total += count;
+    }
+    Assert.assertEquals(8, total);
+  }
+
+  @Test
+  public void testNodeLimit() {
+    RedrawBudget budget = new RedrawBudgetSolver(2).setNodeLimit(10)
+        .solve(new LimitedDrawKlondike(0).getDeck(), 0L, 7, 1);
+    Assert.assertEquals(Status.LIMIT_REACHED, budget.getStatus());
+    Assert.assertFalse(budget.isExact());
+    Assert.assertTrue(budget.getNodes() > 0 && budget.getNodes() <= 30);
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> new RedrawBudgetSolver(-1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> solver.classify(smallDeck, 0L, -1, 3, 1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> solver.solve(smallDeck, 0L, 10, 1));
+  }
+}
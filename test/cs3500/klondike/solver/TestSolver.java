@@ -0,0 +1,264 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.SearchableKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.time.Duration;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the klondike solver and its transposition table.
+ */
+public class TestSolver {
+  private KlondikeSolver solver;
+  private List<Card> smallDeck;
+
+  @Before
+  public void init() {
+    solver = new KlondikeSolver();
+    smallDeck = new DeckBuilder().setMax(4).addSuit("hearts").addSuit("clubs")
+        .addSuit("spades").getDeck();
+  }
+
+  private SearchableKlondike deal(List<Card> deck, long seed, int numPiles, int numDraw) {
+    SearchableKlondike game = new BasicKlondike();
+    game.startGame(deck, seed, numPiles, numDraw);
+    return game;
+  }
+
+  /**
+   * Play the solution on the given game and check that it wins.
+   */
+  private void checkSolution(SearchableKlondike game, SolverResult result) {
+    Assert.assertEquals(Status.SOLVED, result.getStatus());
+    for (int move : result.getSolution()) {
+      Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+    }
+    for (int i = 0; i < game.getNumPiles(); i++) {
+      Assert.assertEquals(0, game.getPileHeight(i));
+    }
+    Assert.assertTrue(game.getDrawCards().isEmpty());
+    Assert.assertTrue(game.isGameOver());
+  }
+
+  @Test
+  public void testSolvesDeal() {
+    SearchableKlondike game = deal(new BasicKlondike().getDeck(), 4L, 7, 1);
+    SolverResult result = solver.solve(game);
+    checkSolution(game, result);
+    Assert.assertEquals(52, game.getScore());
+    Assert.assertTrue(result.getNodes() > 0);
+    Assert.assertTrue(result.getMemoryBytes() >= result.getTableEntries() * Long.BYTES);
+    Assert.assertTrue(result.toString().startsWith("SOLVED in "));
+  }
+
+  @Test
+  public void testUnsolvableDeal() {
+    SolverResult result = solver.solve(deal(new BasicKlondike().getDeck(), 3L, 7, 1));
+    Assert.assertEquals(Status.UNSOLVABLE, result.getStatus());
+    Assert.assertEquals(0, result.getSolution().length);
+  }
+
+  @Test
+  public void testLimits() {
+    SearchableKlondike game = deal(new BasicKlondike().getDeck(), 0L, 7, 1);
+    SolverResult result = solver.setNodeLimit(100).solve(game);
+    Assert.assertEquals(Status.LIMIT_REACHED, result.getStatus());
+    Assert.assertEquals(100, result.getNodes());
+
+    result = new KlondikeSolver().setTimeLimit(Duration.ofMillis(50)).solve(game);
+    Assert.assertEquals(Status.LIMIT_REACHED, result.getStatus());
+    Assert.assertTrue(result.getElapsedNanos() < Duration.ofSeconds(5).toNanos());
+  }
+
+  @Test
+  public void testPositionUnchanged() {
+    SearchableKlondike game = deal(smallDeck, 1L, 4, 1);
+    KlondikeState before = game.snapshot();
+    solver.solve(game);
+    Assert.assertEquals(before, game.snapshot());
+    Assert.assertFalse(game.undo());
+  }
+
+  @Test
+  public void testSolvesMidGame() {
+    SearchableKlondike game = deal(new BasicKlondike().getDeck(), 4L, 7, 3);
+    SolverResult result = solver.solve(game);
+    int[] solution = result.getSolution();
+    for (int i = 0; i < solution.length / 2; i++) {
+      game.tryMove(solution[i]);
+    }
+    checkSolution(game, solver.solve(game));
+  }
+
+  @Test
+  public void testAutoMovesKeepWins() {
+    KlondikeSolver exhaustive = new KlondikeSolver().setAutoMoves(false);
+    int solved = 0;
+    for (long seed = 0; seed < 30; seed++) {
+      for (int numDraw = 1; numDraw <= 3; numDraw += 2) {
+        SearchableKlondike game = deal(smallDeck, seed, 3, numDraw);
+        SolverResult withAuto = solver.solve(game);
+        SolverResult without = exhaustive.solve(game);
+        Assert.assertNotEquals(Status.LIMIT_REACHED, withAuto.getStatus());
+        Assert.assertEquals(without.getStatus(), withAuto.getStatus());
+        if (withAuto.getStatus() == Status.SOLVED) {
+          solved++;
+          checkSolution(deal(smallDeck, seed, 3, numDraw), withAuto);
+          checkSolution(deal(smallDeck, seed, 3, numDraw), without);
+        }
+      }
+    }
+    Assert.assertTrue(solved > 0);
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> solver.solve(null));
+    Assert.assertThrows(IllegalStateException.class, () -> solver.solve(new BasicKlondike()));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new KlondikeSolver(null));
+    Assert.assertThrows(IllegalArgumentException.class, () -> solver.setNodeLimit(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> solver.setTimeLimit(null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> solver.setTimeLimit(Duration.ZERO));
+    Assert.assertThrows(IllegalArgumentException.class, () -> solver.setTable(null));
+  }
+
+  @Test
+  public void testTranspositionTable() {
+    TranspositionTable table = new HeapTranspositionTable(4);
+    Assert.assertTrue(table.add(0L, 0));
+    Assert.assertFalse(table.add(0L, 0));
+    Assert.assertTrue(table.add(-1L, 0));
+    Assert.assertEquals(2, table.size());
+    table.clear();
+    Assert.assertEquals(0, table.size());
+    Assert.assertTrue(table.add(0L, 0));
+
+    //a full table forgets old entries rather than growing past its limit
+    for (long key = 1; key <= 100; key++) {
+      table.add(key * 0x9E3779B97F4A7C15L, 0);
+    }
+    Assert.assertTrue(table.size() <= 4);
+    Assert.assertEquals(4 * Long.BYTES, table.memoryBytes());
+
+    TranspositionTable large = new HeapTranspositionTable(1 << 20);
+    for (long key = 1; key <= 10000; key++) {
+      Assert.assertTrue(large.add(key * 0x9E3779B97F4A7C15L, 0));
+    }
+    for (long key = 1; key <= 10000; key++) {
+      Assert.assertFalse(large.add(key * 0x9E3779B97F4A7C15L, 0));
+    }
+    Assert.assertEquals(10000, large.size());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new HeapTranspositionTable(0));
+  }
+
+  @Test
+  public void testTinyTableNeverCycles() {
+    //a table of four positions forgets the positions on the path of the search almost at
+    //once, which must not send the search around a cycle of moves back to them
+    KlondikeSolver tiny = new KlondikeSolver().setTable(new HeapTranspositionTable(4))
+        .setNodeLimit(Long.MAX_VALUE);
+    for (long seed = 0; seed < 10; seed++) {
+      SearchableKlondike game = deal(smallDeck, seed, 3, 1);
+      SolverResult result = tiny.solve(game);
+      Assert.assertEquals(solver.solve(game).getStatus(), result.getStatus());
+      Assert.assertTrue(result.getMaxDepth() < 100);
+    }
+  }
+
+  @Test
+  public void testPathSet() {
+    PathSet path = new PathSet();
+    //enough positions to grow the set several times
+    for (long key = 0; key < 200; key++) {
+      Assert.assertTrue(path.add(key << 50));
+      Assert.assertTrue(path.add(key * 0x9E3779B97F4A7C15L + 1));
+    }
+    Assert.assertFalse(path.add(0L));
+    //removing positions in the order a search backtracks keeps the others reachable
+    for (long key = 199; key >= 100; key--) {
+      path.remove(key * 0x9E3779B97F4A7C15L + 1);
+      path.remove(key << 50);
+    }
+    for (long key = 0; key < 200; key++) {
+      Assert.assertEquals(key < 100, path.contains(key << 50));
+      Assert.assertEquals(key < 100, path.contains(key * 0x9E3779B97F4A7C15L + 1));
+    }
+    path.clear();
+    Assert.assertFalse(path.contains(0L));
+    Assert.assertTrue(path.add(0L));
+  }
+
+  @Test
+  public void testOffHeapTable() {
+    OffHeapTranspositionTable table = new OffHeapTranspositionTable(1 << 22);
+    Assert.assertEquals(1 << 22, table.memoryBytes());
+    Assert.assertEquals((1 << 22) / 16, table.capacity());
+    for (long key = 0; key < 10000; key++) {
+      Assert.assertTrue(table.add(key * 0x9E3779B97F4A7C15L, 0));
+    }
+    for (long key = 0; key < 10000; key++) {
+      Assert.assertFalse(table.add(key * 0x9E3779B97F4A7C15L, 0));
+    }
+    Assert.assertEquals(10000, table.size());
+    Assert.assertEquals(10000, table.getHits());
+    Assert.assertEquals(10000, table.getMisses());
+    Assert.assertEquals(0, table.getCollisions());
+
+    //clearing starts a new age, after which nothing is found
+    table.clear();
+    Assert.assertEquals(0, table.size());
+    Assert.assertEquals(0, table.getHits());
+    Assert.assertTrue(table.add(0L, 0));
+    Assert.assertFalse(table.add(0L, 0));
+    Assert.assertEquals(1, table.size());
+  }
+
+  @Test
+  public void testOffHeapTableKeepsShallowPositions() {
+    //a single bucket of four entries
+    OffHeapTranspositionTable table = new OffHeapTranspositionTable(64);
+    Assert.assertEquals(4, table.capacity());
+    for (int depth = 0; depth < 4; depth++) {
+      Assert.assertTrue(table.add(depth + 1, depth));
+    }
+    //once full, the deepest position is replaced
+    Assert.assertTrue(table.add(100L, 1));
+    Assert.assertEquals(1, table.getCollisions());
+    Assert.assertEquals(4, table.size());
+    Assert.assertTrue(table.add(4L, 3));
+    Assert.assertFalse(table.add(1L, 0));
+    Assert.assertFalse(table.add(2L, 1));
+    Assert.assertFalse(table.add(100L, 1));
+
+    //entries from before a clear are replaced before any of the current age
+    table.clear();
+    for (long key = 10; key < 14; key++) {
+      Assert.assertTrue(table.add(key, 0));
+    }
+    Assert.assertEquals(0, table.getCollisions());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new OffHeapTranspositionTable(32));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new OffHeapTranspositionTable(1L << 31));
+  }
+
+  @Test
+  public void testSolvesWithOffHeapTable() {
+    OffHeapTranspositionTable table = new OffHeapTranspositionTable(1 << 24);
+    SearchableKlondike game = deal(new BasicKlondike().getDeck(), 4L, 7, 1);
+    SolverResult result = solver.setTable(table).solve(game);
+    checkSolution(game, result);
+    Assert.assertEquals(table.size(), result.getTableEntries());
+    Assert.assertTrue(table.getMisses() > 0);
+  }
+}
@@ -0,0 +1,117 @@
+package cs3500.klondike.solver;
+
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw02.MoveResult;
+import cs3500.klondike.model.hw04.KlondikeCreator.GameType;
+import cs3500.klondike.model.hw04.KlondikeState;
+import cs3500.klondike.model.hw04.WhiteheadKlondike;
+import cs3500.klondike.solver.SolverResult.Status;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the whitehead solver against the general solver.
+ */
+public class TestWhiteheadSolver {
+  private WhiteheadSolver solver;
+
+  @Before
+  public void init() {
+    solver = new WhiteheadSolver();
+  }
+
+  private WhiteheadKlondike deal(List<Card> deck, long seed, int numPiles, int numDraw) {
+    WhiteheadKlondike game = new WhiteheadKlondike();
+    game.startGame(deck, seed, numPiles, numDraw);
+    return game;
+  }
+
+  /**
+   * Play the solution on the given game and check that it wins.
+   */
+  private void checkSolution(WhiteheadKlondike game, SolverResult result) {
+    Assert.assertEquals(Status.SOLVED, result.getStatus());
+    for (int move : result.getSolution()) {
+      Assert.assertEquals(MoveResult.SUCCESS, game.tryMove(move));
+    }
+    for (int i = 0; i < game.getNumPiles(); i++) {
+      Assert.assertEquals(0, game.getPileHeight(i));
+    }
+    Assert.assertEquals(0, game.getDrawPileSize());
+  }
+
+  @Test
+  public void testSolvesFullDeals() {
+    for (long seed = 0; seed < 5; seed++) {
+      WhiteheadKlondike game = deal(new WhiteheadKlondike().getDeck(), seed, 7, 3);
+      KlondikeState before = game.snapshot();
+      SolverResult result = solver.solve(game);
+      Assert.assertEquals(before, game.snapshot());
+      checkSolution(game, result);
+      Assert.assertEquals(52, game.getScore());
+    }
+  }
+
+  @Test
+  public void testAgreesWithGeneralSolver() {
+    KlondikeSolver general = new KlondikeSolver(GameType.WHITEHEAD);
+    List<Card> smallDeck = new DeckBuilder().setMax(4).addSuit("hearts").addSuit("clubs")
+        .addSuit("diamonds").addSuit("spades").getDeck();
+    int solved = 0;
+    int unsolvable = 0;
+    for (long seed = 0; seed < 100; seed++) {
+      WhiteheadKlondike game = deal(smallDeck, seed, 4, 1);
+      SolverResult result = solver.solve(game);
+      Assert.assertEquals(general.solve(game).getStatus(), result.getStatus());
+      if (result.getStatus() == Status.SOLVED) {
+        solved++;
+        checkSolution(game, result);
+      } else {
+        unsolvable++;
+      }
+    }
+    Assert.assertTrue(solved > 0);
+    Assert.assertTrue(unsolvable > 0);
+  }
+
+  @Test
+  public void testTinyTableNeverCycles() {
+    //a table of four positions forgets the positions on the path of the search almost at
+    //once, which must not send the search around a cycle of moves back to them
+    WhiteheadSolver tiny = new WhiteheadSolver().setTable(new HeapTranspositionTable(4))
+        .setNodeLimit(Long.MAX_VALUE);
+    List<Card> smallDeck = new DeckBuilder().setMax(3).addSuit("hearts").addSuit("clubs")
+        .addSuit("diamonds").addSuit("spades").getDeck();
+    for (long seed = 0; seed < 10; seed++) {
+      WhiteheadKlondike game = deal(smallDeck, seed, 4, 1);
+      SolverResult result = tiny.solve(game);
+      Assert.assertEquals(solver.solve(game).getStatus(), result.getStatus());
+      Assert.assertTrue(result.getMaxDepth() < 100);
+    }
+  }
+
+  @Test
+  public void testSolvesMidGame() {
+    WhiteheadKlondike game = deal(new WhiteheadKlondike().getDeck(), 3L, 7, 1);
+    int[] solution = solver.solve(game).getSolution();
+    for (int i = 0; i < solution.length / 2; i++) {
+      game.tryMove(solution[i]);
+    }
+    checkSolution(game, solver.solve(game));
+  }
+
+  @Test
+  public void testLimits() {
+    WhiteheadKlondike game = deal(new WhiteheadKlondike().getDeck(), 2L, 7, 1);
+    SolverResult result = solver.setNodeLimit(50).solve(game);
+    Assert.assertEquals(Status.LIMIT_REACHED, result.getStatus());
+    Assert.assertEquals(50, result.getNodes());
+    Assert.assertThrows(IllegalArgumentException.class, () -> solver.solve(null));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> solver.solve(new WhiteheadKlondike()));
+    Assert.assertThrows(IllegalArgumentException.class, () -> solver.setNodeLimit(-1));
+  }
+}
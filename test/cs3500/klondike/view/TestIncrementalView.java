@@ -0,0 +1,92 @@
+package cs3500.klondike.view;
+
+import cs3500.klondike.model.hw02.BasicKlondike;
+import cs3500.klondike.model.hw02.Card;
+import cs3500.klondike.model.hw02.DeckBuilder;
+import cs3500.klondike.model.hw02.KlondikeModel;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests rendering only the lines of the board which changed.
+ */
+public class TestIncrementalView {
+  private static final String ESC = "\u001b[";
+
+  /**
+   * Returns what the view writes to draw the whole board of the given number of lines.
+   */
+  private static String redraw(String board, int lines) {
+    return ESC + "r" + ESC + "H" + ESC + "2J" + board + System.lineSeparator()
+        + ESC + (lines + 1) + ";r" + ESC + (lines + 1) + ";1H";
+  }
+
+  /**
+   * Returns what the view writes to rewrite the given line, counting from 1.
+   */
+  private static String line(int line, String text) {
+    return ESC + line + ";1H" + text + ESC + "K";
+  }
+
+  @Test
+  public void testRendersOnlyChanges() throws IOException {
+    KlondikeModel game = new BasicKlondike();
+    StringBuilder out = new StringBuilder();
+    IncrementalTextualView view = new IncrementalTextualView(game, out);
+    game.startGame(game.getDeck(), false, 4, 2);
+    view.render();
+    Assert.assertEquals(redraw(new KlondikeTextualView(game).toString(), 6), out.toString());
+    Assert.assertEquals(new KlondikeTextualView(game).toString(), view.toString());
+
+    //nothing changed, so nothing is written
+    out.setLength(0);
+    view.render();
+    Assert.assertEquals("", out.toString());
+
+    game.moveToFoundation(0, 0);
+    view.render();
+    Assert.assertEquals("\u001b7" + line(2, "Foundation: A♣, <none>, <none>, <none>")
+        + line(3, "  X  ?  ?  ?") + "\u001b8", out.toString());
+
+    out.setLength(0);
+    game.discardDraw();
+    view.render();
+    Assert.assertEquals("\u001b7" + line(1, "Draw: Q♣, K♣") + "\u001b8", out.toString());
+
+    out.setLength(0);
+    view.close();
+    Assert.assertEquals("\u001b7" + ESC + "r" + "\u001b8", out.toString());
+    view.close();
+    Assert.assertEquals("\u001b7" + ESC + "r" + "\u001b8", out.toString());
+  }
+
+  @Test
+  public void testRedrawsWhenRowsChange() throws IOException {
+    List<Card> deck = new DeckBuilder().setMax(3).addSuit("hearts").addSuit("clubs").getDeck();
+    //deal 2♣ alone in the first pile, and 3♡ on top of the second
+    Card twoOfClubs = deck.get(4);
+    deck.remove(twoOfClubs);
+    deck.add(0, twoOfClubs);
+    Collections.swap(deck, 2, 3);
+    KlondikeModel game = new BasicKlondike();
+    StringBuilder out = new StringBuilder();
+    IncrementalTextualView view = new IncrementalTextualView(game, out);
+    game.startGame(deck, false, 2, 1);
+    view.render();
+    out.setLength(0);
+    game.movePile(0, 1, 1);
+    view.render();
+    Assert.assertEquals(redraw(view.toString(), 5), out.toString());
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new IncrementalTextualView(null, new StringBuilder()));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new IncrementalTextualView(new BasicKlondike(), null));
+  }
+}
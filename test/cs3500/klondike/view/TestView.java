@@ -4,6 +4,7 @@ import cs3500.klondike.model.hw02.BasicKlondike;
 import cs3500.klondike.model.hw02.KlondikeModel;
 import cs3500.klondike.view.KlondikeTextualView;
 import cs3500.klondike.view.TextualView;
+import java.io.IOException;
 import org.junit.Test;
 import org.junit.Assert;
 
@@ -51,4 +52,28 @@ public class TestView {
     game.moveToFoundation(2,0);
     System.out.println(gameViewer);
   }
+
+  @Test
+  public void testRendering() throws IOException {
+    KlondikeModel game = new BasicKlondike();
+    StringBuilder out = new StringBuilder();
+    TextualView view = new KlondikeTextualView(game, out);
+    game.startGame(game.getDeck(), false, 4, 2);
+    game.moveToFoundation(0, 0);
+    String expected = "Draw: J♣, Q♣\n"
+        + "Foundation: A♣, <none>, <none>, <none>\n"
+        + "  X  ?  ?  ?\n"
+        + "    5♣  ?  ?\n"
+        + "       8♣  ?\n"
+        + "         10♣";
+    String first = view.toString();
+    Assert.assertEquals(expected, first);
+    view.render();
+    game.discardDraw();
+    view.render();
+    //the view reuses its buffer, which mustn't change what it has already returned
+    Assert.assertEquals(expected, first);
+    Assert.assertEquals(expected + System.lineSeparator()
+        + expected.replace("J♣, Q♣", "Q♣, K♣") + System.lineSeparator(), out.toString());
+  }
 }